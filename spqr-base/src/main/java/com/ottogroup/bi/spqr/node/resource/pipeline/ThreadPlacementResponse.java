@@ -0,0 +1,65 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.node.resource.pipeline;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRootName;
+import com.ottogroup.bi.spqr.pipeline.ComponentThreadPlacement;
+
+/**
+ * Lists the threads executing component runtime environments on the given processing node along with the cpus they are pinned to 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+@JsonRootName(value="threadPlacementResponse")
+public class ThreadPlacementResponse implements Serializable {
+
+	private static final long serialVersionUID = 6190359216446378219L;
+
+	@JsonProperty(value="node", required=true)
+	private String node = null;
+	@JsonProperty(value="placements", required=true)
+	private List<ComponentThreadPlacement> placements = new ArrayList<>();
+	
+	public ThreadPlacementResponse() {		
+	}
+	
+	public ThreadPlacementResponse(final String node, final List<ComponentThreadPlacement> placements) {
+		this.node = node;
+		this.placements = placements;
+	}
+
+	public String getNode() {
+		return node;
+	}
+
+	public void setNode(String node) {
+		this.node = node;
+	}
+
+	public List<ComponentThreadPlacement> getPlacements() {
+		return placements;
+	}
+
+	public void setPlacements(List<ComponentThreadPlacement> placements) {
+		this.placements = placements;
+	}
+	
+}
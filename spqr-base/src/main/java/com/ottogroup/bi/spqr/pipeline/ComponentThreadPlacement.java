@@ -0,0 +1,125 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRootName;
+
+/**
+ * Describes the thread executing a component runtime environment and the cpus it is pinned to 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+@JsonRootName(value="componentThreadPlacement")
+public class ComponentThreadPlacement implements Serializable {
+
+	private static final long serialVersionUID = -2718946431230961455L;
+
+	/** identifier of pipeline the component belongs to */
+	@JsonProperty(value="pipeline", required=true)
+	private String pipelineId = null;
+	/** component identifier */
+	@JsonProperty(value="component", required=true)
+	private String componentId = null;
+	/** name of thread executing the component runtime environment - empty for scheduled components */
+	@JsonProperty(value="thread", required=false)
+	private String threadName = null;
+	/** cpus requested by the component configuration */
+	@JsonProperty(value="requestedCpus", required=false)
+	private String requestedCpus = null;
+	/** cpus the thread is allowed to run on as reported by the operating system */
+	@JsonProperty(value="cpus", required=false)
+	private String cpus = null;
+	/** true if the thread is pinned to the requested cpus */
+	@JsonProperty(value="pinned", required=true)
+	private boolean pinned = false;
+	/** describes why the thread is not pinned */
+	@JsonProperty(value="note", required=false)
+	private String note = null;
+	
+	public ComponentThreadPlacement() {		
+	}
+	
+	public ComponentThreadPlacement(final String pipelineId, final String componentId, final String threadName, final String requestedCpus, 
+			final String cpus, final boolean pinned, final String note) {
+		this.pipelineId = pipelineId;
+		this.componentId = componentId;
+		this.threadName = threadName;
+		this.requestedCpus = requestedCpus;
+		this.cpus = cpus;
+		this.pinned = pinned;
+		this.note = note;
+	}
+
+	public String getPipelineId() {
+		return pipelineId;
+	}
+
+	public void setPipelineId(String pipelineId) {
+		this.pipelineId = pipelineId;
+	}
+
+	public String getComponentId() {
+		return componentId;
+	}
+
+	public void setComponentId(String componentId) {
+		this.componentId = componentId;
+	}
+
+	public String getThreadName() {
+		return threadName;
+	}
+
+	public void setThreadName(String threadName) {
+		this.threadName = threadName;
+	}
+
+	public String getRequestedCpus() {
+		return requestedCpus;
+	}
+
+	public void setRequestedCpus(String requestedCpus) {
+		this.requestedCpus = requestedCpus;
+	}
+
+	public String getCpus() {
+		return cpus;
+	}
+
+	public void setCpus(String cpus) {
+		this.cpus = cpus;
+	}
+
+	public boolean isPinned() {
+		return pinned;
+	}
+
+	public void setPinned(boolean pinned) {
+		this.pinned = pinned;
+	}
+
+	public String getNote() {
+		return note;
+	}
+
+	public void setNote(String note) {
+		this.note = note;
+	}
+	
+}
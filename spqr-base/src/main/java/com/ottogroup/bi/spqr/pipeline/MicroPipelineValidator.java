@@ -16,6 +16,7 @@
 package com.ottogroup.bi.spqr.pipeline;
 
 import java.util.HashSet;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -36,7 +37,8 @@ import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConfiguration;
  *   <li>each component configuration must show a valid type</li>
  *   <li>each component configuration must show a <i>name</i> and <i>version</i> which both reference existing artifacts</li>
  *   <li>each component must point to a valid <i>in-queue</i> - unless the component is of type {@link MicroPipelineComponentType#SOURCE}</li>
- *   <li>each component must point to a valid <i>out-queue</i> - unless the component is of type {@link MicroPipelineComponentType#EMITTER}</li>
+ *   <li>each component must point to a valid <i>out-queue</i> - unless the component is of type {@link MicroPipelineComponentType#EMITTER} or {@link MicroPipelineComponentType#ROUTER}</li>
+ *   <li>each component of type {@link MicroPipelineComponentType#ROUTER} must map its routes to valid <i>out-queues</i> - the <i>out-queue</i> receiving unmatched messages is optional</li>
  * </ul>
  * @author mnxfst
  * @since Apr 13, 2015
@@ -193,6 +195,30 @@ public class MicroPipelineValidator {
 			String destinationQueueId = StringUtils.lowerCase(StringUtils.trim(componentCfg.getToQueue()));
 			if(!queueIdentifiers.contains(destinationQueueId))
 				return MicroPipelineValidationResult.UNKNOWN_DESTINATION_QUEUE;
+		} else if(componentCfg.getType() == MicroPipelineComponentType.ROUTER) {
+
+			// routers must reference a source queue and at least one route destination queue
+			if(StringUtils.isBlank(componentCfg.getFromQueue()))
+				return MicroPipelineValidationResult.MISSING_SOURCE_QUEUE;
+			if(componentCfg.getToQueues() == null || componentCfg.getToQueues().isEmpty())
+				return MicroPipelineValidationResult.MISSING_DESTINATION_QUEUE;
+
+			// the identifier of the source queue must reference an existing queue
+			String sourceQueueId = StringUtils.lowerCase(StringUtils.trim(componentCfg.getFromQueue()));
+			if(!queueIdentifiers.contains(sourceQueueId))
+				return MicroPipelineValidationResult.UNKNOWN_SOURCE_QUEUE;
+
+			// each route must be named and reference an existing queue
+			for(final Entry<String, String> route : componentCfg.getToQueues().entrySet()) {
+				if(StringUtils.isBlank(route.getKey()) || StringUtils.isBlank(route.getValue()))
+					return MicroPipelineValidationResult.MISSING_DESTINATION_QUEUE;
+				if(!queueIdentifiers.contains(StringUtils.lowerCase(StringUtils.trim(route.getValue()))))
+					return MicroPipelineValidationResult.UNKNOWN_DESTINATION_QUEUE;
+			}
+			
+			// the destination queue receiving messages not matching any route is optional but must exist if referenced
+			if(StringUtils.isNotBlank(componentCfg.getToQueue()) && !queueIdentifiers.contains(StringUtils.lowerCase(StringUtils.trim(componentCfg.getToQueue()))))
+				return MicroPipelineValidationResult.UNKNOWN_DESTINATION_QUEUE;
 		} else if(componentCfg.getType() == MicroPipelineComponentType.EMITTER) {
 
 			// emitter component must reference a source queue only - destination queue references are not permitted
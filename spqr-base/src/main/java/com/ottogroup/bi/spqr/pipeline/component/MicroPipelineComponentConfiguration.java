@@ -16,6 +16,8 @@
 package com.ottogroup.bi.spqr.pipeline.component;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -52,12 +54,27 @@ public class MicroPipelineComponentConfiguration implements Serializable {
 	/** identifier of queues to produce content to */
 	@JsonProperty(value="toQueue", required=true)
 	private String toQueue = null;
+	/** route names mapped to identifiers of queues to produce content to - applies to routers only which use the toQueue for messages not matching any route */
+	@JsonProperty(value="toQueues", required=false)
+	private Map<String, String> toQueues = new HashMap<>();
 	/** attach message counter */
 	@JsonProperty(value="attachMessageCounter", required=false)
 	private boolean attachMessageCounter = false;
 	/** attach processing timer */
 	@JsonProperty(value="attachProcessingTimer", required=false)
 	private boolean attachProcessingTimer = false;
+	/** number of component instances processing messages in parallel - applies to direct response operators only */
+	@JsonProperty(value="parallelism", required=false)
+	private int parallelism = 1;
+	/** dot separated path to json attribute which is used for distributing messages among parallel instances, "@key" selects the key found in the message header - round robin if missing */
+	@JsonProperty(value="partitionKey", required=false)
+	private String partitionKey = null;
+	/** write responses of parallel instances in the order messages were received */
+	@JsonProperty(value="orderedMerge", required=false)
+	private boolean orderedMerge = false;
+	/** cpus the threads of the component runtime environment are pinned to, eg. "3", "2,3" or "4-7" - applies to linux hosts only */
+	@JsonProperty(value="cpuAffinity", required=false)
+	private String cpuAffinity = null;
 	
 	
 	public String getId() {
@@ -104,6 +121,12 @@ public class MicroPipelineComponentConfiguration implements Serializable {
 	public void setToQueue(String toQueue) {
 		this.toQueue = toQueue;
 	}
+	public Map<String, String> getToQueues() {
+		return toQueues;
+	}
+	public void setToQueues(Map<String, String> toQueues) {
+		this.toQueues = toQueues;
+	}
 	public boolean isAttachMessageCounter() {
 		return attachMessageCounter;
 	}
@@ -116,4 +139,28 @@ public class MicroPipelineComponentConfiguration implements Serializable {
 	public void setAttachProcessingTimer(boolean attachProcessingTimer) {
 		this.attachProcessingTimer = attachProcessingTimer;
 	}
+	public int getParallelism() {
+		return parallelism;
+	}
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	public String getPartitionKey() {
+		return partitionKey;
+	}
+	public void setPartitionKey(String partitionKey) {
+		this.partitionKey = partitionKey;
+	}
+	public boolean isOrderedMerge() {
+		return orderedMerge;
+	}
+	public void setOrderedMerge(boolean orderedMerge) {
+		this.orderedMerge = orderedMerge;
+	}
+	public String getCpuAffinity() {
+		return cpuAffinity;
+	}
+	public void setCpuAffinity(String cpuAffinity) {
+		this.cpuAffinity = cpuAffinity;
+	}
 }
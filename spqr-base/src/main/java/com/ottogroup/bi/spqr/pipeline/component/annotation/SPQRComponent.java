@@ -26,11 +26,12 @@ import java.lang.annotation.Target;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
 import com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter;
 import com.ottogroup.bi.spqr.pipeline.component.operator.Operator;
+import com.ottogroup.bi.spqr.pipeline.component.router.Router;
 import com.ottogroup.bi.spqr.pipeline.component.source.Source;
 
 
 /**
- * Used to mark an implementation to be an SPQR {@link MicroPipelineComponentType component} ({@link Source}, {@link Operator} or {@link Emitter})
+ * Used to mark an implementation to be an SPQR {@link MicroPipelineComponentType component} ({@link Source}, {@link Operator}, {@link Router} or {@link Emitter})
  * @author mnxfst
  * @since Oct 29, 2014
  *
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.emitter;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Optional extension to {@link Emitter} implemented by components which export data more efficiently in batches, 
+ * eg. by sending a single request per batch. The runtime environment collects up to {@link #CFG_BATCH_SIZE} messages 
+ * and waits at most {@link #CFG_BATCH_MAX_WAIT_MS} milliseconds for a batch to fill before handing it over via 
+ * {@link #onMessages(StreamingDataMessage[], int, EmitterCallback)}. {@link Emitter#onMessage(StreamingDataMessage)} is 
+ * not called by the runtime environment for batch emitters.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface BatchEmitter extends Emitter {
+
+	/** max. number of messages handed over at once - setting read from the component configuration */
+	public static final String CFG_BATCH_SIZE = "batch.size";
+	/** max. time in milliseconds to wait for a batch to fill up before handing it over - setting read from the component configuration */
+	public static final String CFG_BATCH_MAX_WAIT_MS = "batch.maxWaitMs";
+	/** default batch size */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+	/** default max. time to wait for a batch to fill up */
+	public static final long DEFAULT_BATCH_MAX_WAIT_MS = 10;
+
+	/**
+	 * Provides a batch of messages to the emitter. The messages are {@link StreamingDataMessage#detach() detached} from 
+	 * their source queue, but the array is reused by the runtime environment once the call returns: implementations 
+	 * must copy the references they need to keep. Asynchronous implementations may return before the messages are 
+	 * written but must report the outcome through the given callback in any case.
+	 * @param messages array holding the messages at positions 0 to numOfMessages-1
+	 * @param numOfMessages number of messages to emit
+	 * @param callback receives the outcome of the emit operation
+	 */
+	public void onMessages(final StreamingDataMessage[] messages, final int numOfMessages, final EmitterCallback callback);
+
+	/**
+	 * Writes all messages buffered by the emitter to its destination. Called by the runtime environment when
+	 * the source queue runs dry and before the emitter gets shut down
+	 */
+	public void flush();
+}
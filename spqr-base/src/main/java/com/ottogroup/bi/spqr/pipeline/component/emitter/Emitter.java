@@ -27,7 +27,8 @@ import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 public interface Emitter extends MicroPipelineComponent {
 
 	/**
-	 * Provides a new message to the operator
+	 * Provides a new message to the operator. The message may be a {@link StreamingDataMessage#isView() view}
+	 * which is valid for the duration of this call only - see {@link StreamingDataMessage#detach()}
 	 * @param message
 	 */
 	public boolean onMessage(final StreamingDataMessage message);
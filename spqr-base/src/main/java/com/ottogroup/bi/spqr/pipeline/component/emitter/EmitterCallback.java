@@ -0,0 +1,38 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.emitter;
+
+/**
+ * Receives the outcome of a {@link BatchEmitter#onMessages(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[], int, EmitterCallback) batch}
+ * emitted by a {@link BatchEmitter}. Asynchronous emitters may call it from any thread.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface EmitterCallback {
+
+	/**
+	 * Tells that the given number of messages has been written successfully
+	 * @param numOfMessages
+	 */
+	public void onCompletion(final int numOfMessages);
+
+	/**
+	 * Tells that writing the given number of messages failed
+	 * @param numOfMessages
+	 * @param cause
+	 */
+	public void onFailure(final int numOfMessages, final Throwable cause);
+}
@@ -34,7 +34,9 @@ public interface DelayedResponseOperator extends Operator {
 	public static final String CFG_WAIT_STRATEGY_SETTINGS_PREFIX = "waitStrategy.cfg.";
 	
 	/**
-	 * Provides a new message to the operator
+	 * Provides a new message to the operator. The message may be a {@link StreamingDataMessage#isView() view}
+	 * which is valid for the duration of this call only, thus {@link StreamingDataMessage#detach() detach} it before 
+	 * keeping a reference
 	 * @param message
 	 */
 	public void onMessage(final StreamingDataMessage message);
@@ -27,7 +27,8 @@ public interface DirectResponseOperator extends Operator {
 
 	/**
 	 * Receives a single message, processes its contents and responds with zero
-	 * or multiple {@link StreamingDataMessage} instances
+	 * or multiple {@link StreamingDataMessage} instances. The message may be a {@link StreamingDataMessage#isView() view}
+	 * which is valid for the duration of this call only - see {@link StreamingDataMessage#detach()}
 	 * @param message
 	 * @return
 	 */
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.router;
+
+import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Evaluates a set of predicates on each incoming {@link StreamingDataMessage message} and tells which of its named
+ * routes the message must be forwarded to. Each route is mapped to a destination queue by the 
+ * {@link com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentConfiguration#getToQueues() component configuration}, 
+ * thus a single router splits a stream into several ones while inspecting the message content only once.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface Router extends MicroPipelineComponent {
+
+	/** max. number of routes a router may provide - see {@link #route(StreamingDataMessage)} */
+	public static final int MAX_ROUTES = 64;
+	/** returned by {@link #route(StreamingDataMessage)} if the message matches none of the routes */
+	public static final long NO_ROUTE = 0L;
+
+	/**
+	 * Returns the names of all routes provided by this router. The position of a route inside the array
+	 * denotes its bit inside the value returned by {@link #route(StreamingDataMessage)}. Must not change 
+	 * after {@link #initialize(java.util.Properties) initialization}
+	 * @return
+	 */
+	public String[] getRoutes();
+
+	/**
+	 * Evaluates the given message and returns the routes it must be forwarded to as bit set: bit <i>n</i> is set
+	 * if the message matches the route found at position <i>n</i> of {@link #getRoutes()}. The message may be a 
+	 * {@link StreamingDataMessage#isView() view} which is valid for the duration of this call only
+	 * @param message
+	 * @return selected routes or {@link #NO_ROUTE}
+	 */
+	public long route(final StreamingDataMessage message);
+
+	/**
+	 * Returns the total number of messages evaluated by this component
+	 * @return
+	 */
+	public long getTotalNumOfMessages();
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.source;
+
+/**
+ * To be implemented by {@link Source sources} which are able to stop fetching data from their origin on request. The
+ * runtime environment pauses a source as soon as any queue downstream reaches its high watermark and resumes it
+ * when all of them dropped below their low watermarks. Messages handed over to the {@link IncomingMessageCallback} 
+ * while being paused are accepted but block the calling thread until the source gets resumed.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface PausableSource extends Source {
+
+	/**
+	 * Tells the source to stop fetching data until {@link #resume()} gets called
+	 */
+	public void pause();
+	
+	/**
+	 * Tells the source to continue fetching data
+	 */
+	public void resume();
+	
+}
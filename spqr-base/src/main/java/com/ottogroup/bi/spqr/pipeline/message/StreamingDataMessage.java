@@ -15,13 +15,21 @@
  */
 package com.ottogroup.bi.spqr.pipeline.message;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
 /**
- * Data structure used to transport data through a {@link MicroPipeline}
+ * Data structure used to transport data through a {@link MicroPipeline}. Besides owning its body, a message
+ * may serve as reusable <i>view</i> on a body living outside the heap (eg. inside a memory mapped queue file) which
+ * is only valid until the providing queue consumer is asked for the next message. Components reading a view
+ * may access the body through {@link #getBodyBuffer()} without copying it, components keeping a reference
+ * beyond the current invocation must call {@link #detach()}.
  * @author mnxfst
  * @since Mar 5, 2015
  */
@@ -38,6 +46,14 @@ public class StreamingDataMessage implements Serializable {
 	@JsonProperty ( value = "timestamp", required = true )
 	private long timestamp = 0;
 	
+	/** optional metadata, eg. key and partition - see {@link StreamingDataMessageHeader} */
+	@JsonProperty ( value = "header", required = false )
+	private StreamingDataMessageHeader header = null;
+	
+	/** view on message body - set only if the message does not own its body */
+	@JsonIgnore
+	private transient ByteBuffer bodyBuffer = null;
+	
 	/**
 	 * Default constructor
 	 */
@@ -54,12 +70,115 @@ public class StreamingDataMessage implements Serializable {
 		this.timestamp = timestamp;
 	}
 
+	/**
+	 * Initializes the message using the provided input
+	 * @param body
+	 * @param timestamp
+	 * @param header
+	 */
+	public StreamingDataMessage(final byte[] body, final long timestamp, final StreamingDataMessageHeader header) {
+		this.body = body;
+		this.timestamp = timestamp;
+		this.header = header;
+	}
+
+	/**
+	 * Re-initializes the message as view on the provided body buffer. The buffer content ranging from its
+	 * current position to its limit is treated as message body. Any previously assigned body and header are released.
+	 * @param bodyBuffer
+	 * @param timestamp
+	 * @return
+	 */
+	public StreamingDataMessage wrap(final ByteBuffer bodyBuffer, final long timestamp) {
+		return wrap(bodyBuffer, timestamp, null);
+	}
+	
+	/**
+	 * Re-initializes the message as view on the provided body buffer and assigns the given header. See {@link #wrap(ByteBuffer, long)}
+	 * for details
+	 * @param bodyBuffer
+	 * @param timestamp
+	 * @param header
+	 * @return
+	 */
+	public StreamingDataMessage wrap(final ByteBuffer bodyBuffer, final long timestamp, final StreamingDataMessageHeader header) {
+		this.bodyBuffer = bodyBuffer;
+		this.body = null;
+		this.timestamp = timestamp;
+		this.header = header;
+		return this;
+	}
+	
+	/**
+	 * Returns true if the message does not own its body but serves as view on a body living outside
+	 * this instance. See {@link #detach()} on how to get an independent instance
+	 * @return
+	 */
+	@JsonIgnore
+	public boolean isView() {
+		return this.bodyBuffer != null;
+	}
+	
+	/**
+	 * Returns true if the message carries a body - either owned or viewed
+	 * @return
+	 */
+	@JsonIgnore
+	public boolean hasBody() {
+		return this.body != null || this.bodyBuffer != null;
+	}
+	
+	/**
+	 * Returns the message body as {@link ByteBuffer} ranging from its position to its limit. If the message
+	 * is a {@link #isView() view} the buffer is returned as is, thus neither modify nor keep it. Otherwise the
+	 * owned body gets wrapped.
+	 * @return
+	 */
+	@JsonIgnore
+	public ByteBuffer getBodyBuffer() {
+		if(this.bodyBuffer != null)
+			return this.bodyBuffer;
+		return (this.body != null ? ByteBuffer.wrap(this.body) : null);
+	}
+	
+	/**
+	 * Returns the number of body bytes
+	 * @return
+	 */
+	@JsonIgnore
+	public int getBodyLength() {
+		if(this.body != null)
+			return this.body.length;
+		return (this.bodyBuffer != null ? this.bodyBuffer.remaining() : 0);
+	}
+	
+	/**
+	 * Returns an instance which owns its body and may thus be kept beyond the validity of a {@link #isView() view}. If
+	 * the message already owns its body, the instance itself is returned, otherwise the viewed body is copied into
+	 * a new instance.
+	 * @return
+	 */
+	public StreamingDataMessage detach() {
+		if(this.bodyBuffer == null)
+			return this;
+		return new StreamingDataMessage(copyBodyBuffer(), this.timestamp, this.header);
+	}
+	
+	/**
+	 * Returns the message body. If the message is a {@link #isView() view}, the viewed body is copied 
+	 * on first access which is valid until the view gets re-initialized. Use {@link #getBodyBuffer()} to avoid 
+	 * the copy.
+	 * @return
+	 */
 	public byte[] getBody() {
+		if(this.body == null && this.bodyBuffer != null)
+			this.body = copyBodyBuffer();
 		return body;
 	}
 
 	public void setBody(byte[] body) {
 		this.body = body;
+		this.bodyBuffer = null;
 	}
 
 	public long getTimestamp() {
@@ -69,4 +188,43 @@ public class StreamingDataMessage implements Serializable {
 	public void setTimestamp(long timestamp) {
 		this.timestamp = timestamp;
 	}
+	
+	/**
+	 * Returns true if the message carries a {@link StreamingDataMessageHeader}
+	 * @return
+	 */
+	@JsonIgnore
+	public boolean hasHeader() {
+		return this.header != null;
+	}
+
+	public StreamingDataMessageHeader getHeader() {
+		return header;
+	}
+
+	public void setHeader(StreamingDataMessageHeader header) {
+		this.header = header;
+	}
+	
+	/**
+	 * Copies the content of the {@link #bodyBuffer} into a new array without modifying the buffer
+	 * @return
+	 */
+	private byte[] copyBodyBuffer() {
+		final int position = this.bodyBuffer.position();
+		final byte[] copy = new byte[this.bodyBuffer.remaining()];
+		this.bodyBuffer.get(copy);
+		this.bodyBuffer.position(position);
+		return copy;
+	}
+	
+	/**
+	 * Ensures that views are serialized including their body
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		getBody();
+		out.defaultWriteObject();
+	}
 }
@@ -0,0 +1,302 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.message;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Compact metadata section attached to a {@link StreamingDataMessage}. It carries the message key, the partition and offset
+ * the message was read from, a trace identifier and a small set of string attributes. Components may route, partition or 
+ * key messages by inspecting the header without decoding the body.<br/><br/>
+ * Queues persisting messages write the header through {@link #writeTo(DataOutput)} which only encodes fields that have been set:
+ * <ul>
+ *   <li>format version (byte) and flags telling which fields follow (byte)</li>
+ *   <li>key: length (int) and bytes</li>
+ *   <li>partition (int)</li>
+ *   <li>source offset (long)</li>
+ *   <li>trace identifier: length (short) and UTF-8 bytes</li>
+ *   <li>attributes: number of entries (short) followed by name and value, each encoded like the trace identifier</li>
+ * </ul>
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingDataMessageHeader implements Serializable {
+
+	private static final long serialVersionUID = -3498727362245366251L;
+
+	/** value of {@link #getPartition()} if no partition has been assigned */
+	public static final int NO_PARTITION = -1;
+	/** value of {@link #getSourceOffset()} if no offset has been assigned */
+	public static final long NO_OFFSET = -1;
+	/** max. number of attributes as well as max. number of encoded bytes per string value */
+	public static final int MAX_SHORT_LENGTH = 0xFFFF;
+
+	/////////////////////////////////////////////////////////////////////
+	// serialization format
+	private static final byte FORMAT_VERSION = 1;
+	private static final int FLAG_KEY = 1;
+	private static final int FLAG_PARTITION = 2;
+	private static final int FLAG_SOURCE_OFFSET = 4;
+	private static final int FLAG_TRACE_ID = 8;
+	private static final int FLAG_ATTRIBUTES = 16;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	/////////////////////////////////////////////////////////////////////
+	
+	/** message key, eg. the kafka message key */
+	@JsonProperty ( value = "key", required = false )
+	private byte[] key = null;
+	
+	/** partition the message was read from */
+	@JsonProperty ( value = "partition", required = false )
+	private int partition = NO_PARTITION;
+	
+	/** offset of the message inside its source partition */
+	@JsonProperty ( value = "sourceOffset", required = false )
+	private long sourceOffset = NO_OFFSET;
+	
+	/** identifier used for tracing the message across systems */
+	@JsonProperty ( value = "traceId", required = false )
+	private String traceId = null;
+	
+	/** additional attributes - created on first assignment */
+	@JsonProperty ( value = "attributes", required = false )
+	private Map<String, String> attributes = null;
+	
+	/**
+	 * Default constructor
+	 */
+	public StreamingDataMessageHeader() {		
+	}
+	
+	/**
+	 * Initializes the header using the provided input
+	 * @param key
+	 * @param partition
+	 * @param sourceOffset
+	 */
+	public StreamingDataMessageHeader(final byte[] key, final int partition, final long sourceOffset) {
+		this.key = key;
+		this.partition = partition;
+		this.sourceOffset = sourceOffset;
+	}
+	
+	/**
+	 * Returns the value of the referenced attribute or null if it does not exist
+	 * @param name
+	 * @return
+	 */
+	public String getAttribute(final String name) {
+		return (this.attributes != null ? this.attributes.get(name) : null);
+	}
+	
+	/**
+	 * Assigns the given attribute value. Providing null removes the attribute
+	 * @param name
+	 * @param value
+	 * @return
+	 */
+	public StreamingDataMessageHeader setAttribute(final String name, final String value) {
+		if(name == null)
+			throw new IllegalArgumentException("Missing required attribute name");
+		if(value == null) {
+			if(this.attributes != null)
+				this.attributes.remove(name);
+			return this;
+		}
+		if(this.attributes == null)
+			this.attributes = new HashMap<>();
+		this.attributes.put(name, value);
+		return this;
+	}
+	
+	/**
+	 * Writes the header to the given output. See class description for details on the format. All values are validated
+	 * before writing, thus nothing has been written if the method fails
+	 * @param out
+	 * @throws IOException thrown in case a value exceeds the limits of the format
+	 */
+	public void writeTo(final DataOutput out) throws IOException {
+		int flags = 0;
+		if(this.key != null)
+			flags |= FLAG_KEY;
+		if(this.partition != NO_PARTITION)
+			flags |= FLAG_PARTITION;
+		if(this.sourceOffset != NO_OFFSET)
+			flags |= FLAG_SOURCE_OFFSET;
+		if(this.traceId != null)
+			flags |= FLAG_TRACE_ID;
+		if(this.attributes != null && !this.attributes.isEmpty())
+			flags |= FLAG_ATTRIBUTES;
+		
+		final byte[] encodedTraceId = ((flags & FLAG_TRACE_ID) != 0 ? encode(this.traceId) : null);
+		byte[][] encodedAttributes = null;
+		if((flags & FLAG_ATTRIBUTES) != 0) {
+			if(this.attributes.size() > MAX_SHORT_LENGTH)
+				throw new IOException("Number of attributes exceeds max. of " + MAX_SHORT_LENGTH);
+			encodedAttributes = new byte[this.attributes.size() * 2][];
+			int i = 0;
+			for(final Map.Entry<String, String> attribute : this.attributes.entrySet()) {
+				encodedAttributes[i++] = encode(attribute.getKey());
+				encodedAttributes[i++] = encode(attribute.getValue());
+			}
+		}
+		
+		out.writeByte(FORMAT_VERSION);
+		out.writeByte(flags);
+		if((flags & FLAG_KEY) != 0) {
+			out.writeInt(this.key.length);
+			out.write(this.key);
+		}
+		if((flags & FLAG_PARTITION) != 0)
+			out.writeInt(this.partition);
+		if((flags & FLAG_SOURCE_OFFSET) != 0)
+			out.writeLong(this.sourceOffset);
+		if(encodedTraceId != null)
+			writeString(out, encodedTraceId);
+		if(encodedAttributes != null) {
+			out.writeShort(encodedAttributes.length / 2);
+			for(int i = 0; i < encodedAttributes.length; i++)
+				writeString(out, encodedAttributes[i]);
+		}
+	}
+	
+	/**
+	 * Reads a header previously written by {@link #writeTo(DataOutput)} from the given input 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static StreamingDataMessageHeader readFrom(final DataInput in) throws IOException {
+		final byte version = in.readByte();
+		if(version != FORMAT_VERSION)
+			throw new IOException("Unsupported header format version: " + version);
+		final int flags = in.readByte();
+		
+		final StreamingDataMessageHeader header = new StreamingDataMessageHeader();
+		if((flags & FLAG_KEY) != 0) {
+			header.key = new byte[in.readInt()];
+			in.readFully(header.key);
+		}
+		if((flags & FLAG_PARTITION) != 0)
+			header.partition = in.readInt();
+		if((flags & FLAG_SOURCE_OFFSET) != 0)
+			header.sourceOffset = in.readLong();
+		if((flags & FLAG_TRACE_ID) != 0)
+			header.traceId = readString(in);
+		if((flags & FLAG_ATTRIBUTES) != 0) {
+			final int numOfAttributes = in.readUnsignedShort();
+			header.attributes = new HashMap<>(numOfAttributes * 2);
+			for(int i = 0; i < numOfAttributes; i++)
+				header.attributes.put(readString(in), readString(in));
+		}
+		return header;
+	}
+	
+	/**
+	 * Returns the UTF-8 bytes of the given string
+	 * @param value
+	 * @return
+	 * @throws IOException thrown in case the encoded string exceeds {@link #MAX_SHORT_LENGTH}
+	 */
+	private static byte[] encode(final String value) throws IOException {
+		final byte[] bytes = (value != null ? value : "").getBytes(UTF8);
+		if(bytes.length > MAX_SHORT_LENGTH)
+			throw new IOException("Encoded string exceeds max. length of " + MAX_SHORT_LENGTH + " bytes");
+		return bytes;
+	}
+	
+	/**
+	 * Writes the given encoded string as length (short) followed by its bytes
+	 * @param out
+	 * @param bytes
+	 * @throws IOException
+	 */
+	private static void writeString(final DataOutput out, final byte[] bytes) throws IOException {
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * Reads a string written by {@link #writeString(DataOutput, byte[])}
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	private static String readString(final DataInput in) throws IOException {
+		final byte[] bytes = new byte[in.readUnsignedShort()];
+		in.readFully(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/**
+	 * Returns true if a partition has been assigned
+	 * @return
+	 */
+	@JsonIgnore
+	public boolean hasPartition() {
+		return this.partition != NO_PARTITION;
+	}
+	
+	public byte[] getKey() {
+		return key;
+	}
+
+	public void setKey(byte[] key) {
+		this.key = key;
+	}
+
+	public int getPartition() {
+		return partition;
+	}
+
+	public void setPartition(int partition) {
+		this.partition = partition;
+	}
+
+	public long getSourceOffset() {
+		return sourceOffset;
+	}
+
+	public void setSourceOffset(long sourceOffset) {
+		this.sourceOffset = sourceOffset;
+	}
+
+	public String getTraceId() {
+		return traceId;
+	}
+
+	public void setTraceId(String traceId) {
+		this.traceId = traceId;
+	}
+
+	public Map<String, String> getAttributes() {
+		return attributes;
+	}
+
+	public void setAttributes(Map<String, String> attributes) {
+		this.attributes = attributes;
+	}
+	
+}
@@ -29,7 +29,7 @@ import java.util.concurrent.locks.ReentrantLock;
  * @author mnxfst
  * @since Apr 20, 2015
  */
-public class BlockingWaitStrategy implements MessageWaitStrategy<byte[]> {
+public class BlockingWaitStrategy<E> implements MessageWaitStrategy<E> {
 	
 	private final Lock lock = new ReentrantLock();
 	private final Condition condition = lock.newCondition();
@@ -37,9 +37,9 @@ public class BlockingWaitStrategy implements MessageWaitStrategy<byte[]> {
 	/**
 	 * @see uk.co.real_logic.queues.MessageWaitStrategy#waitFor(java.util.Queue)
 	 */
-	public byte[] waitFor(Queue<byte[]> queue) throws InterruptedException {
+	public E waitFor(Queue<E> queue) throws InterruptedException {
 		
-		byte[] message = null;
+		E message = null;
 		
 		if((message = queue.poll()) == null) {
 			
@@ -64,8 +64,8 @@ public class BlockingWaitStrategy implements MessageWaitStrategy<byte[]> {
 	/**
 	 * @see com.ottogroup.bi.spqr.websocket.strategy.MessageWaitStrategy#waitFor(Queue, long, TimeUnit)}
 	 */
-	public byte[] waitFor(Queue<byte[]> queue, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
-		byte[] message = null;
+	public E waitFor(Queue<E> queue, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
+		E message = null;
 		
 		if((message = queue.poll()) == null) {
 			
@@ -31,7 +31,7 @@ public interface MessageWaitStrategy <E> {
 	 * @return
 	 * @throws InterruptedException
 	 */
-	public byte[] waitFor(final Queue<E> queue) throws InterruptedException;
+	public E waitFor(final Queue<E> queue) throws InterruptedException;
 	
 	/**
 	 * Wait for next element from referenced {@link Queue}. If the timeout is 
@@ -42,7 +42,7 @@ public interface MessageWaitStrategy <E> {
 	 * @return
 	 * @throws InterruptedException
 	 */
-	public byte[] waitFor(final Queue<E> queue, final long timeout, final TimeUnit timeoutUnit) throws InterruptedException;
+	public E waitFor(final Queue<E> queue, final long timeout, final TimeUnit timeoutUnit) throws InterruptedException;
 	
 	/**
 	 * Forces release of existing locks
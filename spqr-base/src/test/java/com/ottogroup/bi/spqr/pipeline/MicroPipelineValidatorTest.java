@@ -646,6 +646,96 @@ public class MicroPipelineValidatorTest {
 				new MicroPipelineValidator().validateComponent(cfg, queues, components));
 	}
 	
+	/**
+	 * Test case for {@link MicroPipelineValidator#validateComponent(MicroPipelineComponentConfiguration, java.util.Set, java.util.Set)} being
+	 * provided a configuration showing a router without any route destination queue 
+	 */
+	@Test
+	public void testValidateComponent_withRouterMissingRouteQueueRefs() {
+		
+		Set<String> queues = new HashSet<>();
+		queues.add("test-input");
+		queues.add("test-output");
+		
+		Set<String> components = new HashSet<String>();
+		
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.setFromQueue("test-input");
+		cfg.setId("test-component");
+		cfg.setName("test-name");
+		cfg.setSettings(new Properties());
+		cfg.setToQueue("test-output");
+		cfg.setType(MicroPipelineComponentType.ROUTER);
+		cfg.setVersion("test-version");
+		
+		Assert.assertEquals("Missing route destination queues", MicroPipelineValidationResult.MISSING_DESTINATION_QUEUE,  
+				new MicroPipelineValidator().validateComponent(cfg, queues, components));
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineValidator#validateComponent(MicroPipelineComponentConfiguration, java.util.Set, java.util.Set)} being
+	 * provided a configuration showing a router referencing an unknown route destination queue 
+	 */
+	@Test
+	public void testValidateComponent_withRouterUnknownRouteQueueRef() {
+		
+		Set<String> queues = new HashSet<>();
+		queues.add("test-input");
+		queues.add("test-output");
+		
+		Set<String> components = new HashSet<String>();
+		
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.setFromQueue("test-input");
+		cfg.setId("test-component");
+		cfg.setName("test-name");
+		cfg.setSettings(new Properties());
+		cfg.getToQueues().put("route-1", "test-output");
+		cfg.getToQueues().put("route-2", "unknown-output");
+		cfg.setType(MicroPipelineComponentType.ROUTER);
+		cfg.setVersion("test-version");
+		
+		Assert.assertEquals("Unknown route destination queue", MicroPipelineValidationResult.UNKNOWN_DESTINATION_QUEUE,  
+				new MicroPipelineValidator().validateComponent(cfg, queues, components));
+		
+		cfg.getToQueues().remove("route-2");
+		cfg.setToQueue("unknown-output");
+		Assert.assertEquals("Unknown destination queue", MicroPipelineValidationResult.UNKNOWN_DESTINATION_QUEUE,  
+				new MicroPipelineValidator().validateComponent(cfg, queues, components));
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineValidator#validateComponent(MicroPipelineComponentConfiguration, java.util.Set, java.util.Set)} being
+	 * provided a configuration showing a valid router 
+	 */
+	@Test
+	public void testValidateComponent_withValidRouter() {
+		
+		Set<String> queues = new HashSet<>();
+		queues.add("test-input");
+		queues.add("test-output-1");
+		queues.add("test-output-2");
+		
+		Set<String> components = new HashSet<String>();
+		
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.setFromQueue("test-input");
+		cfg.setId("test-component");
+		cfg.setName("test-name");
+		cfg.setSettings(new Properties());
+		cfg.getToQueues().put("route-1", "test-output-1");
+		cfg.getToQueues().put("route-2", "Test-Output-2 ");
+		cfg.setType(MicroPipelineComponentType.ROUTER);
+		cfg.setVersion("test-version");
+		
+		Assert.assertEquals("Valid router", MicroPipelineValidationResult.OK,  
+				new MicroPipelineValidator().validateComponent(cfg, queues, components));
+		
+		cfg.setToQueue("test-output-1");
+		Assert.assertEquals("Valid router", MicroPipelineValidationResult.OK,  
+				new MicroPipelineValidator().validateComponent(cfg, queues, components));
+	}
+	
 	// end: test cases for validateComponent
 	//////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 	
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.UUID;
+
+import com.ottogroup.bi.spqr.exception.QueueInitializationFailedException;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.MicroPipelineFactory;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConfiguration;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+
+/**
+ * Provides {@link StreamingMessageQueue} instances to benchmarks. Queues are initialized the same way
+ * the {@link MicroPipelineFactory} does it for production pipelines, thus every type known to the factory
+ * may be benchmarked by its <code>type</code> setting
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class BenchmarkQueueFactory extends MicroPipelineFactory {
+
+	/** type value which selects the {@link DefaultStreamingMessageQueue} as the factory falls back to it for unknown types */
+	public static final String QUEUE_TYPE_CHRONICLE = "chronicle";
+	
+	/** folder holding the files of all chronicle based queues created by this factory */
+	private final File chronicleBasePath;
+	
+	public BenchmarkQueueFactory() throws IOException {
+		super("benchmark", null);
+		this.chronicleBasePath = Files.createTempDirectory("spqr-benchmark").toFile();
+		this.chronicleBasePath.deleteOnExit();
+	}
+	
+	/**
+	 * Initializes a new {@link StreamingMessageQueue} of the given type. The queue receives a unique 
+	 * identifier to keep chronicle files of subsequent benchmark runs apart
+	 * @param type queue type, eg. <code>memory</code> or <code>chronicle</code>
+	 * @param waitStrategy name of wait strategy to apply
+	 * @param properties additional queue settings (optional)
+	 * @return
+	 * @throws RequiredInputMissingException
+	 * @throws QueueInitializationFailedException
+	 */
+	public StreamingMessageQueue newQueue(final String type, final String waitStrategy, final Properties properties) throws RequiredInputMissingException, QueueInitializationFailedException {
+		StreamingMessageQueueConfiguration cfg = new StreamingMessageQueueConfiguration("benchmark-" + UUID.randomUUID().toString());
+		Properties queueProperties = new Properties();
+		queueProperties.setProperty(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, this.chronicleBasePath.getAbsolutePath());
+		if(properties != null)
+			queueProperties.putAll(properties);
+		queueProperties.setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, type);
+		queueProperties.setProperty(DefaultStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, waitStrategy);
+		cfg.setProperties(queueProperties);
+		return initializeQueue(cfg);
+	}
+	
+	/**
+	 * Shuts down the given queue and removes all files written by chronicle based queues. Chronicle 
+	 * queues do not remove their files on shutdown, thus benchmarks would quickly fill the disk otherwise 
+	 * @param queue
+	 */
+	public void release(final StreamingMessageQueue queue) {
+		if(queue != null)
+			queue.shutdown();
+		deleteChronicleFiles();
+	}
+	
+	/**
+	 * Removes all files written by chronicle based queues below {@link #getChronicleBasePath()}
+	 */
+	public void deleteChronicleFiles() {
+		deleteFiles(this.chronicleBasePath, false);
+	}
+	
+	/**
+	 * Recursively removes the given file or folder 
+	 * @param file
+	 * @param deleteSelf remove the provided folder as well
+	 */
+	protected static void deleteFiles(final File file, final boolean deleteSelf) {
+		File[] children = file.listFiles();
+		if(children != null) {
+			for(File child : children)
+				deleteFiles(child, true);
+		}
+		if(deleteSelf)
+			file.delete();
+	}
+	
+	/**
+	 * Returns the folder holding the files of all chronicle based queues created by this factory. It
+	 * may be applied to queues created by other factories as well to get them removed via {@link #deleteChronicleFiles()}  
+	 * @return
+	 */
+	public String getChronicleBasePath() {
+		return this.chronicleBasePath.getAbsolutePath();
+	}
+	
+	/**
+	 * Returns a {@link StreamingDataMessage} carrying a body of the given size 
+	 * @param bodySize
+	 * @return
+	 */
+	public static StreamingDataMessage newMessage(final int bodySize) {
+		byte[] body = new byte[bodySize];
+		for(int i = 0; i < bodySize; i++)
+			body[i] = (byte)('a' + (i % 26));
+		return new StreamingDataMessage(body, System.currentTimeMillis());
+	}
+	
+}
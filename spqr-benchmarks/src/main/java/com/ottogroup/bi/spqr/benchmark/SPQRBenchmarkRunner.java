@@ -0,0 +1,61 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the <code>benchmarks.jar</code>. It accepts all options known to the JMH command-line
+ * runner (eg. <code>java -jar target/benchmarks.jar QueueBenchmark -p bodySize=1024</code>) but writes the
+ * results as JSON to <code>spqr-benchmarks.json</code> unless a different format (<code>-rf</code>) or
+ * result file (<code>-rff</code>) is requested. Keeping the JSON files of each release allows to compare
+ * them before upgrading production nodes. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class SPQRBenchmarkRunner {
+
+	/** name of file results are written to if no other is provided */
+	public static final String DEFAULT_RESULT_FILE = "spqr-benchmarks.json";
+	
+	/**
+	 * Executes the selected benchmarks
+	 * @param args
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if(commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+			// let the default runner handle all informational requests
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+		if(!commandLineOptions.getResultFormat().hasValue())
+			options.resultFormat(ResultFormatType.JSON);
+		if(!commandLineOptions.getResult().hasValue())
+			options.result(DEFAULT_RESULT_FILE);
+		
+		new Runner(options.build()).run();
+	}
+	
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark.pipeline;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.MicroPipelineFactory;
+import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent;
+import com.ottogroup.bi.spqr.repository.ComponentRepository;
+import com.ottogroup.bi.spqr.repository.exception.ComponentInstantiationFailedException;
+import com.ottogroup.bi.spqr.repository.exception.UnknownComponentException;
+
+/**
+ * Hands out pre-registered {@link MicroPipelineComponent} instances to the {@link MicroPipelineFactory} instead of 
+ * loading them from component folders. Benchmarks keep a reference to the registered instances, eg. to trigger 
+ * sources or to read counters from emitters. Versions are ignored. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class BenchmarkComponentRepository extends ComponentRepository {
+
+	/** registered component instances referenced by their name */
+	private final Map<String, MicroPipelineComponent> components = new HashMap<>();
+	
+	/**
+	 * Registers the component instance which is returned when requesting the given name
+	 * @param name
+	 * @param component
+	 */
+	public void register(final String name, final MicroPipelineComponent component) {
+		this.components.put(StringUtils.lowerCase(StringUtils.trim(name)), component);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.repository.ComponentRepository#newInstance(java.lang.String, java.lang.String, java.lang.String, java.util.Properties)
+	 */
+	public MicroPipelineComponent newInstance(String id, String name, String version, Properties properties) 
+			throws RequiredInputMissingException, ComponentInstantiationFailedException, UnknownComponentException {
+		
+		MicroPipelineComponent component = this.components.get(StringUtils.lowerCase(StringUtils.trim(name)));
+		if(component == null)
+			throw new UnknownComponentException("Unknown component [name="+name+", version="+version+"]");
+		
+		try {
+			component.setId(id);
+			component.initialize(properties);
+		} catch (ComponentInitializationFailedException e) {
+			throw new ComponentInstantiationFailedException("Failed to instantiate component [name="+name+", version="+version+", reason="+e.getMessage());
+		}
+		return component;
+	}
+	
+}
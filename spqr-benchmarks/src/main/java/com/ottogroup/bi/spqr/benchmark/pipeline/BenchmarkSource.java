@@ -0,0 +1,123 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark.pipeline;
+
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.ottogroup.bi.spqr.benchmark.BenchmarkQueueFactory;
+import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
+import com.ottogroup.bi.spqr.pipeline.component.source.IncomingMessageCallback;
+import com.ottogroup.bi.spqr.pipeline.component.source.Source;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Generates messages of a configured body size on request. Contrary to the <code>RandomNumberTestSource</code> 
+ * it does not run until a fixed number of messages is reached but emits the number of messages requested 
+ * via {@link #emit(int)}, thus the same pipeline instance serves any number of benchmark invocations
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class BenchmarkSource implements Source {
+
+	public static final String CFG_BODY_SIZE = "bodySize";
+	
+	private String id = null;
+	private volatile boolean running = false;
+	private IncomingMessageCallback callback;
+	private byte[] content = null;
+	/** number of messages to emit - one entry per request */
+	private final LinkedBlockingQueue<Integer> requests = new LinkedBlockingQueue<>();
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#initialize(java.util.Properties)
+	 */
+	public void initialize(Properties properties) throws RequiredInputMissingException, ComponentInitializationFailedException {
+		try {
+			this.content = BenchmarkQueueFactory.newMessage(Integer.parseInt(StringUtils.trim(properties.getProperty(CFG_BODY_SIZE)))).getBody();
+		} catch(Exception e) {
+			throw new ComponentInitializationFailedException("Invalid body size: " + e.getMessage());
+		}
+		this.running = true;
+	}
+
+	/**
+	 * Requests the source to emit the given number of messages
+	 * @param numOfMessages
+	 */
+	public void emit(final int numOfMessages) {
+		this.requests.offer(numOfMessages);
+	}
+	
+	/**
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+		try {
+			while(running) {
+				Integer numOfMessages = this.requests.poll(100, TimeUnit.MILLISECONDS);
+				if(numOfMessages != null) {
+					for(int i = 0; i < numOfMessages.intValue(); i++)
+						this.callback.onMessage(new StreamingDataMessage(this.content, System.currentTimeMillis()));
+				}
+			}
+		} catch(InterruptedException e) {
+			// shutdown requested
+		}
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#setId(java.lang.String)
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#getId()
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#shutdown()
+	 */
+	public boolean shutdown() {
+		this.running = false;
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.source.Source#setIncomingMessageCallback(com.ottogroup.bi.spqr.pipeline.component.source.IncomingMessageCallback)
+	 */
+	public void setIncomingMessageCallback(IncomingMessageCallback incomingMessageCallback) {
+		this.callback = incomingMessageCallback;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#getType()
+	 */
+	public MicroPipelineComponentType getType() {
+		return MicroPipelineComponentType.SOURCE;
+	}
+
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark.pipeline;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
+import com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Counts all incoming messages and lets benchmarks wait for a given number of messages to arrive
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class CountingEmitter implements Emitter {
+
+	private String id = null;
+	private final AtomicLong totalNumOfMessages = new AtomicLong(0);
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#initialize(java.util.Properties)
+	 */
+	public void initialize(Properties properties) throws RequiredInputMissingException, ComponentInitializationFailedException {
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter#onMessage(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean onMessage(StreamingDataMessage message) {
+		this.totalNumOfMessages.lazySet(this.totalNumOfMessages.get() + 1); // single writer: the emitter runtime environment
+		return true;
+	}
+	
+	/**
+	 * Waits until the total number of messages reaches the given value
+	 * @param numOfMessages
+	 * @param timeout
+	 * @param timeoutUnit
+	 * @throws TimeoutException thrown in case the messages did not arrive in time
+	 */
+	public void awaitMessages(final long numOfMessages, final long timeout, final TimeUnit timeoutUnit) throws TimeoutException {
+		final long deadline = System.nanoTime() + timeoutUnit.toNanos(timeout);
+		while(this.totalNumOfMessages.get() < numOfMessages) {
+			if(System.nanoTime() - deadline > 0)
+				throw new TimeoutException("Received " + this.totalNumOfMessages.get() + " of " + numOfMessages + " messages");
+			LockSupport.parkNanos(1000);
+		}
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter#getTotalNumOfMessages()
+	 */
+	public long getTotalNumOfMessages() {
+		return this.totalNumOfMessages.get();
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#setId(java.lang.String)
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#getId()
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#shutdown()
+	 */
+	public boolean shutdown() {
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#getType()
+	 */
+	public MicroPipelineComponentType getType() {
+		return MicroPipelineComponentType.EMITTER;
+	}
+
+}
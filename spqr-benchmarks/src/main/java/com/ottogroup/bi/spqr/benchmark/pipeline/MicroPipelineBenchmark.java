@@ -0,0 +1,196 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark.pipeline;
+
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ottogroup.bi.spqr.benchmark.BenchmarkQueueFactory;
+import com.ottogroup.bi.spqr.pipeline.MicroPipeline;
+import com.ottogroup.bi.spqr.pipeline.MicroPipelineConfiguration;
+import com.ottogroup.bi.spqr.pipeline.MicroPipelineFactory;
+import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentConfiguration;
+import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConfiguration;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+
+/**
+ * Measures the end-to-end message throughput of a {@link MicroPipeline} built by the {@link MicroPipelineFactory}. 
+ * The pipeline consists of a {@link BenchmarkSource}, a {@link PassThroughOperator} and a {@link CountingEmitter} 
+ * connected by two queues of the selected type, thus all runtime environments are part of the measurement. Each 
+ * invocation requests {@link #MESSAGES_PER_INVOCATION} messages from the source and returns as soon as the emitter 
+ * has received all of them. The pipeline is re-created for each iteration to remove chronicle files in between. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MicroPipelineBenchmark {
+
+	/** number of messages passed through the pipeline per invocation */
+	public static final int MESSAGES_PER_INVOCATION = 10000;
+	/** max. time to wait for all messages of an invocation to arrive */
+	public static final long MAX_INVOCATION_SECONDS = 60;
+	
+	private static final String SOURCE_NAME = "benchmarkSource";
+	private static final String OPERATOR_NAME = "passThroughOperator";
+	private static final String EMITTER_NAME = "countingEmitter";
+	private static final String COMPONENT_VERSION = "1.0";
+	
+	@Param({BenchmarkQueueFactory.QUEUE_TYPE_CHRONICLE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE, RingBufferStreamingMessageQueue.CFG_QUEUE_TYPE})
+	private String queueType;
+
+	@Param({StreamingMessageQueueBlockingWaitStrategy.STRATEGY_NAME, StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME})
+	private String waitStrategy;
+	
+	@Param({"64", "1024"})
+	private int bodySize;
+	
+	private BenchmarkQueueFactory queueFactory;
+	private ExecutorService executorService;
+	private MicroPipeline microPipeline;
+	private BenchmarkSource source;
+	private CountingEmitter emitter;
+	/** number of messages the emitter must have received after the current invocation */
+	private long expectedNumOfMessages;
+	
+	@Setup(Level.Trial)
+	public void setupTrial() throws Exception {
+		this.queueFactory = new BenchmarkQueueFactory();
+	}
+	
+	@Setup(Level.Iteration)
+	public void setupIteration() throws Exception {
+		this.source = new BenchmarkSource();
+		this.emitter = new CountingEmitter();
+		this.expectedNumOfMessages = 0;
+		
+		BenchmarkComponentRepository repository = new BenchmarkComponentRepository();
+		repository.register(SOURCE_NAME, this.source);
+		repository.register(OPERATOR_NAME, new PassThroughOperator());
+		repository.register(EMITTER_NAME, this.emitter);
+		
+		this.executorService = Executors.newCachedThreadPool();
+		this.microPipeline = new MicroPipelineFactory("benchmark", repository).instantiatePipeline(getConfiguration(), this.executorService);
+	}
+	
+	@TearDown(Level.Iteration)
+	public void tearDownIteration() {
+		this.microPipeline.shutdown();
+		// interrupts runtime environments still waiting for messages
+		this.executorService.shutdownNow();
+		this.queueFactory.deleteChronicleFiles();
+	}
+	
+	/**
+	 * Passes {@link #MESSAGES_PER_INVOCATION} messages through the pipeline
+	 * @throws Exception
+	 */
+	@Benchmark
+	@OperationsPerInvocation(MESSAGES_PER_INVOCATION)
+	public void passMessages() throws Exception {
+		this.expectedNumOfMessages = this.expectedNumOfMessages + MESSAGES_PER_INVOCATION;
+		this.source.emit(MESSAGES_PER_INVOCATION);
+		this.emitter.awaitMessages(this.expectedNumOfMessages, MAX_INVOCATION_SECONDS, TimeUnit.SECONDS);
+	}
+	
+	/**
+	 * Returns the configuration of the benchmarked pipeline: source -> operator -> emitter
+	 * @return
+	 */
+	protected MicroPipelineConfiguration getConfiguration() {
+		MicroPipelineConfiguration cfg = new MicroPipelineConfiguration();
+		cfg.setId("benchmark-pipeline");
+		cfg.setQueues(new ArrayList<StreamingMessageQueueConfiguration>());
+		cfg.getQueues().add(getQueueConfiguration("source-to-operator"));
+		cfg.getQueues().add(getQueueConfiguration("operator-to-emitter"));
+		
+		Properties sourceSettings = new Properties();
+		sourceSettings.setProperty(BenchmarkSource.CFG_BODY_SIZE, String.valueOf(this.bodySize));
+		
+		cfg.setComponents(new ArrayList<MicroPipelineComponentConfiguration>());
+		cfg.getComponents().add(getComponentConfiguration("source", SOURCE_NAME, MicroPipelineComponentType.SOURCE, null, "source-to-operator", sourceSettings));
+		cfg.getComponents().add(getComponentConfiguration("operator", OPERATOR_NAME, MicroPipelineComponentType.DIRECT_RESPONSE_OPERATOR, "source-to-operator", "operator-to-emitter", new Properties()));
+		cfg.getComponents().add(getComponentConfiguration("emitter", EMITTER_NAME, MicroPipelineComponentType.EMITTER, "operator-to-emitter", null, new Properties()));
+		return cfg;
+	}
+	
+	/**
+	 * Returns the configuration of a queue of the selected type and wait strategy
+	 * @param id
+	 * @return
+	 */
+	protected StreamingMessageQueueConfiguration getQueueConfiguration(final String id) {
+		StreamingMessageQueueConfiguration cfg = new StreamingMessageQueueConfiguration(id);
+		Properties properties = new Properties();
+		properties.setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, this.queueType);
+		properties.setProperty(DefaultStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, this.waitStrategy);
+		properties.setProperty(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, this.queueFactory.getChronicleBasePath());
+		cfg.setProperties(properties);
+		return cfg;
+	}
+	
+	/**
+	 * Returns the configuration of a component served by the {@link BenchmarkComponentRepository}
+	 * @param id
+	 * @param name
+	 * @param type
+	 * @param fromQueue
+	 * @param toQueue
+	 * @param settings
+	 * @return
+	 */
+	protected MicroPipelineComponentConfiguration getComponentConfiguration(final String id, final String name, final MicroPipelineComponentType type,
+			final String fromQueue, final String toQueue, final Properties settings) {
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.setId(id);
+		cfg.setName(name);
+		cfg.setVersion(COMPONENT_VERSION);
+		cfg.setType(type);
+		cfg.setFromQueue(fromQueue);
+		cfg.setToQueue(toQueue);
+		cfg.setSettings(settings);
+		return cfg;
+	}
+	
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark.queue;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ottogroup.bi.spqr.benchmark.BenchmarkQueueFactory;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.hybrid.HybridStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.offheap.OffHeapStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+
+/**
+ * Measures insert/next throughput and latency of {@link DefaultStreamingMessageQueue}, {@link InMemoryStreamingMessageQueue}
+ * and {@link RingBufferStreamingMessageQueue} for different body sizes. Producer and consumer share the benchmark thread,
+ * thus the figures show the costs of the queue itself without any thread handoff - see <code>WaitStrategyBenchmark</code>
+ * for the latter. The queue is re-created for each iteration as chronicle files grow quickly for larger bodies. Chronicle
+ * queues may be run in reuse mode by passing <code>-p readMode=reuse</code>  
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class QueueBenchmark {
+
+	/** number of messages inserted and retrieved per batch invocation */
+	public static final int BATCH_SIZE = 64;
+	
+	@Param({BenchmarkQueueFactory.QUEUE_TYPE_CHRONICLE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE, RingBufferStreamingMessageQueue.CFG_QUEUE_TYPE, OffHeapStreamingMessageQueue.CFG_QUEUE_TYPE, HybridStreamingMessageQueue.CFG_QUEUE_TYPE})
+	private String queueType;
+	
+	@Param({"64", "1024", "16384"})
+	private int bodySize;
+
+	@Param({DefaultStreamingMessageQueue.READ_MODE_COPY})
+	private String readMode;
+	
+	private BenchmarkQueueFactory queueFactory;
+	private StreamingMessageQueue queue;
+	private StreamingMessageQueueProducer producer;
+	private StreamingMessageQueueConsumer consumer;
+	private StreamingDataMessage message;
+	private StreamingDataMessage[] batch;
+	private StreamingDataMessage[] drainBuffer;
+	
+	@Setup(Level.Trial)
+	public void setupTrial() throws Exception {
+		this.queueFactory = new BenchmarkQueueFactory();
+		this.message = BenchmarkQueueFactory.newMessage(this.bodySize);
+		this.batch = new StreamingDataMessage[BATCH_SIZE];
+		for(int i = 0; i < BATCH_SIZE; i++)
+			this.batch[i] = BenchmarkQueueFactory.newMessage(this.bodySize);
+		this.drainBuffer = new StreamingDataMessage[BATCH_SIZE];
+	}
+	
+	@Setup(Level.Iteration)
+	public void setupIteration() throws Exception {
+		Properties properties = new Properties();
+		properties.setProperty(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_READ_MODE, this.readMode);
+		// no consumer waits on the queue, thus no wait strategy must be notified
+		this.queue = this.queueFactory.newQueue(this.queueType, StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME, properties);
+		this.producer = this.queue.getProducer();
+		this.consumer = this.queue.getConsumer();
+	}
+	
+	@TearDown(Level.Iteration)
+	public void tearDownIteration() {
+		this.queueFactory.release(this.queue);
+	}
+
+	/**
+	 * Inserts a single message and reads it back 
+	 * @return
+	 */
+	@Benchmark
+	public StreamingDataMessage insertAndNext() {
+		this.producer.insert(this.message);
+		return this.consumer.next();
+	}
+	
+	/**
+	 * Inserts {@link #BATCH_SIZE} messages at once and drains them from the queue
+	 * @param blackhole
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void insertBatchAndDrain(final Blackhole blackhole) {
+		this.producer.insertBatch(this.batch);
+		int remaining = BATCH_SIZE;
+		while(remaining > 0) {
+			// views are returned one at a time, thus drain until the batch is fully consumed
+			int drained = this.consumer.drainTo(this.drainBuffer, remaining);
+			for(int i = 0; i < drained; i++)
+				blackhole.consume(this.drainBuffer[i]);
+			remaining = remaining - drained;
+		}
+	}
+	
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.benchmark.strategy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ottogroup.bi.spqr.benchmark.BenchmarkQueueFactory;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueSleepingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * Measures the 1:1 producer/consumer handoff latency for each {@link StreamingMessageQueueWaitStrategy}. The benchmark 
+ * thread inserts a message into the <i>request</i> queue and waits for its echo on the <i>response</i> queue. The echo 
+ * is sent by a dedicated thread which waits on the request queue, thus each invocation covers two handoffs between 
+ * threads and shows how quickly a strategy wakes up a waiting consumer. The queue type may be changed via 
+ * <code>-p queueType=...</code> 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class WaitStrategyBenchmark {
+
+	@Param({StreamingMessageQueueBlockingWaitStrategy.STRATEGY_NAME, StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME, 
+		StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME, StreamingMessageQueueAdaptiveWaitStrategy.STRATEGY_NAME, 
+		StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME})
+	private String waitStrategy;
+	
+	@Param({InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE})
+	private String queueType;
+	
+	private BenchmarkQueueFactory queueFactory;
+	private StreamingMessageQueue requestQueue;
+	private StreamingMessageQueue responseQueue;
+	private StreamingMessageQueueProducer requestProducer;
+	private StreamingMessageQueueConsumer responseConsumer;
+	private StreamingDataMessage message;
+	private Thread echoThread;
+	private volatile boolean running;
+	
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.queueFactory = new BenchmarkQueueFactory();
+		this.requestQueue = this.queueFactory.newQueue(this.queueType, this.waitStrategy, null);
+		this.responseQueue = this.queueFactory.newQueue(this.queueType, this.waitStrategy, null);
+		this.requestProducer = this.requestQueue.getProducer();
+		this.responseConsumer = this.responseQueue.getConsumer();
+		this.message = BenchmarkQueueFactory.newMessage(64);
+		
+		final StreamingMessageQueueConsumer requestConsumer = this.requestQueue.getConsumer();
+		final StreamingMessageQueueProducer responseProducer = this.responseQueue.getProducer();
+		this.running = true;
+		this.echoThread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					while(running) {
+						StreamingDataMessage request = requestConsumer.getWaitStrategy().waitFor(requestConsumer);
+						if(request != null) {
+							responseProducer.insert(request);
+							responseProducer.getWaitStrategy().forceLockRelease();
+						}
+					}
+				} catch(InterruptedException e) {
+					// thread interrupted from outside: stop echoing
+				}
+			}
+		}, "wait-strategy-benchmark-echo");
+		this.echoThread.setDaemon(true);
+		this.echoThread.start();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		// wake up the echo thread by a final message rather than interrupting it: interrupts close the channels of chronicle based queues 
+		this.running = false;
+		this.requestProducer.insert(this.message);
+		this.requestProducer.getWaitStrategy().forceLockRelease();
+		this.echoThread.join(TimeUnit.SECONDS.toMillis(5));
+		this.queueFactory.release(this.requestQueue);
+		this.queueFactory.release(this.responseQueue);
+	}
+
+	/**
+	 * Sends a message to the echo thread and waits for the response
+	 * @return
+	 * @throws InterruptedException
+	 */
+	@Benchmark
+	public StreamingDataMessage handoff() throws InterruptedException {
+		this.requestProducer.insert(this.message);
+		this.requestProducer.getWaitStrategy().forceLockRelease();
+		
+		StreamingDataMessage response = null;
+		// the direct pass strategy returns immediately, even if no message is available
+		while((response = this.responseConsumer.getWaitStrategy().waitFor(this.responseConsumer)) == null) {
+			// keep on waiting
+		}
+		return response;
+	}
+	
+}
@@ -25,6 +25,8 @@ import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent;
 import com.ottogroup.bi.spqr.pipeline.component.emitter.EmitterRuntimeEnvironment;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperatorRuntimeEnvironment;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DirectResponseOperatorRuntimeEnvironment;
+import com.ottogroup.bi.spqr.pipeline.component.operator.PartitionedDirectResponseOperatorRuntimeEnvironment;
+import com.ottogroup.bi.spqr.pipeline.component.router.RouterRuntimeEnvironment;
 import com.ottogroup.bi.spqr.pipeline.component.source.SourceRuntimeEnvironment;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
 
@@ -46,8 +48,12 @@ public class MicroPipeline {
 	private final Map<String, SourceRuntimeEnvironment> sources = new HashMap<>();
 	/** references to direct response operator runtime environments */
 	private final Map<String, DirectResponseOperatorRuntimeEnvironment> directResponseOperators = new HashMap<>();
+	/** references to partitioned direct response operator runtime environments */
+	private final Map<String, PartitionedDirectResponseOperatorRuntimeEnvironment> partitionedDirectResponseOperators = new HashMap<>();
 	/** references to delayed response operator runtime environments */
 	private final Map<String, DelayedResponseOperatorRuntimeEnvironment> delayedResponseOperators = new HashMap<>();
+	/** references to router runtime environments */
+	private final Map<String, RouterRuntimeEnvironment> routers = new HashMap<>();
 	/** references to emitter runtime environments */
 	private final Map<String, EmitterRuntimeEnvironment> emitters = new HashMap<>();
 	/** references to queues interconnecting the components */
@@ -97,6 +103,17 @@ public class MicroPipeline {
 			logger.debug("Direct response operator [id="+id+"] successfully attached to pipeline [id="+this.id+"]");
 	}
 	
+	/**
+	 * Adds a new {@link PartitionedDirectResponseOperatorRuntimeEnvironment}
+	 * @param id
+	 * @param operatorRuntimeEnvironment
+	 */
+	public void addOperator(final String id, final PartitionedDirectResponseOperatorRuntimeEnvironment operatorRuntimeEnvironment) {
+		this.partitionedDirectResponseOperators.put(id, operatorRuntimeEnvironment);
+		if(logger.isDebugEnabled())
+			logger.debug("Partitioned direct response operator [id="+id+"] successfully attached to pipeline [id="+this.id+"]");
+	}
+	
 	/**
 	 * Adds a new {@link DelayedResponseOperatorRuntimeEnvironment}
 	 * @param id
@@ -109,6 +126,17 @@ public class MicroPipeline {
 			logger.debug("Delayed response operator [id="+id+"] successfully attached to pipeline [id="+this.id+"]");
 	}
 	
+	/**
+	 * Adds a new {@link RouterRuntimeEnvironment}
+	 * @param id
+	 * @param routerRuntimeEnvironment
+	 */
+	public void addRouter(final String id, final RouterRuntimeEnvironment routerRuntimeEnvironment) {
+		this.routers.put(id, routerRuntimeEnvironment);
+		if(logger.isDebugEnabled())
+			logger.debug("Router [id="+id+"] successfully attached to pipeline [id="+this.id+"]");
+	}
+	
 	/**
 	 * Adds a new {@link EmitterRuntimeEnvironment}
 	 * @param id
@@ -160,7 +188,7 @@ public class MicroPipeline {
 	 * TODO test
 	 */
 	public boolean hasComponent(final String id) {
-		return (this.sources.containsKey(id) || this.directResponseOperators.containsKey(id) || this.delayedResponseOperators.containsKey(id) || this.emitters.containsKey(id));
+		return (this.sources.containsKey(id) || this.directResponseOperators.containsKey(id) || this.partitionedDirectResponseOperators.containsKey(id) || this.delayedResponseOperators.containsKey(id) || this.routers.containsKey(id) || this.emitters.containsKey(id));
 	}
 
 	/**
@@ -177,7 +205,7 @@ public class MicroPipeline {
 		//////////////////////////////////////////////////////////////////////////////////////////
 
 		//////////////////////////////////////////////////////////////////////////////////////////
-		// shutting down runtime environments: sources, operators, emitters
+		// shutting down runtime environments: sources, operators, routers, emitters
 		for(final String srcId : this.sources.keySet()) {
 			SourceRuntimeEnvironment srcEnv = this.sources.get(srcId);
 			try {
@@ -198,6 +226,16 @@ public class MicroPipeline {
 				logger.error("Failed to shut down direct response operator runtime environment [id="+operatorId+"]. Reason: " + e.getMessage());
 			}
 		}
+		for(final String operatorId : this.partitionedDirectResponseOperators.keySet()) {
+			PartitionedDirectResponseOperatorRuntimeEnvironment operatorEnv = this.partitionedDirectResponseOperators.get(operatorId);
+			try {
+				operatorEnv.shutdown();
+				if(logger.isDebugEnabled())
+					logger.debug("Partitioned direct response operator runtime environment shut down [id="+operatorId+"]");
+			} catch(Exception e) {
+				logger.error("Failed to shut down partitioned direct response operator runtime environment [id="+operatorId+"]. Reason: " + e.getMessage());
+			}
+		}
 		for(final String operatorId : this.delayedResponseOperators.keySet()) {
 			DelayedResponseOperatorRuntimeEnvironment operatorEnv = this.delayedResponseOperators.get(operatorId);
 			try {
@@ -208,6 +246,16 @@ public class MicroPipeline {
 				logger.error("Failed to shut down delayed response operator runtime environment [id="+operatorId+"]. Reason: " + e.getMessage());
 			}
 		}
+		for(final String routerId : this.routers.keySet()) {
+			RouterRuntimeEnvironment routerEnv = this.routers.get(routerId);
+			try {
+				routerEnv.shutdown();
+				if(logger.isDebugEnabled())
+					logger.debug("Router runtime environment shut down [id="+routerId+"]");
+			} catch(Exception e) {
+				logger.error("Failed to shut down router runtime environment [id="+routerId+"]. Reason: " + e.getMessage());
+			}
+		}
 		for(final String emitterId : this.emitters.keySet()) {
 			EmitterRuntimeEnvironment emitterEnv = this.emitters.get(emitterId);
 			try {
@@ -252,6 +300,10 @@ public class MicroPipeline {
 		return delayedResponseOperators;
 	}
 
+	public Map<String, RouterRuntimeEnvironment> getRouters() {
+		return routers;
+	}
+
 	public Map<String, EmitterRuntimeEnvironment> getEmitters() {
 		return emitters;
 	}
@@ -260,6 +312,10 @@ public class MicroPipeline {
 		return directResponseOperators;
 	}
 
+	public Map<String, PartitionedDirectResponseOperatorRuntimeEnvironment> getPartitionedDirectResponseOperators() {
+		return partitionedDirectResponseOperators;
+	}
+
 	public Map<String, StreamingMessageQueue> getQueues() {
 		return queues;
 	}
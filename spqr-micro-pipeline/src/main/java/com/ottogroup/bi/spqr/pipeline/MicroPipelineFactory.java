@@ -15,26 +15,36 @@
  */
 package com.ottogroup.bi.spqr.pipeline;
 
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
 import com.codahale.metrics.Timer;
 import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
 import com.ottogroup.bi.spqr.exception.QueueInitializationFailedException;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.metrics.MetricsHandler;
 import com.ottogroup.bi.spqr.metrics.MetricsReporterFactory;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentConfiguration;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
+import com.ottogroup.bi.spqr.pipeline.component.emitter.BatchEmitter;
 import com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter;
 import com.ottogroup.bi.spqr.pipeline.component.emitter.EmitterRuntimeEnvironment;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperator;
@@ -42,16 +52,38 @@ import com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperator
 import com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperatorWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DirectResponseOperator;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DirectResponseOperatorRuntimeEnvironment;
+import com.ottogroup.bi.spqr.pipeline.component.operator.HeaderKeyHashMessagePartitioner;
+import com.ottogroup.bi.spqr.pipeline.component.operator.JsonKeyHashMessagePartitioner;
+import com.ottogroup.bi.spqr.pipeline.component.operator.HybridResponseWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.component.operator.MessageCountResponseWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.component.operator.OperatorTriggeredWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.component.operator.PartitionedDirectResponseOperatorRuntimeEnvironment;
+import com.ottogroup.bi.spqr.pipeline.component.operator.RoundRobinMessagePartitioner;
+import com.ottogroup.bi.spqr.pipeline.component.operator.StreamingDataMessagePartitioner;
 import com.ottogroup.bi.spqr.pipeline.component.operator.TimerBasedResponseWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.component.operator.TimerDrivenResponseWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.component.router.Router;
+import com.ottogroup.bi.spqr.pipeline.component.router.RouterRuntimeEnvironment;
 import com.ottogroup.bi.spqr.pipeline.component.source.Source;
 import com.ottogroup.bi.spqr.pipeline.component.source.SourceRuntimeEnvironment;
 import com.ottogroup.bi.spqr.pipeline.exception.UnknownWaitStrategyException;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConfiguration;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueWatermark;
 import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.hybrid.HybridStreamingMessageQueue;
 import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.offheap.OffHeapStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.scheduler.CpuAffinity;
+import com.ottogroup.bi.spqr.pipeline.scheduler.MicroPipelineScheduler;
+import com.ottogroup.bi.spqr.pipeline.scheduler.PinnedRuntimeEnvironment;
+import com.ottogroup.bi.spqr.pipeline.scheduler.ThreadPlacementRegistry;
+import com.ottogroup.bi.spqr.pipeline.scheduler.WaitStrategyTimerService;
 import com.ottogroup.bi.spqr.repository.ComponentRepository;
 
 /**
@@ -67,6 +99,14 @@ public class MicroPipelineFactory {
 	private final ComponentRepository componentRepository;
 	/** identifier of processing node this factory lives on */
 	private final String processingNodeId;
+	/** executes components reading from queues which apply the scheduled wait strategy - shared by all pipelines, created on first use */
+	private MicroPipelineScheduler scheduler = null;
+	/** drives all timer based response wait strategies - shared by all pipelines, created on first use */
+	private WaitStrategyTimerService timerService = null;
+	/** indicates whether the executor service provided on pipeline instantiation runs tasks on virtual threads */
+	private boolean virtualThreads = false;
+	/** keeps track of the threads executing runtime environments and the cpus they are pinned to */
+	private final ThreadPlacementRegistry placementRegistry = new ThreadPlacementRegistry();
 	
 	/**
 	 * Initializes the factory using the provided input
@@ -117,6 +157,7 @@ public class MicroPipelineFactory {
 		// entry. if creation fails for any reason, all previously created queues are shut down and
 		// a queue initialization exception is thrown
 		MicroPipeline microPipeline = new MicroPipeline(StringUtils.lowerCase(StringUtils.trim(cfg.getId())), cfg);
+		final Map<String, StreamingMessageQueueWatermark> queueWatermarks = new HashMap<>();
 		for(final StreamingMessageQueueConfiguration queueConfig : cfg.getQueues()) {
 			String id = StringUtils.lowerCase(StringUtils.trim(queueConfig.getId()));
 			
@@ -167,8 +208,30 @@ public class MicroPipelineFactory {
 					if(logger.isDebugEnabled())
 						logger.debug("queue[id="+id+"]: message retrieval counter attached");
 				}
+				
+				// queues providing their own metrics (eg. occupancy) get them registered below the queue namespace
+				if(queueInstance instanceof MetricSet) {
+					for(final Entry<String, Metric> queueMetric : ((MetricSet)queueInstance).getMetrics().entrySet()) {
+						metricsHandler.register(
+								MetricRegistry.name(
+										StringUtils.lowerCase(StringUtils.trim(this.processingNodeId)),
+										StringUtils.lowerCase(StringUtils.trim(cfg.getId())),
+										"queue",
+										id,
+										queueMetric.getKey()
+								), queueMetric.getValue()
+						);
+					}
+					
+					if(logger.isDebugEnabled())
+						logger.debug("queue[id="+id+"]: queue metrics attached");
+				}
 				/////////////////////////////////////////////////////////////////////
 				
+				final StreamingMessageQueueWatermark queueWatermark = getQueueWatermark(queueConfig, queueInstance);
+				if(queueWatermark != null)
+					queueWatermarks.put(id, queueWatermark);
+				
 				microPipeline.addQueue(id, queueInstance);				
 				logger.info("queue initialized[id="+id+"]");
 			} catch(Exception e) {
@@ -185,11 +248,24 @@ public class MicroPipelineFactory {
 		final Map<String, MicroPipelineComponent> components = new HashMap<>();
 		boolean sourceComponentFound = false;
 		boolean emitterComponentFound = false;
+		
+		// direct response operators reading from a fused queue do not get a runtime environment of their own but 
+		// are fused into the environment of the operator writing to that queue - see (3)
+		final Set<String> fusedQueues = getFusedQueues(cfg);
+		final Map<String, FusedOperator> fusedOperators = new HashMap<>();
+		final Map<String, String> operatorDestinationQueues = new HashMap<>();
+		// components reading from queues which apply the scheduled wait strategy are executed by the scheduler - see (4)
+		final Map<String, StreamingMessageQueueConsumer> scheduledComponents = new HashMap<>();
+		// metrics of the timer service are attached on first delayed response operator using it
+		boolean timerMetricsAttached = false;
+		// cpus to pin runtime environments to - components without affinity are not contained
+		final Map<String, Long> componentAffinities = new HashMap<>();
+		
 		for(final MicroPipelineComponentConfiguration componentCfg : cfg.getComponents()) {
 			String id = StringUtils.lowerCase(StringUtils.trim(componentCfg.getId()));
 			
 			// a component for that identifier already exists: kill the pipeline and tell the caller about it
-			if(microPipeline.hasComponent(id)) {
+			if(microPipeline.hasComponent(id) || components.containsKey(id)) {
 				logger.error("component initialization failed [id="+id+", class="+componentCfg.getName()+", version="+componentCfg.getVersion()+"]. Forcing shutdown of all queues and components.");
 				microPipeline.shutdown();
 				throw new ComponentInitializationFailedException("Non-unique component identifier found [id="+id+"]");
@@ -197,6 +273,8 @@ public class MicroPipelineFactory {
 			
 			// try to instantiate component, if it fails .... shutdown queues and components initialized so far and throw an exception
 			try {
+				// validate the affinity ahead of instantiation to avoid a component being left behind on invalid cpu lists
+				final long affinityMask = CpuAffinity.parse(componentCfg.getCpuAffinity());
 				MicroPipelineComponent component = initializeComponent(componentCfg, microPipeline.getQueues());
 				if(component.getType() == null) {
 					logger.error("component initialization failed [id="+id+", class="+componentCfg.getName()+", version="+componentCfg.getVersion()+"]. Type missing. Forcing shutdown of all queues and components.");
@@ -206,6 +284,8 @@ public class MicroPipelineFactory {
 				
 				final StreamingMessageQueue fromQueue = microPipeline.getQueue(StringUtils.lowerCase(StringUtils.trim(componentCfg.getFromQueue())));
 				final StreamingMessageQueue toQueue = microPipeline.getQueue(StringUtils.lowerCase(StringUtils.trim(componentCfg.getToQueue())));
+				// broadcast queues hand out a consumer with a read position of its own to each component
+				final StreamingMessageQueueConsumer fromQueueConsumer = (fromQueue != null ? fromQueue.getConsumer(id) : null);
 				
 				Counter messageCounter = null;
 				if(componentCfg.isAttachMessageCounter()) {
@@ -221,9 +301,18 @@ public class MicroPipelineFactory {
 					);
 				}
 				
+				// all components but sources handle processing errors according to their error policy 
+				final ComponentErrorHandler errorHandler = (component.getType() != MicroPipelineComponentType.SOURCE ? 
+						getErrorHandler(microPipeline, id, componentCfg, metricsHandler) : null);
+				
 				switch(component.getType()) {
 					case SOURCE: {
-						SourceRuntimeEnvironment srcEnv = new SourceRuntimeEnvironment(this.processingNodeId, cfg.getId(), (Source)component, toQueue.getProducer());
+						// sources are executed by a private executor unless the provided one runs tasks on virtual threads which are cheap to spare 
+						// the source thread is the one fetching data, thus it gets pinned rather than the thread checking the watermarks  
+						final PinnedRuntimeEnvironment sourceTask = placeRuntimeEnvironment(cfg.getId(), id, (Source)component, affinityMask);
+						SourceRuntimeEnvironment srcEnv = (this.virtualThreads ? 
+								new SourceRuntimeEnvironment(this.processingNodeId, cfg.getId(), (Source)component, sourceTask, toQueue.getProducer(), executorService) : 
+								new SourceRuntimeEnvironment(this.processingNodeId, cfg.getId(), (Source)component, sourceTask, toQueue.getProducer()));
 
 						///////////////////////////////////////////////
 						// attach monitoring components
@@ -231,19 +320,17 @@ public class MicroPipelineFactory {
 							srcEnv.setMessageCounter(messageCounter);
 						///////////////////////////////////////////////
 
+						srcEnv.setDownstreamQueueWatermarks(getDownstreamQueueWatermarks(cfg, componentCfg.getToQueue(), queueWatermarks));
+
 						microPipeline.addSource(id, srcEnv);
 						sourceComponentFound = true;
 						break;
 					}
 					case DIRECT_RESPONSE_OPERATOR: {
 
-						DirectResponseOperatorRuntimeEnvironment directResponseEnv = new DirectResponseOperatorRuntimeEnvironment(this.processingNodeId, cfg.getId(), (DirectResponseOperator)component, 
-								fromQueue.getConsumer(), toQueue.getProducer());
-
-						///////////////////////////////////////////////
-						// attach monitoring components
+						Timer messageProcessingTimer = null;
 						if(componentCfg.isAttachProcessingTimer()) {
-							final Timer messageProcessingTimer = metricsHandler.timer(
+							messageProcessingTimer = metricsHandler.timer(
 									MetricRegistry.name(
 											StringUtils.lowerCase(StringUtils.trim(this.processingNodeId)),
 											StringUtils.lowerCase(StringUtils.trim(cfg.getId())),
@@ -253,31 +340,126 @@ public class MicroPipelineFactory {
 											"timer"
 									)
 							);
-							directResponseEnv.setMessageProcessingTimer(messageProcessingTimer);
+						}
+
+						final String fromQueueId = StringUtils.lowerCase(StringUtils.trim(componentCfg.getFromQueue()));
+						final String toQueueId = StringUtils.lowerCase(StringUtils.trim(componentCfg.getToQueue()));
+						if(fusedQueues.contains(fromQueueId)) {
+							fusedOperators.put(fromQueueId, new FusedOperator((DirectResponseOperator)component, toQueueId, messageCounter, messageProcessingTimer, errorHandler));
+							break;
+						}
+						
+						// operators requesting parallel execution get additional instances which share the identifier and metrics  
+						if(componentCfg.getParallelism() > 1) {
+							PartitionedDirectResponseOperatorRuntimeEnvironment partitionedEnv = new PartitionedDirectResponseOperatorRuntimeEnvironment(this.processingNodeId, cfg.getId(), 
+									initializeOperatorInstances(componentCfg, (DirectResponseOperator)component, microPipeline.getQueues()), getMessagePartitioner(componentCfg), 
+									componentCfg.isOrderedMerge(), fromQueueConsumer, toQueue.getProducer(), executorService);
+
+							///////////////////////////////////////////////
+							// attach monitoring components
+							if(messageProcessingTimer != null)
+								partitionedEnv.setMessageProcessingTimer(messageProcessingTimer);
+							
+							if(messageCounter != null)
+								partitionedEnv.setMessageCounter(messageCounter);
+							partitionedEnv.setErrorHandler(errorHandler);
+							///////////////////////////////////////////////
+
+							microPipeline.addOperator(id, partitionedEnv);
+							break;
 						}
 						
+						DirectResponseOperatorRuntimeEnvironment directResponseEnv = new DirectResponseOperatorRuntimeEnvironment(this.processingNodeId, cfg.getId(), (DirectResponseOperator)component, 
+								fromQueueConsumer, toQueue.getProducer());
+
+						///////////////////////////////////////////////
+						// attach monitoring components
+						if(messageProcessingTimer != null)
+							directResponseEnv.setMessageProcessingTimer(messageProcessingTimer);
+						
 						if(messageCounter != null)
 							directResponseEnv.setMessageCounter(messageCounter);
+						directResponseEnv.setErrorHandler(errorHandler);
 						///////////////////////////////////////////////
 						
 						microPipeline.addOperator(id, directResponseEnv);
+						operatorDestinationQueues.put(id, toQueueId);
+						
+						if(getScheduledWaitStrategy(fromQueueConsumer) != null)
+							scheduledComponents.put(id, fromQueueConsumer);
 						break;
 					}
 					case DELAYED_RESPONSE_OPERATOR: {
-						DelayedResponseOperatorRuntimeEnvironment delayedResponseEnv = new DelayedResponseOperatorRuntimeEnvironment(this.processingNodeId, cfg.getId(), (DelayedResponseOperator)component, getResponseWaitStrategy(componentCfg), 
-								fromQueue.getConsumer(), toQueue.getProducer(), executorService);
+						final DelayedResponseOperatorWaitStrategy responseWaitStrategy = getResponseWaitStrategy(componentCfg);
+						DelayedResponseOperatorRuntimeEnvironment delayedResponseEnv = new DelayedResponseOperatorRuntimeEnvironment(this.processingNodeId, cfg.getId(), (DelayedResponseOperator)component, responseWaitStrategy, 
+								fromQueueConsumer, toQueue.getProducer(), executorService);
 						
 						///////////////////////////////////////////////
 						// attach monitoring components
 						if(messageCounter != null)
 							delayedResponseEnv.setMessageCounter(messageCounter);
+						delayedResponseEnv.setErrorHandler(errorHandler);
+						
+						// report the lag of the shared timer service once per pipeline  
+						if(responseWaitStrategy instanceof TimerDrivenResponseWaitStrategy && !timerMetricsAttached) {
+							for(final Entry<String, Metric> timerMetric : getTimerService().getMetrics().entrySet()) {
+								metricsHandler.register(
+										MetricRegistry.name(
+												StringUtils.lowerCase(StringUtils.trim(this.processingNodeId)),
+												StringUtils.lowerCase(StringUtils.trim(cfg.getId())),
+												"timer",
+												timerMetric.getKey()
+										), timerMetric.getValue()
+								);
+							}
+							timerMetricsAttached = true;
+						}
 						///////////////////////////////////////////////
 						
 						microPipeline.addOperator(id, delayedResponseEnv);
 						break;
 					}
+					case ROUTER: {
+						// each route writes to the producer of the queue it is mapped to 
+						final Map<String, StreamingMessageQueueProducer> routeQueueProducers = new HashMap<>();
+						for(final Entry<String, String> route : componentCfg.getToQueues().entrySet())
+							routeQueueProducers.put(StringUtils.lowerCase(StringUtils.trim(route.getKey())), 
+									microPipeline.getQueue(StringUtils.lowerCase(StringUtils.trim(route.getValue()))).getProducer());
+						
+						RouterRuntimeEnvironment routerEnv = new RouterRuntimeEnvironment(this.processingNodeId, cfg.getId(), (Router)component, fromQueueConsumer, 
+								routeQueueProducers, (toQueue != null ? toQueue.getProducer() : null));
+
+						///////////////////////////////////////////////
+						// attach monitoring components
+						if(componentCfg.isAttachProcessingTimer()) {
+							final Timer messageProcessingTimer = metricsHandler.timer(
+									MetricRegistry.name(
+											StringUtils.lowerCase(StringUtils.trim(this.processingNodeId)),
+											StringUtils.lowerCase(StringUtils.trim(cfg.getId())),
+											"component",
+											id,
+											"messages",
+											"timer"
+									)
+							);
+							routerEnv.setMessageProcessingTimer(messageProcessingTimer);
+						}
+						
+						if(messageCounter != null)
+							routerEnv.setMessageCounter(messageCounter);
+						routerEnv.setErrorHandler(errorHandler);
+						///////////////////////////////////////////////
+						
+						microPipeline.addRouter(id, routerEnv);
+						
+						if(getScheduledWaitStrategy(fromQueueConsumer) != null)
+							scheduledComponents.put(id, fromQueueConsumer);
+						break;
+					}
 					case EMITTER: {
-						EmitterRuntimeEnvironment emitterEnv = new EmitterRuntimeEnvironment(this.processingNodeId, cfg.getId(), (Emitter)component, fromQueue.getConsumer());
+						EmitterRuntimeEnvironment emitterEnv = new EmitterRuntimeEnvironment(this.processingNodeId, cfg.getId(), (Emitter)component, fromQueueConsumer,
+								(int)getLongSetting(componentCfg.getSettings(), BatchEmitter.CFG_BATCH_SIZE, BatchEmitter.DEFAULT_BATCH_SIZE), 
+								getLongSetting(componentCfg.getSettings(), BatchEmitter.CFG_BATCH_MAX_WAIT_MS, BatchEmitter.DEFAULT_BATCH_MAX_WAIT_MS));
 
 						///////////////////////////////////////////////
 						// attach monitoring components
@@ -298,15 +480,21 @@ public class MicroPipelineFactory {
 
 						if(messageCounter != null)
 							emitterEnv.setMessageCounter(messageCounter);
+						emitterEnv.setErrorHandler(errorHandler);
 						///////////////////////////////////////////////
 						
 						microPipeline.addEmitter(id, emitterEnv);
 						emitterComponentFound = true;
+
+						if(getScheduledWaitStrategy(fromQueueConsumer) != null)
+							scheduledComponents.put(id, fromQueueConsumer);
 						break;
 					}
 				}
 				
 				components.put(id, component);
+				if(affinityMask != 0)
+					componentAffinities.put(id, affinityMask);
 			} catch(Exception e) {
 				logger.error("component initialization failed [id="+id+", class="+componentCfg.getName()+", version="+componentCfg.getVersion()+"]. Forcing shutdown of all queues and components. Reason: " + e.getMessage(), e);
 				microPipeline.shutdown();
@@ -326,27 +514,95 @@ public class MicroPipelineFactory {
 		
 		///////////////////////////////////////////////////////////////////////////////////
 
+		///////////////////////////////////////////////////////////////////////////////////
+		// (3) fuse operators: follow the destination queue of each direct response operator runtime environment
+		// and append the operator reading from it as long as the queue is a fused one
+		for(final Entry<String, String> operatorDestination : operatorDestinationQueues.entrySet()) {
+			DirectResponseOperatorRuntimeEnvironment directResponseEnv = microPipeline.getDirectResponseOperators().get(operatorDestination.getKey());
+			String queueId = operatorDestination.getValue();
+			FusedOperator fusedOperator = null;
+			while((fusedOperator = fusedOperators.remove(queueId)) != null) {
+				directResponseEnv.fuse(fusedOperator.operator, microPipeline.getQueue(fusedOperator.toQueueId).getProducer(), 
+						fusedOperator.messageCounter, fusedOperator.messageProcessingTimer, fusedOperator.errorHandler);
+				logger.info("operator fused [id="+fusedOperator.operator.getId()+", environment="+operatorDestination.getKey()+", queue="+queueId+"]");
+				queueId = fusedOperator.toQueueId;
+			}
+		}
+		
+		// operators left over form a cycle without any runtime environment reading from outside of it 
+		if(!fusedOperators.isEmpty()) {
+			for(final FusedOperator fusedOperator : fusedOperators.values())
+				fusedOperator.operator.shutdown();
+			microPipeline.shutdown();
+			throw new ComponentInitializationFailedException("Failed to fuse operators reading from queues " + fusedOperators.keySet() + ". Reason: cyclic operator chain");
+		}
+		//
+		///////////////////////////////////////////////////////////////////////////////////
+
 		microPipeline.attachComponentMetricsHandler(metricsHandler);
 		
 		///////////////////////////////////////////////////////////////////////////////////
-		// (3) start components --> ramp up their runtime environments 
+		// (4) start components --> ramp up their runtime environments. a consumer shared by several components 
+		// gets a single scheduled task as its read position must not be moved concurrently 
+		final Set<StreamingMessageQueueConsumer> scheduledConsumers = new HashSet<>();
 		for(String sourceId : microPipeline.getSources().keySet()) {
-			executorService.submit(microPipeline.getSources().get(sourceId));
+			executorService.submit(placeRuntimeEnvironment(microPipeline.getId(), sourceId + "/backpressure", microPipeline.getSources().get(sourceId), componentAffinities.get(sourceId)));
 			if(logger.isDebugEnabled())
 				logger.debug("Started runtime environment for source [id="+sourceId+"]");
 		}
 		for(String directResponseOperatorId : microPipeline.getDirectResponseOperators().keySet()) {
-			executorService.submit(microPipeline.getDirectResponseOperators().get(directResponseOperatorId));
+			final StreamingMessageQueueConsumer scheduledConsumer = scheduledComponents.get(directResponseOperatorId);
+			if(scheduledConsumer != null && scheduledConsumers.add(scheduledConsumer)) {
+				getScheduler().schedule(directResponseOperatorId, microPipeline.getDirectResponseOperators().get(directResponseOperatorId), getScheduledWaitStrategy(scheduledConsumer));
+				if(componentAffinities.containsKey(directResponseOperatorId))
+					logger.warn("Scheduled runtime environment for direct response operator [id="+directResponseOperatorId+"] is not pinned to cpus " + CpuAffinity.format(componentAffinities.get(directResponseOperatorId)) + " as it shares the scheduler threads");
+				if(logger.isDebugEnabled())
+					logger.debug("Scheduled runtime environment for direct response operator [id="+directResponseOperatorId+"]");
+				continue;
+			}
+			executorService.submit(placeRuntimeEnvironment(microPipeline.getId(), directResponseOperatorId, microPipeline.getDirectResponseOperators().get(directResponseOperatorId), componentAffinities.get(directResponseOperatorId)));
 			if(logger.isDebugEnabled())
 				logger.debug("Started runtime environment for direct response operator [id="+directResponseOperatorId+"]");
 		}
+		for(String partitionedOperatorId : microPipeline.getPartitionedDirectResponseOperators().keySet()) {
+			final PartitionedDirectResponseOperatorRuntimeEnvironment partitionedEnv = microPipeline.getPartitionedDirectResponseOperators().get(partitionedOperatorId);
+			final PinnedRuntimeEnvironment pinnedEnv = placeRuntimeEnvironment(microPipeline.getId(), partitionedOperatorId, partitionedEnv, componentAffinities.get(partitionedOperatorId));
+			// partition and merge threads follow the distributing thread
+			partitionedEnv.setThreadPlacement(this.placementRegistry, pinnedEnv.getAffinityMask());
+			executorService.submit(pinnedEnv);
+			if(logger.isDebugEnabled())
+				logger.debug("Started runtime environment for partitioned direct response operator [id="+partitionedOperatorId+"]");
+		}
 		for(String delayedResponseOperatorId : microPipeline.getDelayedResponseOperators().keySet()) {
-			executorService.submit(microPipeline.getDelayedResponseOperators().get(delayedResponseOperatorId));
+			executorService.submit(placeRuntimeEnvironment(microPipeline.getId(), delayedResponseOperatorId, microPipeline.getDelayedResponseOperators().get(delayedResponseOperatorId), componentAffinities.get(delayedResponseOperatorId)));
 			if(logger.isDebugEnabled())
 				logger.debug("Started runtime environment for delayed response operator [id="+delayedResponseOperatorId+"]");
 		}
+		for(String routerId : microPipeline.getRouters().keySet()) {
+			final StreamingMessageQueueConsumer scheduledConsumer = scheduledComponents.get(routerId);
+			if(scheduledConsumer != null && scheduledConsumers.add(scheduledConsumer)) {
+				getScheduler().schedule(routerId, microPipeline.getRouters().get(routerId), getScheduledWaitStrategy(scheduledConsumer));
+				if(componentAffinities.containsKey(routerId))
+					logger.warn("Scheduled runtime environment for router [id="+routerId+"] is not pinned to cpus " + CpuAffinity.format(componentAffinities.get(routerId)) + " as it shares the scheduler threads");
+				if(logger.isDebugEnabled())
+					logger.debug("Scheduled runtime environment for router [id="+routerId+"]");
+				continue;
+			}
+			executorService.submit(placeRuntimeEnvironment(microPipeline.getId(), routerId, microPipeline.getRouters().get(routerId), componentAffinities.get(routerId)));
+			if(logger.isDebugEnabled())
+				logger.debug("Started runtime environment for router [id="+routerId+"]");
+		}
 		for(String emitterId : microPipeline.getEmitters().keySet()) {
-			executorService.submit(microPipeline.getEmitters().get(emitterId));
+			final StreamingMessageQueueConsumer scheduledConsumer = scheduledComponents.get(emitterId);
+			if(scheduledConsumer != null && scheduledConsumers.add(scheduledConsumer)) {
+				getScheduler().schedule(emitterId, microPipeline.getEmitters().get(emitterId), getScheduledWaitStrategy(scheduledConsumer));
+				if(componentAffinities.containsKey(emitterId))
+					logger.warn("Scheduled runtime environment for emitter [id="+emitterId+"] is not pinned to cpus " + CpuAffinity.format(componentAffinities.get(emitterId)) + " as it shares the scheduler threads");
+				if(logger.isDebugEnabled())
+					logger.debug("Scheduled runtime environment for emitter [id="+emitterId+"]");
+				continue;
+			}
+			executorService.submit(placeRuntimeEnvironment(microPipeline.getId(), emitterId, microPipeline.getEmitters().get(emitterId), componentAffinities.get(emitterId)));
 			if(logger.isDebugEnabled())
 				logger.debug("Started runtime environment for emitter [id="+emitterId+"]");
 		}
@@ -359,6 +615,338 @@ public class MicroPipelineFactory {
 		return microPipeline;
 	}
 	
+	/**
+	 * Returns the {@link StreamingMessageQueueScheduledWaitStrategy} applied by the given queue consumer or null if the consumer 
+	 * uses any other {@link StreamingMessageQueueWaitStrategy}
+	 * @param queueConsumer
+	 * @return
+	 */
+	protected StreamingMessageQueueScheduledWaitStrategy getScheduledWaitStrategy(final StreamingMessageQueueConsumer queueConsumer) {
+		if(queueConsumer == null)
+			return null;
+		final StreamingMessageQueueWaitStrategy waitStrategy = queueConsumer.getWaitStrategy();
+		if(waitStrategy instanceof StreamingMessageQueueScheduledWaitStrategy)
+			return (StreamingMessageQueueScheduledWaitStrategy)waitStrategy;
+		return null;
+	}
+	
+	/**
+	 * Returns the {@link MicroPipelineScheduler} shared by all pipelines created through this factory. The 
+	 * scheduler is created on first request
+	 * @return
+	 */
+	protected synchronized MicroPipelineScheduler getScheduler() {
+		if(this.scheduler == null)
+			this.scheduler = new MicroPipelineScheduler();
+		return this.scheduler;
+	}
+	
+	/**
+	 * Returns the {@link WaitStrategyTimerService} shared by all pipelines created through this factory. The 
+	 * service is created on first request
+	 * @return
+	 */
+	protected synchronized WaitStrategyTimerService getTimerService() {
+		if(this.timerService == null)
+			this.timerService = new WaitStrategyTimerService();
+		return this.timerService;
+	}
+	
+	/**
+	 * Wraps the given runtime environment into a {@link PinnedRuntimeEnvironment} which names the executing thread after 
+	 * the component and pins it to the provided cpus. Runtime environments executed on virtual threads are never pinned 
+	 * as the carrier thread changes between executions 
+	 * @param pipelineId
+	 * @param componentId
+	 * @param runtimeEnvironment
+	 * @param affinityMask cpus to pin the runtime environment to - null or 0 keeps the current affinity 
+	 * @return
+	 * @throws RequiredInputMissingException
+	 */
+	protected PinnedRuntimeEnvironment placeRuntimeEnvironment(final String pipelineId, final String componentId, final Runnable runtimeEnvironment, final Long affinityMask) throws RequiredInputMissingException {
+		long mask = (affinityMask != null ? affinityMask.longValue() : 0);
+		if(mask != 0 && this.virtualThreads) {
+			logger.warn("Runtime environment [pipeline="+pipelineId+", component="+componentId+"] is not pinned to cpus " + CpuAffinity.format(mask) + " as it runs on a virtual thread");
+			mask = 0;
+		}
+		return new PinnedRuntimeEnvironment(this.processingNodeId, pipelineId, componentId, runtimeEnvironment, mask, this.placementRegistry);
+	}
+	
+	/**
+	 * Returns the threads executing runtime environments of all pipelines created through this factory along with the cpus they 
+	 * are pinned to
+	 * @return
+	 */
+	public List<ComponentThreadPlacement> getThreadPlacements() {
+		return this.placementRegistry.getPlacements();
+	}
+	
+	/**
+	 * Tells the factory whether the {@link ExecutorService} provided on pipeline instantiation runs tasks on virtual threads. If so, 
+	 * runtime environments share it instead of creating private executors 
+	 * @param virtualThreads
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * @return the virtualThreads
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * Shuts down the {@link MicroPipelineScheduler} and the {@link WaitStrategyTimerService} if they have been created 
+	 */
+	public synchronized void shutdown() {
+		if(this.scheduler != null) {
+			this.scheduler.shutdown();
+			this.scheduler = null;
+		}
+		if(this.timerService != null) {
+			this.timerService.shutdown();
+			this.timerService = null;
+		}
+	}
+	
+	/**
+	 * Returns the {@link StreamingMessageQueueWatermark} of the given queue or null if no {@link StreamingMessageQueue#CFG_QUEUE_HIGH_WATERMARK high watermark}
+	 * is configured. If the {@link StreamingMessageQueue#CFG_QUEUE_LOW_WATERMARK low watermark} is missing, it defaults to half of the high watermark
+	 * @param queueCfg
+	 * @param queue
+	 * @return
+	 * @throws RequiredInputMissingException
+	 */
+	protected StreamingMessageQueueWatermark getQueueWatermark(final StreamingMessageQueueConfiguration queueCfg, final StreamingMessageQueue queue) throws RequiredInputMissingException {
+		if(queueCfg == null || queueCfg.getProperties() == null)
+			return null;
+		
+		final String highWatermarkStr = StringUtils.trim(queueCfg.getProperties().getProperty(StreamingMessageQueue.CFG_QUEUE_HIGH_WATERMARK));
+		if(StringUtils.isBlank(highWatermarkStr))
+			return null;
+		final String lowWatermarkStr = StringUtils.trim(queueCfg.getProperties().getProperty(StreamingMessageQueue.CFG_QUEUE_LOW_WATERMARK));
+		
+		try {
+			final long highWatermark = Long.parseLong(highWatermarkStr);
+			final long lowWatermark = (StringUtils.isNotBlank(lowWatermarkStr) ? Long.parseLong(lowWatermarkStr) : highWatermark / 2);
+			return new StreamingMessageQueueWatermark(queue, highWatermark, lowWatermark);
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid watermarks found for queue '"+queueCfg.getId()+"': high="+highWatermarkStr+", low="+lowWatermarkStr);
+		}
+	}
+	
+	/**
+	 * Returns the {@link StreamingMessageQueueWatermark watermarks} of the given queue and all queues receiving messages from it
+	 * via any component in between. 
+	 * @param cfg
+	 * @param queueId
+	 * @param queueWatermarks watermarks of all queues - queues without watermark are not contained
+	 * @return
+	 */
+	protected List<StreamingMessageQueueWatermark> getDownstreamQueueWatermarks(final MicroPipelineConfiguration cfg, final String queueId, final Map<String, StreamingMessageQueueWatermark> queueWatermarks) {
+		
+		final List<StreamingMessageQueueWatermark> watermarks = new ArrayList<>();
+		if(cfg == null || cfg.getComponents() == null || StringUtils.isBlank(queueId) || queueWatermarks == null || queueWatermarks.isEmpty())
+			return watermarks;
+		
+		// breadth-first walk along the components reading from a queue and writing to another one
+		final Set<String> visitedQueues = new HashSet<>();
+		final LinkedList<String> pendingQueues = new LinkedList<>();
+		pendingQueues.add(StringUtils.lowerCase(StringUtils.trim(queueId)));
+		while(!pendingQueues.isEmpty()) {
+			final String currentQueueId = pendingQueues.removeFirst();
+			if(!visitedQueues.add(currentQueueId))
+				continue;
+			
+			if(queueWatermarks.containsKey(currentQueueId))
+				watermarks.add(queueWatermarks.get(currentQueueId));
+			
+			for(final MicroPipelineComponentConfiguration componentCfg : cfg.getComponents()) {
+				if(componentCfg != null && StringUtils.equals(currentQueueId, StringUtils.lowerCase(StringUtils.trim(componentCfg.getFromQueue()))))
+					pendingQueues.addAll(getDestinationQueues(componentCfg));
+			}
+		}
+		return watermarks;
+	}
+	
+	/**
+	 * Returns the numerical value found for the given key or the default value if the setting is missing
+	 * @param settings
+	 * @param key
+	 * @param defaultValue
+	 * @return
+	 */
+	protected long getLongSetting(final Properties settings, final String key, final long defaultValue) {
+		final String value = (settings != null ? StringUtils.trim(settings.getProperty(key)) : null);
+		if(StringUtils.isBlank(value))
+			return defaultValue;
+		try {
+			return Long.parseLong(value);
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value found for setting '"+key+"': " + value);
+		}
+	}
+	
+	/**
+	 * Returns the {@link ComponentErrorHandler} applying the error policy configured via the component settings. Its metrics are
+	 * registered with the provided {@link MetricsHandler}
+	 * @param microPipeline
+	 * @param componentId
+	 * @param componentCfg
+	 * @param metricsHandler
+	 * @return
+	 * @throws RequiredInputMissingException
+	 */
+	protected ComponentErrorHandler getErrorHandler(final MicroPipeline microPipeline, final String componentId, final MicroPipelineComponentConfiguration componentCfg, 
+			final MetricsHandler metricsHandler) throws RequiredInputMissingException {
+		
+		final Properties settings = componentCfg.getSettings();
+		
+		// failed messages are dropped unless a dead letter queue is referenced which must not be the one the component reads from
+		StreamingMessageQueueProducer deadLetterProducer = null;
+		final String deadLetterQueueId = (settings != null ? StringUtils.lowerCase(StringUtils.trim(settings.getProperty(ComponentErrorHandler.CFG_DEAD_LETTER_QUEUE))) : null);
+		if(StringUtils.isNotBlank(deadLetterQueueId)) {
+			final StreamingMessageQueue deadLetterQueue = microPipeline.getQueue(deadLetterQueueId);
+			if(deadLetterQueue == null)
+				throw new IllegalArgumentException("Unknown dead letter queue '"+deadLetterQueueId+"' referenced by component '"+componentId+"'");
+			if(StringUtils.equals(deadLetterQueueId, StringUtils.lowerCase(StringUtils.trim(componentCfg.getFromQueue()))))
+				throw new IllegalArgumentException("Dead letter queue '"+deadLetterQueueId+"' of component '"+componentId+"' must not be its source queue");
+			deadLetterProducer = deadLetterQueue.getProducer();
+		}
+		
+		final ComponentErrorHandler errorHandler = new ComponentErrorHandler(this.processingNodeId, microPipeline.getId(), componentId, deadLetterProducer, 
+				getLongSetting(settings, ComponentErrorHandler.CFG_STACK_TRACE_SAMPLE_INTERVAL, ComponentErrorHandler.DEFAULT_STACK_TRACE_SAMPLE_INTERVAL),
+				(int)getLongSetting(settings, ComponentErrorHandler.CFG_CIRCUIT_BREAKER_THRESHOLD, ComponentErrorHandler.DEFAULT_CIRCUIT_BREAKER_THRESHOLD),
+				getLongSetting(settings, ComponentErrorHandler.CFG_CIRCUIT_BREAKER_OPEN_DURATION, ComponentErrorHandler.DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION));
+		
+		if(metricsHandler != null)
+			errorHandler.attachMetrics(metricsHandler, 
+					MetricRegistry.name(
+							StringUtils.lowerCase(StringUtils.trim(this.processingNodeId)),
+							microPipeline.getId(),
+							"component",
+							componentId));
+		return errorHandler;
+	}
+	
+	/**
+	 * Returns the identifiers of all queues the given component writes to: its {@link MicroPipelineComponentConfiguration#getToQueue() destination queue}
+	 * along with the {@link MicroPipelineComponentConfiguration#getToQueues() route destination queues} of routers
+	 * @param componentCfg
+	 * @return
+	 */
+	protected Set<String> getDestinationQueues(final MicroPipelineComponentConfiguration componentCfg) {
+		final Set<String> destinationQueues = new HashSet<>();
+		if(StringUtils.isNotBlank(componentCfg.getToQueue()))
+			destinationQueues.add(StringUtils.lowerCase(StringUtils.trim(componentCfg.getToQueue())));
+		if(componentCfg.getToQueues() != null) {
+			for(final String routeQueueId : componentCfg.getToQueues().values()) {
+				if(StringUtils.isNotBlank(routeQueueId))
+					destinationQueues.add(StringUtils.lowerCase(StringUtils.trim(routeQueueId)));
+			}
+		}
+		return destinationQueues;
+	}
+	
+	/**
+	 * Returns the identifiers of all queues which {@link StreamingMessageQueue#CFG_QUEUE_FUSE_OPERATORS request} their reading and writing
+	 * {@link DirectResponseOperator direct response operators} to be fused into a single runtime environment. Fusion is applied only to 
+	 * queues having exactly one component writing to them and exactly one reading from them - both must be direct response operators 
+	 * executed by a single instance. 
+	 * Queues not fulfilling these requirements are treated like any other queue. Fused queues are still instantiated but neither read 
+	 * nor written.
+	 * @param cfg
+	 * @return
+	 */
+	protected Set<String> getFusedQueues(final MicroPipelineConfiguration cfg) {
+		
+		final Set<String> fusedQueues = new HashSet<>();
+		if(cfg == null || cfg.getQueues() == null || cfg.getComponents() == null)
+			return fusedQueues;
+
+		for(final StreamingMessageQueueConfiguration queueCfg : cfg.getQueues()) {
+			if(queueCfg == null || queueCfg.getProperties() == null)
+				continue;
+			if(!StringUtils.equalsIgnoreCase(StringUtils.trim(queueCfg.getProperties().getProperty(StreamingMessageQueue.CFG_QUEUE_FUSE_OPERATORS)), "true"))
+				continue;
+			
+			final String queueId = StringUtils.lowerCase(StringUtils.trim(queueCfg.getId()));
+			MicroPipelineComponentConfiguration writer = null;
+			MicroPipelineComponentConfiguration reader = null;
+			int numOfWriters = 0;
+			int numOfReaders = 0;
+			for(final MicroPipelineComponentConfiguration componentCfg : cfg.getComponents()) {
+				if(componentCfg == null)
+					continue;
+				if(getDestinationQueues(componentCfg).contains(queueId)) {
+					writer = componentCfg;
+					numOfWriters++;
+				}
+				if(StringUtils.equals(queueId, StringUtils.lowerCase(StringUtils.trim(componentCfg.getFromQueue())))) {
+					reader = componentCfg;
+					numOfReaders++;
+				}
+			}
+			
+			if(numOfWriters == 1 && numOfReaders == 1 && writer != reader && 
+					writer.getType() == MicroPipelineComponentType.DIRECT_RESPONSE_OPERATOR && 
+					reader.getType() == MicroPipelineComponentType.DIRECT_RESPONSE_OPERATOR &&
+					writer.getParallelism() <= 1 && reader.getParallelism() <= 1) {
+				fusedQueues.add(queueId);
+			} else {
+				logger.warn("queue[id="+queueId+"]: operator fusion requested but queue does not connect exactly two non-parallel direct response operators. Fusion skipped");
+			}
+		}
+		
+		return fusedQueues;
+	}
+	
+	/**
+	 * Returns the provided {@link DirectResponseOperator} along with as many additional instances as required 
+	 * to reach the {@link MicroPipelineComponentConfiguration#getParallelism() configured parallelism}. If any 
+	 * instance fails to initialize, all instances created so far are shut down
+	 * @param componentCfg
+	 * @param operator already initialized instance
+	 * @param queues
+	 * @return
+	 * @throws RequiredInputMissingException
+	 * @throws ComponentInitializationFailedException
+	 */
+	protected List<DirectResponseOperator> initializeOperatorInstances(final MicroPipelineComponentConfiguration componentCfg, final DirectResponseOperator operator, 
+			final Map<String, StreamingMessageQueue> queues) throws RequiredInputMissingException, ComponentInitializationFailedException {
+		
+		final List<DirectResponseOperator> operators = new ArrayList<>();
+		operators.add(operator);
+		try {
+			for(int i = 1; i < componentCfg.getParallelism(); i++)
+				operators.add((DirectResponseOperator)initializeComponent(componentCfg, queues));
+		} catch(RequiredInputMissingException | ComponentInitializationFailedException e) {
+			for(int i = 1; i < operators.size(); i++)
+				operators.get(i).shutdown();
+			throw e;
+		}
+		return operators;
+	}
+	
+	/**
+	 * Returns the {@link StreamingDataMessagePartitioner} used for distributing messages among parallel operator instances: 
+	 * messages are hashed by the value found below the {@link MicroPipelineComponentConfiguration#getPartitionKey() partition key}
+	 * if one is configured, otherwise they are assigned round robin. The key {@link HeaderKeyHashMessagePartitioner#PARTITION_KEY}
+	 * hashes messages by the key found in their header
+	 * @param componentCfg
+	 * @return
+	 * @throws RequiredInputMissingException
+	 */
+	protected StreamingDataMessagePartitioner getMessagePartitioner(final MicroPipelineComponentConfiguration componentCfg) throws RequiredInputMissingException {
+		if(StringUtils.equals(StringUtils.trim(componentCfg.getPartitionKey()), HeaderKeyHashMessagePartitioner.PARTITION_KEY))
+			return new HeaderKeyHashMessagePartitioner();
+		if(StringUtils.isNotBlank(componentCfg.getPartitionKey()))
+			return new JsonKeyHashMessagePartitioner(componentCfg.getPartitionKey());
+		return new RoundRobinMessagePartitioner();
+	}
+	
 	/**
 	 * Initializes a {@link StreamingMessageQueue} instance according to provided information.
 	 * @param queueConfiguration+
@@ -380,12 +968,51 @@ public class MicroPipelineFactory {
 		///////////////////////////////////////////////////////////////////////////////////
 		// check properties for optional settings
 		boolean inMemoryQueue = false;
+		boolean ringBufferQueue = false;
+		boolean offHeapQueue = false;
+		boolean hybridQueue = false;
 		if(queueConfiguration.getProperties() != null && !queueConfiguration.getProperties().isEmpty()) {
 			String queueType = StringUtils.lowerCase(StringUtils.trim(queueConfiguration.getProperties().getProperty(StreamingMessageQueue.CFG_QUEUE_TYPE)));
 			inMemoryQueue = StringUtils.equalsIgnoreCase(queueType, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE);
+			ringBufferQueue = StringUtils.equalsIgnoreCase(queueType, RingBufferStreamingMessageQueue.CFG_QUEUE_TYPE);
+			offHeapQueue = StringUtils.equalsIgnoreCase(queueType, OffHeapStreamingMessageQueue.CFG_QUEUE_TYPE);
+			hybridQueue = StringUtils.equalsIgnoreCase(queueType, HybridStreamingMessageQueue.CFG_QUEUE_TYPE);
 		}
 		///////////////////////////////////////////////////////////////////////////////////
 
+		if(ringBufferQueue) {
+			try {
+				StreamingMessageQueue queue = new RingBufferStreamingMessageQueue();
+				queue.setId(StringUtils.lowerCase(StringUtils.trim(queueConfiguration.getId())));
+				queue.initialize((queueConfiguration.getProperties() != null ? queueConfiguration.getProperties() : new Properties()));
+				return queue;
+			} catch(Exception e) {
+				throw new QueueInitializationFailedException("Failed to initialize streaming message queue '"+queueConfiguration.getId()+"'. Error: " + e.getMessage());
+			}
+		}
+
+		if(hybridQueue) {
+			try {
+				StreamingMessageQueue queue = new HybridStreamingMessageQueue();
+				queue.setId(StringUtils.lowerCase(StringUtils.trim(queueConfiguration.getId())));
+				queue.initialize((queueConfiguration.getProperties() != null ? queueConfiguration.getProperties() : new Properties()));
+				return queue;
+			} catch(Exception e) {
+				throw new QueueInitializationFailedException("Failed to initialize streaming message queue '"+queueConfiguration.getId()+"'. Error: " + e.getMessage());
+			}
+		}
+
+		if(offHeapQueue) {
+			try {
+				StreamingMessageQueue queue = new OffHeapStreamingMessageQueue();
+				queue.setId(StringUtils.lowerCase(StringUtils.trim(queueConfiguration.getId())));
+				queue.initialize((queueConfiguration.getProperties() != null ? queueConfiguration.getProperties() : new Properties()));
+				return queue;
+			} catch(Exception e) {
+				throw new QueueInitializationFailedException("Failed to initialize streaming message queue '"+queueConfiguration.getId()+"'. Error: " + e.getMessage());
+			}
+		}
+
 		if(inMemoryQueue) {
 			try {
 				StreamingMessageQueue queue = new InMemoryStreamingMessageQueue();
@@ -478,6 +1105,26 @@ public class MicroPipelineFactory {
 			if(StringUtils.isBlank(componentConfiguration.getSettings().getProperty(DelayedResponseOperator.CFG_WAIT_STRATEGY_NAME)))
 				throw new RequiredInputMissingException("Missing required settings for wait strategy applied to delayed response operator");
 
+		////////////////////////////////////////////////////////////////////////////////////
+		// validate settings for components of type: ROUTER
+		} else if(componentConfiguration.getType() == MicroPipelineComponentType.ROUTER) {
+
+			if(componentConfiguration.getToQueues() == null || componentConfiguration.getToQueues().isEmpty())
+				throw new RequiredInputMissingException("Missing required route queues to write content to");
+			for(final Entry<String, String> route : componentConfiguration.getToQueues().entrySet()) {
+				if(StringUtils.isBlank(route.getKey()))
+					throw new RequiredInputMissingException("Missing required route name");
+				if(!queues.containsKey(StringUtils.lowerCase(StringUtils.trim(route.getValue()))))
+					throw new RequiredInputMissingException("Unknown destination queue '"+route.getValue()+"' for route '"+route.getKey()+"'");
+			}
+			if(StringUtils.isNotBlank(componentConfiguration.getToQueue()) && !queues.containsKey(StringUtils.lowerCase(StringUtils.trim(componentConfiguration.getToQueue()))))
+				throw new RequiredInputMissingException("Unknown destination queue '"+componentConfiguration.getToQueue()+"'");
+
+			if(StringUtils.isBlank(componentConfiguration.getFromQueue()))
+				throw new RequiredInputMissingException("Missing required queues to retrieve content from");
+			if(!queues.containsKey(StringUtils.lowerCase(StringUtils.trim(componentConfiguration.getFromQueue()))))
+				throw new RequiredInputMissingException("Unknown source queue '"+componentConfiguration.getFromQueue()+"'");
+
 		////////////////////////////////////////////////////////////////////////////////////
 		// validate settings for components of type: EMITTER
 		} else if(componentConfiguration.getType() == MicroPipelineComponentType.EMITTER) {
@@ -547,6 +1194,12 @@ public class MicroPipelineFactory {
 		} else if(StringUtils.equalsIgnoreCase(strategyName, TimerBasedResponseWaitStrategy.WAIT_STRATEGY_NAME)) {
 			TimerBasedResponseWaitStrategy strategy = new TimerBasedResponseWaitStrategy();
 			strategy.initialize(strategyProperties);
+			strategy.setTimerService(getTimerService());
+			return strategy;
+		} else if(StringUtils.equalsIgnoreCase(strategyName, HybridResponseWaitStrategy.WAIT_STRATEGY_NAME)) {
+			HybridResponseWaitStrategy strategy = new HybridResponseWaitStrategy();
+			strategy.initialize(strategyProperties);
+			strategy.setTimerService(getTimerService());
 			return strategy;
 		} else if(StringUtils.equalsIgnoreCase(strategyName, OperatorTriggeredWaitStrategy.WAIT_STRATEGY_NAME)) {
 			OperatorTriggeredWaitStrategy strategy = new OperatorTriggeredWaitStrategy();
@@ -558,4 +1211,31 @@ public class MicroPipelineFactory {
 		
 	}
 	
+	/**
+	 * Direct response operator waiting to be fused into the runtime environment of its predecessor 
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private static class FusedOperator {
+		/** operator to fuse */
+		private final DirectResponseOperator operator;
+		/** identifier of queue the operator writes to */
+		private final String toQueueId;
+		/** message counter metric (optional) */
+		private final Counter messageCounter;
+		/** message processing timer metric (optional) */
+		private final Timer messageProcessingTimer;
+		/** handles processing errors of operator */
+		private final ComponentErrorHandler errorHandler;
+		
+		private FusedOperator(final DirectResponseOperator operator, final String toQueueId, final Counter messageCounter, final Timer messageProcessingTimer, 
+				final ComponentErrorHandler errorHandler) {
+			this.operator = operator;
+			this.toQueueId = toQueueId;
+			this.messageCounter = messageCounter;
+			this.messageProcessingTimer = messageProcessingTimer;
+			this.errorHandler = errorHandler;
+		}
+	}
+
 }
@@ -17,6 +17,7 @@ package com.ottogroup.bi.spqr.pipeline;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -60,6 +61,19 @@ public class MicroPipelineManager {
 	 * @throws RequiredInputMissingException   
 	 */
 	public MicroPipelineManager(final String processingNodeId, final ComponentRepository componentRepository, final int maxNumberOfThreads) throws RequiredInputMissingException {
+		this(processingNodeId, componentRepository, maxNumberOfThreads, false);
+	}
+	
+	/**
+	 * Initializes the micro pipeline manager. If requested and supported by the runtime, all component runtime environments are executed 
+	 * on virtual threads. Otherwise the manager falls back to the {@link ExecutorService} configured through the number of threads
+	 * @param processingNodeId identifier of node this manager lives on
+	 * @param componentRepository reference to {@link ComponentRepository} which provides access to all {@link MicroPipelineComponent}
+	 * @param maxNumberOfThreads max. number of threads assigned to {@link ExecutorService} (1 = single threaded, n = fixed number of threads, other = cached thread pool)
+	 * @param virtualThreads run component runtime environments on virtual threads (requires Java 21 or later)
+	 * @throws RequiredInputMissingException   
+	 */
+	public MicroPipelineManager(final String processingNodeId, final ComponentRepository componentRepository, final int maxNumberOfThreads, final boolean virtualThreads) throws RequiredInputMissingException {
 
 		//////////////////////////////////////////////////////////////////////////////
 		// validate provided input
@@ -73,7 +87,13 @@ public class MicroPipelineManager {
 		this.processingNodeId = StringUtils.lowerCase(StringUtils.trim(processingNodeId));
 		this.microPipelineFactory = new MicroPipelineFactory(this.processingNodeId, componentRepository);
 		
-		if(maxNumberOfThreads == 1)
+		if(virtualThreads && !VirtualThreadExecutors.isSupported())
+			logger.warn("virtual threads requested but not supported by runtime [java.version="+System.getProperty("java.version")+"]. Using platform threads");
+		
+		if(virtualThreads && VirtualThreadExecutors.isSupported()) {
+			this.executorService = VirtualThreadExecutors.newVirtualThreadPerTaskExecutor();
+			this.microPipelineFactory.setVirtualThreads(true);
+		} else if(maxNumberOfThreads == 1)
 			this.executorService = Executors.newSingleThreadExecutor();
 		else if(maxNumberOfThreads > 1)
 			this.executorService = Executors.newFixedThreadPool(maxNumberOfThreads);
@@ -199,6 +219,15 @@ public class MicroPipelineManager {
 		return cfgs;
 	}
 	
+	/**
+	 * Returns the threads executing the runtime environments of all registered {@link MicroPipeline} instances
+	 * along with the cpus they are pinned to 
+	 * @return
+	 */
+	public List<ComponentThreadPlacement> getThreadPlacements() {
+		return this.microPipelineFactory.getThreadPlacements();
+	}
+	
 	/**
 	 * Shuts down the manager by stopping all running {@link MicroPipeline} instances
 	 */
@@ -212,6 +241,7 @@ public class MicroPipelineManager {
 				logger.error("failed to shutdown pipeline [id="+pipelineId+"]. Reason: " + e.getMessage(), e);
 			}
 		}
+		this.microPipelineFactory.shutdown();
 	}
 
 	/**
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Provides access to {@link ExecutorService executors} running each submitted task on a virtual thread. Virtual threads 
+ * are available on Java 21 and later only. The module is still compiled for older runtimes, thus the factory method 
+ * <code>Executors#newVirtualThreadPerTaskExecutor</code> is looked up reflectively. Callers must check {@link #isSupported()} 
+ * before requesting an executor.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class VirtualThreadExecutors {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(VirtualThreadExecutors.class);
+	/** name of factory method provided by {@link Executors} on runtimes supporting virtual threads */
+	private static final String FACTORY_METHOD_NAME = "newVirtualThreadPerTaskExecutor";
+	/** factory method or null if the runtime does not support virtual threads */
+	private static final Method FACTORY_METHOD = lookupFactoryMethod();
+	/** <code>Thread#isVirtual</code> or null if the runtime does not support virtual threads */
+	private static final Method IS_VIRTUAL_METHOD = lookupIsVirtualMethod();
+	
+	/**
+	 * Returns true if the runtime supports virtual threads
+	 * @return
+	 */
+	public static boolean isSupported() {
+		return FACTORY_METHOD != null;
+	}
+	
+	/**
+	 * Returns a new {@link ExecutorService} which starts a virtual thread for each submitted task
+	 * @return
+	 * @throws UnsupportedOperationException thrown in case the runtime does not support virtual threads
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if(FACTORY_METHOD == null)
+			throw new UnsupportedOperationException("Virtual threads are not supported by runtime version " + System.getProperty("java.version"));
+		try {
+			return (ExecutorService)FACTORY_METHOD.invoke(null);
+		} catch(Exception e) {
+			throw new UnsupportedOperationException("Failed to create virtual thread executor. Reason: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Returns true if the given thread is a virtual thread. The lookup is reflective, thus callers on hot paths 
+	 * should remember the result per thread
+	 * @param thread
+	 * @return
+	 */
+	public static boolean isVirtual(final Thread thread) {
+		if(IS_VIRTUAL_METHOD == null || thread == null)
+			return false;
+		try {
+			return ((Boolean)IS_VIRTUAL_METHOD.invoke(thread)).booleanValue();
+		} catch(Exception e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Looks up the factory method providing virtual thread executors
+	 * @return
+	 */
+	private static Method lookupFactoryMethod() {
+		try {
+			return Executors.class.getMethod(FACTORY_METHOD_NAME);
+		} catch(NoSuchMethodException e) {
+			if(logger.isDebugEnabled())
+				logger.debug("virtual threads not supported [java.version="+System.getProperty("java.version")+"]");
+			return null;
+		}
+	}
+	
+	/**
+	 * Looks up the method telling whether a thread is virtual
+	 * @return
+	 */
+	private static Method lookupIsVirtualMethod() {
+		try {
+			return Thread.class.getMethod("isVirtual");
+		} catch(NoSuchMethodException e) {
+			return null;
+		}
+	}
+	
+}
@@ -0,0 +1,415 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.metrics.MetricsHandler;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+
+/**
+ * Applies the error policy configured for a {@link MicroPipelineComponent} whenever its runtime environment fails to process a message:
+ * <ul>
+ *   <li>errors are counted per exception class</li>
+ *   <li>stack traces are logged at most once per exception class and {@link #CFG_STACK_TRACE_SAMPLE_INTERVAL sample interval}, 
+ *       suppressed occurrences are reported along with the next logged one</li>
+ *   <li>failed messages are written to the {@link #CFG_DEAD_LETTER_QUEUE dead letter queue} if one is configured</li>
+ *   <li>a circuit breaker opens after a {@link #CFG_CIRCUIT_BREAKER_THRESHOLD number of consecutive failures} and bypasses the component
+ *       for the {@link #CFG_CIRCUIT_BREAKER_OPEN_DURATION configured time}: messages are sent to the dead letter queue (or dropped) without 
+ *       being handed over to the component. Afterwards, messages are passed to the component again and the first failure re-opens 
+ *       the circuit while the first success closes it</li>
+ * </ul>
+ * The handler is thread-safe as components executed on several threads share it.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class ComponentErrorHandler implements MetricSet {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(ComponentErrorHandler.class);
+
+	/** identifier of queue receiving messages the component failed to process (optional) */
+	public static final String CFG_DEAD_LETTER_QUEUE = "errorPolicy.deadLetterQueue";
+	/** min. time in milliseconds between two stack traces logged for the same exception class */
+	public static final String CFG_STACK_TRACE_SAMPLE_INTERVAL = "errorPolicy.stackTraceSampleIntervalMs";
+	/** number of consecutive failures opening the circuit - 0 disables the circuit breaker */
+	public static final String CFG_CIRCUIT_BREAKER_THRESHOLD = "errorPolicy.circuitBreaker.threshold";
+	/** time in milliseconds the component is bypassed for once the circuit is open */
+	public static final String CFG_CIRCUIT_BREAKER_OPEN_DURATION = "errorPolicy.circuitBreaker.openMs";
+	
+	public static final long DEFAULT_STACK_TRACE_SAMPLE_INTERVAL = 10000;
+	public static final int DEFAULT_CIRCUIT_BREAKER_THRESHOLD = 0;
+	public static final long DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 30000;
+
+	public static final String METRIC_ERRORS = "errors";
+	public static final String METRIC_DEAD_LETTERS = "deadLetters";
+	public static final String METRIC_BYPASSED = "circuit.bypassed";
+	public static final String METRIC_CIRCUIT_OPEN = "circuit.open";
+	
+	/** identifier of processing node the component belongs to */
+	private final String processingNodeId;
+	/** identifier of pipeline the component belongs to */
+	private final String pipelineId;
+	/** identifier of component the handler is assigned to */
+	private final String componentId;
+	/** provides write access to the dead letter queue - null if failed messages are dropped */
+	private final StreamingMessageQueueProducer deadLetterProducer;
+	/** min. time between two stack traces logged for the same exception class */
+	private final long stackTraceSampleInterval;
+	/** number of consecutive failures opening the circuit - 0 if disabled */
+	private final int circuitBreakerThreshold;
+	/** time the component is bypassed for once the circuit is open */
+	private final long circuitBreakerOpenDuration;
+	
+	/** number of all errors */
+	private final Counter errors = new Counter();
+	/** number of messages written to the dead letter queue */
+	private final Counter deadLetters = new Counter();
+	/** number of messages bypassing the component while the circuit is open */
+	private final Counter bypassed = new Counter();
+	/** error statistics per exception class */
+	private final ConcurrentMap<String, ErrorClassStats> errorClassStats = new ConcurrentHashMap<>();
+	/** number of consecutive failures */
+	private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+	/** time the circuit has been opened at - 0 if closed */
+	private final AtomicLong circuitOpenedAt = new AtomicLong(0);
+	/** receives the per exception class counters - null if no metrics are attached */
+	private MetricsHandler metricsHandler = null;
+	/** prefix of metrics registered with the metrics handler */
+	private String metricsPrefix = null;
+	
+	/**
+	 * Initializes the handler using the default policy: stack traces are sampled, failed messages dropped and the 
+	 * circuit breaker is disabled
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param componentId
+	 */
+	public ComponentErrorHandler(final String processingNodeId, final String pipelineId, final String componentId) {
+		this(processingNodeId, pipelineId, componentId, null, DEFAULT_STACK_TRACE_SAMPLE_INTERVAL, DEFAULT_CIRCUIT_BREAKER_THRESHOLD, DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION);
+	}
+	
+	/**
+	 * Initializes the handler using the provided input
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param componentId
+	 * @param deadLetterProducer provides write access to the dead letter queue (optional)
+	 * @param stackTraceSampleInterval min. time in milliseconds between two stack traces logged for the same exception class
+	 * @param circuitBreakerThreshold number of consecutive failures opening the circuit - 0 disables the circuit breaker
+	 * @param circuitBreakerOpenDuration time in milliseconds the component is bypassed for once the circuit is open
+	 */
+	public ComponentErrorHandler(final String processingNodeId, final String pipelineId, final String componentId, final StreamingMessageQueueProducer deadLetterProducer, 
+			final long stackTraceSampleInterval, final int circuitBreakerThreshold, final long circuitBreakerOpenDuration) {
+		
+		if(stackTraceSampleInterval < 0)
+			throw new IllegalArgumentException("Invalid stack trace sample interval: " + stackTraceSampleInterval);
+		if(circuitBreakerThreshold < 0)
+			throw new IllegalArgumentException("Invalid circuit breaker threshold: " + circuitBreakerThreshold);
+		if(circuitBreakerThreshold > 0 && circuitBreakerOpenDuration < 1)
+			throw new IllegalArgumentException("Invalid circuit breaker open duration: " + circuitBreakerOpenDuration);
+		
+		this.processingNodeId = StringUtils.lowerCase(StringUtils.trim(processingNodeId));
+		this.pipelineId = StringUtils.lowerCase(StringUtils.trim(pipelineId));
+		this.componentId = StringUtils.lowerCase(StringUtils.trim(componentId));
+		this.deadLetterProducer = deadLetterProducer;
+		this.stackTraceSampleInterval = stackTraceSampleInterval;
+		this.circuitBreakerThreshold = circuitBreakerThreshold;
+		this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+	}
+	
+	/**
+	 * Registers the metrics of this handler with the given {@link MetricsHandler}. Counters of exception classes
+	 * seen later on are registered on their first occurrence
+	 * @param metricsHandler
+	 * @param metricsPrefix
+	 * @throws RequiredInputMissingException
+	 */
+	public synchronized void attachMetrics(final MetricsHandler metricsHandler, final String metricsPrefix) throws RequiredInputMissingException {
+		
+		/////////////////////////////////////////////////////////////
+		// input validation
+		if(metricsHandler == null)
+			throw new RequiredInputMissingException("Missing required metrics handler");
+		if(StringUtils.isBlank(metricsPrefix))
+			throw new RequiredInputMissingException("Missing required metrics prefix");
+		//
+		/////////////////////////////////////////////////////////////
+		
+		this.metricsHandler = metricsHandler;
+		this.metricsPrefix = metricsPrefix;
+		for(final Map.Entry<String, Metric> metric : getMetrics().entrySet())
+			metricsHandler.register(MetricRegistry.name(metricsPrefix, metric.getKey()), metric.getValue());
+	}
+	
+	/**
+	 * Returns true if the circuit is open and the component must be bypassed. Messages bypassing the component must be
+	 * handed over to {@link #onBypass(StreamingDataMessage)}
+	 * @return
+	 */
+	public boolean isBypassing() {
+		final long openedAt = this.circuitOpenedAt.get();
+		return openedAt != 0 && System.currentTimeMillis() - openedAt < this.circuitBreakerOpenDuration;
+	}
+	
+	/**
+	 * Returns true if the circuit is open, including the time it is probed again after the open duration 
+	 * @return
+	 */
+	public boolean isCircuitOpen() {
+		return this.circuitOpenedAt.get() != 0;
+	}
+	
+	/**
+	 * Tells the handler that the component processed a message successfully which resets the consecutive failures and closes
+	 * the circuit if open
+	 */
+	public void onSuccess() {
+		if(this.consecutiveFailures.get() == 0)
+			return;
+		this.consecutiveFailures.set(0);
+		if(this.circuitOpenedAt.getAndSet(0) != 0)
+			logger.info("circuit closed [node="+this.processingNodeId+", pipeline="+this.pipelineId+", component="+this.componentId+"]");
+	}
+	
+	/**
+	 * Tells the handler that the component failed to process the given {@link StreamingDataMessage}
+	 * @param message failed message - null if the failure cannot be assigned to a message
+	 * @param e 
+	 */
+	public void onError(final StreamingDataMessage message, final Exception e) {
+		recordError(e, 1, true);
+		deadLetter(message);
+	}
+	
+	/**
+	 * Tells the handler about a failure of the runtime environment which cannot be attributed to the component, eg. while 
+	 * accessing a queue. The error is counted and logged but does not affect the circuit breaker
+	 * @param e
+	 */
+	public void onError(final Exception e) {
+		recordError(e, 0, false);
+	}
+
+	/**
+	 * Tells the handler that the component failed to process a batch of messages. The batch counts as a single failure
+	 * for the circuit breaker  
+	 * @param messages
+	 * @param numOfMessages number of messages at the beginning of the array belonging to the batch
+	 * @param e
+	 */
+	public void onError(final StreamingDataMessage[] messages, final int numOfMessages, final Exception e) {
+		recordError(e, numOfMessages, true);
+		if(messages != null) {
+			for(int i = 0; i < numOfMessages && i < messages.length; i++)
+				deadLetter(messages[i]);
+		}
+	}
+	
+	/**
+	 * Tells the handler that the given {@link StreamingDataMessage} bypassed the component while the circuit was open
+	 * @param message
+	 */
+	public void onBypass(final StreamingDataMessage message) {
+		this.bypassed.inc();
+		deadLetter(message);
+	}
+	
+	/**
+	 * Counts and logs the given exception and opens the circuit if the threshold of consecutive failures is reached
+	 * @param e
+	 * @param numOfMessages
+	 * @param componentFailure true if the failure is attributed to the component and thus counts for the circuit breaker
+	 */
+	protected void recordError(final Exception e, final int numOfMessages, final boolean componentFailure) {
+		this.errors.inc();
+		
+		final String exceptionClass = (e != null ? e.getClass().getName() : "unknown");
+		final ErrorClassStats stats = getErrorClassStats(exceptionClass);
+		stats.counter.inc();
+		
+		// log the stack trace only if the last one for this exception class is old enough, count the suppressed ones otherwise
+		final long now = System.currentTimeMillis();
+		final long lastLogged = stats.lastLogged.get();
+		if(now - lastLogged >= this.stackTraceSampleInterval && stats.lastLogged.compareAndSet(lastLogged, now)) {
+			final long suppressed = stats.suppressed.getAndSet(0);
+			logger.error("processing error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", component="+this.componentId+", messages="+numOfMessages+
+					", suppressed="+suppressed+"]: " + (e != null ? e.getMessage() : null), e);
+		} else {
+			stats.suppressed.incrementAndGet();
+		}
+		
+		if(componentFailure && this.circuitBreakerThreshold > 0 && this.consecutiveFailures.incrementAndGet() >= this.circuitBreakerThreshold) {
+			// (re-)open the circuit unless it is still open
+			final long openedAt = this.circuitOpenedAt.get();
+			if((openedAt == 0 || now - openedAt >= this.circuitBreakerOpenDuration) && this.circuitOpenedAt.compareAndSet(openedAt, now))
+				logger.warn("circuit opened [node="+this.processingNodeId+", pipeline="+this.pipelineId+", component="+this.componentId+", failures="+this.consecutiveFailures.get()+
+						", bypassMs="+this.circuitBreakerOpenDuration+"]");
+		}
+	}
+	
+	/**
+	 * Writes the given {@link StreamingDataMessage} to the dead letter queue if one is configured. Views are detached as the queue
+	 * may keep the message beyond their validity  
+	 * @param message
+	 */
+	protected void deadLetter(final StreamingDataMessage message) {
+		if(this.deadLetterProducer == null || message == null || !message.hasBody())
+			return;
+		try {
+			if(this.deadLetterProducer.insert(message.detach())) {
+				this.deadLetters.inc();
+				if(this.deadLetterProducer.getWaitStrategy() != null)
+					this.deadLetterProducer.getWaitStrategy().forceLockRelease();
+			}
+		} catch(Exception e) {
+			logger.error("dead letter error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", component="+this.componentId+", queue="+
+					this.deadLetterProducer.getQueueId()+"]: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Returns the statistics of the given exception class. On first occurrence the statistics are created and their counter
+	 * is registered with the attached {@link MetricsHandler} 
+	 * @param exceptionClass
+	 * @return
+	 */
+	private ErrorClassStats getErrorClassStats(final String exceptionClass) {
+		ErrorClassStats stats = this.errorClassStats.get(exceptionClass);
+		if(stats != null)
+			return stats;
+		
+		synchronized(this) {
+			stats = this.errorClassStats.get(exceptionClass);
+			if(stats == null) {
+				stats = new ErrorClassStats();
+				this.errorClassStats.put(exceptionClass, stats);
+				if(this.metricsHandler != null)
+					this.metricsHandler.register(MetricRegistry.name(this.metricsPrefix, METRIC_ERRORS, exceptionClass), stats.counter);
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		Map<String, Metric> metrics = new HashMap<>();
+		metrics.put(METRIC_ERRORS, this.errors);
+		metrics.put(METRIC_DEAD_LETTERS, this.deadLetters);
+		metrics.put(METRIC_BYPASSED, this.bypassed);
+		metrics.put(METRIC_CIRCUIT_OPEN, new Gauge<Boolean>() {
+			public Boolean getValue() {
+				return isCircuitOpen();
+			}
+		});
+		for(final Map.Entry<String, ErrorClassStats> stats : this.errorClassStats.entrySet())
+			metrics.put(MetricRegistry.name(METRIC_ERRORS, stats.getKey()), stats.getValue().counter);
+		return metrics;
+	}
+	
+	/**
+	 * Returns the number of errors recorded for the given exception class
+	 * @param exceptionClass
+	 * @return
+	 */
+	public long getNumOfErrors(final Class<? extends Exception> exceptionClass) {
+		final ErrorClassStats stats = (exceptionClass != null ? this.errorClassStats.get(exceptionClass.getName()) : null);
+		return (stats != null ? stats.counter.getCount() : 0);
+	}
+	
+	/**
+	 * Returns the number of all errors
+	 * @return
+	 */
+	public long getNumOfErrors() {
+		return this.errors.getCount();
+	}
+	
+	/**
+	 * Returns the number of messages written to the dead letter queue
+	 * @return
+	 */
+	public long getNumOfDeadLetters() {
+		return this.deadLetters.getCount();
+	}
+	
+	/**
+	 * Returns the number of messages bypassing the component while the circuit was open
+	 * @return
+	 */
+	public long getNumOfBypassedMessages() {
+		return this.bypassed.getCount();
+	}
+
+	/**
+	 * @return the deadLetterProducer
+	 */
+	public StreamingMessageQueueProducer getDeadLetterProducer() {
+		return deadLetterProducer;
+	}
+
+	/**
+	 * @return the stackTraceSampleInterval
+	 */
+	public long getStackTraceSampleInterval() {
+		return stackTraceSampleInterval;
+	}
+
+	/**
+	 * @return the circuitBreakerThreshold
+	 */
+	public int getCircuitBreakerThreshold() {
+		return circuitBreakerThreshold;
+	}
+
+	/**
+	 * @return the circuitBreakerOpenDuration
+	 */
+	public long getCircuitBreakerOpenDuration() {
+		return circuitBreakerOpenDuration;
+	}
+	
+	/**
+	 * Error statistics of a single exception class
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private static class ErrorClassStats {
+		/** number of errors */
+		private final Counter counter = new Counter();
+		/** time the last stack trace has been logged at */
+		private final AtomicLong lastLogged = new AtomicLong(Long.MIN_VALUE / 2);
+		/** number of errors not logged since the last stack trace */
+		private final AtomicLong suppressed = new AtomicLong(0);
+	}
+}
@@ -15,27 +15,48 @@
  */
 package com.ottogroup.bi.spqr.pipeline.component.emitter;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Timer;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.scheduler.MicroPipelineScheduler;
+import com.ottogroup.bi.spqr.pipeline.scheduler.SchedulableRuntimeEnvironment;
 
 /**
  * Provides a runtime environment for {@link Emitter} instances. The environment retrieves all
  * incoming {@link StreamingDataMessage} instances from the attached {@link StreamingMessageQueueConsumer}
- * and provides them to the assigned {@link Emitter} for further processing.
+ * and provides them to the assigned {@link Emitter} for further processing. Instead of running on a dedicated
+ * thread the environment may be executed by the {@link MicroPipelineScheduler} which calls {@link #processMessages(int)}
+ * whenever the source queue receives messages.<br/><br/>
+ * {@link BatchEmitter Batch emitters} receive up to a configured number of messages at once. The environment waits a limited
+ * time for a batch to fill up and hands over whatever has been collected so far when the time is up. When executed by the 
+ * scheduler, the messages available on each call form a batch.<br/><br/>
+ * The {@link Emitter} is accessed by the processing thread only: on shutdown the thread leaves its loop, hands over the pending batch, 
+ * flushes the emitter and shuts it down.<br/><br/>
+ * Processing errors are handed over to the assigned {@link ComponentErrorHandler}. A failing batch counts as a single error, no matter
+ * whether the {@link BatchEmitter} throws an exception or reports the failure through its {@link EmitterCallback}.  
  * @author mnxfst
  *
  */
-public class EmitterRuntimeEnvironment implements Runnable {
+public class EmitterRuntimeEnvironment implements Runnable, SchedulableRuntimeEnvironment {
 
 	/** our faithful logging facility ... ;-) */ 
 	private static final Logger logger = Logger.getLogger(EmitterRuntimeEnvironment.class);
+	/** max. number of messages retrieved from the source queue at once */
+	private static final int MAX_BATCH_SIZE = 64;
+	/** max. time to wait for messages before checking whether the environment has been shut down */
+	private static final long SHUTDOWN_CHECK_INTERVAL_MILLIS = 100;
 
 	/** identifier of processing node the runtime environment belongs to*/
 	private final String processingNodeId;
@@ -48,11 +69,33 @@ public class EmitterRuntimeEnvironment implements Runnable {
 	/** provides read access to assigned source queue */
 	private final StreamingMessageQueueConsumer queueConsumer;
 	/** indicates whether the environment is still running */
-	private boolean running = false;
+	private volatile boolean running = false;
+	/** indicates whether a thread executes the processing loop inside {@link #run()} */
+	private volatile boolean processing = false;
+	/** indicates whether the emitter has been shut down */
+	private final AtomicBoolean emitterShutdown = new AtomicBoolean(false);
 	/** message counter metric */
 	private Counter messageCounter = null;
 	/** insertion timer metric */
 	private Timer messageEmitDurationTimer = null;
+	/** buffer receiving messages drained from the source queue */
+	private final StreamingDataMessage[] inboundBatch = new StreamingDataMessage[MAX_BATCH_SIZE];
+	/** reference to emitter instance if it accepts batches - null otherwise */
+	private final BatchEmitter batchEmitter;
+	/** messages collected for the next batch handed over to the batch emitter */
+	private final StreamingDataMessage[] outboundBatch;
+	/** number of messages collected for the next batch */
+	private int outboundBatchLength = 0;
+	/** time the first message of the current batch has been collected at */
+	private long outboundBatchStart = 0;
+	/** max. time to wait for a batch to fill up */
+	private final long batchMaxWaitNanos;
+	/** number of messages reported as emitted by the batch emitter */
+	private final AtomicLong numOfEmittedMessages = new AtomicLong(0);
+	/** number of messages reported as failed by the batch emitter */
+	private final AtomicLong numOfFailedMessages = new AtomicLong(0);
+	/** handles processing errors */
+	private ComponentErrorHandler errorHandler;
 
 
 	/**
@@ -65,6 +108,21 @@ public class EmitterRuntimeEnvironment implements Runnable {
 	 */
 	public EmitterRuntimeEnvironment(final String processingNodeId, final String pipelineId, final Emitter emitter, 
 			final StreamingMessageQueueConsumer queueConsumer) throws RequiredInputMissingException {
+		this(processingNodeId, pipelineId, emitter, queueConsumer, BatchEmitter.DEFAULT_BATCH_SIZE, BatchEmitter.DEFAULT_BATCH_MAX_WAIT_MS);
+	}
+
+	/**
+	 * Initializes the runtime environment using the provided input
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param emitter
+	 * @param queueConsumer
+	 * @param batchSize max. number of messages handed over at once - applies to {@link BatchEmitter} only
+	 * @param batchMaxWaitMillis max. time to wait for a batch to fill up - applies to {@link BatchEmitter} only
+	 * @throws RequiredInputMissingException
+	 */
+	public EmitterRuntimeEnvironment(final String processingNodeId, final String pipelineId, final Emitter emitter, 
+			final StreamingMessageQueueConsumer queueConsumer, final int batchSize, final long batchMaxWaitMillis) throws RequiredInputMissingException {
 		
 		///////////////////////////////////////////////////////////////////
 		// validate input
@@ -76,14 +134,26 @@ public class EmitterRuntimeEnvironment implements Runnable {
 			throw new RequiredInputMissingException("Missing required emitter");
 		if(queueConsumer == null)
 			throw new RequiredInputMissingException("Missing required input queue consumer");
+		if(batchSize < 1)
+			throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+		if(batchMaxWaitMillis < 0)
+			throw new IllegalArgumentException("Invalid max. batch wait time: " + batchMaxWaitMillis);
 		//
 		///////////////////////////////////////////////////////////////////
 
 		this.processingNodeId = StringUtils.lowerCase(StringUtils.trim(processingNodeId));
 		this.pipelineId = StringUtils.lowerCase(StringUtils.trim(pipelineId));
 		this.emitterId = StringUtils.lowerCase(StringUtils.trim(emitter.getId()));
+		this.errorHandler = new ComponentErrorHandler(this.processingNodeId, this.pipelineId, this.emitterId);
 		this.emitter = emitter;
 		this.queueConsumer = queueConsumer;
+		this.batchEmitter = (emitter instanceof BatchEmitter ? (BatchEmitter)emitter : null);
+		this.outboundBatch = (this.batchEmitter != null ? new StreamingDataMessage[batchSize] : null);
+		this.batchMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(batchMaxWaitMillis);
+		
+		// batches keep messages beyond the next retrieval, thus they must not be committed before being handed over
+		if(this.batchEmitter != null)
+			this.queueConsumer.setExplicitCommit(true);
 		
 		this.running = true;
 		
@@ -97,41 +167,233 @@ public class EmitterRuntimeEnvironment implements Runnable {
 	 */
 	public void run() {
 		
+		this.processing = true;
+		
 		// fetch the wait strategy attached to the queue (provided through the queue consumer)
 		StreamingMessageQueueWaitStrategy queueWaitStrategy = this.queueConsumer.getWaitStrategy();
 		while(running) {
 
 			try {
-				// fetch message from queue consumer via strategy
-				StreamingDataMessage message = queueWaitStrategy.waitFor(this.queueConsumer);
-				if(message != null && message.getBody() != null) {
+				if(this.batchEmitter != null) {
+					collectAndEmitBatch(queueWaitStrategy);
+					continue;
+				}
+				
+				// fetch message from queue consumer via strategy - wait a limited time only to notice a shutdown
+				StreamingDataMessage message = queueWaitStrategy.waitFor(this.queueConsumer, SHUTDOWN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				if(message != null) {
+					emitMessage(message);
 					
-					@SuppressWarnings("resource") // context#close() calls context#stop -> avoid additional call, thus accept warning
-					Timer.Context timerContext = (this.messageEmitDurationTimer != null ? this.messageEmitDurationTimer.time() : null);
-
-					this.emitter.onMessage(message);
-					
-					if(timerContext != null)
-						timerContext.stop();
-
-					if(this.messageCounter != null)
-						this.messageCounter.inc();
+					// drain all messages available right now which saves a wake-up for each of them - views
+					// are handed out one by one by their consumers anyway
+					if(!message.isView()) {
+						final int drained = this.queueConsumer.drainTo(this.inboundBatch, MAX_BATCH_SIZE);
+						for(int i = 0; i < drained; i++) {
+							emitMessage(this.inboundBatch[i]);
+							this.inboundBatch[i] = null;
+						}
+					}
 				} 
 
 			} catch(InterruptedException e) {
 				// do nothing - waiting was interrupted				
 			} catch(Exception e) {
-				logger.error("processing error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", emitter="+this.emitterId+"]: " + e.getMessage(), e);
-				// TODO add handler for responding to errors
+				this.errorHandler.onError(e);
 			}
-		}		
+		}
+		
+		// hand over the messages collected so far before shutting down the emitter 
+		if(this.batchEmitter != null && !this.emitterShutdown.get()) {
+			emitBatch();
+			flushBatchEmitter();
+		}
+		shutdownEmitter();
+		this.processing = false;
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.scheduler.SchedulableRuntimeEnvironment#processMessages(int)
+	 */
+	public int processMessages(final int maxNumOfMessages) {
+
+		int processed = 0;
+		StreamingDataMessage message = null;
+		while(this.running && processed < maxNumOfMessages && (message = this.queueConsumer.next()) != null) {
+			if(this.batchEmitter != null) {
+				addToBatch(message);
+				if(this.outboundBatchLength == this.outboundBatch.length)
+					emitBatch();
+			} else {
+				emitMessage(message);
+			}
+			processed++;
+		}
+		
+		// the scheduler calls again only when new messages arrive, thus messages collected so far must not be held back
+		if(this.batchEmitter != null && processed > 0) {
+			emitBatch();
+			flushBatchEmitter();
+		}
+		return processed;
+	}
+	
+	/**
+	 * Waits for messages and collects them for the next batch. The batch is handed over to the {@link BatchEmitter} as 
+	 * soon as it is full or the max. wait time has passed since its first message was collected. If the source queue runs dry 
+	 * the {@link BatchEmitter} gets flushed as well
+	 * @param queueWaitStrategy
+	 * @throws InterruptedException
+	 */
+	protected void collectAndEmitBatch(final StreamingMessageQueueWaitStrategy queueWaitStrategy) throws InterruptedException {
+
+		// wait for the first message of a batch - further ones are awaited until the batch is due. Waiting is interrupted
+		// regularly to notice a shutdown
+		final long shutdownCheckIntervalNanos = TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_CHECK_INTERVAL_MILLIS);
+		StreamingDataMessage message = null;
+		if(this.outboundBatchLength == 0) {
+			message = queueWaitStrategy.waitFor(this.queueConsumer, shutdownCheckIntervalNanos, TimeUnit.NANOSECONDS);
+		} else {
+			final long remaining = this.batchMaxWaitNanos - (System.nanoTime() - this.outboundBatchStart);
+			if(remaining > 0)
+				message = queueWaitStrategy.waitFor(this.queueConsumer, Math.min(remaining, shutdownCheckIntervalNanos), TimeUnit.NANOSECONDS);
+		}
+
+		if(message != null) {
+			addToBatch(message);
+			
+			// drain all messages available right now, up to the batch size 
+			int drained = 0;
+			while(this.outboundBatchLength < this.outboundBatch.length && 
+					(drained = this.queueConsumer.drainTo(this.inboundBatch, Math.min(MAX_BATCH_SIZE, this.outboundBatch.length - this.outboundBatchLength))) > 0) {
+				for(int i = 0; i < drained; i++) {
+					addToBatch(this.inboundBatch[i]);
+					this.inboundBatch[i] = null;
+				}
+			}
+			
+			if(this.outboundBatchLength == this.outboundBatch.length || (this.outboundBatchLength > 0 && System.nanoTime() - this.outboundBatchStart >= this.batchMaxWaitNanos))
+				emitBatch();
+		} else if(this.outboundBatchLength > 0 && System.nanoTime() - this.outboundBatchStart >= this.batchMaxWaitNanos) {
+			// max. wait time passed without receiving further messages 
+			emitBatch();
+			flushBatchEmitter();
+		}
+	}
+	
+	/**
+	 * Adds the given {@link StreamingDataMessage} to the next batch. Views are detached as the batch outlives them
+	 * @param message
+	 */
+	protected void addToBatch(final StreamingDataMessage message) {
+		if(message == null || !message.hasBody())
+			return;
+		if(this.outboundBatchLength == 0)
+			this.outboundBatchStart = System.nanoTime();
+		this.outboundBatch[this.outboundBatchLength++] = message.detach();
+	}
+	
+	/**
+	 * Hands all collected messages over to the {@link BatchEmitter} and acknowledges them at the source queue
+	 */
+	protected void emitBatch() {
+		if(this.outboundBatchLength == 0)
+			return;
+		
+		final int numOfMessages = this.outboundBatchLength;
+		if(this.errorHandler.isBypassing()) {
+			for(int i = 0; i < numOfMessages; i++)
+				this.errorHandler.onBypass(this.outboundBatch[i]);
+			Arrays.fill(this.outboundBatch, 0, numOfMessages, null);
+			this.outboundBatchLength = 0;
+			this.queueConsumer.commit();
+			return;
+		}
+		
+		try {
+			@SuppressWarnings("resource") // context#close() calls context#stop -> avoid additional call, thus accept warning
+			Timer.Context timerContext = (this.messageEmitDurationTimer != null ? this.messageEmitDurationTimer.time() : null);
+	
+			// the callback keeps its own copy of the batch as asynchronous emitters may report failures after the array has been reused
+			this.batchEmitter.onMessages(this.outboundBatch, numOfMessages, new BatchCallback(Arrays.copyOf(this.outboundBatch, numOfMessages)));
+			
+			if(timerContext != null)
+				timerContext.stop();
+	
+			if(this.messageCounter != null)
+				this.messageCounter.inc(numOfMessages);
+		} catch(Exception e) {
+			this.numOfFailedMessages.addAndGet(numOfMessages);
+			this.errorHandler.onError(this.outboundBatch, numOfMessages, e);
+		} finally {
+			Arrays.fill(this.outboundBatch, 0, numOfMessages, null);
+			this.outboundBatchLength = 0;
+			this.queueConsumer.commit();
+		}
+	}
+	
+	/**
+	 * Tells the {@link BatchEmitter} to write all buffered messages
+	 */
+	protected void flushBatchEmitter() {
+		try {
+			this.batchEmitter.flush();
+		} catch(Exception e) {
+			logger.error("flush error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", emitter="+this.emitterId+"]: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Hands the given {@link StreamingDataMessage} over to the {@link Emitter}
+	 * @param message
+	 */
+	protected void emitMessage(final StreamingDataMessage message) {
+		if(message == null || !message.hasBody())
+			return;
+		
+		if(this.errorHandler.isBypassing()) {
+			this.errorHandler.onBypass(message);
+			return;
+		}
+		
+		try {
+			@SuppressWarnings("resource") // context#close() calls context#stop -> avoid additional call, thus accept warning
+			Timer.Context timerContext = (this.messageEmitDurationTimer != null ? this.messageEmitDurationTimer.time() : null);
+	
+			this.emitter.onMessage(message);
+			
+			if(timerContext != null)
+				timerContext.stop();
+	
+			if(this.messageCounter != null)
+				this.messageCounter.inc();
+			
+			this.errorHandler.onSuccess();
+		} catch(Exception e) {
+			this.errorHandler.onError(message, e);
+		}
 	}
 
 	/**
-	 * Shuts down the runtime environment as well as the attached {@link Emitter}
+	 * Shuts down the runtime environment as well as the attached {@link Emitter}. If a thread executes {@link #run()}, the
+	 * environment signals it to leave its loop, hand over the pending messages and shut down the emitter. Otherwise, eg. if 
+	 * the environment is executed by the {@link MicroPipelineScheduler}, the emitter is flushed and shut down right away
 	 */
 	public void shutdown() {
 		this.running = false;
+		if(this.processing)
+			return;
+		
+		if(this.batchEmitter != null && !this.emitterShutdown.get())
+			flushBatchEmitter();
+		shutdownEmitter();
+	}
+	
+	/**
+	 * Shuts down the attached {@link Emitter} unless this has been done before
+	 */
+	protected void shutdownEmitter() {
+		if(!this.emitterShutdown.compareAndSet(false, true))
+			return;
 		try {
 			this.emitter.shutdown();
 			if(logger.isDebugEnabled())
@@ -139,7 +401,6 @@ public class EmitterRuntimeEnvironment implements Runnable {
 		} catch(Exception e) {
 			logger.error("emitter shutdown error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", emitter="+this.emitterId+"]: " + e.getMessage(), e);
 		}
-
 	}
 
 	/**
@@ -162,5 +423,74 @@ public class EmitterRuntimeEnvironment implements Runnable {
 	public void setMessageEmitDurationTimer(Timer messageEmitDurationTimer) {
 		this.messageEmitDurationTimer = messageEmitDurationTimer;
 	}
+
+	/**
+	 * Returns the number of messages reported as emitted by the {@link BatchEmitter}
+	 * @return
+	 */
+	public long getNumOfEmittedMessages() {
+		return this.numOfEmittedMessages.get();
+	}
+
+	/**
+	 * Returns the number of messages reported as failed by the {@link BatchEmitter} or which could not be handed over to it 
+	 * @return
+	 */
+	public long getNumOfFailedMessages() {
+		return this.numOfFailedMessages.get();
+	}
+	
+	/**
+	 * @param errorHandler the errorHandler to set
+	 */
+	public void setErrorHandler(ComponentErrorHandler errorHandler) {
+		if(errorHandler != null)
+			this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * @return the errorHandler
+	 */
+	public ComponentErrorHandler getErrorHandler() {
+		return errorHandler;
+	}
+	
+	/**
+	 * Keeps track of the outcome reported by the {@link BatchEmitter} for a single batch and hands it over to the 
+	 * {@link ComponentErrorHandler} - may be called from any thread. As the callback does not tell which messages
+	 * failed, the whole batch is handed over on failure
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private class BatchCallback implements EmitterCallback {
+		
+		/** messages of the batch */
+		private final StreamingDataMessage[] messages;
+		
+		/**
+		 * Initializes the callback using the provided input
+		 * @param messages
+		 */
+		private BatchCallback(final StreamingDataMessage[] messages) {
+			this.messages = messages;
+		}
+
+		/**
+		 * @see com.ottogroup.bi.spqr.pipeline.component.emitter.EmitterCallback#onCompletion(int)
+		 */
+		public void onCompletion(int numOfMessages) {
+			numOfEmittedMessages.addAndGet(numOfMessages);
+			errorHandler.onSuccess();
+		}
+
+		/**
+		 * @see com.ottogroup.bi.spqr.pipeline.component.emitter.EmitterCallback#onFailure(int, java.lang.Throwable)
+		 */
+		public void onFailure(int numOfMessages, Throwable cause) {
+			numOfFailedMessages.addAndGet(numOfMessages);
+			errorHandler.onError(this.messages, this.messages.length, 
+					(cause instanceof Exception ? (Exception)cause : new Exception(cause != null ? cause.getMessage() : "unknown emit error", cause)));
+		}
+	}
 	
 }
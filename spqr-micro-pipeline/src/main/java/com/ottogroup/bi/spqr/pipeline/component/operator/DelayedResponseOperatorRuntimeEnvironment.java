@@ -17,12 +17,15 @@ package com.ottogroup.bi.spqr.pipeline.component.operator;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.codahale.metrics.Counter;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
@@ -33,7 +36,10 @@ import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitSt
  * messages from the assigned {@link StreamingMessageQueueConsumer} and forwards them for further processing
  * to the {@link DirectResponseOperator}. In case the condition evaluated by the {@link DelayedResponseOperatorWaitStrategy}
  * provided on startup holds, the environment asks the operator to return its {@link DelayedResponseOperator#getResult() results}
- * which are forwarded to the {@link StreamingMessageQueueProducer} (order is preserved as received from operator).
+ * which are forwarded to the {@link StreamingMessageQueueProducer} (order is preserved as received from operator).<br/><br/>
+ * Results are always collected on the thread processing incoming messages. Collection requests issued by other threads, eg. timer ticks, 
+ * are recorded and served in-band by the processing loop. Thus operator state is accessed by a single thread only and needs no locking.<br/><br/>
+ * Processing errors are handed over to the assigned {@link ComponentErrorHandler}.
  * @author mnxfst
  * @since Mar 11, 2015
  */
@@ -41,6 +47,10 @@ public class DelayedResponseOperatorRuntimeEnvironment implements Runnable, Dela
 
 	/** our faithful logging facility ... ;-) */ 
 	private static final Logger logger = Logger.getLogger(DelayedResponseOperatorRuntimeEnvironment.class);
+	/** max. number of messages retrieved from the source queue at once */
+	private static final int MAX_BATCH_SIZE = 64;
+	/** max. number of milliseconds a collection request issued by another thread waits for being served if it arrives before the wait starts */
+	private static final long MAX_RELEASE_DELAY = 100;
 
 	/** identifier of processing node the runtime environment belongs to*/
 	private final String processingNodeId;
@@ -57,7 +67,7 @@ public class DelayedResponseOperatorRuntimeEnvironment implements Runnable, Dela
 	/** provides write access to assigned destination queue */
 	private final StreamingMessageQueueProducer queueProducer;	
 	/** indicates whether the operator runtime is still running or not */
-	private boolean running = false;
+	private volatile boolean running = false;
 	/** executor environment used to run the response wait strategy */
 	private final ExecutorService executorService;
 	/** local executor service? - must be shut down as well, otherwise the provider must take care of it */
@@ -68,6 +78,16 @@ public class DelayedResponseOperatorRuntimeEnvironment implements Runnable, Dela
 	private final StreamingMessageQueueWaitStrategy destinationQueueWaitStrategy;
 	/** message counter metric */
 	private Counter messageCounter = null;
+	/** buffer receiving messages drained from the source queue */
+	private final StreamingDataMessage[] inboundBatch = new StreamingDataMessage[MAX_BATCH_SIZE];
+	/** thread processing incoming messages - collection requests from any other thread are served in-band */
+	private volatile Thread processingThread = null;
+	/** set by collection requests issued from threads other than the processing thread */
+	private final AtomicBoolean releaseRequested = new AtomicBoolean(false);
+	/** max. number of nanoseconds to wait for messages before checking for pending collection requests */
+	private final long releaseCheckInterval;
+	/** handles processing errors */
+	private ComponentErrorHandler errorHandler;
 
 
 	/**
@@ -121,6 +141,7 @@ public class DelayedResponseOperatorRuntimeEnvironment implements Runnable, Dela
 		this.processingNodeId = StringUtils.lowerCase(StringUtils.trim(processingNodeId));
 		this.pipelineId = StringUtils.lowerCase(StringUtils.trim(pipelineId));
 		this.operatorId = StringUtils.lowerCase(StringUtils.trim(delayedResponseOperator.getId()));
+		this.errorHandler = new ComponentErrorHandler(this.processingNodeId, this.pipelineId, this.operatorId);
 
 		this.delayedResponseOperator = delayedResponseOperator;
 		this.responseWaitStrategy = responseWaitStrategy;
@@ -133,6 +154,12 @@ public class DelayedResponseOperatorRuntimeEnvironment implements Runnable, Dela
 		this.running = true;
 		this.consumerQueueWaitStrategy = queueConsumer.getWaitStrategy();
 		this.destinationQueueWaitStrategy = queueProducer.getWaitStrategy();
+		
+		// timer driven strategies must not be delayed by more than a fraction of their period
+		long releaseDelay = MAX_RELEASE_DELAY;
+		if(responseWaitStrategy instanceof TimerBasedResponseWaitStrategy)
+			releaseDelay = Math.max(1, Math.min(MAX_RELEASE_DELAY, ((TimerBasedResponseWaitStrategy)responseWaitStrategy).getMaxDuration() / 10));
+		this.releaseCheckInterval = TimeUnit.MILLISECONDS.toNanos(releaseDelay);
 
 		if(logger.isDebugEnabled())
 			logger.debug("delayed response operator init [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]");
@@ -143,45 +170,95 @@ public class DelayedResponseOperatorRuntimeEnvironment implements Runnable, Dela
 	 */
 	public void run() {
 		
+		this.processingThread = Thread.currentThread();
 		while(running) {
 
 			try {
-				StreamingDataMessage message = this.consumerQueueWaitStrategy.waitFor(this.queueConsumer); // this.queueConsumer.next();
-				if(message != null && message.getBody() != null) {
-					// forward retrieved message to operator for further processing
-					this.delayedResponseOperator.onMessage(message);
-					// notify response wait strategy on retrieved message
-					this.responseWaitStrategy.onMessage(message);
+				// wait for a limited time only as pending collection requests must be served even if no messages arrive
+				StreamingDataMessage message = this.consumerQueueWaitStrategy.waitFor(this.queueConsumer, this.releaseCheckInterval, TimeUnit.NANOSECONDS);
+				if(message != null) {
+					processMessage(message);
 					
-					if(this.messageCounter != null)
-						this.messageCounter.inc();
+					// drain all messages available right now which saves a wake-up for each of them - views
+					// are handed out one by one by their consumers anyway
+					if(!message.isView()) {
+						final int drained = this.queueConsumer.drainTo(this.inboundBatch, MAX_BATCH_SIZE);
+						for(int i = 0; i < drained; i++) {
+							processMessage(this.inboundBatch[i]);
+							this.inboundBatch[i] = null;
+						}
+					}
 				}
-		} catch(InterruptedException e) {
+				
+				if(this.releaseRequested.compareAndSet(true, false))
+					collectResults();
+			} catch(InterruptedException e) {
 				// do nothing - waiting was interrupted				
 			} catch(Exception e) {
-				logger.error("processing error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]: " + e.getMessage(), e);
-				// TODO add handler for responding to errors
+				this.errorHandler.onError(e);
 			}
 		}
 	}
+	
+	/**
+	 * Hands the given {@link StreamingDataMessage} over to the {@link DelayedResponseOperator} and the {@link DelayedResponseOperatorWaitStrategy}
+	 * @param message
+	 */
+	protected void processMessage(final StreamingDataMessage message) {
+		if(message == null || !message.hasBody())
+			return;
+		
+		if(this.errorHandler.isBypassing()) {
+			this.errorHandler.onBypass(message);
+			return;
+		}
+		
+		try {
+			// forward retrieved message to operator for further processing
+			this.delayedResponseOperator.onMessage(message);
+			// notify response wait strategy on retrieved message
+			this.responseWaitStrategy.onMessage(message);
+			
+			if(this.messageCounter != null)
+				this.messageCounter.inc();
+			
+			this.errorHandler.onSuccess();
+		} catch(Exception e) {
+			this.errorHandler.onError(message, e);
+		}
+	}
 
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseCollector#retrieveMessages()
 	 */
-	public void retrieveMessages() {		
+	public void retrieveMessages() {
+		final Thread currentProcessingThread = this.processingThread;
+		if(currentProcessingThread == null || currentProcessingThread == Thread.currentThread()) {
+			collectResults();
+		} else {
+			// hand the request over to the processing thread and wake it up if it is waiting for messages: the strategy ends 
+			// a timed wait on release even if the queue is still empty
+			this.releaseRequested.set(true);
+			this.consumerQueueWaitStrategy.forceLockRelease();
+		}
+	}
+	
+	/**
+	 * Fetches the results from the {@link DelayedResponseOperator} and forwards them to the destination queue. Must 
+	 * be called by the processing thread only (if running) 
+	 */
+	protected void collectResults() {		
 		try {		
 			// try to fetch messages from underlying operator
 			StreamingDataMessage[] retrievedMessages = this.delayedResponseOperator.getResult();
 
 			// forward messages to assigned queue if any messages are available 
-			if(retrievedMessages != null) {
-				for(StreamingDataMessage rm : retrievedMessages)
-					this.queueProducer.insert(rm);
+			if(retrievedMessages != null && retrievedMessages.length > 0) {
+				this.queueProducer.insertBatch(retrievedMessages);
 				this.destinationQueueWaitStrategy.forceLockRelease();
 			}
 		} catch(Exception e) {
-			logger.error("message retrieval error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]: " + e.getMessage(), e);
-			// TODO add handler for responding to errors 
+			this.errorHandler.onError(null, e);
 		}
 	}
 
@@ -221,10 +298,33 @@ public class DelayedResponseOperatorRuntimeEnvironment implements Runnable, Dela
 		return running;
 	}
 
+	/**
+	 * Returns true if a collection request issued by another thread waits for being served
+	 * @return
+	 */
+	public boolean isReleaseRequested() {
+		return this.releaseRequested.get();
+	}
+
 	/**
 	 * @param messageCounter the messageCounter to set
 	 */
 	public void setMessageCounter(Counter messageCounter) {
 		this.messageCounter = messageCounter;
 	}
+
+	/**
+	 * @param errorHandler the errorHandler to set
+	 */
+	public void setErrorHandler(ComponentErrorHandler errorHandler) {
+		if(errorHandler != null)
+			this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * @return the errorHandler
+	 */
+	public ComponentErrorHandler getErrorHandler() {
+		return errorHandler;
+	}
 }
@@ -15,30 +15,45 @@
  */
 package com.ottogroup.bi.spqr.pipeline.component.operator;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Timer;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.scheduler.MicroPipelineScheduler;
+import com.ottogroup.bi.spqr.pipeline.scheduler.SchedulableRuntimeEnvironment;
 
 /**
  * Provides a runtime environment for {@link DirectResponseOperator} instances. The environment polls
  * messages from the assigned {@link StreamingMessageQueueConsumer}, forwards them for further processing
  * to the {@link DirectResponseOperator} and inserts all generated {@link StreamingDataMessage response messages}
  * into the {@link StreamingMessageQueueProducer}. The message order as received from the operator is 
- * preserved when handing over the messages to the queue producer.
+ * preserved when handing over the messages to the queue producer.<br/><br/>
+ * Further {@link DirectResponseOperator operators} may be {@link #fuse(DirectResponseOperator, StreamingMessageQueueProducer, Counter, Timer) fused}
+ * into the environment. Responses of an operator are then handed over to its successor in memory rather than through
+ * an intermediate queue, thus the whole chain runs on the same thread. Only the responses of the last operator are 
+ * written to the destination queue.<br/><br/>
+ * Instead of running on a dedicated thread the environment may be executed by the {@link MicroPipelineScheduler} which
+ * calls {@link #processMessages(int)} whenever the source queue receives messages.<br/><br/>
+ * Processing errors are handed over to the {@link ComponentErrorHandler} of the failing operator.
  * @author mnxfst
  * @since Mar 5, 2015
  */
-public class DirectResponseOperatorRuntimeEnvironment implements Runnable {
+public class DirectResponseOperatorRuntimeEnvironment implements Runnable, SchedulableRuntimeEnvironment {
 
 	/** our faithful logging facility ... ;-) */ 
 	private static final Logger logger = Logger.getLogger(DirectResponseOperatorRuntimeEnvironment.class);
+	/** max. number of messages retrieved from the source queue at once */
+	private static final int MAX_BATCH_SIZE = 64;
 
 	/** identifier of processing node the runtime environment belongs to*/
 	private final String processingNodeId;
@@ -46,22 +61,22 @@ public class DirectResponseOperatorRuntimeEnvironment implements Runnable {
 	private final String pipelineId;
 	/** identifier of operator assigned to this runtime environment */
 	private final String operatorId; 
-	/** operator instance executed by this runtime environment */
-	private final DirectResponseOperator directResponseOperator;
+	/** operators executed by this runtime environment - the first one receives the messages read from the source queue */
+	private final List<OperatorStage> operatorStages = new ArrayList<>();
 	/** provides read access to assigned source queue */
 	private final StreamingMessageQueueConsumer queueConsumer;
 	/** provides write access to assigned destination queue */
-	private final StreamingMessageQueueProducer queueProducer;
+	private StreamingMessageQueueProducer queueProducer;
 	/** indicates whether the operator runtime is still running or not */
-	private boolean running = false;
+	private volatile boolean running = false;
 	/** consumer queue wait strategy */
 	private final StreamingMessageQueueWaitStrategy consumerQueueWaitStrategy;
 	/** destination queue wait strategy */
-	private final StreamingMessageQueueWaitStrategy destinationQueueWaitStrategy;
-	/** message counter metric */
-	private Counter messageCounter = null;
-	/** message processing timer metric */
-	private Timer messageProcessingTimer = null;
+	private StreamingMessageQueueWaitStrategy destinationQueueWaitStrategy;
+	/** buffer receiving messages drained from the source queue */
+	private final StreamingDataMessage[] inboundBatch = new StreamingDataMessage[MAX_BATCH_SIZE];
+	/** collects responses to be inserted into the destination queue at once */
+	private final List<StreamingDataMessage> outboundBatch = new ArrayList<>(MAX_BATCH_SIZE);
 
 
 	/**
@@ -93,7 +108,7 @@ public class DirectResponseOperatorRuntimeEnvironment implements Runnable {
 		this.processingNodeId = StringUtils.lowerCase(StringUtils.trim(processingNodeId));
 		this.pipelineId = StringUtils.lowerCase(StringUtils.trim(pipelineId));
 		this.operatorId = StringUtils.lowerCase(StringUtils.trim(directResponseOperator.getId()));
-		this.directResponseOperator = directResponseOperator;
+		this.operatorStages.add(new OperatorStage(directResponseOperator, new ComponentErrorHandler(this.processingNodeId, this.pipelineId, this.operatorId)));
 		this.queueConsumer = queueConsumer;
 		this.queueProducer = queueProducer;
 		this.running = true;
@@ -103,6 +118,54 @@ public class DirectResponseOperatorRuntimeEnvironment implements Runnable {
 		if(logger.isDebugEnabled())
 			logger.debug("direct response operator init [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]");
 	}
+	
+	/**
+	 * Fuses the given {@link DirectResponseOperator} into this runtime environment. It receives all responses of the 
+	 * operator fused last (or the initial one) and its own responses are written to the provided {@link StreamingMessageQueueProducer} 
+	 * which replaces the previous destination. Must be called before the environment is started. 
+	 * @param directResponseOperator operator to append to the chain of operators executed by this environment
+	 * @param queueProducer provides write access to the destination queue of the fused operator
+	 * @param messageCounter message counter metric of fused operator (optional)
+	 * @param messageProcessingTimer message processing timer metric of fused operator (optional)
+	 * @throws RequiredInputMissingException
+	 */
+	public void fuse(final DirectResponseOperator directResponseOperator, final StreamingMessageQueueProducer queueProducer, 
+			final Counter messageCounter, final Timer messageProcessingTimer) throws RequiredInputMissingException {
+		fuse(directResponseOperator, queueProducer, messageCounter, messageProcessingTimer, null);
+	}
+
+	/**
+	 * Fuses the given {@link DirectResponseOperator} into this runtime environment - see {@link #fuse(DirectResponseOperator, StreamingMessageQueueProducer, Counter, Timer)}  
+	 * @param directResponseOperator operator to append to the chain of operators executed by this environment
+	 * @param queueProducer provides write access to the destination queue of the fused operator
+	 * @param messageCounter message counter metric of fused operator (optional)
+	 * @param messageProcessingTimer message processing timer metric of fused operator (optional)
+	 * @param errorHandler handles processing errors of fused operator (optional - applies the default policy if missing)
+	 * @throws RequiredInputMissingException
+	 */
+	public void fuse(final DirectResponseOperator directResponseOperator, final StreamingMessageQueueProducer queueProducer, 
+			final Counter messageCounter, final Timer messageProcessingTimer, final ComponentErrorHandler errorHandler) throws RequiredInputMissingException {
+
+		/////////////////////////////////////////////////////////////
+		// input validation
+		if(directResponseOperator == null)
+			throw new RequiredInputMissingException("Missing required direct response operator");
+		if(queueProducer == null)
+			throw new RequiredInputMissingException("Missing required queue producer");
+		//
+		/////////////////////////////////////////////////////////////
+
+		OperatorStage operatorStage = new OperatorStage(directResponseOperator, (errorHandler != null ? errorHandler : 
+			new ComponentErrorHandler(this.processingNodeId, this.pipelineId, directResponseOperator.getId())));
+		operatorStage.messageCounter = messageCounter;
+		operatorStage.messageProcessingTimer = messageProcessingTimer;
+		this.operatorStages.add(operatorStage);
+		this.queueProducer = queueProducer;
+		this.destinationQueueWaitStrategy = queueProducer.getWaitStrategy();
+		
+		if(logger.isDebugEnabled())
+			logger.debug("direct response operator fused [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+", fused="+operatorStage.operatorId+"]");
+	}
 		
 	/**
 	 * @see java.lang.Runnable#run()
@@ -113,44 +176,129 @@ public class DirectResponseOperatorRuntimeEnvironment implements Runnable {
 			
 			try {				
 				StreamingDataMessage message = this.consumerQueueWaitStrategy.waitFor(this.queueConsumer);
-				if(message != null && message.getBody() != null) {
+				if(message != null) {
+					processMessage(0, message);
 					
-					@SuppressWarnings("resource") // context#close() calls context#stop -> avoid additional call, thus accept warning
-					Timer.Context timerContext = (this.messageProcessingTimer != null ? this.messageProcessingTimer.time() : null);
-
-					StreamingDataMessage[] responseMessages = this.directResponseOperator.onMessage(message);
-					if(responseMessages != null && responseMessages.length > 0) {
-						for(final StreamingDataMessage responseMessage : responseMessages) {
-							this.queueProducer.insert(responseMessage);
+					// a view gets invalidated by the next retrieval, thus its responses must be forwarded first. otherwise
+					// drain all messages available right now which saves a wake-up for each of them
+					if(!message.isView()) {
+						final int drained = this.queueConsumer.drainTo(this.inboundBatch, MAX_BATCH_SIZE);
+						for(int i = 0; i < drained; i++) {
+							processMessage(0, this.inboundBatch[i]);
+							this.inboundBatch[i] = null;
 						}
-						this.destinationQueueWaitStrategy.forceLockRelease();
 					}
 					
-					if(timerContext != null)
-						timerContext.stop();
-
-					if(this.messageCounter != null)
-						this.messageCounter.inc();
+					// forward all responses at once and notify waiting consumers only once per batch
+					forwardResponses();
 				}
 				
 			} catch(InterruptedException e) {
 				// do nothing - waiting was interrupted				
 			} catch(Exception e) {
-				logger.error("processing error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]: " + e.getMessage(), e);
-				// TODO add handler for responding to errors 
+				this.operatorStages.get(0).errorHandler.onError(e);
+			} finally {
+				this.outboundBatch.clear();
 			}
 		}		
 	}
 	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.scheduler.SchedulableRuntimeEnvironment#processMessages(int)
+	 */
+	public int processMessages(final int maxNumOfMessages) {
+		
+		int processed = 0;
+		try {
+			StreamingDataMessage message = null;
+			while(this.running && processed < maxNumOfMessages && (message = this.queueConsumer.next()) != null) {
+				processMessage(0, message);
+				processed++;
+				
+				// a view gets invalidated by the next retrieval, thus its responses must be forwarded first
+				if(message.isView())
+					forwardResponses();
+			}
+			forwardResponses();
+		} catch(Exception e) {
+			this.operatorStages.get(0).errorHandler.onError(e);
+		} finally {
+			this.outboundBatch.clear();
+		}
+		return processed;
+	}
+	
+	/**
+	 * Inserts all collected responses into the destination queue at once and notifies waiting consumers
+	 */
+	protected void forwardResponses() {
+		if(!this.outboundBatch.isEmpty()) {
+			this.queueProducer.insertBatch(this.outboundBatch);
+			this.destinationQueueWaitStrategy.forceLockRelease();
+			this.outboundBatch.clear();
+		}
+	}
+	
+	/**
+	 * Hands the given {@link StreamingDataMessage} over to the {@link DirectResponseOperator} of the referenced stage. Its responses are
+	 * passed on to the next stage or collected for the destination queue if the operator is the last one executed by this environment  
+	 * @param stage index of operator stage to hand the message over to
+	 * @param message
+	 */
+	protected void processMessage(final int stage, final StreamingDataMessage message) {
+		if(message == null || !message.hasBody())
+			return;
+		
+		final OperatorStage operatorStage = this.operatorStages.get(stage);
+		if(operatorStage.errorHandler.isBypassing()) {
+			operatorStage.errorHandler.onBypass(message);
+			return;
+		}
+		
+		final boolean lastStage = (stage == this.operatorStages.size() - 1);
+		StreamingDataMessage[] responseMessages = null;
+		try {
+			@SuppressWarnings("resource") // context#close() calls context#stop -> avoid additional call, thus accept warning
+			Timer.Context timerContext = (operatorStage.messageProcessingTimer != null ? operatorStage.messageProcessingTimer.time() : null);
+	
+			responseMessages = operatorStage.operator.onMessage(message);
+			
+			if(timerContext != null)
+				timerContext.stop();
+	
+			if(operatorStage.messageCounter != null)
+				operatorStage.messageCounter.inc();
+			
+			operatorStage.errorHandler.onSuccess();
+		} catch(Exception e) {
+			operatorStage.errorHandler.onError(message, e);
+			return;
+		}
+
+		// successors handle their errors on their own, thus responses are passed on outside of the error handling above
+		if(responseMessages != null && responseMessages.length > 0) {
+			for(final StreamingDataMessage responseMessage : responseMessages) {
+				if(responseMessage == null)
+					continue;
+				if(lastStage)
+					this.outboundBatch.add(responseMessage);
+				else
+					processMessage(stage + 1, responseMessage);
+			}
+		}
+	}
+	
 	/**
 	 * Shuts down the runtime environment as well as the attached {@link Operator}
 	 */
 	public void shutdown() {
 		this.running = false;
-		try {
-			this.directResponseOperator.shutdown();
-		} catch(Exception e) {
-			logger.error("operator shutdown error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]: " + e.getMessage(), e);
+		for(final OperatorStage operatorStage : this.operatorStages) {
+			try {
+				operatorStage.operator.shutdown();
+			} catch(Exception e) {
+				logger.error("operator shutdown error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+operatorStage.operatorId+"]: " + e.getMessage(), e);
+			}
 		}
 
 		if(logger.isDebugEnabled())
@@ -169,14 +317,61 @@ public class DirectResponseOperatorRuntimeEnvironment implements Runnable {
 	 * @param messageCounter the messageCounter to set
 	 */
 	public void setMessageCounter(Counter messageCounter) {
-		this.messageCounter = messageCounter;
+		this.operatorStages.get(0).messageCounter = messageCounter;
 	}
 
 	/**
 	 * @param messageProcessingTimer the messageProcessingTimer to set
 	 */
 	public void setMessageProcessingTimer(Timer messageProcessingTimer) {
-		this.messageProcessingTimer = messageProcessingTimer;
+		this.operatorStages.get(0).messageProcessingTimer = messageProcessingTimer;
+	}
+	
+	/**
+	 * @param errorHandler the errorHandler to set
+	 */
+	public void setErrorHandler(ComponentErrorHandler errorHandler) {
+		if(errorHandler != null)
+			this.operatorStages.get(0).errorHandler = errorHandler;
+	}
+	
+	/**
+	 * @return the errorHandler
+	 */
+	public ComponentErrorHandler getErrorHandler() {
+		return this.operatorStages.get(0).errorHandler;
+	}
+	
+	/**
+	 * Returns the number of operators executed by this runtime environment, including the fused ones
+	 * @return
+	 */
+	public int getNumOfOperators() {
+		return this.operatorStages.size();
+	}
+	
+	/**
+	 * Operator executed by the runtime environment along with its metrics 
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private static class OperatorStage {
+		/** operator instance */
+		private final DirectResponseOperator operator;
+		/** identifier of operator */
+		private final String operatorId;
+		/** message counter metric */
+		private Counter messageCounter = null;
+		/** message processing timer metric */
+		private Timer messageProcessingTimer = null;
+		/** handles processing errors of operator */
+		private ComponentErrorHandler errorHandler;
+		
+		private OperatorStage(final DirectResponseOperator operator, final ComponentErrorHandler errorHandler) {
+			this.operator = operator;
+			this.errorHandler = errorHandler;
+			this.operatorId = StringUtils.lowerCase(StringUtils.trim(operator.getId()));
+		}
 	}
 	
 }
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import java.util.Arrays;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
+
+/**
+ * Selects the partition by the hash of the {@link StreamingDataMessageHeader#getKey() key} found in the message header. Compared to
+ * the {@link JsonKeyHashMessagePartitioner} the body does not need to be parsed. Messages not carrying a key are distributed round-robin.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class HeaderKeyHashMessagePartitioner implements StreamingDataMessagePartitioner {
+
+	/** partition key setting which selects this partitioner */
+	public static final String PARTITION_KEY = "@key";
+	
+	/** applied to messages not carrying any key */
+	private final RoundRobinMessagePartitioner fallbackPartitioner = new RoundRobinMessagePartitioner();
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.StreamingDataMessagePartitioner#getPartition(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage, int)
+	 */
+	public int getPartition(StreamingDataMessage message, int numOfPartitions) {
+		if(message == null || !message.hasHeader() || message.getHeader().getKey() == null)
+			return this.fallbackPartitioner.getPartition(message, numOfPartitions);
+		// mask the sign bit rather than using Math.abs which fails for Integer.MIN_VALUE
+		return (Arrays.hashCode(message.getHeader().getKey()) & Integer.MAX_VALUE) % numOfPartitions;
+	}
+
+}
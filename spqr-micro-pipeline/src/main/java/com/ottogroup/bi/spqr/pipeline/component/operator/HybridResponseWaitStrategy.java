@@ -0,0 +1,167 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Releases results on whichever comes first: a number of received {@link StreamingDataMessage messages} or the 
+ * {@link TimerBasedResponseWaitStrategy#CFG_MAX_DURATION max. duration} since the last collection. The number of messages 
+ * is adapted to the observed arrival rate after each collection: it is set to the number of messages expected to arrive within
+ * the configured {@link #CFG_TARGET_LATENCY target latency}, bounded by {@link #CFG_MIN_MESSAGES} and {@link #CFG_MAX_MESSAGES}. 
+ * Thus results leave the operator close to the target latency under high traffic while the timer caps the latency under low traffic.   
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class HybridResponseWaitStrategy extends TimerBasedResponseWaitStrategy {
+
+	private static final Logger logger = Logger.getLogger(HybridResponseWaitStrategy.class);
+
+	public static final String WAIT_STRATEGY_NAME = "hybrid";
+	public static final String CFG_MAX_MESSAGES = "maxMessages";
+	public static final String CFG_MIN_MESSAGES = "minMessages";
+	public static final String CFG_TARGET_LATENCY = "targetLatency";
+	public static final int DEFAULT_MAX_MESSAGES = 1000;
+	public static final int DEFAULT_MIN_MESSAGES = 1;
+	/** weight of the latest arrival rate sample when updating the moving average */
+	private static final double RATE_SMOOTHING_FACTOR = 0.2;
+	
+	/** upper bound of messages to collect before releasing results */
+	private int maxMessages = DEFAULT_MAX_MESSAGES;
+	/** lower bound of messages to collect before releasing results */
+	private int minMessages = DEFAULT_MIN_MESSAGES;
+	/** number of milliseconds a message should stay inside the operator - defaults to half of the max. duration */
+	private long targetLatency = DEFAULT_MAX_DURATION / 2;
+	/** number of messages to collect before releasing results - adapted after each collection */
+	private volatile int currentMaxMessages = DEFAULT_MAX_MESSAGES;
+	/** number of messages received since the last collection */
+	private final AtomicInteger messageCount = new AtomicInteger(0);
+	/** moving average of messages received per millisecond - negative until the first collection */
+	private volatile double arrivalRate = -1;
+	/** time of the last collection - used for computing the arrival rate */
+	private volatile long lastRelease = System.currentTimeMillis();
+	/** serializes the arrival rate updates of message and timer triggered releases which run on different threads */
+	private final Lock rateLock = new ReentrantLock();
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.TimerBasedResponseWaitStrategy#initialize(java.util.Properties)
+	 */
+	public void initialize(Properties properties) {
+		super.initialize(properties);
+		
+		this.maxMessages = parseInt(properties, CFG_MAX_MESSAGES, DEFAULT_MAX_MESSAGES);
+		this.minMessages = parseInt(properties, CFG_MIN_MESSAGES, DEFAULT_MIN_MESSAGES);
+		if(this.minMessages > this.maxMessages)
+			this.minMessages = this.maxMessages;
+		this.targetLatency = parseInt(properties, CFG_TARGET_LATENCY, (int)Math.max(1, getMaxDuration() / 2));
+		this.currentMaxMessages = this.maxMessages;
+		this.messageCount.set(0);
+		this.arrivalRate = -1;
+		this.lastRelease = System.currentTimeMillis();
+		
+		if(logger.isDebugEnabled())
+			logger.debug("hybrid wait strategy initialized [duration="+getMaxDuration()+", minMessages="+minMessages+", maxMessages="+maxMessages+", targetLatency="+targetLatency+"]");
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.TimerBasedResponseWaitStrategy#onMessage(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public void onMessage(StreamingDataMessage message) {
+		if(this.messageCount.incrementAndGet() >= this.currentMaxMessages)
+			release();
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.TimerBasedResponseWaitStrategy#release()
+	 */
+	public void release() {
+		// only the bookkeeping is guarded: the collection itself is handed over to the processing thread by the collector
+		// and must not be executed while holding the lock
+		this.rateLock.lock();
+		try {
+			final int collected = this.messageCount.getAndSet(0);
+			final long now = System.currentTimeMillis();
+			adaptMaxMessages(collected, now - this.lastRelease);
+			this.lastRelease = now;
+		} finally {
+			this.rateLock.unlock();
+		}
+		super.release();
+	}
+	
+	/**
+	 * Updates the arrival rate with the number of messages received during the last collection period and 
+	 * derives the number of messages to collect before the next release 
+	 * @param collected
+	 * @param elapsedMillis
+	 */
+	protected void adaptMaxMessages(final int collected, final long elapsedMillis) {
+		final double rate = (double)collected / Math.max(1, elapsedMillis);
+		this.arrivalRate = (this.arrivalRate < 0 ? rate : RATE_SMOOTHING_FACTOR * rate + (1 - RATE_SMOOTHING_FACTOR) * this.arrivalRate);
+		
+		final long expected = Math.round(this.arrivalRate * this.targetLatency);
+		this.currentMaxMessages = (int)Math.max(this.minMessages, Math.min(this.maxMessages, expected));
+	}
+	
+	/**
+	 * Parses the integer value assigned to the given key. If the value is missing, invalid or less than one, the default is returned
+	 * @param properties
+	 * @param key
+	 * @param defaultValue
+	 * @return
+	 */
+	protected int parseInt(final Properties properties, final String key, final int defaultValue) {
+		try {
+			final int value = Integer.parseInt(properties.getProperty(key));
+			return (value < 1 ? defaultValue : value);
+		} catch(Exception e) {
+			if(logger.isDebugEnabled())
+				logger.debug("Failed to parse setting '"+key+"'. Reason: " + e.getMessage());
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Returns the number of messages to collect before the next release
+	 * @return
+	 */
+	public int getCurrentMaxMessages() {
+		return currentMaxMessages;
+	}
+
+	/**
+	 * Returns the moving average of messages received per millisecond or a negative value if no collection happened so far 
+	 * @return
+	 */
+	public double getArrivalRate() {
+		return arrivalRate;
+	}
+
+	/**
+	 * @return the targetLatency
+	 */
+	public long getTargetLatency() {
+		return targetLatency;
+	}
+	
+}
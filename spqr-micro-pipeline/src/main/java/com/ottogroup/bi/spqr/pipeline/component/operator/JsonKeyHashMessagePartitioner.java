@@ -0,0 +1,118 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Reads the message body as JSON document and selects the partition by the hash of the value found at the configured
+ * path, eg. <code>user.id</code>. Thus all messages sharing the same key value are forwarded to the same partition which
+ * keeps them in order. Messages not carrying the key (or no valid JSON) are distributed round-robin.<br/><br/>
+ * The body is read as stream of tokens rather than as document tree: fields not leading to the key are skipped and 
+ * reading stops as soon as the key value is found. Still, the partitioner runs on the distributing thread and reads every
+ * message body. If the producing source is able to set the key within the message header, prefer the {@link HeaderKeyHashMessagePartitioner}
+ * which requires no parsing at all.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class JsonKeyHashMessagePartitioner implements StreamingDataMessagePartitioner {
+
+	/** path separator applied to partition key settings */
+	public static final String PATH_SEPARATOR = ".";
+	
+	/** creates the parsers reading message bodies - thread-safe and reused as it keeps the symbol table of field names */
+	private static final JsonFactory jsonFactory = new JsonFactory();
+	/** field names leading to the key value */
+	private final String[] path;
+	/** applied to messages not carrying any key */
+	private final RoundRobinMessagePartitioner fallbackPartitioner = new RoundRobinMessagePartitioner();
+	
+	/**
+	 * Initializes the partitioner using the provided input
+	 * @param partitionKey path to key value where field names are separated by {@link #PATH_SEPARATOR} 
+	 * @throws RequiredInputMissingException
+	 */
+	public JsonKeyHashMessagePartitioner(final String partitionKey) throws RequiredInputMissingException {
+		if(StringUtils.isBlank(partitionKey))
+			throw new RequiredInputMissingException("Missing required partition key");
+		this.path = StringUtils.split(StringUtils.trim(partitionKey), PATH_SEPARATOR);
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.StreamingDataMessagePartitioner#getPartition(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage, int)
+	 */
+	public int getPartition(StreamingDataMessage message, int numOfPartitions) {
+		final String key = getKey(message);
+		if(key == null)
+			return this.fallbackPartitioner.getPartition(message, numOfPartitions);
+		// mask the sign bit rather than using Math.abs which fails for Integer.MIN_VALUE
+		return (key.hashCode() & Integer.MAX_VALUE) % numOfPartitions;
+	}
+	
+	/**
+	 * Returns the text representation of the key value carried by the given message or null if it does not exist 
+	 * @param message
+	 * @return
+	 */
+	protected String getKey(final StreamingDataMessage message) {
+		if(message == null || !message.hasBody())
+			return null;
+		
+		JsonParser parser = null;
+		try {
+			parser = jsonFactory.createParser(message.getBody());
+			if(parser.nextToken() != JsonToken.START_OBJECT)
+				return null;
+			
+			// number of path elements matched so far - the parser always points into the object referenced by the last one
+			int depth = 0;
+			JsonToken token = null;
+			while((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+				final String fieldName = parser.getCurrentName();
+				token = parser.nextToken();
+				if(!StringUtils.equals(fieldName, this.path[depth])) {
+					// skip the whole value if the field does not lead to the key
+					parser.skipChildren();
+				} else if(depth == this.path.length - 1) {
+					return (token.isScalarValue() && token != JsonToken.VALUE_NULL ? parser.getText() : null);
+				} else if(token == JsonToken.START_OBJECT) {
+					depth++;
+				} else {
+					return null;
+				}
+			}
+			// object left without finding the next path element
+			return null;
+		} catch(Exception e) {
+			return null;
+		} finally {
+			if(parser != null) {
+				try {
+					parser.close();
+				} catch(Exception e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+}
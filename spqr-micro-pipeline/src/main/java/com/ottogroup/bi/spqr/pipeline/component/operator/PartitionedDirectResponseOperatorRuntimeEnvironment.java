@@ -0,0 +1,562 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.scheduler.PinnedRuntimeEnvironment;
+import com.ottogroup.bi.spqr.pipeline.scheduler.ThreadPlacementRegistry;
+
+/**
+ * Provides a runtime environment for multiple instances of the same {@link DirectResponseOperator} processing messages in parallel.
+ * The environment polls messages from the assigned {@link StreamingMessageQueueConsumer} and distributes them among one partition
+ * per operator instance as selected by the {@link StreamingDataMessagePartitioner}. Each partition is executed by a thread of its 
+ * own which hands the messages over to its operator instance.<br/><br/>
+ * By default the responses are inserted into the {@link StreamingMessageQueueProducer} as soon as they are available, thus only the
+ * order within a partition is preserved. If an ordered merge is requested, the responses are written in the order the messages
+ * were received from the source queue, which makes the slowest partition determine the pace.<br/><br/>
+ * Processing errors of all partitions are handed over to a shared {@link ComponentErrorHandler}.<br/><br/>
+ * As the partitions keep messages beyond the next retrieval and complete them out of order, each retrieved message is assigned
+ * a sequence number. The environment {@link StreamingMessageQueueConsumer#commit(int) commits} the longest sequence of processed
+ * messages, thus the committed position advances under sustained load as well. On shutdown the environment stops retrieving messages 
+ * and waits a limited time for the partitions to process the messages distributed to them before committing them and shutting down
+ * the operators.<br/><br/>
+ * If a {@link #setThreadPlacement(ThreadPlacementRegistry, long) thread placement} is provided, the partition and merge threads
+ * are named after the operator and pinned to the same cpus as the distributing thread. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class PartitionedDirectResponseOperatorRuntimeEnvironment implements Runnable {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(PartitionedDirectResponseOperatorRuntimeEnvironment.class);
+	/** max. number of messages waiting to be processed by a single partition */
+	public static final int PARTITION_CAPACITY = 1024;
+	/** max. time to block on a full or empty partition before checking whether the environment is still running */
+	private static final long PARTITION_POLL_TIMEOUT_MILLIS = 100;
+	/** max. time to wait on shutdown for the partitions to process the messages distributed to them */
+	private static final long SHUTDOWN_DRAIN_TIMEOUT_MILLIS = 5000;
+	/** time to park the distributing thread while waiting for the partitions to process the distributed messages */
+	private static final long COMPLETION_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	/** response of operators which did not return anything or failed */
+	private static final StreamingDataMessage[] NO_RESPONSE = new StreamingDataMessage[0];
+
+	/** identifier of processing node the runtime environment belongs to*/
+	private final String processingNodeId;
+	/** identifier of pipeline the runtime environment belongs to */
+	private final String pipelineId;
+	/** identifier of operator assigned to this runtime environment */
+	private final String operatorId; 
+	/** partitions - one per operator instance */
+	private final List<Partition> partitions = new ArrayList<>();
+	/** selects the partition for each incoming message */
+	private final StreamingDataMessagePartitioner partitioner;
+	/** provides read access to assigned source queue */
+	private final StreamingMessageQueueConsumer queueConsumer;
+	/** provides write access to assigned destination queue */
+	private final StreamingMessageQueueProducer queueProducer;
+	/** serializes inserts of concurrently running partitions */
+	private final Lock producerLock = new ReentrantLock();
+	/** consumer queue wait strategy */
+	private final StreamingMessageQueueWaitStrategy consumerQueueWaitStrategy;
+	/** destination queue wait strategy */
+	private final StreamingMessageQueueWaitStrategy destinationQueueWaitStrategy;
+	/** partitions in the order messages were distributed to them - null if no ordered merge is requested */
+	private final BlockingQueue<Integer> mergeOrder;
+	/** completion of messages in flight - the slot selected by the sequence number holds the sequence number + 1 once the message has been processed */
+	private final AtomicLongArray completions;
+	/** executes partitions and the merge stage */
+	private final ExecutorService executorService;
+	/** indicates whether the operator runtime is still running or not - messages are distributed while running */
+	private volatile boolean running = false;
+	/** indicates whether a thread executes the distribution inside {@link #run()} */
+	private volatile boolean distributing = false;
+	/** set as soon as the partitions and the merge stage must stop - after the distributed messages have been processed */
+	private volatile boolean terminated = false;
+	/** released as soon as the distributing thread has shut down partitions and operators */
+	private final CountDownLatch terminatedLatch = new CountDownLatch(1);
+	/** indicates whether the operators have been shut down */
+	private final AtomicBoolean operatorsShutdown = new AtomicBoolean(false);
+	/** number of messages retrieved from the source queue, ie. the sequence number of the next one - accessed by the distributing thread only */
+	private long retrievedMessages = 0;
+	/** number of retrieved messages committed in sequence - accessed by the distributing thread only */
+	private long committedMessages = 0;
+	/** message counter metric */
+	private Counter messageCounter = null;
+	/** message processing timer metric */
+	private Timer messageProcessingTimer = null;
+	/** handles processing errors - shared by all partitions */
+	private volatile ComponentErrorHandler errorHandler;
+	/** registry to record the placement of partition and merge threads with - null if not tracked */
+	private ThreadPlacementRegistry placementRegistry = null;
+	/** cpus to pin partition and merge threads to - 0 keeps the current affinity */
+	private long affinityMask = 0;
+
+	/**
+	 * Initializes the operator runtime environment using the provided input
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param directResponseOperators operator instances - one partition is created for each
+	 * @param partitioner selects the partition for each incoming message
+	 * @param orderedMerge write responses in the order messages were received from the source queue 
+	 * @param queueConsumer
+	 * @param queueProducer
+	 * @param executorService executes the partitions and the merge stage
+	 * @throws RequiredInputMissingException
+	 */
+	public PartitionedDirectResponseOperatorRuntimeEnvironment(final String processingNodeId, final String pipelineId, final List<DirectResponseOperator> directResponseOperators,
+			final StreamingDataMessagePartitioner partitioner, final boolean orderedMerge, final StreamingMessageQueueConsumer queueConsumer, 
+			final StreamingMessageQueueProducer queueProducer, final ExecutorService executorService) throws RequiredInputMissingException {
+		
+		/////////////////////////////////////////////////////////////
+		// input validation
+		if(StringUtils.isBlank(processingNodeId))
+			throw new RequiredInputMissingException("Missing required processing node identifier");
+		if(StringUtils.isBlank(pipelineId))
+			throw new RequiredInputMissingException("Missing required pipeline identifier");
+		if(directResponseOperators == null || directResponseOperators.isEmpty())
+			throw new RequiredInputMissingException("Missing required direct response operators");
+		for(final DirectResponseOperator directResponseOperator : directResponseOperators)
+			if(directResponseOperator == null)
+				throw new RequiredInputMissingException("Missing required direct response operator");
+		if(partitioner == null)
+			throw new RequiredInputMissingException("Missing required partitioner");
+		if(queueConsumer == null)
+			throw new RequiredInputMissingException("Missing required queue consumer");
+		if(queueProducer == null)
+			throw new RequiredInputMissingException("Missing required queue producer");
+		if(executorService == null)
+			throw new RequiredInputMissingException("Missing required executor service");
+		//
+		/////////////////////////////////////////////////////////////
+		
+		this.processingNodeId = StringUtils.lowerCase(StringUtils.trim(processingNodeId));
+		this.pipelineId = StringUtils.lowerCase(StringUtils.trim(pipelineId));
+		this.operatorId = StringUtils.lowerCase(StringUtils.trim(directResponseOperators.get(0).getId()));
+		this.errorHandler = new ComponentErrorHandler(this.processingNodeId, this.pipelineId, this.operatorId);
+		for(final DirectResponseOperator directResponseOperator : directResponseOperators)
+			this.partitions.add(new Partition(directResponseOperator, orderedMerge));
+		this.partitioner = partitioner;
+		this.queueConsumer = queueConsumer;
+		this.queueProducer = queueProducer;
+		this.consumerQueueWaitStrategy = queueConsumer.getWaitStrategy();
+		this.destinationQueueWaitStrategy = queueProducer.getWaitStrategy();
+		// each partition holds at most PARTITION_CAPACITY messages in both directions 
+		this.mergeOrder = (orderedMerge ? new ArrayBlockingQueue<Integer>(2 * PARTITION_CAPACITY * this.partitions.size()) : null);
+		// partitions hold at most two full queues plus the message being processed 
+		this.completions = new AtomicLongArray(Integer.highestOneBit((2 * PARTITION_CAPACITY + 1) * this.partitions.size() + 1) << 1);
+		this.executorService = executorService;
+		// partitions keep messages beyond the next retrieval, thus they must not be committed before being processed
+		this.queueConsumer.setExplicitCommit(true);
+		this.running = true;
+
+		if(logger.isDebugEnabled())
+			logger.debug("partitioned direct response operator init [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+", partitions="+this.partitions.size()+", orderedMerge="+orderedMerge+"]");
+	}
+		
+	/**
+	 * Starts the partitions and the merge stage and distributes the incoming messages among the partitions 
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+
+		this.distributing = true;
+		for(int i = 0; i < this.partitions.size(); i++)
+			this.executorService.submit(placeWorker("partition-" + i, this.partitions.get(i)));
+		if(this.mergeOrder != null)
+			this.executorService.submit(placeWorker("merge", new Runnable() {
+				public void run() {
+					merge();
+				}
+			}));
+		
+		while(running) {
+			try {
+				// do not retrieve further messages unless their completion can be tracked - not expected as long as the 
+				// partition queues limit the number of messages in flight 
+				if(this.retrievedMessages - this.committedMessages >= this.completions.length()) {
+					if(commitCompletedMessages() == 0)
+						LockSupport.parkNanos(COMPLETION_PARK_NANOS);
+					continue;
+				}
+				
+				// wait a limited time only to notice a shutdown
+				StreamingDataMessage message = this.consumerQueueWaitStrategy.waitFor(this.queueConsumer, PARTITION_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if(message != null) {
+					final long sequenceNumber = this.retrievedMessages++;
+					if(message.hasBody()) {
+						// views are valid until the next retrieval only but get processed by another thread
+						final StreamingDataMessage detachedMessage = message.detach();
+						final int partition = this.partitioner.getPartition(detachedMessage, this.partitions.size());
+						if(offer(this.partitions.get(partition).inbound, new Sequenced<StreamingDataMessage>(detachedMessage, sequenceNumber)) && this.mergeOrder != null)
+							offer(this.mergeOrder, Integer.valueOf(partition));
+					} else {
+						// nothing to process
+						complete(sequenceNumber);
+					}
+				}
+				
+				commitCompletedMessages();
+			} catch(InterruptedException e) {
+				// do nothing - waiting was interrupted				
+			} catch(Exception e) {
+				this.errorHandler.onError(e);
+			}
+		}
+		
+		// process the messages distributed so far before committing them and shutting down partitions and operators
+		final long deadline = System.currentTimeMillis() + SHUTDOWN_DRAIN_TIMEOUT_MILLIS;
+		while(this.committedMessages < this.retrievedMessages && System.currentTimeMillis() < deadline) {
+			if(commitCompletedMessages() == 0)
+				LockSupport.parkNanos(COMPLETION_PARK_NANOS);
+		}
+		commitCompletedMessages();
+		final long pendingMessages = this.retrievedMessages - this.committedMessages;
+		if(pendingMessages > 0)
+			logger.warn("shutdown with unprocessed messages [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+
+					", messages="+pendingMessages+"]: messages are committed up to the first unprocessed one");
+		
+		this.terminated = true;
+		shutdownOperators();
+		this.distributing = false;
+		this.terminatedLatch.countDown();
+	}
+	
+	/**
+	 * Writes the responses of all partitions in the order the messages were distributed among them 
+	 */
+	protected void merge() {
+		while(!terminated) {
+			try {
+				final Integer partition = this.mergeOrder.poll(PARTITION_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if(partition == null)
+					continue;
+				
+				final BlockingQueue<Sequenced<StreamingDataMessage[]>> outbound = this.partitions.get(partition.intValue()).outbound;
+				Sequenced<StreamingDataMessage[]> responseMessages = null;
+				while(!terminated && (responseMessages = outbound.poll(PARTITION_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+					// wait for the partition to process the message
+				}
+				if(responseMessages != null) {
+					try {
+						forward(responseMessages.value);
+					} finally {
+						complete(responseMessages.sequenceNumber);
+					}
+				}
+			} catch(InterruptedException e) {
+				// do nothing - waiting was interrupted
+			} catch(Exception e) {
+				logger.error("merge error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]: " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Marks the message carrying the given sequence number as processed. May be called by any thread 
+	 * @param sequenceNumber
+	 */
+	protected void complete(final long sequenceNumber) {
+		this.completions.lazySet((int)(sequenceNumber & (this.completions.length() - 1)), sequenceNumber + 1);
+	}
+	
+	/**
+	 * Commits all messages processed in sequence since the last call. Must be called by the distributing thread only
+	 * @return number of committed messages
+	 */
+	protected int commitCompletedMessages() {
+		final int mask = this.completions.length() - 1;
+		int completed = 0;
+		while(this.committedMessages < this.retrievedMessages && this.completions.get((int)(this.committedMessages & mask)) == this.committedMessages + 1) {
+			this.committedMessages++;
+			completed++;
+		}
+		if(completed > 0)
+			this.queueConsumer.commit(completed);
+		return completed;
+	}
+	
+	/**
+	 * Inserts the given responses into the destination queue. Partitions may call this concurrently 
+	 * but the queue supports a single producer only, thus inserts are serialized
+	 * @param responseMessages
+	 */
+	protected void forward(final StreamingDataMessage[] responseMessages) {
+		if(responseMessages == null || responseMessages.length == 0)
+			return;
+		this.producerLock.lock();
+		try {
+			this.queueProducer.insertBatch(responseMessages);
+		} finally {
+			this.producerLock.unlock();
+		}
+		this.destinationQueueWaitStrategy.forceLockRelease();
+	}
+	
+	/**
+	 * Inserts the element into the given queue. Blocks until space is available or the partitions are terminated 
+	 * @param queue
+	 * @param element
+	 * @return true if the element was inserted
+	 * @throws InterruptedException
+	 */
+	protected <E> boolean offer(final BlockingQueue<E> queue, final E element) throws InterruptedException {
+		while(!terminated) {
+			if(queue.offer(element, PARTITION_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Shuts down the runtime environment as well as all attached {@link Operator operators}. If a thread executes {@link #run()},
+	 * the method waits until the messages distributed to the partitions have been processed and the operators are shut down 
+	 */
+	public void shutdown() {
+		this.running = false;
+		if(this.distributing) {
+			try {
+				if(!this.terminatedLatch.await(SHUTDOWN_DRAIN_TIMEOUT_MILLIS + PARTITION_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+					logger.warn("shutdown timeout [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]");
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return;
+		}
+		
+		this.terminated = true;
+		shutdownOperators();
+	}
+	
+	/**
+	 * Shuts down all attached {@link Operator operators} unless this has been done before
+	 */
+	protected void shutdownOperators() {
+		if(!this.operatorsShutdown.compareAndSet(false, true))
+			return;
+		for(final Partition partition : this.partitions) {
+			try {
+				partition.operator.shutdown();
+			} catch(Exception e) {
+				logger.error("operator shutdown error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]: " + e.getMessage(), e);
+			}
+		}
+
+		if(logger.isDebugEnabled())
+			logger.debug("shutdown success [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+"]");
+	}
+
+	/**
+	 * @return the running
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Returns the number of partitions, ie. operator instances
+	 * @return
+	 */
+	public int getNumOfPartitions() {
+		return this.partitions.size();
+	}
+	
+	/**
+	 * Wraps the given partition or merge worker into a {@link PinnedRuntimeEnvironment} if a thread placement is provided 
+	 * @param workerId
+	 * @param worker
+	 * @return
+	 */
+	protected Runnable placeWorker(final String workerId, final Runnable worker) {
+		if(this.placementRegistry == null)
+			return worker;
+		try {
+			return new PinnedRuntimeEnvironment(this.processingNodeId, this.pipelineId, this.operatorId + "/" + workerId, worker, this.affinityMask, this.placementRegistry);
+		} catch(RequiredInputMissingException e) {
+			// not expected as worker and registry are both set
+			logger.error("worker placement error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", operator="+this.operatorId+", worker="+workerId+"]: " + e.getMessage(), e);
+			return worker;
+		}
+	}
+	
+	/**
+	 * @return true if responses are written in the order messages were received
+	 */
+	public boolean isOrderedMerge() {
+		return this.mergeOrder != null;
+	}
+
+	/**
+	 * @param messageCounter the messageCounter to set - shared by all partitions
+	 */
+	public void setMessageCounter(Counter messageCounter) {
+		this.messageCounter = messageCounter;
+	}
+
+	/**
+	 * @param messageProcessingTimer the messageProcessingTimer to set - shared by all partitions
+	 */
+	public void setMessageProcessingTimer(Timer messageProcessingTimer) {
+		this.messageProcessingTimer = messageProcessingTimer;
+	}
+	
+	/**
+	 * @param errorHandler the errorHandler to set - shared by all partitions
+	 */
+	public void setErrorHandler(ComponentErrorHandler errorHandler) {
+		if(errorHandler != null)
+			this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Requests the partition and merge threads to be pinned to the given cpus and recorded with the {@link ThreadPlacementRegistry}. 
+	 * Must be called before the runtime environment is started
+	 * @param placementRegistry
+	 * @param affinityMask cpus to pin the threads to - 0 keeps the current affinity
+	 */
+	public void setThreadPlacement(final ThreadPlacementRegistry placementRegistry, final long affinityMask) {
+		this.placementRegistry = placementRegistry;
+		this.affinityMask = affinityMask;
+	}
+
+	/**
+	 * @return the errorHandler
+	 */
+	public ComponentErrorHandler getErrorHandler() {
+		return errorHandler;
+	}
+	
+	/**
+	 * Executes a single operator instance on the messages distributed to it 
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private class Partition implements Runnable {
+		
+		/** operator instance */
+		private final DirectResponseOperator operator;
+		/** messages waiting to be processed */
+		private final BlockingQueue<Sequenced<StreamingDataMessage>> inbound = new ArrayBlockingQueue<>(PARTITION_CAPACITY);
+		/** responses waiting to be merged, one entry per message - null if no ordered merge is requested */
+		private final BlockingQueue<Sequenced<StreamingDataMessage[]>> outbound;
+		
+		private Partition(final DirectResponseOperator operator, final boolean orderedMerge) {
+			this.operator = operator;
+			this.outbound = (orderedMerge ? new ArrayBlockingQueue<Sequenced<StreamingDataMessage[]>>(PARTITION_CAPACITY) : null);
+		}
+
+		/**
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run() {
+			while(!terminated) {
+				try {
+					final Sequenced<StreamingDataMessage> message = this.inbound.poll(PARTITION_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+					if(message == null)
+						continue;
+					
+					final StreamingDataMessage[] responseMessages = processMessage(message.value);
+					if(this.outbound != null) {
+						offer(this.outbound, new Sequenced<StreamingDataMessage[]>(responseMessages, message.sequenceNumber)); // the merge stage expects an entry for each message 
+					} else {
+						try {
+							forward(responseMessages);
+						} finally {
+							complete(message.sequenceNumber);
+						}
+					}
+				} catch(InterruptedException e) {
+					// do nothing - waiting was interrupted
+				} catch(Exception e) {
+					errorHandler.onError(e);
+				}
+			}
+		}
+		
+		/**
+		 * Hands the given {@link StreamingDataMessage} over to the {@link DirectResponseOperator} and returns its responses 
+		 * @param message
+		 * @return
+		 */
+		protected StreamingDataMessage[] processMessage(final StreamingDataMessage message) {
+			final ComponentErrorHandler currentErrorHandler = errorHandler;
+			if(currentErrorHandler.isBypassing()) {
+				currentErrorHandler.onBypass(message);
+				return NO_RESPONSE;
+			}
+			
+			try {
+				@SuppressWarnings("resource") // context#close() calls context#stop -> avoid additional call, thus accept warning
+				Timer.Context timerContext = (messageProcessingTimer != null ? messageProcessingTimer.time() : null);
+		
+				StreamingDataMessage[] responseMessages = this.operator.onMessage(message);
+				
+				if(timerContext != null)
+					timerContext.stop();
+		
+				if(messageCounter != null)
+					messageCounter.inc();
+				
+				currentErrorHandler.onSuccess();
+				return (responseMessages != null ? responseMessages : NO_RESPONSE);
+			} catch(Exception e) {
+				currentErrorHandler.onError(message, e);
+				return NO_RESPONSE;
+			}
+		}
+	}
+	
+	/**
+	 * Message or responses passed between the stages along with the sequence number assigned to the message on retrieval
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private static class Sequenced<E> {
+		
+		/** message to process or responses to forward */
+		private final E value;
+		/** position of the message among all messages retrieved from the source queue */
+		private final long sequenceNumber;
+		
+		private Sequenced(final E value, final long sequenceNumber) {
+			this.value = value;
+			this.sequenceNumber = sequenceNumber;
+		}
+	}
+	
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Distributes {@link StreamingDataMessage messages} evenly by forwarding each to the partition next to the previous one
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class RoundRobinMessagePartitioner implements StreamingDataMessagePartitioner {
+
+	/** partition the previous message was forwarded to */
+	private int previousPartition = -1;
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.StreamingDataMessagePartitioner#getPartition(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage, int)
+	 */
+	public int getPartition(StreamingDataMessage message, int numOfPartitions) {
+		this.previousPartition++;
+		if(this.previousPartition >= numOfPartitions)
+			this.previousPartition = 0;
+		return this.previousPartition;
+	}
+
+}
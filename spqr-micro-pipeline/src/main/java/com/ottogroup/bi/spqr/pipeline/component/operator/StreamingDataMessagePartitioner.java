@@ -0,0 +1,37 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Selects the partition a {@link StreamingDataMessage} is forwarded to when a {@link DirectResponseOperator} 
+ * is executed by multiple instances in parallel - see {@link PartitionedDirectResponseOperatorRuntimeEnvironment}.
+ * Implementations are called by a single thread only.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface StreamingDataMessagePartitioner {
+
+	/**
+	 * Returns the partition the given {@link StreamingDataMessage} must be forwarded to 
+	 * @param message
+	 * @param numOfPartitions
+	 * @return value between 0 (inclusive) and numOfPartitions (exclusive) 
+	 */
+	public int getPartition(final StreamingDataMessage message, final int numOfPartitions);
+	
+}
@@ -16,18 +16,22 @@
 package com.ottogroup.bi.spqr.pipeline.component.operator;
 
 import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
 
 import org.apache.log4j.Logger;
 
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.scheduler.WaitStrategyTimerService;
 
 /**
- * Implements a timer based {@link DelayedResponseOperatorWaitStrategy}.  
+ * Implements a timer based {@link DelayedResponseOperatorWaitStrategy}. If a {@link WaitStrategyTimerService} is assigned, 
+ * the strategy schedules its ticks with that service. Otherwise it falls back to a dedicated thread sleeping between two
+ * result collections.  
  * @author mnxfst
  * @since Mar 12, 2015
  *
  */
-public class TimerBasedResponseWaitStrategy implements DelayedResponseOperatorWaitStrategy {
+public class TimerBasedResponseWaitStrategy implements TimerDrivenResponseWaitStrategy {
 	
 	private static final Logger logger = Logger.getLogger(TimerBasedResponseWaitStrategy.class);
 	
@@ -37,11 +41,21 @@ public class TimerBasedResponseWaitStrategy implements DelayedResponseOperatorWa
 
 	
 	private DelayedResponseCollector delayedResponseCollector = null;
-	private boolean running = false;
+	private volatile boolean running = false;
 	/** provided number of milliseconds to wait between two result collections */
 	private long maxDuration = DEFAULT_MAX_DURATION;  
 	/** time of last collector run */
-	private long lastResultCollection = System.currentTimeMillis();
+	private volatile long lastResultCollection = System.currentTimeMillis();
+	/** node-wide timer service driving the strategy - if missing, the strategy runs on a thread of its own */
+	private WaitStrategyTimerService timerService = null;
+	/** handle of next tick scheduled with the timer service */
+	private volatile ScheduledFuture<?> nextTick = null;
+	/** tick handed over to the timer service */
+	private final Runnable tick = new Runnable() {
+		public void run() {
+			onTick();
+		}
+	};
 
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperatorWaitStrategy#initialize(java.util.Properties)
@@ -66,6 +80,13 @@ public class TimerBasedResponseWaitStrategy implements DelayedResponseOperatorWa
 	 */
 	public void run() {
 		this.running = true;
+		
+		// the timer service drives the strategy from now on, thus the thread is not needed any longer 
+		if(this.timerService != null) {
+			scheduleTick(this.maxDuration - (System.currentTimeMillis() - this.lastResultCollection));
+			return;
+		}
+		
 		while(running) {
 			long tmp = System.currentTimeMillis() - lastResultCollection;
 			if(tmp < maxDuration) {
@@ -86,6 +107,40 @@ public class TimerBasedResponseWaitStrategy implements DelayedResponseOperatorWa
 	}
 
 
+	/**
+	 * Executed by the {@link WaitStrategyTimerService} on each tick. Releases the results if the max. duration has passed since
+	 * the last collection and schedules the next tick
+	 */
+	protected void onTick() {
+		if(!this.running)
+			return;
+		
+		long elapsed = System.currentTimeMillis() - this.lastResultCollection;
+		try {
+			if(elapsed >= this.maxDuration) {
+				release();
+				elapsed = 0;
+			}
+		} finally {
+			scheduleTick(this.maxDuration - elapsed);
+		}
+	}
+	
+	/**
+	 * Schedules the next tick with the {@link WaitStrategyTimerService}
+	 * @param delayMillis
+	 */
+	protected void scheduleTick(final long delayMillis) {
+		try {
+			this.nextTick = this.timerService.schedule(this.tick, delayMillis);
+			// shutdown may have happened while scheduling 
+			if(!this.running)
+				this.nextTick.cancel(false);
+		} catch(Exception e) {
+			logger.error("Failed to schedule next tick. Reason: " + e.getMessage(), e);
+		}
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperatorWaitStrategy#release()
 	 */
@@ -106,6 +161,9 @@ public class TimerBasedResponseWaitStrategy implements DelayedResponseOperatorWa
 	 */
 	public void shutdown() {
 		this.running = false;
+		final ScheduledFuture<?> scheduledTick = this.nextTick;
+		if(scheduledTick != null)
+			scheduledTick.cancel(false);
 	}
 	
 	/**
@@ -115,4 +173,26 @@ public class TimerBasedResponseWaitStrategy implements DelayedResponseOperatorWa
 		this.delayedResponseCollector = delayedResponseCollector;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.operator.TimerDrivenResponseWaitStrategy#setTimerService(com.ottogroup.bi.spqr.pipeline.scheduler.WaitStrategyTimerService)
+	 */
+	public void setTimerService(WaitStrategyTimerService timerService) {
+		this.timerService = timerService;
+	}
+
+	/**
+	 * Returns the max. number of milliseconds to wait between two result collections
+	 * @return
+	 */
+	public long getMaxDuration() {
+		return maxDuration;
+	}
+
+	/**
+	 * @return the timerService
+	 */
+	public WaitStrategyTimerService getTimerService() {
+		return timerService;
+	}
+
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import com.ottogroup.bi.spqr.pipeline.scheduler.WaitStrategyTimerService;
+
+/**
+ * Interface to be implemented by all {@link DelayedResponseOperatorWaitStrategy wait strategies} which release results 
+ * after some time has passed. If a {@link WaitStrategyTimerService} is assigned, the strategy must schedule its ticks 
+ * with that service rather than occupying a thread of its own
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface TimerDrivenResponseWaitStrategy extends DelayedResponseOperatorWaitStrategy {
+
+	/**
+	 * Assigns the {@link WaitStrategyTimerService} shared by all time driven wait strategies of a processing node
+	 * @param timerService
+	 */
+	public void setTimerService(final WaitStrategyTimerService timerService);
+	
+}
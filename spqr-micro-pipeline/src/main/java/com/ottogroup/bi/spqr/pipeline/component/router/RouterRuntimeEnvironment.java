@@ -0,0 +1,384 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.router;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.scheduler.MicroPipelineScheduler;
+import com.ottogroup.bi.spqr.pipeline.scheduler.SchedulableRuntimeEnvironment;
+
+/**
+ * Provides a runtime environment for {@link Router} instances. The environment polls messages from the assigned 
+ * {@link StreamingMessageQueueConsumer}, asks the {@link Router} once per message for the matching routes and inserts
+ * the message into the {@link StreamingMessageQueueProducer destination queues} of all selected routes. Routes sharing 
+ * a destination queue receive the message only once. Messages matching none of the routes are written to the optional
+ * default destination or dropped otherwise.<br/><br/>
+ * Instead of running on a dedicated thread the environment may be executed by the {@link MicroPipelineScheduler} which
+ * calls {@link #processMessages(int)} whenever the source queue receives messages.<br/><br/>
+ * Processing errors are handed over to the assigned {@link ComponentErrorHandler}.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class RouterRuntimeEnvironment implements Runnable, SchedulableRuntimeEnvironment {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(RouterRuntimeEnvironment.class);
+	/** max. number of messages retrieved from the source queue at once */
+	private static final int MAX_BATCH_SIZE = 64;
+
+	/** identifier of processing node the runtime environment belongs to*/
+	private final String processingNodeId;
+	/** identifier of pipeline the runtime environment belongs to */
+	private final String pipelineId;
+	/** identifier of router assigned to this runtime environment */
+	private final String routerId; 
+	/** router executed by this runtime environment */
+	private final Router router;
+	/** provides read access to assigned source queue */
+	private final StreamingMessageQueueConsumer queueConsumer;
+	/** consumer queue wait strategy */
+	private final StreamingMessageQueueWaitStrategy consumerQueueWaitStrategy;
+	/** distinct destinations - the last one receives messages not matching any route if a default destination is provided */
+	private final List<Destination> destinations = new ArrayList<>();
+	/** index of destination assigned to each route - position equals the route position of {@link Router#getRoutes()} */
+	private final int[] routeDestinations;
+	/** destination receiving messages not matching any route - null if these messages are dropped */
+	private final Destination defaultDestination;
+	/** indicates whether the router runtime is still running or not */
+	private volatile boolean running = false;
+	/** buffer receiving messages drained from the source queue */
+	private final StreamingDataMessage[] inboundBatch = new StreamingDataMessage[MAX_BATCH_SIZE];
+	/** message counter metric */
+	private Counter messageCounter = null;
+	/** message processing timer metric */
+	private Timer messageProcessingTimer = null;
+	/** number of messages not matching any route */
+	private long numOfUnroutedMessages = 0;
+	/** handles processing errors */
+	private ComponentErrorHandler errorHandler;
+
+	/**
+	 * Initializes the router runtime environment using the provided input
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param router
+	 * @param queueConsumer
+	 * @param routeQueueProducers route names mapped to producers providing write access to the route destination queues 
+	 * @param defaultQueueProducer provides write access to the queue receiving messages not matching any route (optional)
+	 * @throws RequiredInputMissingException
+	 */
+	public RouterRuntimeEnvironment(final String processingNodeId, final String pipelineId, final Router router, final StreamingMessageQueueConsumer queueConsumer, 
+			final Map<String, StreamingMessageQueueProducer> routeQueueProducers, final StreamingMessageQueueProducer defaultQueueProducer) throws RequiredInputMissingException {
+		
+		/////////////////////////////////////////////////////////////
+		// input validation
+		if(StringUtils.isBlank(processingNodeId))
+			throw new RequiredInputMissingException("Missing required processing node identifier");
+		if(StringUtils.isBlank(pipelineId))
+			throw new RequiredInputMissingException("Missing required pipeline identifier");
+		if(router == null)
+			throw new RequiredInputMissingException("Missing required router");
+		if(queueConsumer == null)
+			throw new RequiredInputMissingException("Missing required queue consumer");
+		if(routeQueueProducers == null || routeQueueProducers.isEmpty())
+			throw new RequiredInputMissingException("Missing required route queue producers");
+		
+		final String[] routes = router.getRoutes();
+		if(routes == null || routes.length < 1)
+			throw new RequiredInputMissingException("Missing required routes");
+		if(routes.length > Router.MAX_ROUTES)
+			throw new IllegalArgumentException("Number of routes exceeds the max. of " + Router.MAX_ROUTES + ": " + routes.length);
+		//
+		/////////////////////////////////////////////////////////////
+		
+		this.processingNodeId = StringUtils.lowerCase(StringUtils.trim(processingNodeId));
+		this.pipelineId = StringUtils.lowerCase(StringUtils.trim(pipelineId));
+		this.routerId = StringUtils.lowerCase(StringUtils.trim(router.getId()));
+		this.errorHandler = new ComponentErrorHandler(this.processingNodeId, this.pipelineId, this.routerId);
+		this.router = router;
+		this.queueConsumer = queueConsumer;
+		this.consumerQueueWaitStrategy = queueConsumer.getWaitStrategy();
+
+		/////////////////////////////////////////////////////////////
+		// assign each route to a destination - routes writing to the same queue share a destination
+		this.routeDestinations = new int[routes.length];
+		for(int i = 0; i < routes.length; i++) {
+			final StreamingMessageQueueProducer producer = routeQueueProducers.get(StringUtils.lowerCase(StringUtils.trim(routes[i])));
+			if(producer == null)
+				throw new RequiredInputMissingException("Missing required queue producer for route '"+routes[i]+"'");
+			this.routeDestinations[i] = getDestination(producer);
+		}
+		this.defaultDestination = (defaultQueueProducer != null ? this.destinations.get(getDestination(defaultQueueProducer)) : null);
+		//
+		/////////////////////////////////////////////////////////////
+		
+		this.running = true;
+
+		if(logger.isDebugEnabled())
+			logger.debug("router init [node="+this.processingNodeId+", pipeline="+this.pipelineId+", router="+this.routerId+", routes="+routes.length+", destinations="+this.destinations.size()+"]");
+	}
+	
+	/**
+	 * Returns the index of the {@link Destination} writing to the given {@link StreamingMessageQueueProducer}. If 
+	 * none exists so far, a new one is created
+	 * @param producer
+	 * @return
+	 */
+	private int getDestination(final StreamingMessageQueueProducer producer) {
+		for(int i = 0; i < this.destinations.size(); i++) {
+			if(this.destinations.get(i).queueProducer == producer)
+				return i;
+		}
+		this.destinations.add(new Destination(producer));
+		return this.destinations.size() - 1;
+	}
+		
+	/**
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+
+		while(running) {
+			
+			try {				
+				StreamingDataMessage message = this.consumerQueueWaitStrategy.waitFor(this.queueConsumer);
+				if(message != null) {
+					processMessage(message);
+					
+					// a view gets invalidated by the next retrieval, thus it must be forwarded first. otherwise
+					// drain all messages available right now which saves a wake-up for each of them
+					if(!message.isView()) {
+						final int drained = this.queueConsumer.drainTo(this.inboundBatch, MAX_BATCH_SIZE);
+						for(int i = 0; i < drained; i++) {
+							processMessage(this.inboundBatch[i]);
+							this.inboundBatch[i] = null;
+						}
+					}
+					
+					// forward all messages at once and notify waiting consumers only once per batch
+					forwardMessages();
+				}
+				
+			} catch(InterruptedException e) {
+				// do nothing - waiting was interrupted				
+			} catch(Exception e) {
+				this.errorHandler.onError(e);
+			} finally {
+				clearBatches();
+			}
+		}		
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.scheduler.SchedulableRuntimeEnvironment#processMessages(int)
+	 */
+	public int processMessages(final int maxNumOfMessages) {
+		
+		int processed = 0;
+		try {
+			StreamingDataMessage message = null;
+			while(this.running && processed < maxNumOfMessages && (message = this.queueConsumer.next()) != null) {
+				processMessage(message);
+				processed++;
+				
+				// a view gets invalidated by the next retrieval, thus it must be forwarded first
+				if(message.isView())
+					forwardMessages();
+			}
+			forwardMessages();
+		} catch(Exception e) {
+			this.errorHandler.onError(e);
+		} finally {
+			clearBatches();
+		}
+		return processed;
+	}
+	
+	/**
+	 * Hands the given {@link StreamingDataMessage} over to the {@link Router} and collects it for the destinations
+	 * of all selected routes
+	 * @param message
+	 */
+	protected void processMessage(final StreamingDataMessage message) {
+		if(message == null || !message.hasBody())
+			return;
+		
+		if(this.errorHandler.isBypassing()) {
+			this.errorHandler.onBypass(message);
+			return;
+		}
+		
+		try {
+			@SuppressWarnings("resource") // context#close() calls context#stop -> avoid additional call, thus accept warning
+			Timer.Context timerContext = (this.messageProcessingTimer != null ? this.messageProcessingTimer.time() : null);
+	
+			long selectedRoutes = this.router.route(message);
+			
+			if(timerContext != null)
+				timerContext.stop();
+	
+			if(this.messageCounter != null)
+				this.messageCounter.inc();
+			
+			this.errorHandler.onSuccess();
+
+			if(selectedRoutes == Router.NO_ROUTE) {
+				this.numOfUnroutedMessages++;
+				if(this.defaultDestination != null)
+					this.defaultDestination.outboundBatch.add(message);
+				return;
+			}
+
+			// translate selected routes into destinations: each destination receives the message only once  
+			long selectedDestinations = 0;
+			for(int i = 0; i < this.routeDestinations.length && selectedRoutes != 0; i++) {
+				if((selectedRoutes & 1L) != 0)
+					selectedDestinations |= (1L << this.routeDestinations[i]);
+				selectedRoutes >>>= 1;
+			}
+			for(int i = 0; selectedDestinations != 0; i++) {
+				if((selectedDestinations & 1L) != 0)
+					this.destinations.get(i).outboundBatch.add(message);
+				selectedDestinations >>>= 1;
+			}
+		} catch(Exception e) {
+			this.errorHandler.onError(message, e);
+		}
+	}
+	
+	/**
+	 * Inserts all collected messages into their destination queues at once and notifies waiting consumers
+	 */
+	protected void forwardMessages() {
+		for(int i = 0; i < this.destinations.size(); i++) {
+			final Destination destination = this.destinations.get(i);
+			if(!destination.outboundBatch.isEmpty()) {
+				destination.queueProducer.insertBatch(destination.outboundBatch);
+				if(destination.queueWaitStrategy != null)
+					destination.queueWaitStrategy.forceLockRelease();
+				destination.outboundBatch.clear();
+			}
+		}
+	}
+	
+	/**
+	 * Removes all collected messages from the outbound batches
+	 */
+	private void clearBatches() {
+		for(int i = 0; i < this.destinations.size(); i++)
+			this.destinations.get(i).outboundBatch.clear();
+	}
+	
+	/**
+	 * Shuts down the runtime environment as well as the attached {@link Router}
+	 */
+	public void shutdown() {
+		this.running = false;
+		try {
+			this.router.shutdown();
+		} catch(Exception e) {
+			logger.error("router shutdown error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", router="+this.routerId+"]: " + e.getMessage(), e);
+		}
+
+		if(logger.isDebugEnabled())
+			logger.debug("shutdown success [node="+this.processingNodeId+", pipeline="+this.pipelineId+", router="+this.routerId+"]");
+	}
+
+	/**
+	 * @return the running
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @param messageCounter the messageCounter to set
+	 */
+	public void setMessageCounter(Counter messageCounter) {
+		this.messageCounter = messageCounter;
+	}
+
+	/**
+	 * @param messageProcessingTimer the messageProcessingTimer to set
+	 */
+	public void setMessageProcessingTimer(Timer messageProcessingTimer) {
+		this.messageProcessingTimer = messageProcessingTimer;
+	}
+	
+	/**
+	 * Returns the number of distinct destination queues written by this runtime environment, including the default one 
+	 * @return
+	 */
+	public int getNumOfDestinations() {
+		return this.destinations.size();
+	}
+
+	/**
+	 * Returns the number of messages which did not match any route
+	 * @return
+	 */
+	public long getNumOfUnroutedMessages() {
+		return numOfUnroutedMessages;
+	}
+
+	/**
+	 * @param errorHandler the errorHandler to set
+	 */
+	public void setErrorHandler(ComponentErrorHandler errorHandler) {
+		if(errorHandler != null)
+			this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * @return the errorHandler
+	 */
+	public ComponentErrorHandler getErrorHandler() {
+		return errorHandler;
+	}
+
+	/**
+	 * Destination queue along with the messages collected for it 
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private static class Destination {
+		/** provides write access to destination queue */
+		private final StreamingMessageQueueProducer queueProducer;
+		/** destination queue wait strategy */
+		private final StreamingMessageQueueWaitStrategy queueWaitStrategy;
+		/** collects messages to be inserted into the destination queue at once */
+		private final List<StreamingDataMessage> outboundBatch = new ArrayList<>(MAX_BATCH_SIZE);
+		
+		private Destination(final StreamingMessageQueueProducer queueProducer) {
+			this.queueProducer = queueProducer;
+			this.queueWaitStrategy = queueProducer.getWaitStrategy();
+		}
+	}
+	
+}
@@ -15,8 +15,13 @@
  */
 package com.ottogroup.bi.spqr.pipeline.component.source;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -25,9 +30,13 @@ import com.codahale.metrics.Counter;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueWatermark;
 
 /**
- * Runtime environment for {@link Source} instances
+ * Runtime environment for {@link Source} instances. If {@link #setDownstreamQueueWatermarks(List) watermarks} are attached,
+ * the environment checks them periodically: the source gets paused as soon as any downstream queue reaches its high watermark
+ * and resumed when all of them dropped to their low watermarks. While being paused, incoming messages block the calling
+ * thread. {@link PausableSource Pausable sources} are additionally told to stop fetching data.
  * @author mnxfst
  * @since Mar 5, 2015
  */
@@ -35,6 +44,8 @@ public class SourceRuntimeEnvironment implements Runnable, IncomingMessageCallba
 
 	/** our faithful logging facility ... ;-) */ 
 	private static final Logger logger = Logger.getLogger(SourceRuntimeEnvironment.class);
+	/** default interval applied for checking the downstream queue watermarks */
+	public static final long DEFAULT_BACKPRESSURE_CHECK_INTERVAL_MILLIS = 10;
 	
 	/** identifier of processing node the runtime environment belongs to*/
 	private final String processingNodeId;
@@ -52,6 +63,18 @@ public class SourceRuntimeEnvironment implements Runnable, IncomingMessageCallba
 	private boolean localExecutorService = false;
 	/** message counter metric */
 	private Counter messageCounter;
+	/** watermarks of all queues receiving messages from the source - directly or via other components */
+	private List<StreamingMessageQueueWatermark> downstreamQueueWatermarks = new ArrayList<>();
+	/** interval applied for checking the downstream queue watermarks */
+	private long backpressureCheckIntervalMillis = DEFAULT_BACKPRESSURE_CHECK_INTERVAL_MILLIS;
+	/** indicates whether the source is paused due to backpressure */
+	private volatile boolean paused = false;
+	/** indicates whether the runtime environment is still running */
+	private volatile boolean running = true;
+	/** guards the pause state */
+	private final Lock pauseLock = new ReentrantLock();
+	/** incoming messages wait on this condition while the source is paused */
+	private final Condition resumed = pauseLock.newCondition();
 
 	/**
 	 * Initializes the runtime environment using the provided input
@@ -77,6 +100,38 @@ public class SourceRuntimeEnvironment implements Runnable, IncomingMessageCallba
 	 */
 	public SourceRuntimeEnvironment(final String processingNodeId, final String pipelineId, final Source source, final StreamingMessageQueueProducer queueProducer, 
 			final ExecutorService executorService) throws RequiredInputMissingException {
+		this(processingNodeId, pipelineId, source, source, queueProducer, executorService);
+	}
+	
+	/**
+	 * Initializes the runtime environment using the provided input. The source gets executed through the given task, eg. a
+	 * {@link com.ottogroup.bi.spqr.pipeline.scheduler.PinnedRuntimeEnvironment} which pins the source thread to selected cpus
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param source
+	 * @param sourceTask task executing the source
+	 * @param queueProducer
+	 * @throws RequiredInputMissingException
+	 */
+	public SourceRuntimeEnvironment(final String processingNodeId, final String pipelineId, final Source source, final Runnable sourceTask, 
+			final StreamingMessageQueueProducer queueProducer) throws RequiredInputMissingException {
+		this(processingNodeId, pipelineId, source, sourceTask, queueProducer, Executors.newCachedThreadPool());
+		this.localExecutorService = true;
+	}
+	
+	/**
+	 * Initializes the runtime environment using the provided input. The source gets executed through the given task, eg. a
+	 * {@link com.ottogroup.bi.spqr.pipeline.scheduler.PinnedRuntimeEnvironment} which pins the source thread to selected cpus
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param source
+	 * @param sourceTask task executing the source
+	 * @param queueProducer
+	 * @param executorService
+	 * @throws RequiredInputMissingException
+	 */
+	public SourceRuntimeEnvironment(final String processingNodeId, final String pipelineId, final Source source, final Runnable sourceTask, 
+			final StreamingMessageQueueProducer queueProducer, final ExecutorService executorService) throws RequiredInputMissingException {
 		
 		///////////////////////////////////////////////////////////////
 		// validate input
@@ -86,6 +141,8 @@ public class SourceRuntimeEnvironment implements Runnable, IncomingMessageCallba
 			throw new RequiredInputMissingException("Missing required pipeline identifier");
 		if(source == null)
 			throw new RequiredInputMissingException("Missing required source");
+		if(sourceTask == null)
+			throw new RequiredInputMissingException("Missing required source task");
 		if(queueProducer == null)
 			throw new RequiredInputMissingException("Missing required queue producer");
 		if(executorService == null)
@@ -101,21 +158,94 @@ public class SourceRuntimeEnvironment implements Runnable, IncomingMessageCallba
 		this.queueProducer = queueProducer;
 		this.executorService = executorService;
 		
-		this.executorService.submit(source);
+		this.executorService.submit(sourceTask);
 		if(logger.isDebugEnabled())
 			logger.debug("source runtime environment initialized [id="+source.getId()+"]");
 	}
 
 	/**
+	 * Checks the downstream queue watermarks and pauses or resumes the source accordingly. Returns immediately if 
+	 * no watermarks are attached
 	 * @see java.lang.Runnable#run()
 	 */
 	public void run() {
+		if(this.downstreamQueueWatermarks.isEmpty())
+			return;
+		
+		while(this.running) {
+			try {
+				if(!this.paused && isAnyAboveHighWatermark())
+					pause();
+				else if(this.paused && isAllBelowLowWatermark())
+					resume();
+				Thread.sleep(this.backpressureCheckIntervalMillis);
+			} catch(InterruptedException e) {
+				// interrupted while sleeping: environment shut down
+				break;
+			} catch(Exception e) {
+				logger.error("backpressure check error [node="+this.processingNodeId+", pipeline="+this.pipelineId+", source="+this.sourceId+"]: " + e.getMessage(), e);
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if any downstream queue reached its high watermark
+	 * @return
+	 */
+	protected boolean isAnyAboveHighWatermark() {
+		for(final StreamingMessageQueueWatermark watermark : this.downstreamQueueWatermarks)
+			if(watermark.isAboveHighWatermark())
+				return true;
+		return false;
+	}
+	
+	/**
+	 * Returns true if all downstream queues dropped to their low watermarks
+	 * @return
+	 */
+	protected boolean isAllBelowLowWatermark() {
+		for(final StreamingMessageQueueWatermark watermark : this.downstreamQueueWatermarks)
+			if(!watermark.isBelowLowWatermark())
+				return false;
+		return true;
+	}
+	
+	/**
+	 * Pauses the source: incoming messages block until {@link #resume()} gets called. A {@link PausableSource} 
+	 * is additionally told to stop fetching data 
+	 */
+	protected void pause() {
+		this.paused = true;
+		if(this.source instanceof PausableSource)
+			((PausableSource)this.source).pause();
+		if(logger.isDebugEnabled())
+			logger.debug("source paused [node="+this.processingNodeId+", pipeline="+this.pipelineId+", source="+this.sourceId+"]");
+	}
+	
+	/**
+	 * Resumes a previously {@link #pause() paused} source
+	 */
+	protected void resume() {
+		if(this.source instanceof PausableSource)
+			((PausableSource)this.source).resume();
+		this.pauseLock.lock();
+		try {
+			this.paused = false;
+			this.resumed.signalAll();
+		} finally {
+			this.pauseLock.unlock();
+		}
+		if(logger.isDebugEnabled())
+			logger.debug("source resumed [node="+this.processingNodeId+", pipeline="+this.pipelineId+", source="+this.sourceId+"]");
 	}
 
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.source.IncomingMessageCallback#onMessage(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
 	 */
 	public void onMessage(StreamingDataMessage message) {
+		if(this.paused)
+			awaitResume();
+		
 		this.queueProducer.insert(message);
 		this.queueProducer.getWaitStrategy().forceLockRelease();
 		
@@ -123,11 +253,38 @@ public class SourceRuntimeEnvironment implements Runnable, IncomingMessageCallba
 			this.messageCounter.inc();
 	}
 	
+	/**
+	 * Blocks the calling thread while the source is paused
+	 */
+	protected void awaitResume() {
+		this.pauseLock.lock();
+		try {
+			while(this.paused && this.running) {
+				try {
+					this.resumed.await();
+				} catch(InterruptedException e) {
+					return;
+				}
+			}
+		} finally {
+			this.pauseLock.unlock();
+		}
+	}
+	
 	/**
 	 * Shuts down the runtime environment as well as the attached {@link Source}
 	 */
 	public void shutdown() {
 		
+		// release threads waiting for the source to be resumed
+		this.pauseLock.lock();
+		try {
+			this.running = false;
+			this.resumed.signalAll();
+		} finally {
+			this.pauseLock.unlock();
+		}
+		
 		try {
 			this.source.shutdown();
 		} catch(Exception e) {
@@ -153,5 +310,28 @@ public class SourceRuntimeEnvironment implements Runnable, IncomingMessageCallba
 	public void setMessageCounter(final Counter counter) {
 		this.messageCounter = counter;
 	}
+
+	/**
+	 * Attaches the watermarks of all queues receiving messages from the source - directly or via other components 
+	 * @param downstreamQueueWatermarks
+	 */
+	public void setDownstreamQueueWatermarks(final List<StreamingMessageQueueWatermark> downstreamQueueWatermarks) {
+		this.downstreamQueueWatermarks = (downstreamQueueWatermarks != null ? downstreamQueueWatermarks : new ArrayList<StreamingMessageQueueWatermark>());
+	}
+
+	/**
+	 * Sets the interval applied for checking the downstream queue watermarks
+	 * @param backpressureCheckIntervalMillis
+	 */
+	public void setBackpressureCheckIntervalMillis(final long backpressureCheckIntervalMillis) {
+		this.backpressureCheckIntervalMillis = backpressureCheckIntervalMillis;
+	}
+
+	/**
+	 * @return true if the source is paused due to backpressure
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
 	
 }
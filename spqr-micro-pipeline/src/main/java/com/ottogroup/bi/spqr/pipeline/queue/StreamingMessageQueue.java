@@ -26,7 +26,9 @@ import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 /**
  * Provides the interface for a queue used internally inside the {@link MicroPipeline} to interconnect 
  * {@link MicroPipelineComponent} instances. It transports {@link StreamingDataMessage} entities only
- * and must be accessed by only one producer but supports multiple consumers.
+ * and must be accessed by only one producer but supports multiple consumers. By default all consumers share a single
+ * read position, thus they compete for messages. If the queue is configured as {@link #CFG_QUEUE_BROADCAST broadcast}
+ * queue, each consumer requested via {@link #getConsumer(String)} has a read position of its own and receives all messages.
  * @author mnxfst
  * @since Mar 5, 2015
  * TODO provide statistics interface
@@ -36,6 +38,14 @@ public interface StreamingMessageQueue  {
 	/////////////////////////////////////////////////////////////////////////
 	// available settings for queue instances
 	public static final String CFG_QUEUE_TYPE = "type";
+	/** set to 'true' for queues connecting two direct response operators which must be fused into a single runtime environment */
+	public static final String CFG_QUEUE_FUSE_OPERATORS = "fuseOperators";
+	/** number of messages waiting in the queue which pauses all sources writing to it (directly or via upstream components) */
+	public static final String CFG_QUEUE_HIGH_WATERMARK = "highWatermark";
+	/** number of messages waiting in the queue which lets paused sources resume - default: half of the high watermark */
+	public static final String CFG_QUEUE_LOW_WATERMARK = "lowWatermark";
+	/** set to 'true' for handing out a consumer with its own read position to each component reading from the queue - all consumers receive all messages */
+	public static final String CFG_QUEUE_BROADCAST = "broadcast";
 	/////////////////////////////////////////////////////////////////////////
 	
 	/**
@@ -88,6 +98,23 @@ public interface StreamingMessageQueue  {
 	 */
 	public StreamingMessageQueueConsumer getConsumer();
 	
+	/**
+	 * Returns the {@link StreamingMessageQueueConsumer} assigned to the referenced consumer (eg. a component reading from the queue). 
+	 * Broadcast queues hand out a consumer with a read position of its own for each identifier while all other queues return
+	 * the consumer provided by {@link #getConsumer()}. The first consumer requested from a broadcast queue is the one provided 
+	 * by {@link #getConsumer()}.   
+	 * @param consumerId
+	 * @return
+	 */
+	public StreamingMessageQueueConsumer getConsumer(final String consumerId);
+	
+	/**
+	 * Returns the number of messages inserted but not retrieved so far. Broadcast queues report the backlog
+	 * of their slowest consumer
+	 * @return
+	 */
+	public long getBacklog();
+	
 	/**
 	 * Attaches an optional {@link Counter} instance for counting inserted messages
 	 * @param counter
@@ -37,6 +37,39 @@ public interface StreamingMessageQueueConsumer {
 	 * @return
 	 */
 	public StreamingDataMessage next();
+	
+	/**
+	 * Retrieves up to the given number of {@link StreamingDataMessage} instances currently available from the underlying queue 
+	 * without waiting for new ones. The messages are written to the provided buffer starting at index zero. Consumers handing out 
+	 * {@link StreamingDataMessage#isView() views} retrieve at most one message per call as a view is valid only until the next 
+	 * retrieval.
+	 * @param buffer
+	 * @param maxMessages
+	 * @return number of messages written to the buffer
+	 */
+	public int drainTo(final StreamingDataMessage[] buffer, final int maxMessages);
+
+	/**
+	 * Tells the consumer whether the caller keeps retrieved messages beyond the next retrieval, eg. to process them on other threads. 
+	 * By default, consumers keeping track of the read position consider a message processed as soon as the next one is 
+	 * retrieved. With explicit commits enabled, they consider processed only the messages acknowledged via {@link #commit()}
+	 * or {@link #commit(int)}
+	 * @param explicitCommit
+	 */
+	public void setExplicitCommit(final boolean explicitCommit);
+	
+	/**
+	 * Acknowledges all messages retrieved so far as processed. Applies only if explicit commits are enabled 
+	 */
+	public void commit();
+	
+	/**
+	 * Acknowledges the given number of messages as processed, starting with the oldest one retrieved but not acknowledged 
+	 * so far. Allows callers processing messages out of order to acknowledge the longest processed sequence without waiting
+	 * for all retrieved messages. Applies only if explicit commits are enabled
+	 * @param numOfMessages
+	 */
+	public void commit(final int numOfMessages);
 
 	/**
 	 * Returns the optional {@link StreamingMessageQueueWaitStrategy} assigned to the queue
@@ -15,6 +15,8 @@
  */
 package com.ottogroup.bi.spqr.pipeline.queue;
 
+import java.util.List;
+
 import com.codahale.metrics.Counter;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
@@ -39,6 +41,23 @@ public interface StreamingMessageQueueProducer {
 	 */
 	public boolean insert(final StreamingDataMessage message);
 	
+	/**
+	 * Inserts all given {@link StreamingDataMessage} instances into the underlying queue while preserving their order. Compared to 
+	 * calling {@link #insert(StreamingDataMessage)} for each message, implementations acquire locks and update metrics 
+	 * only once per batch. <code>null</code> elements are skipped.
+	 * @param messages
+	 * @return number of inserted messages
+	 */
+	public int insertBatch(final StreamingDataMessage[] messages);
+
+	/**
+	 * Inserts all given {@link StreamingDataMessage} instances into the underlying queue while preserving their order. See
+	 * {@link #insertBatch(StreamingDataMessage[])} for details
+	 * @param messages
+	 * @return number of inserted messages
+	 */
+	public int insertBatch(final List<StreamingDataMessage> messages);
+	
 	/**
 	 * Returns the optional {@link StreamingMessageQueueWaitStrategy} assigned to the underlying queue
 	 * @return 
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+
+/**
+ * Watches the {@link StreamingMessageQueue#getBacklog() backlog} of a {@link StreamingMessageQueue}. Sources writing to the queue 
+ * (directly or via upstream components) must pause as soon as the backlog reaches the high watermark and may resume as soon 
+ * as it drops to the low watermark again. The gap between both values keeps sources from toggling with each message.  
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingMessageQueueWatermark {
+
+	/** queue to watch */
+	private final StreamingMessageQueue queue;
+	/** backlog which pauses sources */
+	private final long highWatermark;
+	/** backlog which lets sources resume */
+	private final long lowWatermark;
+	
+	/**
+	 * Initializes the watermark using the provided input
+	 * @param queue
+	 * @param highWatermark
+	 * @param lowWatermark
+	 * @throws RequiredInputMissingException
+	 */
+	public StreamingMessageQueueWatermark(final StreamingMessageQueue queue, final long highWatermark, final long lowWatermark) throws RequiredInputMissingException {
+		if(queue == null)
+			throw new RequiredInputMissingException("Missing required queue");
+		if(highWatermark < 1)
+			throw new IllegalArgumentException("Invalid high watermark: " + highWatermark);
+		if(lowWatermark < 0 || lowWatermark >= highWatermark)
+			throw new IllegalArgumentException("Invalid low watermark: " + lowWatermark + ". It must be less than the high watermark: " + highWatermark);
+		
+		this.queue = queue;
+		this.highWatermark = highWatermark;
+		this.lowWatermark = lowWatermark;
+	}
+	
+	/**
+	 * Returns true if the queue backlog reached the high watermark
+	 * @return
+	 */
+	public boolean isAboveHighWatermark() {
+		return this.queue.getBacklog() >= this.highWatermark;
+	}
+	
+	/**
+	 * Returns true if the queue backlog dropped to the low watermark
+	 * @return
+	 */
+	public boolean isBelowLowWatermark() {
+		return this.queue.getBacklog() <= this.lowWatermark;
+	}
+
+	public StreamingMessageQueue getQueue() {
+		return queue;
+	}
+
+	public long getHighWatermark() {
+		return highWatermark;
+	}
+
+	public long getLowWatermark() {
+		return lowWatermark;
+	}
+	
+}
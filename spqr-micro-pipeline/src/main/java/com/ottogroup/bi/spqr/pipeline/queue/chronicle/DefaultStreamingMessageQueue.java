@@ -17,20 +17,31 @@ package com.ottogroup.bi.spqr.pipeline.queue.chronicle;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueSleepingWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
 
@@ -40,11 +51,13 @@ import net.openhft.chronicle.VanillaChronicle;
 import net.openhft.chronicle.tools.ChronicleTools;
 
 /**
- * Implements a {@link StreamingMessageQueue} based on {@link Chronicle}
+ * Implements a {@link StreamingMessageQueue} based on {@link Chronicle}. Configured as broadcast queue, each consumer 
+ * reads via a tailer of its own, thus it receives all messages found in the chronicle. Cycles are deleted while running
+ * according to the settings applied to the {@link DefaultStreamingMessageQueueRetention retention}
  * @author mnxfst
  * @since Mar 5, 2015
  */
-public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
+public class DefaultStreamingMessageQueue implements StreamingMessageQueue, MetricSet {
 
 
 	/** our faithful logging facility ... ;-) */
@@ -55,6 +68,31 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 	public static final String CFG_CHRONICLE_QUEUE_ROLLING_INTERVAL = "queue.chronicle.rollingInterval";
 	public static final String CFG_CHRONICLE_QUEUE_CYCLE_FORMAT = "queue.chronicle.cycleFormat";
 	public static final String CFG_QUEUE_MESSAGE_WAIT_STRATEGY = "queue.message.waitStrategy";
+	public static final String CFG_CHRONICLE_QUEUE_READ_MODE = "queue.chronicle.readMode";
+	public static final String CFG_CHRONICLE_QUEUE_RESUME = "queue.chronicle.resume";
+	public static final String CFG_CHRONICLE_QUEUE_CHECKPOINT_INTERVAL = "queue.chronicle.checkpointInterval";
+	public static final String CFG_CHRONICLE_QUEUE_RETENTION_DELETE_CONSUMED = "queue.chronicle.retention.deleteConsumed";
+	public static final String CFG_CHRONICLE_QUEUE_RETENTION_MAX_BYTES = "queue.chronicle.retention.maxBytes";
+	public static final String CFG_CHRONICLE_QUEUE_RETENTION_MAX_AGE = "queue.chronicle.retention.maxAge";
+	public static final String CFG_CHRONICLE_QUEUE_RETENTION_CHECK_INTERVAL = "queue.chronicle.retention.checkInterval";
+	
+	public static final String METRIC_DISK_BYTES = "disk.bytes";
+	public static final String METRIC_DISK_CYCLES = "disk.cycles";
+	public static final String METRIC_RETENTION_DELETED_CYCLES = "retention.deletedCycles";
+	public static final String METRIC_RETENTION_DELETED_BYTES = "retention.deletedBytes";
+	
+	/** default number of retrieved messages after which a consumer commits its index */
+	public static final int DEFAULT_CHECKPOINT_INTERVAL = 1000;
+	/** default number of seconds between two retention runs */
+	public static final long DEFAULT_RETENTION_CHECK_INTERVAL = 60;
+	
+	/////////////////////////////////////////////////////////////////////
+	// values accepted by 'queue.chronicle.readMode'
+	/** each retrieved message owns a copy of its body (default) */
+	public static final String READ_MODE_COPY = "copy";
+	/** retrieved messages are reusable views on the mapped excerpt - valid until the next message is requested */
+	public static final String READ_MODE_REUSE = "reuse";
+	/////////////////////////////////////////////////////////////////////
 
 	/** unique queue identifier */
 	private String id = null;
@@ -74,6 +112,30 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 	private DefaultStreamingMessageQueueProducer queueProducer = null;
 	/** wait strategy applied on this queue */
 	private StreamingMessageQueueWaitStrategy queueWaitStrategy = null;
+	/** consumer hands out reusable views on mapped excerpts instead of copying message bodies */
+	private boolean reuseMessages = false;
+	/** number of messages inserted but not retrieved since the queue was initialized */
+	private final AtomicLong backlog = new AtomicLong(0);
+	/** hand out a consumer with a tailer of its own to each consumer identifier */
+	private boolean broadcast = false;
+	/** consumers handed out by a broadcast queue - referenced by consumer identifier */
+	private final Map<String, DefaultStreamingMessageQueueConsumer> broadcastConsumers = new ConcurrentHashMap<>();
+	/** backlogs of consumers handed out by a broadcast queue - referenced by consumer identifier */
+	private final Map<String, AtomicLong> broadcastBacklogs = new ConcurrentHashMap<>();
+	/** counter instance attached to all consumers */
+	private Counter messageRetrievalCounter = null;
+	/** path to the chronicle files - offset files are kept next to them */
+	private String pathToChronicle = null;
+	/** continue reading at the last committed index of each consumer */
+	private boolean resume = false;
+	/** number of retrieved messages after which a consumer commits its index */
+	private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+	/** offset files of all consumers - kept only if the chronicle files survive a shutdown */
+	private final Map<String, DefaultStreamingMessageQueueOffsetFile> offsetFiles = new ConcurrentHashMap<>();
+	/** deletes cycles while the queue is running */
+	private DefaultStreamingMessageQueueRetention retention = null;
+	/** periodic execution of the retention */
+	private ScheduledFuture<?> retentionFuture = null;
 
 	public long getSize() {
 		return chronicle.size();
@@ -107,6 +169,7 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 		if(!StringUtils.endsWith(pathToChronicle, File.separator))
 			pathToChronicle = pathToChronicle + File.separator;
 		pathToChronicle = pathToChronicle + id;
+		this.pathToChronicle = pathToChronicle;
 		
 		try {
 			this.queueRollingInterval = TimeUnit.MINUTES.toMillis(Long.parseLong(StringUtils.trim(properties.getProperty(CFG_CHRONICLE_QUEUE_ROLLING_INTERVAL))));
@@ -119,6 +182,30 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 		}
 		
 		this.queueWaitStrategy = getWaitStrategy(StringUtils.trim(properties.getProperty(CFG_QUEUE_MESSAGE_WAIT_STRATEGY)));
+		this.reuseMessages = StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_CHRONICLE_QUEUE_READ_MODE)), READ_MODE_REUSE);
+		this.broadcast = StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_QUEUE_BROADCAST)), "true");
+		this.resume = StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_CHRONICLE_QUEUE_RESUME)), "true");
+		
+		final String checkpointIntervalStr = StringUtils.trim(properties.getProperty(CFG_CHRONICLE_QUEUE_CHECKPOINT_INTERVAL));
+		if(StringUtils.isNotBlank(checkpointIntervalStr)) {
+			try {
+				this.checkpointInterval = Integer.parseInt(checkpointIntervalStr);
+			} catch(NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid checkpoint interval: " + checkpointIntervalStr);
+			}
+			if(this.checkpointInterval < 1)
+				throw new IllegalArgumentException("Invalid checkpoint interval: " + checkpointIntervalStr);
+		}
+		
+		final boolean deleteConsumed = !StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_CHRONICLE_QUEUE_RETENTION_DELETE_CONSUMED)), "false");
+		final long maxBytes = parseLong(properties, CFG_CHRONICLE_QUEUE_RETENTION_MAX_BYTES, 0);
+		final long maxAge = TimeUnit.MINUTES.toMillis(parseLong(properties, CFG_CHRONICLE_QUEUE_RETENTION_MAX_AGE, 0));
+		final long retentionCheckInterval = parseLong(properties, CFG_CHRONICLE_QUEUE_RETENTION_CHECK_INTERVAL, DEFAULT_RETENTION_CHECK_INTERVAL);
+		if(retentionCheckInterval < 1)
+			throw new IllegalArgumentException("Invalid retention check interval: " + retentionCheckInterval);
+		
+		if(this.resume && this.deleteOnExit)
+			logger.warn("Chronicle files of queue '"+this.id+"' are deleted on exit. Nothing to resume from");
 		
 		//
 		////////////////////////////////////////////////////////////////////////////////
@@ -131,13 +218,61 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 		
         try {
         	this.chronicle = ChronicleQueueBuilder.vanilla(pathToChronicle).cycleLength((int)this.queueRollingInterval).cycleFormat(this.cycleFormat).build();
-        	this.queueConsumer = new DefaultStreamingMessageQueueConsumer(this.getId(), this.chronicle.createTailer(), this.queueWaitStrategy);
-			this.queueProducer = new DefaultStreamingMessageQueueProducer(this.getId(), this.chronicle.createAppender(), this.queueWaitStrategy);
+        	this.queueConsumer = new DefaultStreamingMessageQueueConsumer(this.getId(), this.chronicle.createTailer(), this.queueWaitStrategy, this.reuseMessages, this.backlog);
+        	attachOffsetFile(this.queueConsumer, this.pathToChronicle + DefaultStreamingMessageQueueOffsetFile.FILE_SUFFIX);
+			this.queueProducer = new DefaultStreamingMessageQueueProducer(this.getId(), this.chronicle.createAppender(), this.chronicle, this.queueWaitStrategy, this.backlog);
 		} catch (IOException e) {
 			throw new RuntimeException("Failed to initialize chronicle at '"+pathToChronicle+"'. Error: " + e.getMessage());
 		}
         
-        logger.info("queue[type=chronicle, id="+this.id+", deleteOnExist="+this.deleteOnExit+", path="+pathToChronicle+"']");       		
+        this.retention = new DefaultStreamingMessageQueueRetention(this.id, new File(pathToChronicle), this.cycleFormat, this.queueRollingInterval, 
+        		((VanillaChronicle)this.chronicle).getEntriesForCycleBits(), deleteConsumed, maxBytes, maxAge);
+        this.retention.addConsumer(this.queueConsumer);
+        this.retentionFuture = DefaultStreamingMessageQueueRetention.getRetentionExecutor().scheduleWithFixedDelay(
+        		this.retention, retentionCheckInterval, retentionCheckInterval, TimeUnit.SECONDS);
+        
+        logger.info("queue[type=chronicle, id="+this.id+", deleteOnExist="+this.deleteOnExit+", readMode="+(this.reuseMessages ? READ_MODE_REUSE : READ_MODE_COPY)+", broadcast="+this.broadcast+", resume="+this.resume+", deleteConsumed="+deleteConsumed+", maxBytes="+maxBytes+", maxAge="+maxAge+", path="+pathToChronicle+"']");       		
+	}
+
+	/**
+	 * Reads the referenced property as long value. Non-numeric values result in an {@link IllegalArgumentException} 
+	 * @param properties
+	 * @param key
+	 * @param defaultValue value returned if the property is missing
+	 * @return
+	 */
+	protected long parseLong(final Properties properties, final String key, final long defaultValue) {
+		final String value = StringUtils.trim(properties.getProperty(key));
+		if(StringUtils.isBlank(value))
+			return defaultValue;
+		try {
+			return Long.parseLong(value);
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value for '"+key+"': " + value);
+		}
+	}
+	
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		final Map<String, Metric> metrics = new HashMap<>();
+		metrics.put(METRIC_DISK_BYTES, new Gauge<Long>() {
+			public Long getValue() {
+				return Long.valueOf(retention.getDiskBytes());
+			}
+		});
+		metrics.put(METRIC_DISK_CYCLES, new Gauge<Integer>() {
+			public Integer getValue() {
+				return Integer.valueOf(retention.getNumOfCycles());
+			}
+		});
+		metrics.put(METRIC_RETENTION_DELETED_CYCLES, this.retention.getDeletedCycles());
+		metrics.put(METRIC_RETENTION_DELETED_BYTES, this.retention.getDeletedBytes());
+		// wait strategies providing their own metrics (eg. adaptive mode) get them reported along with the queue 
+		if(this.queueWaitStrategy instanceof MetricSet)
+			metrics.putAll(((MetricSet)this.queueWaitStrategy).getMetrics());
+		return metrics;
 	}
 
 	/**
@@ -150,13 +285,58 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 			return new StreamingMessageQueueDirectPassStrategy();
 		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME))
 			return new StreamingMessageQueueSleepingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueParkingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueScheduledWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueAdaptiveWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueAdaptiveWaitStrategy();
 		return new StreamingMessageQueueBlockingWaitStrategy();
 	}
 	
+	/**
+	 * Attaches an offset file to the given consumer if the chronicle files survive a shutdown. If requested, the consumer
+	 * continues reading behind the index committed by a previous run
+	 * @param consumer
+	 * @param offsetFilePath
+	 * @throws IOException
+	 */
+	protected void attachOffsetFile(final DefaultStreamingMessageQueueConsumer consumer, final String offsetFilePath) throws IOException {
+		if(this.deleteOnExit)
+			return;
+		
+		final DefaultStreamingMessageQueueOffsetFile offsetFile = new DefaultStreamingMessageQueueOffsetFile(new File(offsetFilePath));
+		if(this.resume) {
+			final long committedIndex = offsetFile.getCommittedIndex();
+			if(consumer.seek(committedIndex))
+				logger.info("queue[id="+this.id+", offsetFile="+offsetFilePath+"] resumed at index " + committedIndex);
+			else if(committedIndex != DefaultStreamingMessageQueueOffsetFile.NO_INDEX)
+				logger.warn("queue[id="+this.id+", offsetFile="+offsetFilePath+"] committed index " + committedIndex + " not found. Reading from start");
+		}
+		consumer.setOffsetFile(offsetFile, this.checkpointInterval);
+		this.offsetFiles.put(offsetFilePath, offsetFile);
+	}
+	
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#shutdown()
 	 */
 	public boolean shutdown() {
+		if(this.retentionFuture != null)
+			this.retentionFuture.cancel(false);
+		
+		// commit the read positions before closing the chronicle
+		this.queueConsumer.checkpoint();
+		for(final DefaultStreamingMessageQueueConsumer consumer : this.broadcastConsumers.values())
+			consumer.checkpoint();
+		for(final DefaultStreamingMessageQueueOffsetFile offsetFile : this.offsetFiles.values()) {
+			try {
+				offsetFile.close();
+			} catch(IOException e) {
+				logger.error("Failed to close offset file " + offsetFile.getFile() + ". Error: " + e.getMessage());
+			}
+		}
+		this.offsetFiles.clear();
+		
 		try {
 			this.chronicle.close();
 			return true;
@@ -194,6 +374,37 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 		return this.queueConsumer;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer(java.lang.String)
+	 */
+	public synchronized StreamingMessageQueueConsumer getConsumer(String consumerId) {
+		if(!this.broadcast)
+			return this.queueConsumer;
+		
+		final String key = StringUtils.lowerCase(StringUtils.trim(consumerId));
+		DefaultStreamingMessageQueueConsumer consumer = this.broadcastConsumers.get(key);
+		if(consumer == null) {
+			if(this.broadcastConsumers.isEmpty()) {
+				consumer = this.queueConsumer;
+				this.broadcastBacklogs.put(key, this.backlog);
+			} else {
+				final AtomicLong consumerBacklog = new AtomicLong(0);
+				try {
+					consumer = new DefaultStreamingMessageQueueConsumer(this.getId(), this.chronicle.createTailer(), this.queueWaitStrategy, this.reuseMessages, consumerBacklog);
+					attachOffsetFile(consumer, this.pathToChronicle + "." + key + DefaultStreamingMessageQueueOffsetFile.FILE_SUFFIX);
+				} catch(IOException e) {
+					throw new RuntimeException("Failed to create tailer for consumer '"+consumerId+"' of queue '"+this.id+"'. Error: " + e.getMessage());
+				}
+				consumer.setMessageRetrievalCounter(this.messageRetrievalCounter);
+				this.queueProducer.registerBroadcastBacklog(consumerBacklog);
+				this.retention.addConsumer(consumer);
+				this.broadcastBacklogs.put(key, consumerBacklog);
+			}
+			this.broadcastConsumers.put(key, consumer);
+		}
+		return consumer;
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setId(java.lang.String)
 	 */
@@ -208,6 +419,18 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 		return this.id;
 	}
 
+	/**
+	 * Returns the number of messages inserted but not retrieved since the queue was initialized. Messages 
+	 * persisted by a previous run are not taken into account
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getBacklog()
+	 */
+	public long getBacklog() {
+		long max = this.backlog.get();
+		for(final AtomicLong consumerBacklog : this.broadcastBacklogs.values())
+			max = Math.max(max, consumerBacklog.get());
+		return Math.max(0, max);
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageInsertionCounter(com.codahale.metrics.Counter)
 	 */
@@ -219,7 +442,10 @@ public class DefaultStreamingMessageQueue implements StreamingMessageQueue {
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageRetrievalCounter(com.codahale.metrics.Counter)
 	 */
 	public void setMessageRetrievalCounter(Counter counter) {
+		this.messageRetrievalCounter = counter;
 		this.queueConsumer.setMessageRetrievalCounter(counter);
+		for(final DefaultStreamingMessageQueueConsumer consumer : this.broadcastConsumers.values())
+			consumer.setMessageRetrievalCounter(counter);
 	}
 
 	
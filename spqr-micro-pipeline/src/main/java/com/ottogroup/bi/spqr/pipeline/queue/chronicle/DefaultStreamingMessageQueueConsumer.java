@@ -15,24 +15,69 @@
  */
 package com.ottogroup.bi.spqr.pipeline.queue.chronicle;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
 import com.codahale.metrics.Counter;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
 
 import net.openhft.chronicle.ExcerptTailer;
 
 /**
- * Default {@link StreamingMessageQueueConsumer} implementation accessing {@link DefaultStreamingMessageQueue}
+ * Default {@link StreamingMessageQueueConsumer} implementation accessing {@link DefaultStreamingMessageQueue}. If
+ * configured to reuse messages, the consumer hands out a single {@link StreamingDataMessage} instance serving as
+ * {@link StreamingDataMessage#isView() view} on the mapped excerpt. The view is valid until {@link #next()} gets
+ * called again.<br/><br/>
+ * If an offset file is attached, the consumer commits the index of the last retrieved message as soon as the caller asks for the
+ * next one. Callers keeping messages beyond the next retrieval enable {@link #setExplicitCommit(boolean) explicit commits} and 
+ * {@link #commit() acknowledge} the messages they are done with.
  * @author mnxfst
  * @since Mar 5, 2015
  */
 public class DefaultStreamingMessageQueueConsumer implements StreamingMessageQueueConsumer {
 
+	/** our faithful logging facility ..... ;-) */
+	private static final Logger logger = Logger.getLogger(DefaultStreamingMessageQueueConsumer.class);
+	/** initial number of pending indexes kept with explicit commits - grows on demand, must be a power of two */
+	private static final int INITIAL_PENDING_CAPACITY = 64;
+
 	private final String queueId;
 	private final ExcerptTailer queueReader;
 	private final StreamingMessageQueueWaitStrategy waitStrategy;
 	private Counter messageRetrievalCounter = null;
+	/** number of messages inserted but not retrieved so far - shared with the producer */
+	private final AtomicLong backlog;
+	/** hand out reusable views instead of copying the message body */
+	private final boolean reuseMessages;
+	/** message instance handed out on each call if messages are reused */
+	private final StreamingDataMessage reusableMessage = new StreamingDataMessage();
+	/** buffer instance pointed to the current excerpt body if messages are reused */
+	private ByteBuffer reusableBodyBuffer = null;
+	/** file the index of the last retrieved message gets committed to - null if offsets are not kept. Read by the retention as well */
+	private volatile DefaultStreamingMessageQueueOffsetFile offsetFile = null;
+	/** number of retrieved messages after which the index gets committed */
+	private int checkpointInterval = 1;
+	/** number of messages retrieved since the last commit */
+	private int uncommittedMessages = 0;
+	/** index of the last retrieved message - read by the retention without synchronization where a stale value protects more cycles than necessary */
+	private long lastRetrievedIndex = DefaultStreamingMessageQueueOffsetFile.NO_INDEX;
+	/** commit only messages acknowledged by the caller */
+	private boolean explicitCommit = false;
+	/** index of the last message acknowledged by the caller - applies to explicit commits only */
+	private long acknowledgedIndex = DefaultStreamingMessageQueueOffsetFile.NO_INDEX;
+	/** indicates whether the last retrieval found the queue empty */
+	private boolean queueDrained = false;
+	/** indexes of messages retrieved but not acknowledged so far, in retrieval order - kept with explicit commits and offset file only */
+	private long[] pendingIndexes = new long[INITIAL_PENDING_CAPACITY];
+	/** position of the oldest pending index */
+	private int pendingHead = 0;
+	/** number of pending indexes */
+	private int pendingCount = 0;
 	
 	/**
 	 * Initializes the consumer using the provided input
@@ -41,9 +86,34 @@ public class DefaultStreamingMessageQueueConsumer implements StreamingMessageQue
 	 * @param waitStrategy
 	 */
 	public DefaultStreamingMessageQueueConsumer(final String queueId, final ExcerptTailer queueReader, final StreamingMessageQueueWaitStrategy waitStrategy) {
+		this(queueId, queueReader, waitStrategy, false);
+	}
+	
+	/**
+	 * Initializes the consumer using the provided input
+	 * @param queueId
+	 * @param queueReader
+	 * @param waitStrategy
+	 * @param reuseMessages
+	 */
+	public DefaultStreamingMessageQueueConsumer(final String queueId, final ExcerptTailer queueReader, final StreamingMessageQueueWaitStrategy waitStrategy, final boolean reuseMessages) {
+		this(queueId, queueReader, waitStrategy, reuseMessages, new AtomicLong(0));
+	}
+	
+	/**
+	 * Initializes the consumer using the provided input
+	 * @param queueId
+	 * @param queueReader
+	 * @param waitStrategy
+	 * @param reuseMessages
+	 * @param backlog number of messages inserted but not retrieved so far - shared with the producer
+	 */
+	public DefaultStreamingMessageQueueConsumer(final String queueId, final ExcerptTailer queueReader, final StreamingMessageQueueWaitStrategy waitStrategy, final boolean reuseMessages, final AtomicLong backlog) {
 		this.queueId = queueId;
 		this.queueReader = queueReader;
 		this.waitStrategy = waitStrategy;
+		this.reuseMessages = reuseMessages;
+		this.backlog = backlog;
 	}
 	
 	/**
@@ -51,24 +121,241 @@ public class DefaultStreamingMessageQueueConsumer implements StreamingMessageQue
 	 */
 	public StreamingDataMessage next() {
 		
+		// the caller returns for the next message after it is done with the previous one, thus it is safe to commit now - unless 
+		// it keeps messages and commits explicitly
+		if(!this.explicitCommit && this.uncommittedMessages >= this.checkpointInterval)
+			checkpoint();
+		
 		// check if a new message is available and read it from chronicle if possible
 		if(queueReader.nextIndex()) {
+			this.lastRetrievedIndex = queueReader.index();
+			addPendingIndex(this.lastRetrievedIndex);
+			this.queueDrained = false;
+			if(this.offsetFile != null)
+				this.uncommittedMessages++;
+			
 			long timestamp = queueReader.readLong();
 			int bytes = queueReader.readInt();
+			
+			if(this.reuseMessages) {
+				// read the header following the body first, then point the reusable buffer to the body inside 
+				// the mapped excerpt - the mapping is kept by the tailer until it moves to the next excerpt
+				final long bodyPosition = queueReader.position();
+				queueReader.position(bodyPosition + bytes);
+				final StreamingDataMessageHeader header = readHeader();
+				queueReader.position(bodyPosition);
+				queueReader.limit(bodyPosition + bytes);
+				this.reusableBodyBuffer = queueReader.sliceAsByteBuffer(this.reusableBodyBuffer);
+				queueReader.finish();
+				this.backlog.decrementAndGet();
+
+				if(this.messageRetrievalCounter != null)
+					this.messageRetrievalCounter.inc();
+				
+				return this.reusableMessage.wrap(this.reusableBodyBuffer, timestamp, header);
+			}
+			
 			byte[] body = new byte[bytes];
 			queueReader.read(body);
+			final StreamingDataMessageHeader header = readHeader();
 			queueReader.finish();
+			this.backlog.decrementAndGet();
 			
 			if(this.messageRetrievalCounter != null)
 				this.messageRetrievalCounter.inc();
 
-			return new StreamingDataMessage(body, timestamp);
+			return new StreamingDataMessage(body, timestamp, header);
 		}
 		
-		// otherwise return null;
+		// otherwise commit the remaining messages while being idle and return null
+		this.queueDrained = true;
+		if(!this.explicitCommit && this.uncommittedMessages > 0)
+			checkpoint();
 		return null;		
 	}
 	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#drainTo(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[], int)
+	 */
+	public int drainTo(StreamingDataMessage[] buffer, int maxMessages) {
+		if(buffer == null || maxMessages < 1)
+			return 0;
+		
+		// a view is invalidated by the next read, thus hand out a single one only 
+		if(this.reuseMessages) {
+			buffer[0] = next();
+			return (buffer[0] != null ? 1 : 0);
+		}
+
+		if(!this.explicitCommit && this.uncommittedMessages >= this.checkpointInterval)
+			checkpoint();
+
+		final int max = Math.min(buffer.length, maxMessages);
+		int drained = 0;
+		while(drained < max && queueReader.nextIndex()) {
+			this.lastRetrievedIndex = queueReader.index();
+			addPendingIndex(this.lastRetrievedIndex);
+			long timestamp = queueReader.readLong();
+			byte[] body = new byte[queueReader.readInt()];
+			queueReader.read(body);
+			final StreamingDataMessageHeader header = readHeader();
+			queueReader.finish();
+			buffer[drained++] = new StreamingDataMessage(body, timestamp, header);
+		}
+		
+		if(drained > 0)
+			this.backlog.addAndGet(-drained);
+		this.queueDrained = (drained < max);
+		if(this.offsetFile != null) {
+			this.uncommittedMessages += drained;
+			if(!this.explicitCommit && drained == 0 && this.uncommittedMessages > 0)
+				checkpoint();
+		}
+		if(this.messageRetrievalCounter != null && drained > 0)
+			this.messageRetrievalCounter.inc(drained);
+		return drained;
+	}
+	
+	/**
+	 * Reads the {@link StreamingDataMessageHeader header} following the message body inside the current excerpt. 
+	 * Returns null if the excerpt ends after the body or the header cannot be decoded
+	 * @return
+	 */
+	protected StreamingDataMessageHeader readHeader() {
+		if(queueReader.remaining() < 1)
+			return null;
+		try {
+			return StreamingDataMessageHeader.readFrom(queueReader);
+		} catch(Exception e) {
+			logger.error("Failed to read message header from queue '"+this.queueId+"'. Error: " + e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Attaches the file the index of the last retrieved message gets committed to each time the given number of 
+	 * messages has been retrieved. Messages are committed when the consumer is asked for the next one, thus a
+	 * message currently being processed is never committed by the regular checkpoints
+	 * @param offsetFile
+	 * @param checkpointInterval
+	 */
+	public void setOffsetFile(final DefaultStreamingMessageQueueOffsetFile offsetFile, final int checkpointInterval) {
+		if(checkpointInterval < 1)
+			throw new IllegalArgumentException("Invalid checkpoint interval: " + checkpointInterval);
+		this.offsetFile = offsetFile;
+		this.checkpointInterval = checkpointInterval;
+	}
+	
+	/**
+	 * Moves the read position behind the message the given index points to. If the index cannot be found, eg. as 
+	 * the referenced chronicle cycle has been removed, the read position is moved to the start of the chronicle
+	 * @param index
+	 * @return true if the read position has been moved behind the referenced message
+	 */
+	public boolean seek(final long index) {
+		if(index == DefaultStreamingMessageQueueOffsetFile.NO_INDEX || !this.queueReader.index(index)) {
+			this.queueReader.toStart();
+			return false;
+		}
+		this.lastRetrievedIndex = index;
+		this.acknowledgedIndex = index;
+		this.pendingCount = 0;
+		return true;
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#setExplicitCommit(boolean)
+	 */
+	public void setExplicitCommit(boolean explicitCommit) {
+		this.acknowledgedIndex = this.lastRetrievedIndex;
+		this.pendingCount = 0;
+		this.explicitCommit = explicitCommit;
+	}
+	
+	/**
+	 * Acknowledges all messages retrieved so far and commits them once the checkpoint interval is reached or the queue 
+	 * has been found empty 
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#commit()
+	 */
+	public void commit() {
+		if(!this.explicitCommit)
+			return;
+		this.acknowledgedIndex = this.lastRetrievedIndex;
+		this.pendingCount = 0;
+		if(this.uncommittedMessages >= this.checkpointInterval || (this.queueDrained && this.uncommittedMessages > 0))
+			checkpoint();
+	}
+	
+	/**
+	 * Acknowledges the given number of pending messages and commits them once the checkpoint interval is reached or the 
+	 * queue has been found empty
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#commit(int)
+	 */
+	public void commit(int numOfMessages) {
+		if(!this.explicitCommit || numOfMessages < 1 || this.pendingCount == 0)
+			return;
+		
+		final int acknowledged = Math.min(numOfMessages, this.pendingCount);
+		final int mask = this.pendingIndexes.length - 1;
+		this.acknowledgedIndex = this.pendingIndexes[(this.pendingHead + acknowledged - 1) & mask];
+		this.pendingHead = (this.pendingHead + acknowledged) & mask;
+		this.pendingCount -= acknowledged;
+		if(this.uncommittedMessages >= this.checkpointInterval || (this.queueDrained && this.uncommittedMessages > 0))
+			checkpoint();
+	}
+	
+	/**
+	 * Records the index of a retrieved message until it gets acknowledged via {@link #commit(int)}. Applies to explicit 
+	 * commits only and if an offset file is attached
+	 * @param index
+	 */
+	protected void addPendingIndex(final long index) {
+		if(!this.explicitCommit || this.offsetFile == null)
+			return;
+		
+		if(this.pendingCount == this.pendingIndexes.length) {
+			// grow by copying the pending indexes in order to the start of the new array 
+			final long[] grown = new long[this.pendingIndexes.length << 1];
+			final int tail = this.pendingIndexes.length - this.pendingHead;
+			System.arraycopy(this.pendingIndexes, this.pendingHead, grown, 0, tail);
+			System.arraycopy(this.pendingIndexes, 0, grown, tail, this.pendingHead);
+			this.pendingIndexes = grown;
+			this.pendingHead = 0;
+		}
+		this.pendingIndexes[(this.pendingHead + this.pendingCount) & (this.pendingIndexes.length - 1)] = index;
+		this.pendingCount++;
+	}
+	
+	/**
+	 * Commits the index of the last retrieved message to the attached offset file. With explicit commits enabled, the index
+	 * of the last acknowledged message is committed instead
+	 */
+	public void checkpoint() {
+		this.uncommittedMessages = 0;
+		final long index = (this.explicitCommit ? this.acknowledgedIndex : this.lastRetrievedIndex);
+		if(this.offsetFile != null && index != DefaultStreamingMessageQueueOffsetFile.NO_INDEX)
+			this.offsetFile.commit(index);
+	}
+
+	/**
+	 * Returns the index of the last retrieved message or {@link DefaultStreamingMessageQueueOffsetFile#NO_INDEX} if none has been retrieved so far
+	 * @return
+	 */
+	public long getLastRetrievedIndex() {
+		return lastRetrievedIndex;
+	}
+
+	/**
+	 * Returns the index the consumer resumes behind after a restart: the committed index if an offset file is attached, the 
+	 * index of the last retrieved message otherwise. Returns {@link DefaultStreamingMessageQueueOffsetFile#NO_INDEX} if there
+	 * is none so far
+	 * @return
+	 */
+	public long getResumeIndex() {
+		final DefaultStreamingMessageQueueOffsetFile committedOffsetFile = this.offsetFile;
+		return (committedOffsetFile != null ? committedOffsetFile.getCommittedIndex() : this.lastRetrievedIndex);
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#getWaitStrategy()
 	 */
@@ -90,6 +377,14 @@ public class DefaultStreamingMessageQueueConsumer implements StreamingMessageQue
 		this.messageRetrievalCounter = counter;
 	}
 
+	/**
+	 * Returns true if the consumer hands out reusable views instead of copying message bodies
+	 * @return
+	 */
+	public boolean isReuseMessages() {
+		return reuseMessages;
+	}
+
 	
 	
 }
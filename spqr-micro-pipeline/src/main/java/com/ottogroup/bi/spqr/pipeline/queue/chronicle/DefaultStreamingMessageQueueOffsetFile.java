@@ -0,0 +1,123 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.chronicle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Keeps the index of the last excerpt a {@link DefaultStreamingMessageQueueConsumer} committed inside a small memory-mapped 
+ * file. Committing an index is a plain write to the mapped region, thus it does not involve any system call. The operating 
+ * system persists the page even if the process dies, the file contents are forced to disk when the file gets {@link #close() closed}.
+ * <br/><br/>
+ * Layout: <code>[marker (8 bytes)][index (8 bytes)][commit timestamp (8 bytes)]</code> - the marker tells whether an index has 
+ * been committed at all as chronicle indices carry no reserved value. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class DefaultStreamingMessageQueueOffsetFile implements Closeable {
+
+	/** returned by {@link #getCommittedIndex()} if no index has been committed so far */
+	public static final long NO_INDEX = -1;
+	/** file name suffix */
+	public static final String FILE_SUFFIX = ".offset";
+	
+	private static final long MARKER = 0x5350515230464653L;
+	private static final int MARKER_POS = 0;
+	private static final int INDEX_POS = 8;
+	private static final int TIMESTAMP_POS = 16;
+	private static final int FILE_SIZE = 24;
+	
+	/** file holding the offset */
+	private final File file;
+	/** provides access to the file */
+	private final RandomAccessFile randomAccessFile;
+	/** region the offset gets written to */
+	private final MappedByteBuffer buffer;
+	
+	/**
+	 * Initializes the offset file using the provided input. If the file does not exist, it will be created 
+	 * @param file
+	 * @throws IOException
+	 */
+	public DefaultStreamingMessageQueueOffsetFile(final File file) throws IOException {
+		if(file == null)
+			throw new IOException("Missing required offset file");
+		if(file.getParentFile() != null && !file.getParentFile().exists())
+			file.getParentFile().mkdirs();
+		
+		this.file = file;
+		this.randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			this.buffer = this.randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+		} catch(IOException e) {
+			this.randomAccessFile.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Returns the last committed index or {@link #NO_INDEX} if no index has been committed so far
+	 * @return
+	 */
+	public long getCommittedIndex() {
+		if(this.buffer.getLong(MARKER_POS) != MARKER)
+			return NO_INDEX;
+		return this.buffer.getLong(INDEX_POS);
+	}
+	
+	/**
+	 * Returns the time the last index was committed at or 0 if no index has been committed so far
+	 * @return
+	 */
+	public long getCommitTimestamp() {
+		if(this.buffer.getLong(MARKER_POS) != MARKER)
+			return 0;
+		return this.buffer.getLong(TIMESTAMP_POS);
+	}
+	
+	/**
+	 * Commits the provided index. The marker is written last, thus a partially written first commit is never read as valid
+	 * @param index
+	 */
+	public void commit(final long index) {
+		this.buffer.putLong(INDEX_POS, index);
+		this.buffer.putLong(TIMESTAMP_POS, System.currentTimeMillis());
+		this.buffer.putLong(MARKER_POS, MARKER);
+	}
+
+	/**
+	 * Forces the file contents to disk and releases the file
+	 * @see java.io.Closeable#close()
+	 */
+	public void close() throws IOException {
+		this.buffer.force();
+		this.randomAccessFile.close();
+	}
+
+	/**
+	 * Returns the file holding the offset
+	 * @return
+	 */
+	public File getFile() {
+		return file;
+	}
+	
+}
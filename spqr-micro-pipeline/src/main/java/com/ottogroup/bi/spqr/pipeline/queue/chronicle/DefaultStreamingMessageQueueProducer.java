@@ -15,26 +15,56 @@
  */
 package com.ottogroup.bi.spqr.pipeline.queue.chronicle;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+
 import com.codahale.metrics.Counter;
+import com.ottogroup.bi.spqr.pipeline.VirtualThreadExecutors;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
 
+import net.openhft.chronicle.Chronicle;
 import net.openhft.chronicle.ExcerptAppender;
 
 /**
- * Default {@link StreamingMessageQueueProducer} implementation accessing {@link DefaultStreamingMessageQueue}
+ * Default {@link StreamingMessageQueueProducer} implementation accessing {@link DefaultStreamingMessageQueue}. If provided
+ * a {@link Chronicle}, each writing thread gets an appender of its own: a vanilla chronicle keeps a data file per thread
+ * and merges all excerpts via its shared index, thus multiple writers do not need to coordinate. Virtual threads share
+ * their carrier's native thread identifier which chronicle uses for selecting the data file, thus they write through the 
+ * shared appender which is guarded by a lock.
  * @author mnxfst
  * @since Mar 5, 2015
- * TODO async implementation required
  */
 public class DefaultStreamingMessageQueueProducer implements
 		StreamingMessageQueueProducer {
 
+	/** our faithful logging facility ..... ;-) */
+	private static final Logger logger = Logger.getLogger(DefaultStreamingMessageQueueProducer.class);
+	
 	private final String queueId;
+	/** appender shared by all threads which do not get one of their own */
 	private final ExcerptAppender queueProducer;
+	/** provides an appender for each writing thread - null if all threads write through the shared appender */
+	private final Chronicle chronicle;
+	/** appender used by the current thread - either its own or the shared one */
+	private final ThreadLocal<ExcerptAppender> threadAppender = new ThreadLocal<>();
 	private final StreamingMessageQueueWaitStrategy waitStrategy;
 	private Counter messageInsertionCounter = null; 
+	/** number of messages inserted but not retrieved so far - shared with the consumer */
+	private final AtomicLong backlog;
+	/** serializes access to the shared appender - a lock rather than a monitor keeps virtual threads from being pinned to their carrier while writing */
+	private final Lock appenderLock = new ReentrantLock();
+	/** backlogs of further consumers reading from a broadcast queue via tailers of their own */
+	private final List<AtomicLong> broadcastBacklogs = new CopyOnWriteArrayList<>();
 	
 	/**
 	 * Initializes the producer using the provided input
@@ -43,9 +73,34 @@ public class DefaultStreamingMessageQueueProducer implements
 	 * @param waitStrategy
 	 */
 	public DefaultStreamingMessageQueueProducer(final String queueId, final ExcerptAppender queueProducer, final StreamingMessageQueueWaitStrategy waitStrategy) {
+		this(queueId, queueProducer, waitStrategy, new AtomicLong(0));
+	}
+	
+	/**
+	 * Initializes the producer using the provided input
+	 * @param queueId
+	 * @param queueProducer
+	 * @param waitStrategy
+	 * @param backlog number of messages inserted but not retrieved so far - shared with the consumer
+	 */
+	public DefaultStreamingMessageQueueProducer(final String queueId, final ExcerptAppender queueProducer, final StreamingMessageQueueWaitStrategy waitStrategy, final AtomicLong backlog) {
+		this(queueId, queueProducer, null, waitStrategy, backlog);
+	}
+	
+	/**
+	 * Initializes the producer using the provided input
+	 * @param queueId
+	 * @param queueProducer appender shared by threads which do not get one of their own
+	 * @param chronicle provides an appender for each writing thread - null if all threads must share the given appender
+	 * @param waitStrategy
+	 * @param backlog number of messages inserted but not retrieved so far - shared with the consumer
+	 */
+	public DefaultStreamingMessageQueueProducer(final String queueId, final ExcerptAppender queueProducer, final Chronicle chronicle, final StreamingMessageQueueWaitStrategy waitStrategy, final AtomicLong backlog) {
 		this.queueId = queueId;
 		this.queueProducer = queueProducer;
+		this.chronicle = chronicle;
 		this.waitStrategy = waitStrategy;
+		this.backlog = backlog;
 	}
 	
 	/**
@@ -53,25 +108,170 @@ public class DefaultStreamingMessageQueueProducer implements
 	 */
 	public boolean insert(StreamingDataMessage message) {
 
-		// TODO add concurrency handler to support multiple writers properly   
 		if(message != null) {
-			synchronized (queueProducer) {
-				queueProducer.startExcerpt();
-				queueProducer.writeLong(message.getTimestamp());
-				queueProducer.writeInt(message.getBody().length);
-				queueProducer.write(message.getBody());
-				queueProducer.finish();
-		
-				if(this.messageInsertionCounter != null)
-					this.messageInsertionCounter.inc();
-				
-				return true;
+			final ExcerptAppender appender = getAppender();
+			if(appender == this.queueProducer) {
+				this.appenderLock.lock();
+				try {
+					writeExcerpt(appender, message);
+				} finally {
+					this.appenderLock.unlock();
+				}
+			} else {
+				writeExcerpt(appender, message);
 			}
+			this.backlog.incrementAndGet();
+			addBroadcastBacklog(1);
+	
+			if(this.messageInsertionCounter != null)
+				this.messageInsertionCounter.inc();
+			
+			return true;
 		}
 		
 		return false;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[])
+	 */
+	public int insertBatch(StreamingDataMessage[] messages) {
+		if(messages == null || messages.length < 1)
+			return 0;
+		
+		int inserted = 0;
+		final ExcerptAppender appender = getAppender();
+		final boolean shared = (appender == this.queueProducer);
+		if(shared)
+			this.appenderLock.lock();
+		try {
+			for(int i = 0; i < messages.length; i++) {
+				if(messages[i] != null) {
+					writeExcerpt(appender, messages[i]);
+					inserted++;
+				}
+			}
+		} finally {
+			if(shared)
+				this.appenderLock.unlock();
+		}
+		
+		this.backlog.addAndGet(inserted);
+		addBroadcastBacklog(inserted);
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(java.util.List)
+	 */
+	public int insertBatch(List<StreamingDataMessage> messages) {
+		if(messages == null || messages.isEmpty())
+			return 0;
+		
+		int inserted = 0;
+		final ExcerptAppender appender = getAppender();
+		final boolean shared = (appender == this.queueProducer);
+		if(shared)
+			this.appenderLock.lock();
+		try {
+			// index based access avoids the iterator allocation
+			for(int i = 0; i < messages.size(); i++) {
+				final StreamingDataMessage message = messages.get(i);
+				if(message != null) {
+					writeExcerpt(appender, message);
+					inserted++;
+				}
+			}
+		} finally {
+			if(shared)
+				this.appenderLock.unlock();
+		}
+		
+		this.backlog.addAndGet(inserted);
+		addBroadcastBacklog(inserted);
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+	
+	/**
+	 * Adds the given number of inserted messages to the backlogs of all broadcast consumers
+	 * @param inserted
+	 */
+	protected void addBroadcastBacklog(final int inserted) {
+		if(this.broadcastBacklogs.isEmpty() || inserted < 1)
+			return;
+		for(final AtomicLong broadcastBacklog : this.broadcastBacklogs)
+			broadcastBacklog.addAndGet(inserted);
+	}
+	
+	/**
+	 * Registers the backlog of a consumer reading from a broadcast queue via a tailer of its own. It gets 
+	 * increased for each message inserted from now on
+	 * @param broadcastBacklog
+	 */
+	protected void registerBroadcastBacklog(final AtomicLong broadcastBacklog) {
+		if(broadcastBacklog != null)
+			this.broadcastBacklogs.add(broadcastBacklog);
+	}
+	
+	/**
+	 * Returns the appender to be used by the current thread. The shared appender is returned if no chronicle 
+	 * was provided, for virtual threads and for the thread the shared appender was created by as chronicle 
+	 * hands out the same instance to it
+	 * @return
+	 */
+	protected ExcerptAppender getAppender() {
+		ExcerptAppender appender = this.threadAppender.get();
+		if(appender == null) {
+			appender = this.queueProducer;
+			if(this.chronicle != null && !VirtualThreadExecutors.isVirtual(Thread.currentThread())) {
+				try {
+					appender = this.chronicle.createAppender();
+				} catch(IOException e) {
+					throw new RuntimeException("Failed to create appender for queue '"+this.queueId+"'. Error: " + e.getMessage());
+				}
+			}
+			this.threadAppender.set(appender);
+		}
+		return appender;
+	}
+	
+	/**
+	 * Writes the given {@link StreamingDataMessage} into a new excerpt. If the shared appender is provided, the 
+	 * caller must hold the {@link #appenderLock}. The excerpt holds the timestamp, the body length and the body followed
+	 * by the optional {@link StreamingDataMessageHeader header}. Excerpts of messages without header end after the body, 
+	 * thus they are still readable by consumers unaware of headers.  
+	 * @param appender
+	 * @param message
+	 */
+	protected void writeExcerpt(final ExcerptAppender appender, final StreamingDataMessage message) {
+		appender.startExcerpt();
+		appender.writeLong(message.getTimestamp());
+		if(message.isView()) {
+			// copy viewed body straight into the excerpt without materializing it on the heap
+			final ByteBuffer body = message.getBodyBuffer();
+			final int position = body.position();
+			appender.writeInt(body.remaining());
+			appender.write(body);
+			body.position(position);
+		} else {
+			appender.writeInt(message.getBody().length);
+			appender.write(message.getBody());
+		}
+		if(message.hasHeader()) {
+			try {
+				message.getHeader().writeTo(appender);
+			} catch(IOException e) {
+				// nothing has been written, thus the excerpt is kept without header rather than losing the message
+				logger.error("Failed to write header of message to queue '"+this.queueId+"'. Error: " + e.getMessage());
+			}
+		}
+		appender.finish();
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#getWaitStrategy()
 	 */
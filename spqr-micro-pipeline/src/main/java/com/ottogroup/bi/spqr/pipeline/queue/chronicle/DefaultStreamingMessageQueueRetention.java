@@ -0,0 +1,321 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.chronicle;
+
+import java.io.File;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+
+/**
+ * Removes cycle directories of a {@link DefaultStreamingMessageQueue} while the queue is running. A cycle gets deleted if  
+ * <ul>
+ *   <li>all registered consumers have moved on to a later cycle (if enabled), or</li>
+ *   <li>it ended longer ago than the configured max. age, or</li>
+ *   <li>the files of all cycles exceed the configured max. number of bytes - oldest first</li>
+ * </ul>
+ * The cycle currently written to is never deleted. The consumer position is derived from the index the consumer would resume 
+ * at after a restart: the committed index if an offset file is attached, the index of the last retrieved message otherwise. Thus a 
+ * consumer which has neither committed nor retrieved any message so far protects all cycles. Cycle formats 
+ * containing path separators result in nested directories which are not supported: no cycle will be deleted at all.<br/><br/>
+ * All retention tasks are executed by a single daemon thread shared by all queues of the node. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class DefaultStreamingMessageQueueRetention implements Runnable {
+
+	/** our faithful logging facility ... ;-) */
+	private static final Logger logger = Logger.getLogger(DefaultStreamingMessageQueueRetention.class);
+	
+	/** executes the retention tasks of all queues */
+	private static ScheduledExecutorService retentionExecutor = null;
+
+	/** identifier of queue the chronicle belongs to */
+	private final String queueId;
+	/** directory holding the cycle directories */
+	private final File chronicleDirectory;
+	/** format applied by chronicle to name the cycle directories */
+	private final String cycleFormat;
+	/** cycle length in milliseconds */
+	private final long cycleLength;
+	/** number of bits the cycle gets shifted by inside an index */
+	private final int entriesForCycleBits;
+	/** delete cycles all consumers have moved past */
+	private final boolean deleteConsumed;
+	/** max. number of bytes occupied by cycle files - values below 1 disable the limit */
+	private final long maxBytes;
+	/** max. age of a cycle in milliseconds measured from its end - values below 1 disable the limit */
+	private final long maxAge;
+	/** consumers whose positions protect the cycles they still read */
+	private final List<DefaultStreamingMessageQueueConsumer> consumers = new CopyOnWriteArrayList<>();
+	/** number of deleted cycle directories */
+	private final Counter deletedCycles = new Counter();
+	/** number of bytes freed by deleting cycle directories */
+	private final Counter deletedBytes = new Counter();
+	/** number of bytes occupied by cycle files - as seen by the latest run */
+	private volatile long diskBytes = 0;
+	/** number of cycle directories - as seen by the latest run */
+	private volatile int numOfCycles = 0;
+	
+	/**
+	 * Initializes the retention using the provided input
+	 * @param queueId
+	 * @param chronicleDirectory
+	 * @param cycleFormat
+	 * @param cycleLength
+	 * @param entriesForCycleBits
+	 * @param deleteConsumed
+	 * @param maxBytes
+	 * @param maxAge
+	 */
+	public DefaultStreamingMessageQueueRetention(final String queueId, final File chronicleDirectory, final String cycleFormat, final long cycleLength, 
+			final int entriesForCycleBits, final boolean deleteConsumed, final long maxBytes, final long maxAge) {
+		this.queueId = queueId;
+		this.chronicleDirectory = chronicleDirectory;
+		this.cycleFormat = cycleFormat;
+		this.cycleLength = cycleLength;
+		this.entriesForCycleBits = entriesForCycleBits;
+		this.deleteConsumed = deleteConsumed;
+		this.maxBytes = maxBytes;
+		this.maxAge = maxAge;
+	}
+	
+	/**
+	 * Registers a consumer whose position must be respected 
+	 * @param consumer
+	 */
+	public void addConsumer(final DefaultStreamingMessageQueueConsumer consumer) {
+		if(consumer != null)
+			this.consumers.add(consumer);
+	}
+
+	/**
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+		try {
+			applyRetention(System.currentTimeMillis());
+		} catch(Exception e) {
+			// an exception would cancel all further executions
+			logger.error("Failed to apply retention on queue '"+this.queueId+"'. Error: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Deletes all cycles which violate the retention settings at the given time
+	 * @param now
+	 */
+	public void applyRetention(final long now) {
+		
+		final List<long[]> cycles = getCycles(); // [cycle, bytes]
+		long totalBytes = 0;
+		for(final long[] cycle : cycles)
+			totalBytes += cycle[1];
+		int remainingCycles = cycles.size();
+		
+		final long currentCycle = now / this.cycleLength;
+		final long oldestReadCycle = getOldestReadCycle();
+		
+		for(final long[] cycle : cycles) {
+			if(cycle[0] >= currentCycle)
+				break;
+			
+			final boolean consumed = this.deleteConsumed && cycle[0] < oldestReadCycle;
+			final boolean expired = this.maxAge > 0 && (cycle[0] + 1) * this.cycleLength <= now - this.maxAge;
+			final boolean exceeding = this.maxBytes > 0 && totalBytes > this.maxBytes;
+			// cycles are sorted by age, thus all following cycles are younger and have not been consumed either  
+			if(!consumed && !expired && !exceeding)
+				break;
+			
+			final File cycleDirectory = new File(this.chronicleDirectory, getCycleName(cycle[0]));
+			if(!consumed)
+				logger.warn("queue[id="+this.queueId+"] deleting cycle "+cycleDirectory.getName()+" holding unconsumed messages [expired="+expired+", exceeding="+exceeding+"]");
+			
+			if(delete(cycleDirectory)) {
+				totalBytes -= cycle[1];
+				remainingCycles--;
+				this.deletedCycles.inc();
+				this.deletedBytes.inc(cycle[1]);
+				if(logger.isDebugEnabled())
+					logger.debug("queue[id="+this.queueId+"] deleted cycle " + cycleDirectory.getName());
+			} else {
+				logger.error("queue[id="+this.queueId+"] failed to delete cycle " + cycleDirectory.getAbsolutePath());
+				break;
+			}
+		}
+		
+		this.diskBytes = totalBytes;
+		this.numOfCycles = remainingCycles;
+	}
+
+	/**
+	 * Returns all cycles found inside the chronicle directory, oldest first. Each entry holds the cycle 
+	 * and the number of bytes occupied by its files
+	 * @return
+	 */
+	protected List<long[]> getCycles() {
+		final List<long[]> cycles = new ArrayList<>();
+		final File[] cycleDirectories = this.chronicleDirectory.listFiles();
+		if(cycleDirectories == null)
+			return cycles;
+		
+		final SimpleDateFormat format = getCycleFormat();
+		for(final File cycleDirectory : cycleDirectories) {
+			if(!cycleDirectory.isDirectory())
+				continue;
+			try {
+				final long cycle = format.parse(cycleDirectory.getName()).getTime() / this.cycleLength;
+				// chronicle names directories by the cycle start, thus parsing must lead back to the same name  
+				if(!cycleDirectory.getName().equals(getCycleName(cycle)))
+					continue;
+				cycles.add(new long[]{cycle, getBytes(cycleDirectory)});
+			} catch(ParseException e) {
+				// no cycle directory
+			}
+		}
+		
+		Collections.sort(cycles, new Comparator<long[]>() {
+			public int compare(long[] o1, long[] o2) {
+				return Long.compare(o1[0], o2[0]);
+			}
+		});
+		return cycles;
+	}
+	
+	/**
+	 * Returns the oldest cycle still required by any registered consumer. If a consumer has no 
+	 * {@link DefaultStreamingMessageQueueConsumer#getResumeIndex() resume index} so far, {@link Long#MIN_VALUE} is returned  
+	 * @return
+	 */
+	protected long getOldestReadCycle() {
+		long oldestReadCycle = Long.MAX_VALUE;
+		for(final DefaultStreamingMessageQueueConsumer consumer : this.consumers) {
+			final long index = consumer.getResumeIndex();
+			if(index == DefaultStreamingMessageQueueOffsetFile.NO_INDEX)
+				return Long.MIN_VALUE;
+			oldestReadCycle = Math.min(oldestReadCycle, index >>> this.entriesForCycleBits);
+		}
+		return (this.consumers.isEmpty() ? Long.MIN_VALUE : oldestReadCycle);
+	}
+	
+	/**
+	 * Returns the name of the directory holding the given cycle
+	 * @param cycle
+	 * @return
+	 */
+	protected String getCycleName(final long cycle) {
+		return getCycleFormat().format(cycle * this.cycleLength);
+	}
+	
+	/**
+	 * Returns a format instance for names of cycle directories. Chronicle formats them using GMT
+	 * @return
+	 */
+	public SimpleDateFormat getCycleFormat() {
+		final SimpleDateFormat format = new SimpleDateFormat(this.cycleFormat);
+		format.setTimeZone(TimeZone.getTimeZone("GMT"));
+		return format;
+	}
+	
+	/**
+	 * Returns the number of bytes occupied by the files inside the given directory
+	 * @param directory
+	 * @return
+	 */
+	protected long getBytes(final File directory) {
+		long bytes = 0;
+		final File[] files = directory.listFiles();
+		if(files != null)
+			for(final File file : files)
+				bytes += (file.isDirectory() ? getBytes(file) : file.length());
+		return bytes;
+	}
+	
+	/**
+	 * Deletes the given file or directory including its contents
+	 * @param file
+	 * @return
+	 */
+	protected boolean delete(final File file) {
+		final File[] files = file.listFiles();
+		if(files != null)
+			for(final File child : files)
+				delete(child);
+		return file.delete();
+	}
+	
+	/**
+	 * Returns the executor shared by the retention tasks of all queues
+	 * @return
+	 */
+	public static synchronized ScheduledExecutorService getRetentionExecutor() {
+		if(retentionExecutor == null) {
+			retentionExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					final Thread thread = new Thread(r, "spqr-chronicle-retention");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return retentionExecutor;
+	}
+
+	/**
+	 * Returns the number of bytes occupied by cycle files - as seen by the latest run
+	 * @return
+	 */
+	public long getDiskBytes() {
+		return diskBytes;
+	}
+
+	/**
+	 * Returns the number of cycle directories - as seen by the latest run
+	 * @return
+	 */
+	public int getNumOfCycles() {
+		return numOfCycles;
+	}
+
+	/**
+	 * Returns the number of deleted cycle directories
+	 * @return
+	 */
+	public Counter getDeletedCycles() {
+		return deletedCycles;
+	}
+
+	/**
+	 * Returns the number of bytes freed by deleting cycle directories
+	 * @return
+	 */
+	public Counter getDeletedBytes() {
+		return deletedBytes;
+	}
+	
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.hybrid;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.codahale.metrics.Counter;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageRingBuffer;
+
+/**
+ * {@link StreamingDataMessageBuffer} which keeps messages in a {@link StreamingDataMessageRingBuffer} as long as 
+ * its occupancy stays below the spill threshold. Once the threshold is reached, all subsequent messages are written 
+ * to an overflow {@link DefaultStreamingMessageQueue} until readers have drained it completely. Readers always empty the 
+ * ring buffer first, thus messages are retrieved in order of insertion: the ring buffer holds messages older than those 
+ * found in the overflow while spilling and only receives new messages again after the overflow ran empty.<br/><br/>
+ * Writing to the overflow as well as switching back to the ring buffer happen under the same lock, thus no message 
+ * gets stuck in the overflow. Reading from the overflow is serialized as chronicle tailers must not be shared. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class HybridStreamingDataMessageBuffer implements StreamingDataMessageBuffer {
+
+	/** ring buffer serving messages while readers keep up */
+	private final StreamingDataMessageRingBuffer memoryBuffer;
+	/** number of messages held by the ring buffer which makes writers spill to the overflow */
+	private final int spillThreshold;
+	/** chronicle based queue receiving messages while spilling */
+	private final DefaultStreamingMessageQueue overflowQueue;
+	/** writes to the overflow queue */
+	private final StreamingMessageQueueProducer overflowProducer;
+	/** reads from the overflow queue */
+	private final StreamingMessageQueueConsumer overflowConsumer;
+	/** guards writes to the overflow and switching back to the ring buffer */
+	private final Lock spillLock = new ReentrantLock();
+	/** serializes reads from the overflow */
+	private final Lock overflowReadLock = new ReentrantLock();
+	/** counts messages written to the overflow */
+	private final Counter spilledMessagesCounter = new Counter();
+	/** counts the number of times writers switched over to the overflow */
+	private final Counter spillCounter = new Counter();
+	/** true while new messages are written to the overflow */
+	private volatile boolean spilling = false;
+	
+	/**
+	 * Initializes the buffer using the provided input
+	 * @param memoryCapacity requested ring buffer capacity which is rounded up to the next power of two
+	 * @param spillThreshold number of messages held by the ring buffer which makes writers spill to the overflow - limited by the ring buffer capacity
+	 * @param overflowQueue initialized queue receiving messages while spilling
+	 */
+	public HybridStreamingDataMessageBuffer(final int memoryCapacity, final int spillThreshold, final DefaultStreamingMessageQueue overflowQueue) {
+		if(spillThreshold < 1)
+			throw new IllegalArgumentException("Invalid spill threshold: " + spillThreshold);
+		if(overflowQueue == null)
+			throw new IllegalArgumentException("Missing required overflow queue");
+		
+		this.memoryBuffer = new StreamingDataMessageRingBuffer(memoryCapacity);
+		this.spillThreshold = Math.min(spillThreshold, this.memoryBuffer.getCapacity());
+		this.overflowQueue = overflowQueue;
+		this.overflowProducer = overflowQueue.getProducer();
+		this.overflowConsumer = overflowQueue.getConsumer();
+	}
+
+	/**
+	 * Inserts the given {@link StreamingDataMessage} into the ring buffer or into the overflow while spilling. The 
+	 * method only returns <code>false</code> if the overflow fails to accept the message 
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#offer(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean offer(final StreamingDataMessage message) {
+		if(message == null)
+			return false;
+		
+		if(!this.spilling && this.memoryBuffer.size() < this.spillThreshold && this.memoryBuffer.offer(message))
+			return true;
+		
+		this.spillLock.lock();
+		try {
+			if(!this.spilling) {
+				// readers may have drained the overflow in the meantime, thus check the ring buffer again
+				if(this.memoryBuffer.size() < this.spillThreshold && this.memoryBuffer.offer(message))
+					return true;
+				this.spilling = true;
+				this.spillCounter.inc();
+			}
+			if(!this.overflowProducer.insert(message))
+				return false;
+			this.spilledMessagesCounter.inc();
+			return true;
+		} finally {
+			this.spillLock.unlock();
+		}
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#poll()
+	 */
+	public StreamingDataMessage poll() {
+		// read the flag before polling: if spilling was switched off and on again in between, the ring buffer may hold messages older than the overflow
+		final boolean spillingBeforePoll = this.spilling;
+		StreamingDataMessage message = this.memoryBuffer.poll();
+		if(message != null || !spillingBeforePoll)
+			return message;
+		
+		this.overflowReadLock.lock();
+		try {
+			// only readers holding this lock switch spilling off, thus the ring buffer does not receive new messages while the flag is set
+			if(!this.spilling)
+				return this.memoryBuffer.poll();
+			message = this.memoryBuffer.poll();
+			if(message != null)
+				return message;
+			
+			message = this.overflowConsumer.next();
+			if(message != null)
+				return message;
+			
+			// writers append to the overflow while holding the lock only, thus it is safe to switch back to the ring buffer if it is still empty
+			this.spillLock.lock();
+			try {
+				message = this.overflowConsumer.next();
+				if(message == null)
+					this.spilling = false;
+				return message;
+			} finally {
+				this.spillLock.unlock();
+			}
+		} finally {
+			this.overflowReadLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of messages held by the ring buffer and the overflow - limited to {@link Integer#MAX_VALUE}
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#size()
+	 */
+	public int size() {
+		return (int)Math.min(Integer.MAX_VALUE, this.memoryBuffer.size() + getOverflowSize());
+	}
+
+	/**
+	 * Returns the capacity of the ring buffer - the overflow is limited by disk space only 
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#getCapacity()
+	 */
+	public int getCapacity() {
+		return this.memoryBuffer.getCapacity();
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#clear()
+	 */
+	public void clear() {
+		while(poll() != null) {
+			// keep on polling
+		}
+	}
+	
+	/**
+	 * Returns the number of messages held by the ring buffer
+	 * @return
+	 */
+	public int getMemorySize() {
+		return this.memoryBuffer.size();
+	}
+	
+	/**
+	 * Returns the number of messages held by the overflow
+	 * @return
+	 */
+	public long getOverflowSize() {
+		return this.overflowQueue.getBacklog();
+	}
+
+	/**
+	 * Returns true while new messages are written to the overflow
+	 * @return
+	 */
+	public boolean isSpilling() {
+		return this.spilling;
+	}
+	
+	/**
+	 * Returns the number of messages held by the ring buffer which makes writers spill to the overflow
+	 * @return
+	 */
+	public int getSpillThreshold() {
+		return this.spillThreshold;
+	}
+
+	/**
+	 * Returns the counter of messages written to the overflow
+	 * @return
+	 */
+	public Counter getSpilledMessagesCounter() {
+		return this.spilledMessagesCounter;
+	}
+
+	/**
+	 * Returns the counter of switches from the ring buffer to the overflow
+	 * @return
+	 */
+	public Counter getSpillCounter() {
+		return this.spillCounter;
+	}
+	
+}
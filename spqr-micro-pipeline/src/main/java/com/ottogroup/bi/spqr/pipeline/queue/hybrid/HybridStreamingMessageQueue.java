@@ -0,0 +1,351 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.hybrid;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferFullQueuePolicy;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueSleepingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+import uk.co.real_logic.queues.OneToOneConcurrentArrayQueue3;
+
+/**
+ * {@link StreamingMessageQueue} serving messages from an in-memory ring buffer while consumers keep up. If the 
+ * ring buffer occupancy reaches the configured spill threshold, messages are written to a chronicle based overflow 
+ * queue which gets drained in order before the ring buffer takes over again. See {@link HybridStreamingDataMessageBuffer}
+ * for details.<br/><br/>
+ * The overflow accepts all {@link DefaultStreamingMessageQueue chronicle} settings, eg. {@link DefaultStreamingMessageQueue#CFG_CHRONICLE_QUEUE_PATH}, 
+ * and lives in a folder named by the queue identifier plus {@link #OVERFLOW_SUFFIX}. As the ring buffer content is lost on 
+ * restart, the overflow is always deleted on exit and never resumed. The queue does not support broadcasting. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class HybridStreamingMessageQueue implements StreamingMessageQueue, MetricSet {
+
+	/** our faithful logging facility ..... ;-) */
+	private static final Logger logger = Logger.getLogger(HybridStreamingMessageQueue.class);
+	
+	/////////////////////////////////////////////////////////////////////
+	// available configuration options 
+	public static final String CFG_QUEUE_MESSAGE_WAIT_STRATEGY = "queue.message.waitStrategy";
+	public static final String CFG_QUEUE_HYBRID_MEMORY_CAPACITY = "queue.hybrid.memory.capacity";
+	public static final String CFG_QUEUE_HYBRID_SPILL_THRESHOLD = "queue.hybrid.spillThreshold";
+	/////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////////////////
+	// setting for 'type' property to get an instance of this type
+	public static final String CFG_QUEUE_TYPE = "hybrid";
+	/////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////////////////
+	// names of metrics provided by this queue - metrics of the overflow queue are prefixed by 'overflow.'
+	public static final String METRIC_SIZE = "size";
+	public static final String METRIC_MEMORY_SIZE = "memory.size";
+	public static final String METRIC_MEMORY_CAPACITY = "memory.capacity";
+	public static final String METRIC_OVERFLOW_SIZE = "overflow.size";
+	public static final String METRIC_SPILLING = "spilling";
+	public static final String METRIC_SPILLS = "spills";
+	public static final String METRIC_SPILLED = "spilled";
+	public static final String METRIC_DROPPED = "dropped";
+	/////////////////////////////////////////////////////////////////////
+
+	/** default ring buffer capacity applied if no value is provided */
+	public static final int DEFAULT_MEMORY_CAPACITY = 8192;
+	/** default spill threshold applied if no value is provided: percentage of the ring buffer capacity */
+	public static final int DEFAULT_SPILL_THRESHOLD = 80;
+	/** appended to the queue identifier for naming the overflow queue */
+	public static final String OVERFLOW_SUFFIX = "-overflow";
+	
+	/** unique queue identifier */
+	private String id = null;
+	/** buffer holding the messages in memory or in the overflow */
+	private HybridStreamingDataMessageBuffer buffer = null;
+	/** chronicle based queue receiving messages while spilling */
+	private DefaultStreamingMessageQueue overflowQueue = null;
+	/** message queue consumer */
+	private RingBufferStreamingMessageQueueConsumer queueConsumer = null;
+	/** message queue producer */
+	private RingBufferStreamingMessageQueueProducer queueProducer = null;
+	/** wait strategy */
+	private StreamingMessageQueueWaitStrategy queueWaitStrategy = null;
+	/** counts messages dropped due to the overflow rejecting them */
+	private final Counter droppedMessagesCounter = new Counter();
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#initialize(java.util.Properties)
+	 */
+	public void initialize(Properties properties) throws RequiredInputMissingException {
+		
+		////////////////////////////////////////////////////////////////////////////////
+		// extract and validate input
+		if(properties == null)
+			throw new RequiredInputMissingException("Missing required properties");		
+	
+		if(StringUtils.isBlank(this.id))
+			throw new RequiredInputMissingException("Missing required queue identifier");
+
+		final int memoryCapacity = parseInt(properties, CFG_QUEUE_HYBRID_MEMORY_CAPACITY, DEFAULT_MEMORY_CAPACITY);
+		if(memoryCapacity < 1)
+			throw new RuntimeException("Invalid memory capacity found for queue '"+this.id+"': " + memoryCapacity);
+		final int spillThreshold = parseInt(properties, CFG_QUEUE_HYBRID_SPILL_THRESHOLD, DEFAULT_SPILL_THRESHOLD);
+		if(spillThreshold < 1 || spillThreshold > 100)
+			throw new RuntimeException("Invalid spill threshold found for queue '"+this.id+"': " + spillThreshold + ". Expected percentage between 1 and 100");
+
+		this.queueWaitStrategy = getWaitStrategy(StringUtils.trim(properties.getProperty(CFG_QUEUE_MESSAGE_WAIT_STRATEGY)));
+		if(StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_QUEUE_BROADCAST)), "true"))
+			logger.warn("queue[type=hybrid, id="+this.id+"] does not support broadcasting. Components reading from it compete for messages");
+		////////////////////////////////////////////////////////////////////////////////
+		
+		////////////////////////////////////////////////////////////////////////////////
+		// initialize the overflow queue: it is read by the buffer only, thus it neither needs 
+		// to wait for messages nor to hand out views
+		Properties overflowProperties = new Properties();
+		overflowProperties.putAll(properties);
+		overflowProperties.remove(CFG_QUEUE_BROADCAST);
+		overflowProperties.remove(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT);
+		overflowProperties.remove(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_RESUME);
+		overflowProperties.setProperty(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_READ_MODE, DefaultStreamingMessageQueue.READ_MODE_COPY);
+		overflowProperties.setProperty(DefaultStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME);
+		this.overflowQueue = new DefaultStreamingMessageQueue();
+		this.overflowQueue.setId(this.id + OVERFLOW_SUFFIX);
+		this.overflowQueue.initialize(overflowProperties);
+		////////////////////////////////////////////////////////////////////////////////
+
+		////////////////////////////////////////////////////////////////////////////////
+		// initialize buffer as well as producer and consumer instances 
+		final int capacity = OneToOneConcurrentArrayQueue3.findNextPositivePowerOfTwo(memoryCapacity);
+		this.buffer = new HybridStreamingDataMessageBuffer(capacity, Math.max(1, (int)((long)capacity * spillThreshold / 100)), this.overflowQueue);
+		this.queueProducer = new RingBufferStreamingMessageQueueProducer(this.id, this.buffer, this.queueWaitStrategy, RingBufferFullQueuePolicy.DROP_NEWEST, this.droppedMessagesCounter);
+		this.queueConsumer = new RingBufferStreamingMessageQueueConsumer(this.id, this.buffer, this.queueWaitStrategy);
+		////////////////////////////////////////////////////////////////////////////////
+
+		logger.info("queue[type=hybrid, id="+this.id+", memoryCapacity="+this.buffer.getCapacity()+", spillThreshold="+this.buffer.getSpillThreshold()+", overflow="+this.overflowQueue.getId()+"] successfully initialized");
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#shutdown()
+	 */
+	public boolean shutdown() {
+		if(this.queueProducer != null)
+			this.queueProducer.shutdown();
+		if(this.overflowQueue != null)
+			return this.overflowQueue.shutdown();
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#insert(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean insert(StreamingDataMessage message) {
+		return this.queueProducer.insert(message);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#next()
+	 */
+	public StreamingDataMessage next() {
+		return this.queueConsumer.next();
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getProducer()
+	 */
+	public StreamingMessageQueueProducer getProducer() {
+		return this.queueProducer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer()
+	 */
+	public StreamingMessageQueueConsumer getConsumer() {
+		return this.queueConsumer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer(java.lang.String)
+	 */
+	public StreamingMessageQueueConsumer getConsumer(String consumerId) {
+		return this.queueConsumer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getBacklog()
+	 */
+	public long getBacklog() {
+		return (this.buffer != null ? this.buffer.getMemorySize() + this.buffer.getOverflowSize() : 0);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageInsertionCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageInsertionCounter(Counter counter) {
+		this.queueProducer.setMessageInsertionCounter(counter);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageRetrievalCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageRetrievalCounter(Counter counter) {
+		this.queueConsumer.setMessageRetrievalCounter(counter);
+	}
+
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		Map<String, Metric> metrics = new HashMap<>();
+		metrics.put(METRIC_SIZE, new Gauge<Long>() {
+			public Long getValue() {
+				return Long.valueOf(getBacklog());
+			}
+		});
+		metrics.put(METRIC_MEMORY_SIZE, new Gauge<Integer>() {
+			public Integer getValue() {
+				return Integer.valueOf(buffer.getMemorySize());
+			}
+		});
+		metrics.put(METRIC_MEMORY_CAPACITY, new Gauge<Integer>() {
+			public Integer getValue() {
+				return Integer.valueOf(buffer.getCapacity());
+			}
+		});
+		metrics.put(METRIC_OVERFLOW_SIZE, new Gauge<Long>() {
+			public Long getValue() {
+				return Long.valueOf(buffer.getOverflowSize());
+			}
+		});
+		metrics.put(METRIC_SPILLING, new Gauge<Integer>() {
+			public Integer getValue() {
+				return Integer.valueOf(buffer.isSpilling() ? 1 : 0);
+			}
+		});
+		metrics.put(METRIC_SPILLS, this.buffer.getSpillCounter());
+		metrics.put(METRIC_SPILLED, this.buffer.getSpilledMessagesCounter());
+		metrics.put(METRIC_DROPPED, this.droppedMessagesCounter);
+		for(final Map.Entry<String, Metric> overflowMetric : this.overflowQueue.getMetrics().entrySet())
+			metrics.put("overflow." + overflowMetric.getKey(), overflowMetric.getValue());
+		// wait strategies providing their own metrics (eg. adaptive mode) get them reported along with the queue 
+		if(this.queueWaitStrategy instanceof MetricSet)
+			metrics.putAll(((MetricSet)this.queueWaitStrategy).getMetrics());
+		return metrics;
+	}
+
+	/**
+	 * Return an instance of the referenced {@link StreamingMessageQueueWaitStrategy}
+	 * @param waitStrategyName name of strategy to instantiate (eg. {@link StreamingMessageQueueBlockingWaitStrategy#STRATEGY_NAME} (default))
+	 * @return
+	 */
+	protected StreamingMessageQueueWaitStrategy getWaitStrategy(final String waitStrategyName) {			
+		if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueDirectPassStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueSleepingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueParkingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueScheduledWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueAdaptiveWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueAdaptiveWaitStrategy();
+		return new StreamingMessageQueueBlockingWaitStrategy();
+	}
+	
+	/**
+	 * Reads the referenced property as integer value. Non-numeric values result in a {@link RuntimeException} 
+	 * @param properties
+	 * @param key
+	 * @param defaultValue value returned if the property is missing
+	 * @return
+	 */
+	protected int parseInt(final Properties properties, final String key, final int defaultValue) {
+		final String value = StringUtils.trim(properties.getProperty(key));
+		if(StringUtils.isBlank(value))
+			return defaultValue;
+		try {
+			return Integer.parseInt(value);
+		} catch(NumberFormatException e) {
+			throw new RuntimeException("Invalid value for '"+key+"' found for queue '"+this.id+"': " + value);
+		}
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setId(java.lang.String)
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getId()
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the number of messages held by the ring buffer
+	 * @return
+	 */
+	public int getMemorySize() {
+		return (this.buffer != null ? this.buffer.getMemorySize() : 0);
+	}
+	
+	/**
+	 * Returns the number of messages held by the overflow
+	 * @return
+	 */
+	public long getOverflowSize() {
+		return (this.buffer != null ? this.buffer.getOverflowSize() : 0);
+	}
+	
+	/**
+	 * Returns true while new messages are written to the overflow
+	 * @return
+	 */
+	public boolean isSpilling() {
+		return (this.buffer != null && this.buffer.isSpilling());
+	}
+
+	/**
+	 * Returns the number of messages written to the overflow so far
+	 * @return
+	 */
+	public long getNumSpilledMessages() {
+		return (this.buffer != null ? this.buffer.getSpilledMessagesCounter().getCount() : 0);
+	}
+}
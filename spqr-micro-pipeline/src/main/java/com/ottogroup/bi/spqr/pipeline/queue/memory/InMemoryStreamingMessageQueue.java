@@ -15,31 +15,41 @@
  */
 package com.ottogroup.bi.spqr.pipeline.queue.memory;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
 import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueSleepingWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
 
 /**
  * Memory based implementation of {@link StreamingDataMessage}. Compared to {@link DefaultStreamingMessageQueue}
- * this is fully based on in-memory structures and thus does not provide any message persistence features.
+ * this is fully based on in-memory structures and thus does not provide any message persistence features. Configured as broadcast
+ * queue, each consumer reads from a queue of its own which receives all messages inserted by the producer.
  * @author mnxfst
  * @since Jul 3, 2015
  */
-public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
+public class InMemoryStreamingMessageQueue implements StreamingMessageQueue, MetricSet {
 
 	/** our faithful logging facility ..... ;-) */
 	private static final Logger logger = Logger.getLogger(InMemoryStreamingMessageQueue.class);
@@ -58,12 +68,20 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 	private String id = null;
 	/** internal queue holding elements */
 	private ConcurrentLinkedQueue<StreamingDataMessage> queue = new ConcurrentLinkedQueue<StreamingDataMessage>();
+	/** number of messages inserted but not retrieved so far - avoids the linear cost of ConcurrentLinkedQueue#size() */
+	private final AtomicLong backlog = new AtomicLong(0);
 	/** message queue consumer */
 	private InMemoryStreamingMessageQueueConsumer queueConsumer = null;
 	/** message queue producer */
 	private InMemoryStreamingMessageQueueProducer queueProducer = null;
 	/** wait strategy */
 	private StreamingMessageQueueWaitStrategy queueWaitStrategy = null;
+	/** hand out a consumer with a queue of its own to each consumer identifier */
+	private boolean broadcast = false;
+	/** consumers handed out by a broadcast queue - referenced by consumer identifier */
+	private final Map<String, InMemoryStreamingMessageQueueConsumer> broadcastConsumers = new ConcurrentHashMap<>();
+	/** counter instance attached to all consumers */
+	private Counter messageRetrievalCounter = null;
 	
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#initialize(java.util.Properties)
@@ -79,15 +97,16 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 			throw new RequiredInputMissingException("Missing required queue identifier");
 
 		this.queueWaitStrategy = getWaitStrategy(StringUtils.trim(properties.getProperty(CFG_QUEUE_MESSAGE_WAIT_STRATEGY)));
+		this.broadcast = StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_QUEUE_BROADCAST)), "true");
 		////////////////////////////////////////////////////////////////////////////////
 		
 		////////////////////////////////////////////////////////////////////////////////
 		// initialize producer and consumer instances
-		this.queueProducer = new InMemoryStreamingMessageQueueProducer(this.id, this.queue, this.queueWaitStrategy);
-		this.queueConsumer = new InMemoryStreamingMessageQueueConsumer(this.id, this.queue, this.queueWaitStrategy);
+		this.queueProducer = new InMemoryStreamingMessageQueueProducer(this.id, this.queue, this.queueWaitStrategy, this.backlog);
+		this.queueConsumer = new InMemoryStreamingMessageQueueConsumer(this.id, this.queue, this.queueWaitStrategy, this.backlog);
 		////////////////////////////////////////////////////////////////////////////////
 
-		logger.info("In-memory streaming message queue successfully initialized");
+		logger.info("In-memory streaming message queue successfully initialized [broadcast="+this.broadcast+"]");
 	}
 
 	/**
@@ -95,6 +114,9 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 	 */
 	public boolean shutdown() {
 		this.queue.clear();
+		this.backlog.set(0);
+		for(final InMemoryStreamingMessageQueueConsumer consumer : this.broadcastConsumers.values())
+			consumer.clear();
 		return true;
 	}
 
@@ -102,8 +124,10 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#insert(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
 	 */
 	public boolean insert(StreamingDataMessage message) {
-		if(message != null)
-			return this.queue.offer(message);
+		if(message != null && this.queue.offer(message.detach())) {
+			this.backlog.incrementAndGet();
+			return true;
+		}
 		return false;
 	}
 
@@ -111,7 +135,10 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#next()
 	 */
 	public StreamingDataMessage next() {
-		return this.queue.poll();
+		final StreamingDataMessage message = this.queue.poll();
+		if(message != null)
+			this.backlog.decrementAndGet();
+		return message;
 	}
 
 	/**
@@ -128,6 +155,38 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 		return this.queueConsumer;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer(java.lang.String)
+	 */
+	public synchronized StreamingMessageQueueConsumer getConsumer(String consumerId) {
+		if(!this.broadcast)
+			return this.queueConsumer;
+
+		final String key = StringUtils.lowerCase(StringUtils.trim(consumerId));
+		InMemoryStreamingMessageQueueConsumer consumer = this.broadcastConsumers.get(key);
+		if(consumer == null) {
+			if(this.broadcastConsumers.isEmpty()) {
+				consumer = this.queueConsumer;
+			} else {
+				consumer = new InMemoryStreamingMessageQueueConsumer(this.id, new ConcurrentLinkedQueue<StreamingDataMessage>(), this.queueWaitStrategy, new AtomicLong(0));
+				consumer.setMessageRetrievalCounter(this.messageRetrievalCounter);
+				this.queueProducer.addBroadcastConsumer(consumer);
+			}
+			this.broadcastConsumers.put(key, consumer);
+		}
+		return consumer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getBacklog()
+	 */
+	public long getBacklog() {
+		long max = this.backlog.get();
+		for(final InMemoryStreamingMessageQueueConsumer consumer : this.broadcastConsumers.values())
+			max = Math.max(max, consumer.getBacklog());
+		return max;
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageInsertionCounter(com.codahale.metrics.Counter)
 	 */
@@ -139,7 +198,10 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageRetrievalCounter(com.codahale.metrics.Counter)
 	 */
 	public void setMessageRetrievalCounter(Counter counter) {
+		this.messageRetrievalCounter = counter;
 		this.queueConsumer.setMessageRetrievalCounter(counter);
+		for(final InMemoryStreamingMessageQueueConsumer consumer : this.broadcastConsumers.values())
+			consumer.setMessageRetrievalCounter(counter);
 	}
 
 	/**
@@ -152,9 +214,26 @@ public class InMemoryStreamingMessageQueue implements StreamingMessageQueue {
 			return new StreamingMessageQueueDirectPassStrategy();
 		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME))
 			return new StreamingMessageQueueSleepingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueParkingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueScheduledWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueAdaptiveWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueAdaptiveWaitStrategy();
 		return new StreamingMessageQueueBlockingWaitStrategy();
 	}
 
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		Map<String, Metric> metrics = new HashMap<>();
+		// wait strategies providing their own metrics (eg. adaptive mode) get them reported along with the queue 
+		if(this.queueWaitStrategy instanceof MetricSet)
+			metrics.putAll(((MetricSet)this.queueWaitStrategy).getMetrics());
+		return metrics;
+	}
+
 	
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setId(java.lang.String)
@@ -16,6 +16,7 @@
 package com.ottogroup.bi.spqr.pipeline.queue.memory;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.codahale.metrics.Counter;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
@@ -35,6 +36,8 @@ public class InMemoryStreamingMessageQueueConsumer implements StreamingMessageQu
 	private final ConcurrentLinkedQueue<StreamingDataMessage> queue;
 	/** assigned wait strategy */
 	private final StreamingMessageQueueWaitStrategy waitStrategy;
+	/** number of messages inserted but not retrieved so far - shared with the producer */
+	private final AtomicLong backlog;
 	/** counter instance used for metric collection */
 	private Counter messageRetrievalCounter = null;
 	
@@ -45,9 +48,21 @@ public class InMemoryStreamingMessageQueueConsumer implements StreamingMessageQu
 	 * @param waitStrategy
 	 */
 	public InMemoryStreamingMessageQueueConsumer(final String queueId, final ConcurrentLinkedQueue<StreamingDataMessage> queue, final StreamingMessageQueueWaitStrategy waitStrategy) {
+		this(queueId, queue, waitStrategy, new AtomicLong(0));
+	}
+	
+	/**
+	 * Initializes the consumer using the provided input
+	 * @param queueId
+	 * @param queue
+	 * @param waitStrategy
+	 * @param backlog number of messages inserted but not retrieved so far - shared with the producer
+	 */
+	public InMemoryStreamingMessageQueueConsumer(final String queueId, final ConcurrentLinkedQueue<StreamingDataMessage> queue, final StreamingMessageQueueWaitStrategy waitStrategy, final AtomicLong backlog) {
 		this.queueId = queueId;
 		this.queue = queue;
 		this.waitStrategy = waitStrategy;
+		this.backlog = backlog;
 	}
 	
 	/**
@@ -62,11 +77,80 @@ public class InMemoryStreamingMessageQueueConsumer implements StreamingMessageQu
 	 */
 	public StreamingDataMessage next() {
 		final StreamingDataMessage nextMessage = this.queue.poll();
-		if(this.messageRetrievalCounter != null && nextMessage != null)
-			this.messageRetrievalCounter.inc();
+		if(nextMessage != null) {
+			this.backlog.decrementAndGet();
+			if(this.messageRetrievalCounter != null)
+				this.messageRetrievalCounter.inc();
+		}
 		return nextMessage;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#drainTo(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[], int)
+	 */
+	public int drainTo(StreamingDataMessage[] buffer, int maxMessages) {
+		if(buffer == null)
+			return 0;
+		final int max = Math.min(buffer.length, maxMessages);
+		int drained = 0;
+		StreamingDataMessage message = null;
+		while(drained < max && (message = this.queue.poll()) != null)
+			buffer[drained++] = message;
+		if(drained > 0)
+			this.backlog.addAndGet(-drained);
+		if(this.messageRetrievalCounter != null && drained > 0)
+			this.messageRetrievalCounter.inc(drained);
+		return drained;
+	}
+
+	/**
+	 * Inserts the given message into the queue read by this consumer. Used by the producer of a broadcast queue 
+	 * for handing over messages to consumers reading from queues of their own 
+	 * @param message
+	 */
+	protected void deliver(final StreamingDataMessage message) {
+		this.queue.offer(message);
+		this.backlog.incrementAndGet();
+	}
+	
+	/**
+	 * Removes all messages not retrieved so far
+	 */
+	protected void clear() {
+		this.queue.clear();
+		this.backlog.set(0);
+	}
+	
+	/**
+	 * Returns the number of messages delivered to this consumer but not retrieved so far
+	 * @return
+	 */
+	public long getBacklog() {
+		return this.backlog.get();
+	}
+
+	/**
+	 * The consumer does not keep track of the read position, thus there is nothing to commit
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#setExplicitCommit(boolean)
+	 */
+	public void setExplicitCommit(boolean explicitCommit) {
+		// no-op
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#commit()
+	 */
+	public void commit() {
+		// no-op
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#commit(int)
+	 */
+	public void commit(int numOfMessages) {
+		// no-op
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#getWaitStrategy()
 	 */
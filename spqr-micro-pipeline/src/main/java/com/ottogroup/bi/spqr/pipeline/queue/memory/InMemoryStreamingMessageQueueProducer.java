@@ -15,7 +15,10 @@
  */
 package com.ottogroup.bi.spqr.pipeline.queue.memory;
 
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.codahale.metrics.Counter;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
@@ -23,7 +26,8 @@ import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
 
 /**
- * Produces messages to attached {@link InMemoryStreamingMessageQueue}
+ * Produces messages to attached {@link InMemoryStreamingMessageQueue}. If the queue is a broadcast queue, each
+ * message is additionally handed over to all {@link #addBroadcastConsumer(InMemoryStreamingMessageQueueConsumer) broadcast consumers}
  * @author mnxfst
  * @since Jul 3, 2015
  */
@@ -35,8 +39,12 @@ public class InMemoryStreamingMessageQueueProducer implements StreamingMessageQu
 	private final ConcurrentLinkedQueue<StreamingDataMessage> queue;
 	/** assigned wait strategy for fetching messages */
 	private final StreamingMessageQueueWaitStrategy waitStrategy;
+	/** number of messages inserted but not retrieved so far - shared with the consumer */
+	private final AtomicLong backlog;
 	/** counts the number of message insertions */
 	private Counter messageInsertionCounter = null;
+	/** consumers of a broadcast queue which read from queues of their own - each receives all inserted messages */
+	private final List<InMemoryStreamingMessageQueueConsumer> broadcastConsumers = new CopyOnWriteArrayList<>();
 
 	/**
 	 * Initializes the producer using the provided input
@@ -45,9 +53,21 @@ public class InMemoryStreamingMessageQueueProducer implements StreamingMessageQu
 	 * @param waitStrategy
 	 */
 	public InMemoryStreamingMessageQueueProducer(final String queueId, final ConcurrentLinkedQueue<StreamingDataMessage> queue, final StreamingMessageQueueWaitStrategy waitStrategy) {
+		this(queueId, queue, waitStrategy, new AtomicLong(0));
+	}
+	
+	/**
+	 * Initializes the producer using the provided input
+	 * @param queueId
+	 * @param queue
+	 * @param waitStrategy
+	 * @param backlog number of messages inserted but not retrieved so far - shared with the consumer
+	 */
+	public InMemoryStreamingMessageQueueProducer(final String queueId, final ConcurrentLinkedQueue<StreamingDataMessage> queue, final StreamingMessageQueueWaitStrategy waitStrategy, final AtomicLong backlog) {
 		this.queueId = queueId;
 		this.queue = queue;
 		this.waitStrategy = waitStrategy;
+		this.backlog = backlog;
 	}
 	
 
@@ -56,13 +76,79 @@ public class InMemoryStreamingMessageQueueProducer implements StreamingMessageQu
 	 */
 	public boolean insert(StreamingDataMessage message) {		
 		if(message != null) {
-			this.queue.offer(message);
+			final StreamingDataMessage detached = message.detach();
+			this.queue.offer(detached);
+			this.backlog.incrementAndGet();
+			broadcast(detached);
 			if(this.messageInsertionCounter != null)
 				this.messageInsertionCounter.inc();
 		}		
 		return false;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[])
+	 */
+	public int insertBatch(StreamingDataMessage[] messages) {
+		if(messages == null)
+			return 0;
+		int inserted = 0;
+		for(int i = 0; i < messages.length; i++) {
+			if(messages[i] != null) {
+				final StreamingDataMessage detached = messages[i].detach();
+				this.queue.offer(detached);
+				broadcast(detached);
+				inserted++;
+			}
+		}
+		this.backlog.addAndGet(inserted);
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(java.util.List)
+	 */
+	public int insertBatch(List<StreamingDataMessage> messages) {
+		if(messages == null)
+			return 0;
+		int inserted = 0;
+		for(int i = 0; i < messages.size(); i++) {
+			final StreamingDataMessage message = messages.get(i);
+			if(message != null) {
+				final StreamingDataMessage detached = message.detach();
+				this.queue.offer(detached);
+				broadcast(detached);
+				inserted++;
+			}
+		}
+		this.backlog.addAndGet(inserted);
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+
+	/**
+	 * Hands the given message over to all broadcast consumers
+	 * @param message
+	 */
+	protected void broadcast(final StreamingDataMessage message) {
+		if(this.broadcastConsumers.isEmpty())
+			return;
+		for(final InMemoryStreamingMessageQueueConsumer consumer : this.broadcastConsumers)
+			consumer.deliver(message);
+	}
+	
+	/**
+	 * Adds a consumer which receives all messages inserted from now on
+	 * @param consumer
+	 */
+	protected void addBroadcastConsumer(final InMemoryStreamingMessageQueueConsumer consumer) {
+		if(consumer != null)
+			this.broadcastConsumers.add(consumer);
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#getWaitStrategy()
 	 */
@@ -0,0 +1,296 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.offheap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
+
+import uk.co.real_logic.queues.OneToOneConcurrentArrayQueue3;
+import uk.co.real_logic.queues.PaddedAtomicLong;
+
+/**
+ * Bounded ring of serialized {@link StreamingDataMessage} records kept inside a direct {@link ByteBuffer}. The buffer is 
+ * allocated once, thus neither the number of messages held nor their size has any effect on the heap. Each record starts
+ * with its length followed by the excerpt layout written by the chronicle producer:<br/>
+ * <code>[record length (4 bytes)][timestamp (8 bytes)][body length (4 bytes)][body]</code><br/>
+ * Messages carrying a {@link StreamingDataMessageHeader header} get it appended at the next aligned position behind the body:<br/>
+ * <code>[header length (4 bytes)][header]</code><br/>
+ * Records are aligned to 8 bytes. If a record does not fit into the space left before the end of the buffer, that space 
+ * is marked as padding and the record is written to the start.<br/><br/>
+ * Writers and readers are serialized among each other by a lock per side. As the sides coordinate via the write and read 
+ * positions only, a writer never waits for a reader and vice versa.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class OffHeapRecordRingBuffer {
+
+	/** size of the record header: record length, timestamp and body length */
+	public static final int HEADER_LENGTH = 16;
+	/** record length marking the remaining space before the end of the buffer as unused */
+	private static final int PADDING = -1;
+	/** records are aligned to this number of bytes */
+	private static final int ALIGNMENT = 8;
+	
+	/** number of bytes available - always a power of two */
+	private final int capacity;
+	/** mask applied to positions for computing the buffer offset */
+	private final int mask;
+	/** direct buffer holding the records */
+	private final ByteBuffer buffer;
+	/** next position to write to - padded to avoid false sharing with the read position */
+	private final AtomicLong tail = new PaddedAtomicLong(0);
+	/** next position to read from - padded to avoid false sharing with the write position */
+	private final AtomicLong head = new PaddedAtomicLong(0);
+	/** number of records written */
+	private final AtomicLong written = new PaddedAtomicLong(0);
+	/** number of records read */
+	private final AtomicLong read = new PaddedAtomicLong(0);
+	/** serializes writers */
+	private final Lock writeLock = new ReentrantLock();
+	/** serializes readers */
+	private final Lock readLock = new ReentrantLock();
+	
+	/**
+	 * Initializes the ring buffer using the provided input
+	 * @param capacity requested number of bytes which is rounded up to the next power of two
+	 */
+	public OffHeapRecordRingBuffer(final int capacity) {
+		if(capacity < HEADER_LENGTH * 2)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		this.capacity = OneToOneConcurrentArrayQueue3.findNextPositivePowerOfTwo(capacity);
+		if(this.capacity < 0)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		this.mask = this.capacity - 1;
+		this.buffer = ByteBuffer.allocateDirect(this.capacity);
+	}
+	
+	/**
+	 * Writes the given {@link StreamingDataMessage} into the ring buffer. If there is not enough space left, the
+	 * method returns <code>false</code> immediately
+	 * @param message
+	 * @return
+	 * @throws IllegalArgumentException thrown in case the message exceeds the {@link #getMaxBodyLength() max. body length} or
+	 * 		body and header exceed the {@link #getMaxRecordLength() max. record length}
+	 */
+	public boolean offer(final StreamingDataMessage message) {
+		if(message == null)
+			return false;
+		
+		final int bodyLength = message.getBodyLength();
+		if(bodyLength > getMaxBodyLength())
+			throw new IllegalArgumentException("Message body of " + bodyLength + " bytes exceeds max. length of " + getMaxBodyLength() + " bytes");
+		final byte[] header = encodeHeader(message.getHeader());
+		final int headerOffset = align(HEADER_LENGTH + bodyLength);
+		final int recordLength = headerOffset + (header != null ? align(4 + header.length) : 0);
+		if(recordLength > getMaxRecordLength())
+			throw new IllegalArgumentException("Message record of " + recordLength + " bytes exceeds max. length of " + getMaxRecordLength() + " bytes");
+		
+		this.writeLock.lock();
+		try {
+			final long position = this.tail.get();
+			final int offset = (int)position & this.mask;
+			final int padding = (this.capacity - offset < recordLength ? this.capacity - offset : 0);
+			if(position + padding + recordLength - this.head.get() > this.capacity)
+				return false;
+			
+			if(padding > 0)
+				this.buffer.putInt(offset, PADDING);
+			
+			final int recordOffset = (int)(position + padding) & this.mask;
+			this.buffer.putInt(recordOffset, recordLength);
+			this.buffer.putLong(recordOffset + 4, message.getTimestamp());
+			this.buffer.putInt(recordOffset + 12, bodyLength);
+			if(bodyLength > 0) {
+				// a duplicate keeps concurrent readers of the direct buffer from being affected by the position change  
+				final ByteBuffer target = this.buffer.duplicate();
+				target.position(recordOffset + HEADER_LENGTH);
+				if(message.isView())
+					target.put(message.getBodyBuffer().duplicate());
+				else
+					target.put(message.getBody());
+			}
+			if(header != null) {
+				this.buffer.putInt(recordOffset + headerOffset, header.length);
+				final ByteBuffer target = this.buffer.duplicate();
+				target.position(recordOffset + headerOffset + 4);
+				target.put(header);
+			}
+			
+			// publish the record towards readers
+			this.written.lazySet(this.written.get() + 1);
+			this.tail.lazySet(position + padding + recordLength);
+			return true;
+		} finally {
+			this.writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Reads the next record and returns it as {@link StreamingDataMessage} owning a copy of the body or returns 
+	 * <code>null</code> if the buffer is empty
+	 * @return
+	 */
+	public StreamingDataMessage poll() {
+		this.readLock.lock();
+		try {
+			long position = this.head.get();
+			if(position == this.tail.get())
+				return null;
+			
+			int offset = (int)position & this.mask;
+			if(this.buffer.getInt(offset) == PADDING) {
+				position += this.capacity - offset;
+				offset = 0;
+			}
+			
+			final int recordLength = this.buffer.getInt(offset);
+			final long timestamp = this.buffer.getLong(offset + 4);
+			final byte[] body = new byte[this.buffer.getInt(offset + 12)];
+			final ByteBuffer source = this.buffer.duplicate();
+			source.position(offset + HEADER_LENGTH);
+			source.get(body);
+			
+			// a record exceeding the aligned body carries a header
+			StreamingDataMessageHeader header = null;
+			final int headerOffset = align(HEADER_LENGTH + body.length);
+			if(recordLength > headerOffset) {
+				final byte[] encodedHeader = new byte[this.buffer.getInt(offset + headerOffset)];
+				source.position(offset + headerOffset + 4);
+				source.get(encodedHeader);
+				header = decodeHeader(encodedHeader);
+			}
+			
+			// release the space towards writers
+			this.read.lazySet(this.read.get() + 1);
+			this.head.lazySet(position + recordLength);
+			return new StreamingDataMessage(body, timestamp, header);
+		} finally {
+			this.readLock.unlock();
+		}
+	}
+	
+	/**
+	 * Discards all records
+	 */
+	public void clear() {
+		while(poll() != null) {
+			// keep on polling
+		}
+	}
+	
+	/**
+	 * Returns the number of records held by the ring buffer
+	 * @return
+	 */
+	public long size() {
+		// read the counter of records read first as it never overtakes the counter of records written
+		final long currentRead = this.read.get();
+		return Math.max(0, this.written.get() - currentRead);
+	}
+	
+	/**
+	 * Returns the number of bytes occupied by records including padding
+	 * @return
+	 */
+	public long getUsedBytes() {
+		final long currentHead = this.head.get();
+		return Math.min(this.capacity, Math.max(0, this.tail.get() - currentHead));
+	}
+	
+	/**
+	 * Returns the number of bytes available for new records 
+	 * @return
+	 */
+	public long getFreeBytes() {
+		return this.capacity - getUsedBytes();
+	}
+	
+	/**
+	 * Returns the capacity in bytes which is the next power of two greater or equal to the requested one
+	 * @return
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+	
+	/**
+	 * Returns the max. body length accepted - a record must never occupy more than half of the buffer, otherwise 
+	 * the padding required for wrapping around could prevent it from being written at all
+	 * @return
+	 */
+	public int getMaxBodyLength() {
+		return getMaxRecordLength() - HEADER_LENGTH;
+	}
+	
+	/**
+	 * Returns the max. number of bytes occupied by a record including its header - see {@link #getMaxBodyLength()} 
+	 * @return
+	 */
+	public int getMaxRecordLength() {
+		return this.capacity / 2;
+	}
+	
+	/**
+	 * Returns the serialized form of the given header or null if no header is provided or it cannot be serialized
+	 * @param header
+	 * @return
+	 */
+	private static byte[] encodeHeader(final StreamingDataMessageHeader header) {
+		if(header == null)
+			return null;
+		try {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+			header.writeTo(new DataOutputStream(out));
+			return out.toByteArray();
+		} catch(IOException e) {
+			// keep the message rather than losing it due to an invalid header 
+			return null;
+		}
+	}
+	
+	/**
+	 * Returns the header read from the given bytes or null if it cannot be decoded
+	 * @param encodedHeader
+	 * @return
+	 */
+	private static StreamingDataMessageHeader decodeHeader(final byte[] encodedHeader) {
+		try {
+			return StreamingDataMessageHeader.readFrom(new DataInputStream(new ByteArrayInputStream(encodedHeader)));
+		} catch(IOException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Rounds the given length up to the next multiple of {@link #ALIGNMENT}
+	 * @param length
+	 * @return
+	 */
+	private static int align(final int length) {
+		return (length + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+	}
+	
+}
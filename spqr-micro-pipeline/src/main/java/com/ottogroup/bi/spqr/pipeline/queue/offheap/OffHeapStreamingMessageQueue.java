@@ -0,0 +1,315 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.offheap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferFullQueuePolicy;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueSleepingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * Memory based implementation of {@link StreamingMessageQueue} which keeps serialized messages outside the heap 
+ * in an {@link OffHeapRecordRingBuffer}. The queue has a fixed memory budget which is allocated on initialization. 
+ * Messages only live on the heap between being retrieved and processed, thus the queue depth does not affect the 
+ * garbage collector. Compared to {@link RingBufferStreamingMessageQueue} the capacity is measured in bytes rather 
+ * than messages and each insertion and retrieval copies the message body.<br/><br/>
+ * The queue does not support broadcasting: all components reading from it compete for messages.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class OffHeapStreamingMessageQueue implements StreamingMessageQueue, MetricSet {
+
+	/** our faithful logging facility ..... ;-) */
+	private static final Logger logger = Logger.getLogger(OffHeapStreamingMessageQueue.class);
+	
+	/////////////////////////////////////////////////////////////////////
+	// available configuration options 
+	public static final String CFG_QUEUE_MESSAGE_WAIT_STRATEGY = "queue.message.waitStrategy";
+	public static final String CFG_QUEUE_OFF_HEAP_CAPACITY_BYTES = "queue.offHeap.capacityBytes";
+	public static final String CFG_QUEUE_OFF_HEAP_FULL_QUEUE_POLICY = "queue.offHeap.fullQueuePolicy";
+	/////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////////////////
+	// setting for 'type' property to get an instance of this type
+	public static final String CFG_QUEUE_TYPE = "offHeap";
+	/////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////////////////
+	// names of metrics provided by this queue
+	public static final String METRIC_SIZE = "size";
+	public static final String METRIC_CAPACITY_BYTES = "memory.capacity";
+	public static final String METRIC_USED_BYTES = "memory.used";
+	public static final String METRIC_FREE_BYTES = "memory.free";
+	public static final String METRIC_DROPPED = "dropped";
+	/////////////////////////////////////////////////////////////////////
+
+	/** default memory budget applied if no value is provided: 64 MB */
+	public static final int DEFAULT_CAPACITY_BYTES = 64 * 1024 * 1024;
+	
+	/** unique queue identifier */
+	private String id = null;
+	/** ring buffer holding the serialized messages */
+	private OffHeapRecordRingBuffer ringBuffer = null;
+	/** message queue consumer */
+	private OffHeapStreamingMessageQueueConsumer queueConsumer = null;
+	/** message queue producer */
+	private OffHeapStreamingMessageQueueProducer queueProducer = null;
+	/** wait strategy */
+	private StreamingMessageQueueWaitStrategy queueWaitStrategy = null;
+	/** counts messages dropped due to the ring buffer running full or exceeding the max. body length */
+	private final Counter droppedMessagesCounter = new Counter();
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#initialize(java.util.Properties)
+	 */
+	public void initialize(Properties properties) throws RequiredInputMissingException {
+		
+		////////////////////////////////////////////////////////////////////////////////
+		// extract and validate input
+		if(properties == null)
+			throw new RequiredInputMissingException("Missing required properties");		
+	
+		if(StringUtils.isBlank(this.id))
+			throw new RequiredInputMissingException("Missing required queue identifier");
+
+		int capacityBytes = DEFAULT_CAPACITY_BYTES;
+		String capacityStr = StringUtils.trim(properties.getProperty(CFG_QUEUE_OFF_HEAP_CAPACITY_BYTES));
+		if(StringUtils.isNotBlank(capacityStr)) {
+			try {
+				capacityBytes = Integer.parseInt(capacityStr);
+			} catch(NumberFormatException e) {
+				throw new RuntimeException("Invalid off-heap capacity found for queue '"+this.id+"': " + capacityStr);
+			}
+			if(capacityBytes < OffHeapRecordRingBuffer.HEADER_LENGTH * 2 || capacityBytes > (1 << 30))
+				throw new RuntimeException("Invalid off-heap capacity found for queue '"+this.id+"': " + capacityBytes);
+		}
+
+		final RingBufferFullQueuePolicy fullQueuePolicy = getFullQueuePolicy(StringUtils.trim(properties.getProperty(CFG_QUEUE_OFF_HEAP_FULL_QUEUE_POLICY)));
+		this.queueWaitStrategy = getWaitStrategy(StringUtils.trim(properties.getProperty(CFG_QUEUE_MESSAGE_WAIT_STRATEGY)));
+		if(StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_QUEUE_BROADCAST)), "true"))
+			logger.warn("queue[type=offHeap, id="+this.id+"] does not support broadcasting. Components reading from it compete for messages");
+		////////////////////////////////////////////////////////////////////////////////
+		
+		////////////////////////////////////////////////////////////////////////////////
+		// allocate ring buffer and initialize producer and consumer instances
+		this.ringBuffer = new OffHeapRecordRingBuffer(capacityBytes);
+		this.queueProducer = new OffHeapStreamingMessageQueueProducer(this.id, this.ringBuffer, this.queueWaitStrategy, fullQueuePolicy, this.droppedMessagesCounter);
+		this.queueConsumer = new OffHeapStreamingMessageQueueConsumer(this.id, this.ringBuffer, this.queueWaitStrategy);
+		////////////////////////////////////////////////////////////////////////////////
+
+		logger.info("queue[type=offHeap, id="+this.id+", capacityBytes="+this.ringBuffer.getCapacity()+", fullQueuePolicy="+fullQueuePolicy+"] successfully initialized");
+	}
+
+	/**
+	 * Discards all messages - the memory is released by the garbage collector once the queue is no longer referenced
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#shutdown()
+	 */
+	public boolean shutdown() {
+		if(this.queueProducer != null)
+			this.queueProducer.shutdown();
+		if(this.ringBuffer != null)
+			this.ringBuffer.clear();
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#insert(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean insert(StreamingDataMessage message) {
+		return this.queueProducer.insert(message);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#next()
+	 */
+	public StreamingDataMessage next() {
+		return this.queueConsumer.next();
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getProducer()
+	 */
+	public StreamingMessageQueueProducer getProducer() {
+		return this.queueProducer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer()
+	 */
+	public StreamingMessageQueueConsumer getConsumer() {
+		return this.queueConsumer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer(java.lang.String)
+	 */
+	public StreamingMessageQueueConsumer getConsumer(String consumerId) {
+		return this.queueConsumer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getBacklog()
+	 */
+	public long getBacklog() {
+		return (this.ringBuffer != null ? this.ringBuffer.size() : 0);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageInsertionCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageInsertionCounter(Counter counter) {
+		this.queueProducer.setMessageInsertionCounter(counter);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageRetrievalCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageRetrievalCounter(Counter counter) {
+		this.queueConsumer.setMessageRetrievalCounter(counter);
+	}
+
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		Map<String, Metric> metrics = new HashMap<>();
+		metrics.put(METRIC_SIZE, new Gauge<Long>() {
+			public Long getValue() {
+				return Long.valueOf(getBacklog());
+			}
+		});
+		metrics.put(METRIC_CAPACITY_BYTES, new Gauge<Long>() {
+			public Long getValue() {
+				return Long.valueOf(getCapacityBytes());
+			}
+		});
+		metrics.put(METRIC_USED_BYTES, new Gauge<Long>() {
+			public Long getValue() {
+				return Long.valueOf(getUsedBytes());
+			}
+		});
+		metrics.put(METRIC_FREE_BYTES, new Gauge<Long>() {
+			public Long getValue() {
+				return Long.valueOf(getFreeBytes());
+			}
+		});
+		metrics.put(METRIC_DROPPED, this.droppedMessagesCounter);
+		// wait strategies providing their own metrics (eg. adaptive mode) get them reported along with the queue 
+		if(this.queueWaitStrategy instanceof MetricSet)
+			metrics.putAll(((MetricSet)this.queueWaitStrategy).getMetrics());
+		return metrics;
+	}
+
+	/**
+	 * Return an instance of the referenced {@link StreamingMessageQueueWaitStrategy}
+	 * @param waitStrategyName name of strategy to instantiate (eg. {@link StreamingMessageQueueBlockingWaitStrategy#STRATEGY_NAME} (default))
+	 * @return
+	 */
+	protected StreamingMessageQueueWaitStrategy getWaitStrategy(final String waitStrategyName) {			
+		if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueDirectPassStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueSleepingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueParkingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueScheduledWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueAdaptiveWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueAdaptiveWaitStrategy();
+		return new StreamingMessageQueueBlockingWaitStrategy();
+	}
+	
+	/**
+	 * Return the {@link RingBufferFullQueuePolicy} referenced by the given name. Accepts the same values as 
+	 * {@link RingBufferStreamingMessageQueue#CFG_QUEUE_RING_BUFFER_FULL_QUEUE_POLICY}
+	 * @param fullQueuePolicyName name of policy (eg. {@link RingBufferStreamingMessageQueue#FULL_QUEUE_POLICY_BLOCK} (default))
+	 * @return
+	 */
+	protected RingBufferFullQueuePolicy getFullQueuePolicy(final String fullQueuePolicyName) {
+		if(StringUtils.equalsIgnoreCase(fullQueuePolicyName, RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_NEWEST))
+			return RingBufferFullQueuePolicy.DROP_NEWEST;
+		else if(StringUtils.equalsIgnoreCase(fullQueuePolicyName, RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_OLDEST))
+			return RingBufferFullQueuePolicy.DROP_OLDEST;
+		return RingBufferFullQueuePolicy.BLOCK;
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setId(java.lang.String)
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getId()
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the memory budget in bytes
+	 * @return
+	 */
+	public long getCapacityBytes() {
+		return (this.ringBuffer != null ? this.ringBuffer.getCapacity() : 0);
+	}
+	
+	/**
+	 * Returns the number of bytes occupied by messages
+	 * @return
+	 */
+	public long getUsedBytes() {
+		return (this.ringBuffer != null ? this.ringBuffer.getUsedBytes() : 0);
+	}
+	
+	/**
+	 * Returns the number of bytes available for new messages
+	 * @return
+	 */
+	public long getFreeBytes() {
+		return (this.ringBuffer != null ? this.ringBuffer.getFreeBytes() : 0);
+	}
+
+	/**
+	 * Returns the number of messages dropped due to the queue running full or exceeding the max. body length
+	 * @return
+	 */
+	public long getNumDroppedMessages() {
+		return this.droppedMessagesCounter.getCount();
+	}
+}
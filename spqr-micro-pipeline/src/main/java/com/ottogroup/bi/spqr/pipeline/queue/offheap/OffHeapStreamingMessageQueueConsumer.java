@@ -0,0 +1,121 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.offheap;
+
+import com.codahale.metrics.Counter;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * {@link StreamingMessageQueueConsumer} implementation reading from the {@link OffHeapRecordRingBuffer} of an
+ * {@link OffHeapStreamingMessageQueue}. Each retrieved message owns a copy of its body.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class OffHeapStreamingMessageQueueConsumer implements StreamingMessageQueueConsumer {
+
+	/** identifier of queue this consumer is attached to */
+	private final String queueId;
+	/** ring buffer the consumer reads from */
+	private final OffHeapRecordRingBuffer ringBuffer;
+	/** assigned wait strategy */
+	private final StreamingMessageQueueWaitStrategy waitStrategy;
+	/** counter instance used for metric collection */
+	private Counter messageRetrievalCounter = null;
+	
+	/**
+	 * Initializes the consumer using the provided input
+	 * @param queueId
+	 * @param ringBuffer
+	 * @param waitStrategy
+	 */
+	public OffHeapStreamingMessageQueueConsumer(final String queueId, final OffHeapRecordRingBuffer ringBuffer, final StreamingMessageQueueWaitStrategy waitStrategy) {
+		this.queueId = queueId;
+		this.ringBuffer = ringBuffer;
+		this.waitStrategy = waitStrategy;
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#getQueueId()
+	 */
+	public String getQueueId() {
+		return this.queueId;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#next()
+	 */
+	public StreamingDataMessage next() {
+		final StreamingDataMessage nextMessage = this.ringBuffer.poll();
+		if(this.messageRetrievalCounter != null && nextMessage != null)
+			this.messageRetrievalCounter.inc();
+		return nextMessage;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#drainTo(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[], int)
+	 */
+	public int drainTo(StreamingDataMessage[] buffer, int maxMessages) {
+		if(buffer == null)
+			return 0;
+		final int max = Math.min(buffer.length, maxMessages);
+		int drained = 0;
+		StreamingDataMessage message = null;
+		while(drained < max && (message = this.ringBuffer.poll()) != null)
+			buffer[drained++] = message;
+		if(this.messageRetrievalCounter != null && drained > 0)
+			this.messageRetrievalCounter.inc(drained);
+		return drained;
+	}
+
+	/**
+	 * The consumer does not keep track of the read position, thus there is nothing to commit
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#setExplicitCommit(boolean)
+	 */
+	public void setExplicitCommit(boolean explicitCommit) {
+		// no-op
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#commit()
+	 */
+	public void commit() {
+		// no-op
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#commit(int)
+	 */
+	public void commit(int numOfMessages) {
+		// no-op
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#getWaitStrategy()
+	 */
+	public StreamingMessageQueueWaitStrategy getWaitStrategy() {
+		return this.waitStrategy;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer#setMessageRetrievalCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageRetrievalCounter(Counter counter) {
+		this.messageRetrievalCounter = counter;
+	}
+
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.offheap;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import com.codahale.metrics.Counter;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferFullQueuePolicy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * {@link StreamingMessageQueueProducer} implementation writing to the {@link OffHeapRecordRingBuffer} of an
+ * {@link OffHeapStreamingMessageQueue}. Messages are serialized on insertion, thus views need not be detached. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class OffHeapStreamingMessageQueueProducer implements StreamingMessageQueueProducer {
+
+	/** time to park the producing thread between two insertion attempts while waiting for free space */
+	private static final long BLOCKING_PARK_NANOS = 1000;
+	
+	/** identifier of queue this producer is attached to */
+	private final String queueId;
+	/** ring buffer the producer writes to */
+	private final OffHeapRecordRingBuffer ringBuffer;
+	/** assigned wait strategy for fetching messages */
+	private final StreamingMessageQueueWaitStrategy waitStrategy;
+	/** behavior applied if the ring buffer is full */
+	private final RingBufferFullQueuePolicy fullQueuePolicy;
+	/** counts the number of messages dropped due to a full ring buffer */
+	private final Counter droppedMessagesCounter;
+	/** counts the number of message insertions */
+	private Counter messageInsertionCounter = null;
+	/** set to false on shutdown which releases producers waiting for free space */
+	private volatile boolean running = true;
+
+	/**
+	 * Initializes the producer using the provided input
+	 * @param queueId
+	 * @param ringBuffer
+	 * @param waitStrategy
+	 * @param fullQueuePolicy
+	 * @param droppedMessagesCounter
+	 */
+	public OffHeapStreamingMessageQueueProducer(final String queueId, final OffHeapRecordRingBuffer ringBuffer, final StreamingMessageQueueWaitStrategy waitStrategy, 
+			final RingBufferFullQueuePolicy fullQueuePolicy, final Counter droppedMessagesCounter) {
+		this.queueId = queueId;
+		this.ringBuffer = ringBuffer;
+		this.waitStrategy = waitStrategy;
+		this.fullQueuePolicy = fullQueuePolicy;
+		this.droppedMessagesCounter = droppedMessagesCounter;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insert(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean insert(StreamingDataMessage message) {
+		if(!offer(message))
+			return false;
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc();
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[])
+	 */
+	public int insertBatch(StreamingDataMessage[] messages) {
+		if(messages == null)
+			return 0;
+		int inserted = 0;
+		for(int i = 0; i < messages.length; i++) {
+			if(offer(messages[i]))
+				inserted++;
+		}
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(java.util.List)
+	 */
+	public int insertBatch(List<StreamingDataMessage> messages) {
+		if(messages == null)
+			return 0;
+		int inserted = 0;
+		for(int i = 0; i < messages.size(); i++) {
+			if(offer(messages.get(i)))
+				inserted++;
+		}
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+	
+	/**
+	 * Writes the given {@link StreamingDataMessage} into the ring buffer while applying the {@link RingBufferFullQueuePolicy}. 
+	 * Messages exceeding the max. record length are dropped
+	 * @param message
+	 * @return
+	 */
+	protected boolean offer(final StreamingDataMessage message) {
+		if(message == null)
+			return false;
+		
+		try {
+			while(!this.ringBuffer.offer(message)) {
+			
+				switch(this.fullQueuePolicy) {
+					case DROP_NEWEST: {
+						this.droppedMessagesCounter.inc();
+						return false;
+					}
+					case DROP_OLDEST: {
+						// make room for the new message - a single record may not free enough space, thus try again
+						if(this.ringBuffer.poll() != null)
+							this.droppedMessagesCounter.inc();
+						break;
+					}
+					default: {
+						if(!this.running || Thread.currentThread().isInterrupted())
+							return false;
+						// wake up consumers which may still be waiting for the messages already inserted
+						this.waitStrategy.forceLockRelease();
+						LockSupport.parkNanos(BLOCKING_PARK_NANOS);
+						break;
+					}
+				}
+			}
+		} catch(IllegalArgumentException e) {
+			// body and header exceed the max. record length
+			this.droppedMessagesCounter.inc();
+			return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Releases all threads currently waiting for free space 
+	 */
+	public void shutdown() {
+		this.running = false;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#getWaitStrategy()
+	 */
+	public StreamingMessageQueueWaitStrategy getWaitStrategy() {
+		return this.waitStrategy;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#setMessageInsertionCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageInsertionCounter(Counter counter) {
+		this.messageInsertionCounter = counter;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#getQueueId()
+	 */
+	public String getQueueId() {
+		return this.queueId;
+	}
+
+}
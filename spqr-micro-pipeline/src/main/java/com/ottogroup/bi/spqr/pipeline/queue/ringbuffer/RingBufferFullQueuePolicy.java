@@ -0,0 +1,31 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.ringbuffer;
+
+/**
+ * Describes how a {@link RingBufferStreamingMessageQueueProducer} behaves when the underlying
+ * {@link StreamingDataMessageRingBuffer} has no free slot left
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public enum RingBufferFullQueuePolicy {
+	/** producer waits until a consumer frees a slot - no message loss but may stall the producing component */
+	BLOCK,
+	/** message to insert is discarded */
+	DROP_NEWEST,
+	/** oldest message held by the ring buffer is discarded to make room for the new one */
+	DROP_OLDEST
+}
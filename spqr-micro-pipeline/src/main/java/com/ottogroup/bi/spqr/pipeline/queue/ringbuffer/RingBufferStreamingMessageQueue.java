@@ -0,0 +1,331 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.ringbuffer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueSleepingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * Memory based implementation of {@link StreamingMessageQueue} backed by a preallocated {@link StreamingDataMessageRingBuffer}.
+ * Compared to {@link InMemoryStreamingMessageQueue} it is bounded and does not allocate any memory when inserting or 
+ * retrieving messages. The behavior applied when reaching the capacity limit is controlled by {@link RingBufferFullQueuePolicy}.
+ * As the queue implements {@link MetricSet}, its occupancy is reported as part of the pipeline metrics.<br/><br/>
+ * Configured as broadcast queue, the messages are kept in a {@link StreamingDataMessageBroadcastRingBuffer} and each consumer
+ * reads via a cursor of its own. The slowest consumer determines the occupancy as well as when the queue is full.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class RingBufferStreamingMessageQueue implements StreamingMessageQueue, MetricSet {
+
+	/** our faithful logging facility ..... ;-) */
+	private static final Logger logger = Logger.getLogger(RingBufferStreamingMessageQueue.class);
+	
+	/////////////////////////////////////////////////////////////////////
+	// available configuration options 
+	public static final String CFG_QUEUE_MESSAGE_WAIT_STRATEGY = "queue.message.waitStrategy";
+	public static final String CFG_QUEUE_RING_BUFFER_CAPACITY = "queue.ringBuffer.capacity";
+	public static final String CFG_QUEUE_RING_BUFFER_FULL_QUEUE_POLICY = "queue.ringBuffer.fullQueuePolicy";
+	/////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////////////////
+	// setting for 'type' property to get an instance of this type
+	public static final String CFG_QUEUE_TYPE = "ringBuffer";
+	/////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////////////////
+	// values accepted by 'queue.ringBuffer.fullQueuePolicy'
+	public static final String FULL_QUEUE_POLICY_BLOCK = "block";
+	public static final String FULL_QUEUE_POLICY_DROP_NEWEST = "dropNewest";
+	public static final String FULL_QUEUE_POLICY_DROP_OLDEST = "dropOldest";
+	/////////////////////////////////////////////////////////////////////
+
+	/////////////////////////////////////////////////////////////////////
+	// names of metrics provided by this queue
+	public static final String METRIC_SIZE = "size";
+	public static final String METRIC_CAPACITY = "capacity";
+	public static final String METRIC_DROPPED = "dropped";
+	/////////////////////////////////////////////////////////////////////
+
+	/** default capacity applied if no value is provided */
+	public static final int DEFAULT_CAPACITY = 8192;
+	
+	/** unique queue identifier */
+	private String id = null;
+	/** internal ring buffer holding elements */
+	private StreamingDataMessageBuffer ringBuffer = null;
+	/** ring buffer of a broadcast queue - same instance as the ring buffer above, null for all other queues */
+	private StreamingDataMessageBroadcastRingBuffer broadcastRingBuffer = null;
+	/** buffer read by the consumer provided via {@link #getConsumer()} */
+	private StreamingDataMessageBuffer consumerBuffer = null;
+	/** consumers handed out by a broadcast queue - referenced by consumer identifier */
+	private final Map<String, RingBufferStreamingMessageQueueConsumer> broadcastConsumers = new ConcurrentHashMap<>();
+	/** counter instance attached to all consumers */
+	private Counter messageRetrievalCounter = null;
+	/** message queue consumer */
+	private RingBufferStreamingMessageQueueConsumer queueConsumer = null;
+	/** message queue producer */
+	private RingBufferStreamingMessageQueueProducer queueProducer = null;
+	/** wait strategy */
+	private StreamingMessageQueueWaitStrategy queueWaitStrategy = null;
+	/** counts messages dropped due to the ring buffer running full */
+	private final Counter droppedMessagesCounter = new Counter();
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#initialize(java.util.Properties)
+	 */
+	public void initialize(Properties properties) throws RequiredInputMissingException {
+		
+		////////////////////////////////////////////////////////////////////////////////
+		// extract and validate input
+		if(properties == null)
+			throw new RequiredInputMissingException("Missing required properties");		
+	
+		if(StringUtils.isBlank(this.id))
+			throw new RequiredInputMissingException("Missing required queue identifier");
+
+		int capacity = DEFAULT_CAPACITY;
+		String capacityStr = StringUtils.trim(properties.getProperty(CFG_QUEUE_RING_BUFFER_CAPACITY));
+		if(StringUtils.isNotBlank(capacityStr)) {
+			try {
+				capacity = Integer.parseInt(capacityStr);
+			} catch(NumberFormatException e) {
+				throw new RuntimeException("Invalid ring buffer capacity found for queue '"+this.id+"': " + capacityStr);
+			}
+			if(capacity < 1)
+				throw new RuntimeException("Invalid ring buffer capacity found for queue '"+this.id+"': " + capacity);
+		}
+
+		final RingBufferFullQueuePolicy fullQueuePolicy = getFullQueuePolicy(StringUtils.trim(properties.getProperty(CFG_QUEUE_RING_BUFFER_FULL_QUEUE_POLICY)));
+		this.queueWaitStrategy = getWaitStrategy(StringUtils.trim(properties.getProperty(CFG_QUEUE_MESSAGE_WAIT_STRATEGY)));
+		final boolean broadcast = StringUtils.equalsIgnoreCase(StringUtils.trim(properties.getProperty(CFG_QUEUE_BROADCAST)), "true");
+		////////////////////////////////////////////////////////////////////////////////
+		
+		////////////////////////////////////////////////////////////////////////////////
+		// initialize ring buffer as well as producer and consumer instances
+		if(broadcast) {
+			this.broadcastRingBuffer = new StreamingDataMessageBroadcastRingBuffer(capacity);
+			this.ringBuffer = this.broadcastRingBuffer;
+			this.consumerBuffer = this.broadcastRingBuffer.newCursor();
+		} else {
+			this.ringBuffer = new StreamingDataMessageRingBuffer(capacity);
+			this.consumerBuffer = this.ringBuffer;
+		}
+		this.queueProducer = new RingBufferStreamingMessageQueueProducer(this.id, this.ringBuffer, this.queueWaitStrategy, fullQueuePolicy, this.droppedMessagesCounter);
+		this.queueConsumer = new RingBufferStreamingMessageQueueConsumer(this.id, this.consumerBuffer, this.queueWaitStrategy);
+		////////////////////////////////////////////////////////////////////////////////
+
+		logger.info("queue[type=ringBuffer, id="+this.id+", capacity="+this.ringBuffer.getCapacity()+", fullQueuePolicy="+fullQueuePolicy+", broadcast="+broadcast+"] successfully initialized");
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#shutdown()
+	 */
+	public boolean shutdown() {
+		if(this.queueProducer != null)
+			this.queueProducer.shutdown();
+		if(this.ringBuffer != null)
+			this.ringBuffer.clear();
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#insert(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean insert(StreamingDataMessage message) {
+		return this.queueProducer.insert(message);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#next()
+	 */
+	public StreamingDataMessage next() {
+		return this.consumerBuffer.poll();
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getProducer()
+	 */
+	public StreamingMessageQueueProducer getProducer() {
+		return this.queueProducer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer()
+	 */
+	public StreamingMessageQueueConsumer getConsumer() {
+		return this.queueConsumer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getConsumer(java.lang.String)
+	 */
+	public synchronized StreamingMessageQueueConsumer getConsumer(String consumerId) {
+		if(this.broadcastRingBuffer == null)
+			return this.queueConsumer;
+		
+		final String key = StringUtils.lowerCase(StringUtils.trim(consumerId));
+		RingBufferStreamingMessageQueueConsumer consumer = this.broadcastConsumers.get(key);
+		if(consumer == null) {
+			if(this.broadcastConsumers.isEmpty()) {
+				consumer = this.queueConsumer;
+			} else {
+				consumer = new RingBufferStreamingMessageQueueConsumer(this.id, this.broadcastRingBuffer.newCursor(), this.queueWaitStrategy);
+				consumer.setMessageRetrievalCounter(this.messageRetrievalCounter);
+			}
+			this.broadcastConsumers.put(key, consumer);
+		}
+		return consumer;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getBacklog()
+	 */
+	public long getBacklog() {
+		return getSize();
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageInsertionCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageInsertionCounter(Counter counter) {
+		this.queueProducer.setMessageInsertionCounter(counter);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setMessageRetrievalCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageRetrievalCounter(Counter counter) {
+		this.messageRetrievalCounter = counter;
+		this.queueConsumer.setMessageRetrievalCounter(counter);
+		for(final RingBufferStreamingMessageQueueConsumer consumer : this.broadcastConsumers.values())
+			consumer.setMessageRetrievalCounter(counter);
+	}
+
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		Map<String, Metric> metrics = new HashMap<>();
+		metrics.put(METRIC_SIZE, new Gauge<Integer>() {
+			public Integer getValue() {
+				return Integer.valueOf(getSize());
+			}
+		});
+		metrics.put(METRIC_CAPACITY, new Gauge<Integer>() {
+			public Integer getValue() {
+				return Integer.valueOf(getCapacity());
+			}
+		});
+		metrics.put(METRIC_DROPPED, this.droppedMessagesCounter);
+		// wait strategies providing their own metrics (eg. adaptive mode) get them reported along with the queue 
+		if(this.queueWaitStrategy instanceof MetricSet)
+			metrics.putAll(((MetricSet)this.queueWaitStrategy).getMetrics());
+		return metrics;
+	}
+
+	/**
+	 * Return an instance of the referenced {@link StreamingMessageQueueWaitStrategy}
+	 * @param waitStrategyName name of strategy to instantiate (eg. {@link StreamingMessageQueueBlockingWaitStrategy#STRATEGY_NAME} (default))
+	 * @return
+	 */
+	protected StreamingMessageQueueWaitStrategy getWaitStrategy(final String waitStrategyName) {			
+		if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueDirectPassStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueSleepingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueParkingWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueScheduledWaitStrategy();
+		else if(StringUtils.equalsIgnoreCase(waitStrategyName, StreamingMessageQueueAdaptiveWaitStrategy.STRATEGY_NAME))
+			return new StreamingMessageQueueAdaptiveWaitStrategy();
+		return new StreamingMessageQueueBlockingWaitStrategy();
+	}
+	
+	/**
+	 * Return the {@link RingBufferFullQueuePolicy} referenced by the given name
+	 * @param fullQueuePolicyName name of policy (eg. {@link #FULL_QUEUE_POLICY_BLOCK} (default))
+	 * @return
+	 */
+	protected RingBufferFullQueuePolicy getFullQueuePolicy(final String fullQueuePolicyName) {
+		if(StringUtils.equalsIgnoreCase(fullQueuePolicyName, FULL_QUEUE_POLICY_DROP_NEWEST))
+			return RingBufferFullQueuePolicy.DROP_NEWEST;
+		else if(StringUtils.equalsIgnoreCase(fullQueuePolicyName, FULL_QUEUE_POLICY_DROP_OLDEST))
+			return RingBufferFullQueuePolicy.DROP_OLDEST;
+		return RingBufferFullQueuePolicy.BLOCK;
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#setId(java.lang.String)
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue#getId()
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the number of messages currently held by the queue
+	 * @return
+	 */
+	public int getSize() {
+		return (this.ringBuffer != null ? this.ringBuffer.size() : 0);
+	}
+	
+	/**
+	 * Returns the capacity of the queue
+	 * @return
+	 */
+	public int getCapacity() {
+		return (this.ringBuffer != null ? this.ringBuffer.getCapacity() : 0);
+	}
+
+	/**
+	 * Returns the number of messages dropped due to the queue running full
+	 * @return
+	 */
+	public long getNumDroppedMessages() {
+		return this.droppedMessagesCounter.getCount();
+	}
+}
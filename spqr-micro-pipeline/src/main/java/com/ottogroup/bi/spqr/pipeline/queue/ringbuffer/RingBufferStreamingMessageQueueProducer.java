@@ -0,0 +1,186 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.ringbuffer;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import com.codahale.metrics.Counter;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * Produces messages to attached {@link RingBufferStreamingMessageQueue}. If the underlying ring buffer
+ * is full, the configured {@link RingBufferFullQueuePolicy} decides whether to wait for a free slot
+ * or to drop a message.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class RingBufferStreamingMessageQueueProducer implements StreamingMessageQueueProducer {
+
+	/** time to park the producing thread between two insertion attempts while waiting for a free slot */
+	private static final long BLOCKING_PARK_NANOS = 1000;
+	
+	/** identifier of queue this producer is attached to */
+	private final String queueId;
+	/** ring buffer the producer writes to */
+	private final StreamingDataMessageBuffer ringBuffer;
+	/** assigned wait strategy for fetching messages */
+	private final StreamingMessageQueueWaitStrategy waitStrategy;
+	/** behavior applied if the ring buffer is full */
+	private final RingBufferFullQueuePolicy fullQueuePolicy;
+	/** counts the number of messages dropped due to a full ring buffer */
+	private final Counter droppedMessagesCounter;
+	/** counts the number of message insertions */
+	private Counter messageInsertionCounter = null;
+	/** set to false on shutdown which releases producers waiting for a free slot */
+	private volatile boolean running = true;
+
+	/**
+	 * Initializes the producer using the provided input
+	 * @param queueId
+	 * @param ringBuffer
+	 * @param waitStrategy
+	 * @param fullQueuePolicy
+	 * @param droppedMessagesCounter
+	 */
+	public RingBufferStreamingMessageQueueProducer(final String queueId, final StreamingDataMessageBuffer ringBuffer, final StreamingMessageQueueWaitStrategy waitStrategy, 
+			final RingBufferFullQueuePolicy fullQueuePolicy, final Counter droppedMessagesCounter) {
+		this.queueId = queueId;
+		this.ringBuffer = ringBuffer;
+		this.waitStrategy = waitStrategy;
+		this.fullQueuePolicy = fullQueuePolicy;
+		this.droppedMessagesCounter = droppedMessagesCounter;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insert(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean insert(StreamingDataMessage message) {
+		if(!offer(message))
+			return false;
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc();
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[])
+	 */
+	public int insertBatch(StreamingDataMessage[] messages) {
+		if(messages == null)
+			return 0;
+		int inserted = 0;
+		for(int i = 0; i < messages.length; i++) {
+			if(offer(messages[i]))
+				inserted++;
+		}
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#insertBatch(java.util.List)
+	 */
+	public int insertBatch(List<StreamingDataMessage> messages) {
+		if(messages == null)
+			return 0;
+		int inserted = 0;
+		for(int i = 0; i < messages.size(); i++) {
+			if(offer(messages.get(i)))
+				inserted++;
+		}
+		if(this.messageInsertionCounter != null)
+			this.messageInsertionCounter.inc(inserted);
+		return inserted;
+	}
+	
+	/**
+	 * Inserts the given {@link StreamingDataMessage} into the ring buffer while applying the {@link RingBufferFullQueuePolicy}
+	 * @param message
+	 * @return
+	 */
+	protected boolean offer(StreamingDataMessage message) {
+		if(message == null)
+			return false;
+		
+		// views are only valid until the next message is retrieved from their origin, thus keep a detached copy
+		message = message.detach();
+		while(!this.ringBuffer.offer(message)) {
+			
+			switch(this.fullQueuePolicy) {
+				case DROP_NEWEST: {
+					this.droppedMessagesCounter.inc();
+					return false;
+				}
+				case DROP_OLDEST: {
+					// make room for the new message - another producer may grab the slot, thus try again
+					if(this.ringBuffer.poll() != null)
+						this.droppedMessagesCounter.inc();
+					break;
+				}
+				default: {
+					if(!this.running || Thread.currentThread().isInterrupted())
+						return false;
+					// wake up consumers which may still be waiting for the messages already inserted
+					this.waitStrategy.forceLockRelease();
+					LockSupport.parkNanos(BLOCKING_PARK_NANOS);
+					break;
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Releases all threads currently waiting for a free slot 
+	 */
+	public void shutdown() {
+		this.running = false;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#getWaitStrategy()
+	 */
+	public StreamingMessageQueueWaitStrategy getWaitStrategy() {
+		return this.waitStrategy;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#setMessageInsertionCounter(com.codahale.metrics.Counter)
+	 */
+	public void setMessageInsertionCounter(Counter counter) {
+		this.messageInsertionCounter = counter;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer#getQueueId()
+	 */
+	public String getQueueId() {
+		return this.queueId;
+	}
+
+	/**
+	 * Returns the policy applied if the ring buffer is full
+	 * @return
+	 */
+	public RingBufferFullQueuePolicy getFullQueuePolicy() {
+		return fullQueuePolicy;
+	}
+
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.ringbuffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+import uk.co.real_logic.queues.OneToOneConcurrentArrayQueue3;
+import uk.co.real_logic.queues.PaddedAtomicLong;
+
+/**
+ * Bounded ring buffer holding {@link StreamingDataMessage} references which are read by multiple {@link Cursor cursors}.
+ * Each cursor keeps a read position of its own, thus every cursor receives all messages. A slot is available for
+ * writing again as soon as all cursors have passed it, which means that the slowest cursor gates the producer. Messages
+ * are neither copied nor removed when being read - a slot keeps its reference until it gets overwritten.<br/><br/>
+ * The ring buffer supports multiple producers as components may share a queue: a producer claims the next position by 
+ * compare-and-set on the tail and publishes the message by writing the position to the sequence of its slot. Cursors read a slot
+ * only after its sequence shows the position they expect, thus a message claimed but not published yet is never handed out.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingDataMessageBroadcastRingBuffer implements StreamingDataMessageBuffer {
+
+	/** number of slots available - always a power of two */
+	private final int capacity;
+	/** mask applied to positions for computing the slot index */
+	private final int mask;
+	/** slots holding the message references */
+	private final StreamingDataMessage[] buffer;
+	/** position last published per slot - tells cursors whether the slot holds the message they expect */
+	private final AtomicLongArray sequences;
+	/** next position to be claimed by a producer - padded to avoid false sharing with the cursor positions */
+	private final AtomicLong tail = new PaddedAtomicLong(0);
+	/** cursors reading from the ring buffer - replaced on registration of a new cursor */
+	private volatile Cursor[] cursors = new Cursor[0];
+	/** position of the slowest cursor as seen by any producer last time - saves scanning all cursors on each insert. As cursors 
+	 * never move backwards, a stale value is still a lower bound which only causes another scan */
+	private volatile long cachedMinPosition = 0;
+	
+	/**
+	 * Initializes the ring buffer using the provided input
+	 * @param capacity requested capacity which is rounded up to the next power of two
+	 */
+	public StreamingDataMessageBroadcastRingBuffer(final int capacity) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+
+		this.capacity = OneToOneConcurrentArrayQueue3.findNextPositivePowerOfTwo(capacity);
+		this.mask = this.capacity - 1;
+		this.buffer = new StreamingDataMessage[this.capacity];
+		this.sequences = new AtomicLongArray(this.capacity);
+		for(int i = 0; i < this.capacity; i++)
+			this.sequences.set(i, -1);
+	}
+	
+	/**
+	 * Registers a new {@link Cursor} which starts reading at the oldest message still held for any other cursor 
+	 * @return
+	 */
+	public synchronized Cursor newCursor() {
+		final Cursor cursor = new Cursor(getMinPosition());
+		final Cursor[] registered = new Cursor[this.cursors.length + 1];
+		System.arraycopy(this.cursors, 0, registered, 0, this.cursors.length);
+		registered[this.cursors.length] = cursor;
+		this.cursors = registered;
+		return cursor;
+	}
+
+	/**
+	 * Inserts the given {@link StreamingDataMessage} into the ring buffer. If the slowest cursor has not 
+	 * read the message occupying the next slot, the method returns <code>false</code> immediately
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#offer(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public boolean offer(final StreamingDataMessage message) {
+		if(message == null)
+			return false;
+		
+		long position = 0;
+		do {
+			position = this.tail.get();
+			if(position - this.cachedMinPosition >= this.capacity) {
+				final long minPosition = getMinPosition();
+				this.cachedMinPosition = minPosition;
+				if(position - minPosition >= this.capacity)
+					return false;
+			}
+			// another producer may have claimed the position in the meantime: try again with the next one
+		} while(!this.tail.compareAndSet(position, position + 1));
+		
+		final int index = (int)position & this.mask;
+		this.buffer[index] = message;
+		// publish the element towards all cursors
+		this.sequences.lazySet(index, position);
+		return true;
+	}
+
+	/**
+	 * Drops the oldest message held by the ring buffer by moving all cursors still pointing to it one position 
+	 * ahead. Applied by producers making room for a new message
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#poll()
+	 */
+	public StreamingDataMessage poll() {
+		final long minPosition = getMinPosition();
+		final int index = (int)minPosition & this.mask;
+		if(this.sequences.get(index) != minPosition)
+			return null;
+		
+		final StreamingDataMessage message = this.buffer[index];
+		for(final Cursor cursor : this.cursors)
+			cursor.position.compareAndSet(minPosition, minPosition + 1);
+		return message;
+	}
+
+	/**
+	 * Returns the number of messages not read by the slowest cursor
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#size()
+	 */
+	public int size() {
+		final long size = this.tail.get() - getMinPosition();
+		if(size < 0)
+			return 0;
+		return (size > this.capacity ? this.capacity : (int)size);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#getCapacity()
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Moves all cursors to the current write position
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#clear()
+	 */
+	public void clear() {
+		for(final Cursor cursor : this.cursors)
+			cursor.clear();
+	}
+	
+	/**
+	 * Returns the number of registered cursors
+	 * @return
+	 */
+	public int getNumOfCursors() {
+		return this.cursors.length;
+	}
+	
+	/**
+	 * Returns the position of the slowest cursor or the next position to be claimed if no cursor is registered
+	 * @return
+	 */
+	protected long getMinPosition() {
+		long minPosition = this.tail.get();
+		for(final Cursor cursor : this.cursors)
+			minPosition = Math.min(minPosition, cursor.position.get());
+		return minPosition;
+	}
+	
+	/**
+	 * Read position on the {@link StreamingDataMessageBroadcastRingBuffer}. Each cursor receives all messages 
+	 * inserted into the ring buffer
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	public class Cursor implements StreamingDataMessageBuffer {
+		
+		/** next position to read from - padded to avoid false sharing with other cursors */
+		private final AtomicLong position;
+		
+		private Cursor(final long position) {
+			this.position = new PaddedAtomicLong(position);
+		}
+		
+		/**
+		 * Inserts the message into the ring buffer the cursor reads from, thus it becomes visible to all cursors
+		 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#offer(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+		 */
+		public boolean offer(final StreamingDataMessage message) {
+			return StreamingDataMessageBroadcastRingBuffer.this.offer(message);
+		}
+
+		/**
+		 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#poll()
+		 */
+		public StreamingDataMessage poll() {
+			while(true) {
+				final long current = this.position.get();
+				final int index = (int)current & mask;
+				final long sequence = sequences.get(index);
+				// the message expected at the current position has not been published so far 
+				if(sequence < current)
+					return null;
+				if(sequence == current) {
+					final StreamingDataMessage message = buffer[index];
+					if(this.position.compareAndSet(current, current + 1))
+						return message;
+				}
+				// the producer may have dropped the message in the meantime: read again from the new position
+			}
+		}
+
+		/**
+		 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#size()
+		 */
+		public int size() {
+			final long size = tail.get() - this.position.get();
+			if(size < 0)
+				return 0;
+			return (size > capacity ? capacity : (int)size);
+		}
+
+		/**
+		 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#getCapacity()
+		 */
+		public int getCapacity() {
+			return capacity;
+		}
+
+		/**
+		 * @see com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBuffer#clear()
+		 */
+		public void clear() {
+			this.position.set(tail.get());
+		}
+	}
+
+}
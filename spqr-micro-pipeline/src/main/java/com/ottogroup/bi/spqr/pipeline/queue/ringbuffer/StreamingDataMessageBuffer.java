@@ -0,0 +1,60 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.ringbuffer;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Bounded buffer holding {@link StreamingDataMessage} references which is accessed by the producer and consumers 
+ * of a {@link RingBufferStreamingMessageQueue}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface StreamingDataMessageBuffer {
+
+	/**
+	 * Inserts the given {@link StreamingDataMessage} into the buffer. If the buffer is full the
+	 * method returns <code>false</code> immediately
+	 * @param message
+	 * @return
+	 */
+	public boolean offer(final StreamingDataMessage message);
+	
+	/**
+	 * Retrieves the next {@link StreamingDataMessage} from the buffer or returns <code>null</code>
+	 * if the buffer is empty
+	 * @return
+	 */
+	public StreamingDataMessage poll();
+	
+	/**
+	 * Returns the number of elements currently held by the buffer
+	 * @return
+	 */
+	public int size();
+	
+	/**
+	 * Returns the max. number of elements the buffer is able to hold
+	 * @return
+	 */
+	public int getCapacity();
+	
+	/**
+	 * Removes all elements from the buffer
+	 */
+	public void clear();
+	
+}
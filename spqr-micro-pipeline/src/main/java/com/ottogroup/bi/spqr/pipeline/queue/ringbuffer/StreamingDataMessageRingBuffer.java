@@ -0,0 +1,173 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.ringbuffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+import uk.co.real_logic.queues.OneToOneConcurrentArrayQueue3;
+import uk.co.real_logic.queues.PaddedAtomicLong;
+
+/**
+ * Bounded, lock-free ring buffer holding {@link StreamingDataMessage} references. The implementation follows
+ * the bounded MPMC queue described by {@link http://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue}:
+ * all slots and their sequence numbers are allocated on instantiation, thus inserting or retrieving elements
+ * does not allocate any memory. Compared to {@link OneToOneConcurrentArrayQueue3} it supports multiple producers
+ * and multiple consumers as components may share a queue on either side. The capacity is always rounded up to the
+ * next power of two.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingDataMessageRingBuffer implements StreamingDataMessageBuffer {
+
+	/** number of slots available - always a power of two */
+	private final int capacity;
+	/** mask applied to positions for computing the slot index */
+	private final int mask;
+	/** slots holding the message references */
+	private final StreamingDataMessage[] buffer;
+	/** sequence number per slot - tells producers and consumers whether the slot is ready to be written or read */
+	private final AtomicLongArray sequences;
+	/** next position to write to - padded to avoid false sharing with the read position */
+	private final AtomicLong tail = new PaddedAtomicLong(0);
+	/** next position to read from - padded to avoid false sharing with the write position */
+	private final AtomicLong head = new PaddedAtomicLong(0);
+
+	/**
+	 * Initializes the ring buffer using the provided input
+	 * @param capacity requested capacity which is rounded up to the next power of two
+	 */
+	public StreamingDataMessageRingBuffer(final int capacity) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+
+		this.capacity = OneToOneConcurrentArrayQueue3.findNextPositivePowerOfTwo(capacity);
+		this.mask = this.capacity - 1;
+		this.buffer = new StreamingDataMessage[this.capacity];
+		this.sequences = new AtomicLongArray(this.capacity);
+		for(int i = 0; i < this.capacity; i++)
+			this.sequences.set(i, i);
+	}
+
+	/**
+	 * Inserts the given {@link StreamingDataMessage} into the ring buffer. If the buffer is full the
+	 * method returns <code>false</code> immediately
+	 * @param message
+	 * @return
+	 */
+	public boolean offer(final StreamingDataMessage message) {
+		if(message == null)
+			return false;
+
+		long position = this.tail.get();
+		int index = 0;
+		while(true) {
+			index = (int)position & this.mask;
+			final long difference = this.sequences.get(index) - position;
+			if(difference == 0) {
+				// slot is free: try to claim it
+				if(this.tail.compareAndSet(position, position + 1))
+					break;
+				position = this.tail.get();
+			} else if(difference < 0) {
+				// slot still occupied by an element one round ago: buffer is full
+				return false;
+			} else {
+				// another producer claimed the slot in the meantime
+				position = this.tail.get();
+			}
+		}
+
+		this.buffer[index] = message;
+		// publish the element towards consumers
+		this.sequences.lazySet(index, position + 1);
+		return true;
+	}
+
+	/**
+	 * Retrieves the next {@link StreamingDataMessage} from the ring buffer or returns <code>null</code>
+	 * if the buffer is empty
+	 * @return
+	 */
+	public StreamingDataMessage poll() {
+
+		long position = this.head.get();
+		int index = 0;
+		while(true) {
+			index = (int)position & this.mask;
+			final long difference = this.sequences.get(index) - (position + 1);
+			if(difference == 0) {
+				// slot is ready to be read: try to claim it
+				if(this.head.compareAndSet(position, position + 1))
+					break;
+				position = this.head.get();
+			} else if(difference < 0) {
+				// slot has not been written so far: buffer is empty
+				return null;
+			} else {
+				// another consumer claimed the slot in the meantime
+				position = this.head.get();
+			}
+		}
+
+		final StreamingDataMessage message = this.buffer[index];
+		this.buffer[index] = null;
+		// release the slot towards producers for the next round
+		this.sequences.lazySet(index, position + this.capacity);
+		return message;
+	}
+
+	/**
+	 * Returns the number of elements currently held by the ring buffer
+	 * @return
+	 */
+	public int size() {
+		// read head first as it never overtakes the tail
+		final long currentHead = this.head.get();
+		final long size = this.tail.get() - currentHead;
+		if(size < 0)
+			return 0;
+		return (size > this.capacity ? this.capacity : (int)size);
+	}
+
+	/**
+	 * Returns true if the ring buffer holds no elements
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all elements from the ring buffer
+	 */
+	public void clear() {
+		while(poll() != null) {
+			// keep on polling
+		}
+	}
+
+	/**
+	 * Returns the capacity which is the next power of two greater or equal to the requested one
+	 * @return
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+}
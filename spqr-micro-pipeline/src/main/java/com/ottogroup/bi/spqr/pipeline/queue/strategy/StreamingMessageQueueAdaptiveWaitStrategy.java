@@ -0,0 +1,293 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.strategy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+
+/**
+ * Implements a wait strategy which adapts the way of waiting to the observed inter-arrival times. Each time a consumer
+ * finds the queue empty, the strategy measures how long it takes for the next message to arrive and keeps a moving average of
+ * these gaps. Depending on that average a waiting consumer starts with<ul>
+ *   <li>{@link WaitMode#SPIN spinning} if messages are expected within {@link #SPIN_THRESHOLD_NANOS} (multi-core hosts only),</li>
+ *   <li>{@link WaitMode#YIELD yielding} if messages are expected within {@link #YIELD_THRESHOLD_NANOS},</li>
+ *   <li>{@link WaitMode#PARK parking} otherwise.</li></ul> 
+ * A consumer escalates from spinning to yielding to parking if no message arrives within the respective threshold. Parking starts 
+ * at {@link #MIN_PARK_NANOS} and doubles with each attempt up to {@link #MAX_PARK_NANOS}. Like the {@link StreamingMessageQueueParkingWaitStrategy} 
+ * a parked consumer is unparked by {@link #forceLockRelease()}. Thus busy pipelines get low latency while quiet ones do not burn a core per
+ * idle component.<br/><br/>
+ * As the strategy implements {@link MetricSet}, the current mode, the average gap and the share of time spent busy waiting are reported
+ * as part of the queue metrics. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingMessageQueueAdaptiveWaitStrategy implements StreamingMessageQueueWaitStrategy, MetricSet {
+
+	public static final String STRATEGY_NAME = "adaptiveWait";
+	
+	/** average gap below which consumers spin */
+	public static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+	/** average gap below which consumers yield */
+	public static final long YIELD_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	/** initial time to park */
+	public static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+	/** max. time to park before checking the queue again */
+	public static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	/** weight of the latest gap when updating the moving average (as power of two: 1/8) */
+	private static final int GAP_SMOOTHING_SHIFT = 3;
+	
+	// names of metrics provided by this strategy
+	public static final String METRIC_MODE = "wait.mode";
+	public static final String METRIC_AVG_GAP = "wait.avgGapNanos";
+	public static final String METRIC_BUSY_NANOS = "wait.busyNanos";
+	public static final String METRIC_CPU_SHARE = "wait.cpuShare";
+	
+	/**
+	 * Modes of waiting - ordered by CPU cost
+	 */
+	public enum WaitMode {
+		SPIN, YIELD, PARK
+	}
+
+	/** spinning is useless if there is no other core to publish messages meanwhile */
+	private final boolean spinningAllowed;
+	/** consumer thread currently parked while waiting for new messages */
+	private final AtomicReference<Thread> waiter = new AtomicReference<>();
+	/** number of consumers inside a timed wait - releases are counted only if there is any */
+	private final AtomicInteger timedWaiters = new AtomicInteger(0);
+	/** number of calls to {@link #forceLockRelease()} while consumers were inside a timed wait */
+	private final AtomicLong releases = new AtomicLong(0);
+	/** moving average of gaps between the consumer finding the queue empty and the next message to arrive */
+	private volatile long avgGapNanos = YIELD_THRESHOLD_NANOS;
+	/** total time consumers spent spinning or yielding */
+	private final AtomicLong busyNanos = new AtomicLong(0);
+	/** values seen on last read of the cpu share metric */
+	private long lastBusyNanos = 0;
+	private long lastCpuShareRead = System.nanoTime();
+
+	/**
+	 * Initializes the strategy. Spinning is allowed only on hosts providing more than one core
+	 */
+	public StreamingMessageQueueAdaptiveWaitStrategy() {
+		this(Runtime.getRuntime().availableProcessors() > 1);
+	}
+	
+	/**
+	 * Initializes the strategy using the provided input
+	 * @param spinningAllowed
+	 */
+	public StreamingMessageQueueAdaptiveWaitStrategy(final boolean spinningAllowed) {
+		this.spinningAllowed = spinningAllowed;
+	}
+	
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer)
+	 */
+	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue) throws InterruptedException {
+		return waitFor(queue, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer, long, java.util.concurrent.TimeUnit)
+	 */
+	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
+		return waitFor(queue, timeoutUnit.toNanos(timeout));
+	}
+	
+	/**
+	 * Waits for the next message. Starts with the mode derived from the average gap and escalates towards parking. Unless
+	 * waiting without timeout ({@link Long#MAX_VALUE}), the wait ends as soon as the strategy gets released 
+	 * @param queue
+	 * @param timeoutNanos
+	 * @return
+	 * @throws InterruptedException
+	 */
+	protected StreamingDataMessage waitFor(final StreamingMessageQueueConsumer queue, final long timeoutNanos) throws InterruptedException {
+		
+		StreamingDataMessage message = queue.next();
+		if(message != null)
+			return message;
+		
+		final boolean timed = (timeoutNanos != Long.MAX_VALUE);
+		if(timed)
+			this.timedWaiters.incrementAndGet();
+		final long release = this.releases.get();
+		final long start = System.nanoTime();
+		final WaitMode initialMode = getMode();
+		long parkNanos = MIN_PARK_NANOS;
+		long busySince = start;
+		long now = start;
+
+		try {
+			while((message = queue.next()) == null) {
+				final long waited = now - start;
+				if(waited >= timeoutNanos || (timed && this.releases.get() != release))
+					return null;
+				
+				if(initialMode == WaitMode.SPIN && waited < SPIN_THRESHOLD_NANOS) {
+					// keep on spinning
+				} else if(initialMode != WaitMode.PARK && waited < YIELD_THRESHOLD_NANOS) {
+					Thread.yield();
+				} else {
+					if(busySince != 0) {
+						this.busyNanos.addAndGet(now - busySince);
+						busySince = 0;
+					}
+					if((message = parkAndRetry(queue, Math.min(parkNanos, timeoutNanos - waited))) != null)
+						break;
+					parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+				}
+				now = System.nanoTime();
+			}
+			now = System.nanoTime();
+		} finally {
+			if(busySince != 0)
+				this.busyNanos.addAndGet(System.nanoTime() - busySince);
+			if(timed)
+				this.timedWaiters.decrementAndGet();
+		}
+		
+		// the gap is recorded for messages only - timeouts would shift the average towards the timeout value 
+		final long gap = now - start;
+		this.avgGapNanos += (gap - this.avgGapNanos) >> GAP_SMOOTHING_SHIFT;
+		return message;
+	}
+	
+	/**
+	 * Registers the current thread as waiter and parks it for the given number of nanoseconds unless a message 
+	 * becomes available meanwhile
+	 * @param queue
+	 * @param nanos
+	 * @return
+	 * @throws InterruptedException
+	 */
+	protected StreamingDataMessage parkAndRetry(final StreamingMessageQueueConsumer queue, final long nanos) throws InterruptedException {
+		
+		if(Thread.interrupted())
+			throw new InterruptedException();
+		final Thread current = Thread.currentThread();
+		final boolean registered = this.waiter.compareAndSet(null, current);
+		try {
+			if(registered) {
+				StreamingDataMessage message = queue.next();
+				if(message != null)
+					return message;
+			}
+			LockSupport.parkNanos(this, nanos);
+		} finally {
+			if(registered)
+				this.waiter.compareAndSet(current, null);
+		}
+		
+		if(Thread.interrupted())
+			throw new InterruptedException();
+		return null;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#forceLockRelease()
+	 */
+	public void forceLockRelease() {
+		if(this.timedWaiters.get() > 0)
+			this.releases.incrementAndGet();
+		final Thread parked = this.waiter.get();
+		if(parked != null)
+			LockSupport.unpark(parked);
+	}
+
+	/**
+	 * Returns the {@link WaitMode} a consumer starts with when finding the queue empty
+	 * @return
+	 */
+	public WaitMode getMode() {
+		final long gap = this.avgGapNanos;
+		if(this.spinningAllowed && gap < SPIN_THRESHOLD_NANOS)
+			return WaitMode.SPIN;
+		if(gap < YIELD_THRESHOLD_NANOS)
+			return WaitMode.YIELD;
+		return WaitMode.PARK;
+	}
+
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		Map<String, Metric> metrics = new HashMap<>();
+		metrics.put(METRIC_MODE, new Gauge<String>() {
+			public String getValue() {
+				return getMode().name();
+			}
+		});
+		metrics.put(METRIC_AVG_GAP, new Gauge<Long>() {
+			public Long getValue() {
+				return avgGapNanos;
+			}
+		});
+		metrics.put(METRIC_BUSY_NANOS, new Gauge<Long>() {
+			public Long getValue() {
+				return busyNanos.get();
+			}
+		});
+		metrics.put(METRIC_CPU_SHARE, new Gauge<Double>() {
+			public Double getValue() {
+				return getCpuShare();
+			}
+		});
+		return metrics;
+	}
+	
+	/**
+	 * Returns the share of time consumers spent spinning or yielding since the previous call - a value of 1.0 
+	 * equals one core being fully occupied
+	 * @return
+	 */
+	public synchronized double getCpuShare() {
+		final long now = System.nanoTime();
+		final long busy = this.busyNanos.get();
+		final long elapsed = now - this.lastCpuShareRead;
+		final double share = (elapsed > 0 ? (double)(busy - this.lastBusyNanos) / (double)elapsed : 0);
+		this.lastBusyNanos = busy;
+		this.lastCpuShareRead = now;
+		return share;
+	}
+
+	/**
+	 * @return the avgGapNanos
+	 */
+	public long getAvgGapNanos() {
+		return avgGapNanos;
+	}
+
+	/**
+	 * Returns the total time consumers spent spinning or yielding
+	 * @return
+	 */
+	public long getBusyNanos() {
+		return busyNanos.get();
+	}
+	
+}
@@ -38,6 +38,8 @@ public class StreamingMessageQueueBlockingWaitStrategy implements StreamingMessa
 
 	private final Lock lock = new ReentrantLock();
 	private final Condition condition = lock.newCondition();
+	/** number of calls to {@link #forceLockRelease()} - timed waits end as soon as it changes */
+	private volatile long releases = 0;
 
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#waitFor(StreamingMessageQueueConsumer))}
@@ -72,6 +74,7 @@ public class StreamingMessageQueueBlockingWaitStrategy implements StreamingMessa
 	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
 	
 		StreamingDataMessage message = null;		
+		final long release = this.releases;
 		if((message = queue.next()) == null) {
 			
 			// acquire lock			
@@ -79,8 +82,12 @@ public class StreamingMessageQueueBlockingWaitStrategy implements StreamingMessa
 			try {				
 				// try to fetch the next element from the queue.
 				// if there is no entry available, wait for external notification (forceLockRelease required)
+				// or give up as soon as the timeout is reached or the lock has been released without a new message
+				long remaining = timeoutUnit.toNanos(timeout);
 				while((message = queue.next()) == null) {
-					condition.await(timeout, timeoutUnit);
+					if(remaining <= 0 || this.releases != release)
+						return null;
+					remaining = condition.awaitNanos(remaining);
 				}
 				
 			} finally {
@@ -100,7 +107,8 @@ public class StreamingMessageQueueBlockingWaitStrategy implements StreamingMessa
 		// acquire lock
 		lock.lock();
 		try {
-			// free all
+			// free all - the counter is modified while holding the lock only
+			this.releases++;
 			condition.signalAll();
 		} finally {
 			// release lock
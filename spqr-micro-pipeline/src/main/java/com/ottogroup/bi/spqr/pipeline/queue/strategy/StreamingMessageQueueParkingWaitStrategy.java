@@ -0,0 +1,135 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.strategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+
+/**
+ * Implements a wait strategy which parks the consumer thread if no message is available and records it as waiter. Compared 
+ * to {@link StreamingMessageQueueBlockingWaitStrategy} producers do not acquire any lock when calling {@link #forceLockRelease()}:
+ * as long as no consumer waits the call costs volatile reads only, otherwise the recorded thread gets unparked.<br/><br/>
+ * The consumer registers itself before checking the queue once more, thus a message inserted meanwhile is not missed. As some
+ * queues publish their content through ordered (lazy) writes, a consumer never parks longer than {@link #MAX_PARK_NANOS} before
+ * checking the queue again. The same applies to additional consumers sharing the strategy while another one is already recorded. 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingMessageQueueParkingWaitStrategy implements StreamingMessageQueueWaitStrategy {
+
+	public static final String STRATEGY_NAME = "parkingWait";
+	
+	/** max. time a consumer stays parked before checking the queue again */
+	public static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	/** consumer thread currently parked while waiting for new messages */
+	private final AtomicReference<Thread> waiter = new AtomicReference<>();
+	/** number of consumers inside a timed wait - releases are counted only if there is any */
+	private final AtomicInteger timedWaiters = new AtomicInteger(0);
+	/** number of calls to {@link #forceLockRelease()} while consumers were inside a timed wait */
+	private final AtomicLong releases = new AtomicLong(0);
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer)
+	 */
+	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue) throws InterruptedException {
+		
+		StreamingDataMessage message = null;
+		while((message = queue.next()) == null) {
+			if((message = parkAndRetry(queue, MAX_PARK_NANOS)) != null)
+				break;
+		}
+		return message;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer, long, java.util.concurrent.TimeUnit)
+	 */
+	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
+
+		StreamingDataMessage message = queue.next();
+		if(message != null)
+			return message;
+		
+		// register as timed waiter before recording the releases: a release issued in between gets counted 
+		this.timedWaiters.incrementAndGet();
+		try {
+			final long release = this.releases.get();
+			final long deadline = System.nanoTime() + timeoutUnit.toNanos(timeout);
+			while((message = queue.next()) == null) {
+				final long remaining = deadline - System.nanoTime();
+				if(remaining <= 0 || this.releases.get() != release)
+					return null;
+				if((message = parkAndRetry(queue, Math.min(remaining, MAX_PARK_NANOS))) != null)
+					break;
+			}
+			return message;
+		} finally {
+			this.timedWaiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Registers the current thread as waiter and checks the queue once more as a producer may have inserted a
+	 * message before noticing the waiter. If the queue is still empty, the thread gets parked.
+	 * @param queue
+	 * @param nanos max. time to park the thread
+	 * @return message retrieved when checking the queue after registration or <code>null</code> if the thread was parked
+	 * @throws InterruptedException
+	 */
+	protected StreamingDataMessage parkAndRetry(final StreamingMessageQueueConsumer queue, final long nanos) throws InterruptedException {
+		
+		if(Thread.interrupted())
+			throw new InterruptedException();
+
+		final Thread current = Thread.currentThread();
+		// another consumer may already be recorded: park for a limited time only
+		final boolean registered = this.waiter.compareAndSet(null, current);
+		try {
+			if(registered) {
+				StreamingDataMessage message = queue.next();
+				if(message != null)
+					return message;
+			}
+			LockSupport.parkNanos(this, nanos);
+		} finally {
+			if(registered)
+				this.waiter.compareAndSet(current, null);
+		}
+		
+		if(Thread.interrupted())
+			throw new InterruptedException();
+		return null;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#forceLockRelease()
+	 */
+	public void forceLockRelease() {
+		if(this.timedWaiters.get() > 0)
+			this.releases.incrementAndGet();
+		final Thread parked = this.waiter.get();
+		if(parked != null)
+			LockSupport.unpark(parked);
+	}
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.queue.strategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.scheduler.MicroPipelineScheduler;
+import com.ottogroup.bi.spqr.pipeline.scheduler.ScheduledRuntimeEnvironmentTask;
+
+/**
+ * Wait strategy for queues whose consumer is executed by the {@link MicroPipelineScheduler} rather than a dedicated thread. 
+ * Instead of waking up a waiting thread, {@link #forceLockRelease()} {@link ScheduledRuntimeEnvironmentTask#signal() signals} 
+ * the task attached to the queue which in turn gets submitted to the shared pool. Consumers that are not able to run as scheduled
+ * task (eg. partitioned or delayed operators sharing a broadcast queue with scheduled ones) block like on the 
+ * {@link StreamingMessageQueueBlockingWaitStrategy} and get woken up as well. To keep the insert path cheap, the strategy
+ * keeps track of the blocked consumers and acquires the lock only if there is at least one waiting.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingMessageQueueScheduledWaitStrategy extends StreamingMessageQueueBlockingWaitStrategy {
+
+	public static final String STRATEGY_NAME = "scheduled";
+	
+	/** tasks executing the consumers of the queue - more than one task is attached to broadcast queues only */
+	private volatile ScheduledRuntimeEnvironmentTask[] scheduledTasks = new ScheduledRuntimeEnvironmentTask[0];
+	/** number of consumers currently blocking inside one of the waitFor methods */
+	private final AtomicInteger waitingConsumers = new AtomicInteger(0);
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer)
+	 */
+	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue) throws InterruptedException {
+		StreamingDataMessage message = queue.next();
+		if(message != null)
+			return message;
+		
+		// register as waiting consumer before re-checking the queue inside the blocking strategy: a producer
+		// inserting in between either sees the registration or the message is found by the re-check
+		this.waitingConsumers.incrementAndGet();
+		try {
+			return super.waitFor(queue);
+		} finally {
+			this.waitingConsumers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer, long, java.util.concurrent.TimeUnit)
+	 */
+	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
+		StreamingDataMessage message = queue.next();
+		if(message != null)
+			return message;
+		
+		this.waitingConsumers.incrementAndGet();
+		try {
+			return super.waitFor(queue, timeout, timeoutUnit);
+		} finally {
+			this.waitingConsumers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy#forceLockRelease()
+	 */
+	public void forceLockRelease() {
+		final ScheduledRuntimeEnvironmentTask[] tasks = this.scheduledTasks;
+		for(int i = 0; i < tasks.length; i++)
+			tasks[i].signal();
+		
+		// wake up consumers blocking on the queue which are not executed by the scheduler
+		if(this.waitingConsumers.get() > 0)
+			super.forceLockRelease();
+	}
+
+	/**
+	 * Attaches a task which gets signalled each time messages are inserted into the queue
+	 * @param scheduledTask
+	 */
+	public synchronized void addScheduledTask(final ScheduledRuntimeEnvironmentTask scheduledTask) {
+		if(scheduledTask == null)
+			return;
+		final ScheduledRuntimeEnvironmentTask[] tasks = new ScheduledRuntimeEnvironmentTask[this.scheduledTasks.length + 1];
+		System.arraycopy(this.scheduledTasks, 0, tasks, 0, this.scheduledTasks.length);
+		tasks[this.scheduledTasks.length] = scheduledTask;
+		this.scheduledTasks = tasks;
+	}
+
+	/**
+	 * Returns the number of attached tasks
+	 * @return
+	 */
+	public int getNumOfScheduledTasks() {
+		return this.scheduledTasks.length;
+	}
+
+	/**
+	 * Returns the number of consumers currently blocking on the strategy
+	 * @return
+	 */
+	public int getNumOfWaitingConsumers() {
+		return this.waitingConsumers.get();
+	}
+	
+}
@@ -17,6 +17,8 @@ package com.ottogroup.bi.spqr.pipeline.queue.strategy;
 
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
 
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
@@ -33,6 +35,10 @@ public class StreamingMessageQueueSleepingWaitStrategy implements StreamingMessa
 	public static final String STRATEGY_NAME = "sleepingWait";
 
 	private final int retries = 200;
+	/** number of consumers inside a timed wait - releases are counted only if there is any */
+	private final AtomicInteger timedWaiters = new AtomicInteger(0);
+	/** number of calls to {@link #forceLockRelease()} while consumers were inside a timed wait */
+	private final AtomicLong releases = new AtomicLong(0);
 	
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer)
@@ -59,26 +65,40 @@ public class StreamingMessageQueueSleepingWaitStrategy implements StreamingMessa
 	 */
 	public StreamingDataMessage waitFor(StreamingMessageQueueConsumer queue, long timeout, TimeUnit timeoutUnit) throws InterruptedException {
 
-		StreamingDataMessage message = null;
-		int counter = retries;
-		while((message = queue.next()) == null) {			
-			if(counter > 100) {
-				--counter;
-			} else if(counter > 0) {
-				--counter;
-				Thread.yield();
-			} else {
-				LockSupport.parkNanos(1l);
-			}			
+		StreamingDataMessage message = queue.next();
+		if(message != null)
+			return message;
+		
+		this.timedWaiters.incrementAndGet();
+		try {
+			int counter = retries;
+			final long release = this.releases.get();
+			final long deadline = System.nanoTime() + timeoutUnit.toNanos(timeout);
+			while((message = queue.next()) == null) {			
+				if(System.nanoTime() - deadline >= 0 || this.releases.get() != release)
+					return null;
+				if(counter > 100) {
+					--counter;
+				} else if(counter > 0) {
+					--counter;
+					Thread.yield();
+				} else {
+					LockSupport.parkNanos(1l);
+				}			
+			}
+			return message;
+		} finally {
+			this.timedWaiters.decrementAndGet();
 		}
-		return message;		
 	}
 
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy#forceLockRelease()
 	 */
 	public void forceLockRelease() {
-		// nothing to do
+		// nothing to wake up - consumers inside a timed wait are told to stop waiting
+		if(this.timedWaiters.get() > 0)
+			this.releases.incrementAndGet();
 	}
 
 }
@@ -38,7 +38,9 @@ public interface StreamingMessageQueueWaitStrategy {
 	
 	/**
 	 * Wait for next element from referenced {@link StreamingMessageQueueConsumer}. If the timeout is 
-	 * reached the result may contain <i>null</i>.
+	 * reached the result may contain <i>null</i>. The same applies if {@link #forceLockRelease()} is called 
+	 * while waiting and the queue is still empty, which allows callers to serve requests issued by other threads
+	 * without waiting for the timeout.
 	 * @param queue
 	 * @param timeout
 	 * @param timeoutUnit
@@ -0,0 +1,156 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import net.openhft.affinity.AffinitySupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.SystemUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Converts cpu lists as found in {@link com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentConfiguration#getCpuAffinity() component 
+ * configurations} into affinity masks and applies them to the current thread. Cpu lists follow the format used by <code>taskset</code> and 
+ * <code>isolcpus</code>: comma separated cpu indices or ranges, eg. <code>2,3</code> or <code>4-7</code>. Pinning is supported on linux hosts 
+ * only and relies on the openHFT affinity library which ships with chronicle 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class CpuAffinity {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(CpuAffinity.class);
+	/** affinity masks are limited to 64 cpus */
+	public static final int MAX_CPUS = 64;
+	
+	/** indicates whether threads may be pinned on this host - evaluated on first request */
+	private static Boolean supported = null;
+	
+	/**
+	 * Parses the given cpu list into an affinity mask. Returns 0 if the list is empty 
+	 * @param cpuList
+	 * @return
+	 * @throws IllegalArgumentException thrown in case the list does not follow the expected format or references unsupported cpus
+	 */
+	public static long parse(final String cpuList) {
+		if(StringUtils.isBlank(cpuList))
+			return 0;
+		
+		long mask = 0;
+		for(final String entry : StringUtils.split(cpuList, ',')) {
+			final String range = StringUtils.trim(entry);
+			if(StringUtils.isEmpty(range))
+				continue;
+			
+			final int separator = range.indexOf('-');
+			final int first = parseCpu(separator < 0 ? range : range.substring(0, separator), cpuList);
+			final int last = (separator < 0 ? first : parseCpu(range.substring(separator + 1), cpuList));
+			if(last < first)
+				throw new IllegalArgumentException("Invalid cpu range '"+range+"' in cpu list '"+cpuList+"'");
+			for(int cpu = first; cpu <= last; cpu++)
+				mask |= (1L << cpu);
+		}
+		return mask;
+	}
+	
+	/**
+	 * Parses a single cpu index
+	 * @param cpu
+	 * @param cpuList
+	 * @return
+	 */
+	protected static int parseCpu(final String cpu, final String cpuList) {
+		final int index;
+		try {
+			index = Integer.parseInt(StringUtils.trim(cpu));
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid cpu '"+cpu+"' in cpu list '"+cpuList+"'");
+		}
+		if(index < 0 || index >= MAX_CPUS)
+			throw new IllegalArgumentException("Unsupported cpu '"+cpu+"' in cpu list '"+cpuList+"'. Valid range: 0-" + (MAX_CPUS - 1));
+		return index;
+	}
+	
+	/**
+	 * Formats the given affinity mask as cpu list, eg. <code>1,4-6</code> 
+	 * @param mask
+	 * @return
+	 */
+	public static String format(final long mask) {
+		StringBuilder cpuList = new StringBuilder();
+		int cpu = 0;
+		while(cpu < MAX_CPUS) {
+			if((mask & (1L << cpu)) == 0) {
+				cpu++;
+				continue;
+			}
+			int last = cpu;
+			while(last + 1 < MAX_CPUS && (mask & (1L << (last + 1))) != 0)
+				last++;
+			if(cpuList.length() > 0)
+				cpuList.append(',');
+			cpuList.append(cpu);
+			if(last > cpu)
+				cpuList.append('-').append(last);
+			cpu = last + 1;
+		}
+		return cpuList.toString();
+	}
+	
+	/**
+	 * Returns true if threads may be pinned on this host which requires linux and a working JNA
+	 * @return
+	 */
+	public static synchronized boolean isSupported() {
+		if(supported == null) {
+			try {
+				supported = SystemUtils.IS_OS_LINUX && AffinitySupport.isJNAAvailable();
+			} catch(Throwable e) {
+				logger.warn("Failed to load affinity support. Reason: " + e.getMessage());
+				supported = Boolean.FALSE;
+			}
+		}
+		return supported;
+	}
+	
+	/**
+	 * Returns the affinity mask of the current thread or 0 if pinning is not supported
+	 * @return
+	 */
+	public static long get() {
+		if(!isSupported())
+			return 0;
+		return AffinitySupport.getAffinity();
+	}
+	
+	/**
+	 * Pins the current thread to the cpus of the given mask
+	 * @param mask
+	 * @return true if the thread has been pinned
+	 */
+	public static boolean set(final long mask) {
+		if(mask == 0 || !isSupported())
+			return false;
+		try {
+			AffinitySupport.setAffinity(mask);
+			return true;
+		} catch(Exception e) {
+			logger.warn("Failed to set cpu affinity [cpus="+format(mask)+"]. Reason: " + e.getMessage());
+			return false;
+		}
+	}
+	
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
+
+/**
+ * Executes {@link SchedulableRuntimeEnvironment runtime environments} on a work-stealing {@link ForkJoinPool} which is 
+ * shared by all {@link com.ottogroup.bi.spqr.pipeline.MicroPipeline micro pipelines} of a processing node. Instead of 
+ * occupying a dedicated thread which waits for incoming messages, each environment becomes a {@link ScheduledRuntimeEnvironmentTask task} 
+ * which is submitted to the pool as soon as its source queue receives messages. The pool is sized to the number of 
+ * available cores by default, thus the number of threads does not grow with the number of components.<br/><br/>
+ * Components are attached to the scheduler by reading from a queue which applies the {@link StreamingMessageQueueScheduledWaitStrategy}.  
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class MicroPipelineScheduler {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(MicroPipelineScheduler.class);
+	/** default number of messages processed by a task before it yields its thread towards other tasks */
+	public static final int DEFAULT_BATCH_SIZE = 64;
+	
+	/** work-stealing pool executing all scheduled tasks */
+	private final ForkJoinPool pool;
+	/** max. number of messages processed per task execution */
+	private final int batchSize;
+	
+	/**
+	 * Initializes the scheduler with a pool sized to the number of available cores
+	 */
+	public MicroPipelineScheduler() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+	}
+	
+	/**
+	 * Initializes the scheduler using the provided input
+	 * @param parallelism number of threads executing scheduled tasks
+	 * @param batchSize max. number of messages processed per task execution
+	 */
+	public MicroPipelineScheduler(final int parallelism, final int batchSize) {
+		if(parallelism < 1)
+			throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+		if(batchSize < 1)
+			throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+		
+		// async mode executes tasks in submission order which gives all components a fair share of the threads
+		this.pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+		this.batchSize = batchSize;
+		
+		if(logger.isDebugEnabled())
+			logger.debug("micro pipeline scheduler init [parallelism="+parallelism+", batchSize="+batchSize+"]");
+	}
+	
+	/**
+	 * Schedules the given {@link SchedulableRuntimeEnvironment} for execution each time the {@link StreamingMessageQueueScheduledWaitStrategy}
+	 * of its source queue gets notified about new messages. The environment is executed once right away to process messages which 
+	 * have been available before
+	 * @param componentId identifier of component executed by the environment
+	 * @param environment
+	 * @param queueWaitStrategy wait strategy of the source queue the environment reads from
+	 * @return
+	 * @throws RequiredInputMissingException
+	 */
+	public ScheduledRuntimeEnvironmentTask schedule(final String componentId, final SchedulableRuntimeEnvironment environment, 
+			final StreamingMessageQueueScheduledWaitStrategy queueWaitStrategy) throws RequiredInputMissingException {
+		
+		/////////////////////////////////////////////////////////////
+		// input validation
+		if(StringUtils.isBlank(componentId))
+			throw new RequiredInputMissingException("Missing required component identifier");
+		if(queueWaitStrategy == null)
+			throw new RequiredInputMissingException("Missing required queue wait strategy");
+		//
+		/////////////////////////////////////////////////////////////
+		
+		ScheduledRuntimeEnvironmentTask task = new ScheduledRuntimeEnvironmentTask(componentId, environment, this.pool, this.batchSize);
+		queueWaitStrategy.addScheduledTask(task);
+		task.signal();
+		
+		if(logger.isDebugEnabled())
+			logger.debug("runtime environment scheduled [component="+componentId+"]");
+		
+		return task;
+	}
+	
+	/**
+	 * Shuts down the scheduler. Tasks already submitted are executed, but no new ones are accepted
+	 */
+	public void shutdown() {
+		this.pool.shutdown();
+	}
+	
+	/**
+	 * Returns the number of threads executing scheduled tasks
+	 * @return
+	 */
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+	/**
+	 * @return the batchSize
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+	
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import org.apache.log4j.Logger;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.ComponentThreadPlacement;
+
+/**
+ * Executes a component runtime environment on a thread named after the processing node, pipeline and component 
+ * (<code>node/pipeline/component</code>). If an affinity mask is provided, the thread is pinned to the referenced cpus 
+ * for as long as the runtime environment is running. As threads are borrowed from a shared executor, the original name 
+ * and affinity are restored as soon as the runtime environment terminates. The resulting placement is recorded with the
+ * {@link ThreadPlacementRegistry}.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class PinnedRuntimeEnvironment implements Runnable {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(PinnedRuntimeEnvironment.class);
+
+	/** identifier of processing node the runtime environment belongs to */
+	private final String processingNodeId;
+	/** identifier of pipeline the runtime environment belongs to */
+	private final String pipelineId;
+	/** identifier of component executed by the runtime environment */
+	private final String componentId;
+	/** runtime environment to execute */
+	private final Runnable runtimeEnvironment;
+	/** cpus to pin the thread to - 0 keeps the current affinity */
+	private final long affinityMask;
+	/** registry to record the placement with */
+	private final ThreadPlacementRegistry placementRegistry;
+	
+	/**
+	 * Initializes the environment using the provided input
+	 * @param processingNodeId
+	 * @param pipelineId
+	 * @param componentId
+	 * @param runtimeEnvironment
+	 * @param affinityMask
+	 * @param placementRegistry
+	 * @throws RequiredInputMissingException
+	 */
+	public PinnedRuntimeEnvironment(final String processingNodeId, final String pipelineId, final String componentId, final Runnable runtimeEnvironment, 
+			final long affinityMask, final ThreadPlacementRegistry placementRegistry) throws RequiredInputMissingException {
+		
+		/////////////////////////////////////////////////////////////
+		// input validation
+		if(runtimeEnvironment == null)
+			throw new RequiredInputMissingException("Missing required runtime environment");
+		if(placementRegistry == null)
+			throw new RequiredInputMissingException("Missing required placement registry");
+		//
+		/////////////////////////////////////////////////////////////
+		
+		this.processingNodeId = processingNodeId;
+		this.pipelineId = pipelineId;
+		this.componentId = componentId;
+		this.runtimeEnvironment = runtimeEnvironment;
+		this.affinityMask = affinityMask;
+		this.placementRegistry = placementRegistry;
+	}
+
+	/**
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+		
+		final Thread thread = Thread.currentThread();
+		final String originalName = thread.getName();
+		final long originalAffinity = CpuAffinity.get();
+		thread.setName(getThreadName());
+		
+		boolean pinned = false;
+		String note = null;
+		if(this.affinityMask != 0) {
+			pinned = CpuAffinity.set(this.affinityMask);
+			if(!pinned) {
+				note = "cpu affinity not supported on this host";
+				logger.warn("Failed to pin runtime environment [node="+processingNodeId+", pipeline="+pipelineId+", component="+componentId+", cpus="+CpuAffinity.format(affinityMask)+"]: " + note);
+			}
+		}
+		
+		final ComponentThreadPlacement placement = new ComponentThreadPlacement(this.pipelineId, this.componentId, thread.getName(), 
+				(this.affinityMask != 0 ? CpuAffinity.format(this.affinityMask) : null), CpuAffinity.format(CpuAffinity.get()), pinned, note);
+		this.placementRegistry.register(placement);
+		
+		if(logger.isDebugEnabled())
+			logger.debug("runtime environment placed [thread="+thread.getName()+", pinned="+pinned+", cpus="+placement.getCpus()+"]");
+		
+		try {
+			this.runtimeEnvironment.run();
+		} finally {
+			this.placementRegistry.unregister(placement);
+			if(pinned && originalAffinity != 0)
+				CpuAffinity.set(originalAffinity);
+			thread.setName(originalName);
+		}
+	}
+	
+	/**
+	 * Returns the name of the thread executing the runtime environment 
+	 * @return
+	 */
+	public String getThreadName() {
+		return this.processingNodeId + "/" + this.pipelineId + "/" + this.componentId;
+	}
+
+	/**
+	 * @return the runtimeEnvironment
+	 */
+	public Runnable getRuntimeEnvironment() {
+		return runtimeEnvironment;
+	}
+
+	/**
+	 * @return the affinityMask
+	 */
+	public long getAffinityMask() {
+		return affinityMask;
+	}
+	
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+/**
+ * Implemented by runtime environments which may be executed by the {@link MicroPipelineScheduler} instead of 
+ * occupying a dedicated thread. Rather than waiting for incoming messages the environment processes all messages 
+ * available right now - up to the given limit - and returns control to the scheduler afterwards
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public interface SchedulableRuntimeEnvironment {
+
+	/**
+	 * Processes messages available from the source queue without waiting for further ones. The method returns
+	 * after the given number of messages has been processed or the source queue has no more messages to offer  
+	 * @param maxNumOfMessages max. number of messages to process before returning
+	 * @return number of messages processed
+	 */
+	public int processMessages(final int maxNumOfMessages);
+	
+	/**
+	 * Returns true if the runtime environment is still running
+	 * @return
+	 */
+	public boolean isRunning();
+	
+}
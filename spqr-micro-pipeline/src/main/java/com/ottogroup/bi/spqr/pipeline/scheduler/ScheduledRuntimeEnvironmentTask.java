@@ -0,0 +1,131 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+
+/**
+ * Task executing a {@link SchedulableRuntimeEnvironment} on a shared {@link Executor}. The task is {@link #signal() signalled} 
+ * each time messages get inserted into the source queue of the environment. It is submitted to the executor on the first 
+ * signal only and remains scheduled until it finds the source queue empty without having received any further signal in the 
+ * meantime. Each execution processes a bounded batch of messages. If the batch gets exhausted the task re-submits itself 
+ * which yields the executor thread towards other tasks waiting for execution.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class ScheduledRuntimeEnvironmentTask implements Runnable {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(ScheduledRuntimeEnvironmentTask.class);
+
+	/** identifier of component executed by this task */
+	private final String componentId;
+	/** runtime environment executed by this task */
+	private final SchedulableRuntimeEnvironment environment;
+	/** executor the task gets submitted to */
+	private final Executor executor;
+	/** max. number of messages processed per execution */
+	private final int batchSize;
+	/** number of signals received since the last execution - a value greater than zero shows that the task is scheduled */
+	private final AtomicInteger signals = new AtomicInteger(0);
+	
+	/**
+	 * Initializes the task using the provided input
+	 * @param componentId
+	 * @param environment
+	 * @param executor
+	 * @param batchSize
+	 * @throws RequiredInputMissingException
+	 */
+	public ScheduledRuntimeEnvironmentTask(final String componentId, final SchedulableRuntimeEnvironment environment, final Executor executor, final int batchSize) throws RequiredInputMissingException {
+		
+		/////////////////////////////////////////////////////////////
+		// input validation
+		if(environment == null)
+			throw new RequiredInputMissingException("Missing required runtime environment");
+		if(executor == null)
+			throw new RequiredInputMissingException("Missing required executor");
+		if(batchSize < 1)
+			throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+		//
+		/////////////////////////////////////////////////////////////
+		
+		this.componentId = componentId;
+		this.environment = environment;
+		this.executor = executor;
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Notifies the task about messages being available from the source queue. The task is submitted
+	 * to the executor unless it is already scheduled
+	 */
+	public void signal() {
+		if(this.signals.getAndIncrement() == 0) {
+			try {
+				this.executor.execute(this);
+			} catch(RejectedExecutionException e) {
+				// the executor has been shut down - messages are left in the source queue
+				logger.error("scheduling rejected [component="+this.componentId+"]: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+		
+		// the task is never scheduled again once the environment has been shut down as the signal count stays above zero
+		if(!this.environment.isRunning())
+			return;
+
+		// signals received after this point may refer to messages which are not covered by the current batch  
+		final int observedSignals = this.signals.get();
+		int processed = 0;
+		try {
+			processed = this.environment.processMessages(this.batchSize);
+		} catch(Exception e) {
+			logger.error("scheduled processing error [component="+this.componentId+"]: " + e.getMessage(), e);
+		}
+
+		// re-submit the task if the batch was exhausted or new messages arrived in the meantime
+		if(processed >= this.batchSize || !this.signals.compareAndSet(observedSignals, 0))
+			this.executor.execute(this);
+	}
+
+	/**
+	 * Returns true if the task is currently scheduled for execution or being executed
+	 * @return
+	 */
+	public boolean isScheduled() {
+		return this.signals.get() > 0;
+	}
+
+	/**
+	 * @return the componentId
+	 */
+	public String getComponentId() {
+		return componentId;
+	}
+	
+}
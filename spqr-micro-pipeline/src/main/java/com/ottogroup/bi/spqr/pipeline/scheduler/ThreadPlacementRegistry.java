@@ -0,0 +1,79 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.ottogroup.bi.spqr.pipeline.ComponentThreadPlacement;
+
+/**
+ * Keeps track of the threads executing component runtime environments on a processing node and the cpus they 
+ * are pinned to. Entries are added as soon as a runtime environment starts and removed as soon as it terminates.
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class ThreadPlacementRegistry {
+
+	/** placements referenced by pipeline and component identifier */
+	private final ConcurrentMap<String, ComponentThreadPlacement> placements = new ConcurrentHashMap<>();
+	
+	/**
+	 * Records the given {@link ComponentThreadPlacement}. An existing entry for the same component gets replaced
+	 * @param placement
+	 */
+	public void register(final ComponentThreadPlacement placement) {
+		if(placement != null)
+			this.placements.put(getKey(placement.getPipelineId(), placement.getComponentId()), placement);
+	}
+	
+	/**
+	 * Removes the given {@link ComponentThreadPlacement} unless it has been replaced meanwhile 
+	 * @param placement
+	 */
+	public void unregister(final ComponentThreadPlacement placement) {
+		if(placement != null)
+			this.placements.remove(getKey(placement.getPipelineId(), placement.getComponentId()), placement);
+	}
+
+	/**
+	 * Returns all placements ordered by pipeline and component identifier
+	 * @return
+	 */
+	public List<ComponentThreadPlacement> getPlacements() {
+		List<ComponentThreadPlacement> result = new ArrayList<>(this.placements.values());
+		Collections.sort(result, new Comparator<ComponentThreadPlacement>() {
+			public int compare(ComponentThreadPlacement o1, ComponentThreadPlacement o2) {
+				return getKey(o1.getPipelineId(), o1.getComponentId()).compareTo(getKey(o2.getPipelineId(), o2.getComponentId()));
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * Returns the key for the given pipeline and component
+	 * @param pipelineId
+	 * @param componentId
+	 * @return
+	 */
+	protected static String getKey(final String pipelineId, final String componentId) {
+		return pipelineId + "/" + componentId;
+	}
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+
+/**
+ * Timer service shared by all time driven {@link com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperatorWaitStrategy wait strategies}
+ * of a processing node. Instead of occupying a dedicated thread which sleeps between two result collections, each strategy 
+ * {@link #schedule(Runnable, long) schedules} its next tick with this service. All ticks are executed by a small pool which
+ * is sized to the number of available cores by default, thus the number of threads does not grow with the number of pipelines.<br/><br/>
+ * As ticks may be delayed by a busy pool, the service reports the time between the scheduled and the actual execution of each 
+ * tick as {@link #METRIC_TICK_LAG lag histogram} (milliseconds). 
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class WaitStrategyTimerService implements MetricSet {
+
+	/** our faithful logging facility ... ;-) */ 
+	private static final Logger logger = Logger.getLogger(WaitStrategyTimerService.class);
+	
+	// names of metrics provided by this service
+	public static final String METRIC_TICK_LAG = "tick.lag";
+	public static final String METRIC_TICKS = "ticks";
+	public static final String METRIC_PENDING_TICKS = "ticks.pending";
+	
+	/** executes all scheduled ticks */
+	private final ScheduledThreadPoolExecutor executor;
+	/** milliseconds passed between scheduled and actual tick execution */
+	private final Histogram tickLag = new Histogram(new ExponentiallyDecayingReservoir());
+	/** number of ticks executed so far */
+	private final Counter ticks = new Counter();
+	
+	/**
+	 * Initializes the service with a pool sized to the number of available cores
+	 */
+	public WaitStrategyTimerService() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Initializes the service using the provided input
+	 * @param numOfThreads number of threads executing scheduled ticks
+	 */
+	public WaitStrategyTimerService(final int numOfThreads) {
+		if(numOfThreads < 1)
+			throw new IllegalArgumentException("Invalid number of threads: " + numOfThreads);
+		
+		this.executor = new ScheduledThreadPoolExecutor(numOfThreads, new ThreadFactory() {
+			private final AtomicInteger threadCount = new AtomicInteger(0);
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "spqr-wait-strategy-timer-" + threadCount.incrementAndGet());
+				// must not keep the node alive 
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		// cancelled ticks are dropped right away rather than waiting for their due date inside the work queue
+		this.executor.setRemoveOnCancelPolicy(true);
+		
+		if(logger.isDebugEnabled())
+			logger.debug("wait strategy timer service init [threads="+numOfThreads+"]");
+	}
+	
+	/**
+	 * Schedules the given task for a single execution after the provided number of milliseconds. Periodic 
+	 * tasks re-schedule themselves which allows them to shift the next tick, eg. after being released early
+	 * @param task
+	 * @param delayMillis
+	 * @return handle to cancel the tick with
+	 * @throws RequiredInputMissingException
+	 */
+	public ScheduledFuture<?> schedule(final Runnable task, final long delayMillis) throws RequiredInputMissingException {
+		if(task == null)
+			throw new RequiredInputMissingException("Missing required task");
+		
+		final long delay = (delayMillis > 0 ? delayMillis : 0);
+		final long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+		return this.executor.schedule(new Runnable() {
+			public void run() {
+				final long lag = System.nanoTime() - due;
+				tickLag.update(lag > 0 ? TimeUnit.NANOSECONDS.toMillis(lag) : 0);
+				ticks.inc();
+				try {
+					task.run();
+				} catch(Exception e) {
+					// an escaping exception would silently cancel all further ticks of that task
+					logger.error("wait strategy tick failed: " + e.getMessage(), e);
+				}
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Shuts down the service. Pending ticks are discarded
+	 */
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+	
+	/**
+	 * Returns true if the service has been shut down
+	 * @return
+	 */
+	public boolean isShutdown() {
+		return this.executor.isShutdown();
+	}
+
+	/**
+	 * @see com.codahale.metrics.MetricSet#getMetrics()
+	 */
+	public Map<String, Metric> getMetrics() {
+		Map<String, Metric> metrics = new HashMap<>();
+		metrics.put(METRIC_TICK_LAG, this.tickLag);
+		metrics.put(METRIC_TICKS, this.ticks);
+		metrics.put(METRIC_PENDING_TICKS, new Gauge<Integer>() {
+			public Integer getValue() {
+				return executor.getQueue().size();
+			}
+		});
+		return metrics;
+	}
+
+	/**
+	 * Returns the histogram holding the tick lag in milliseconds
+	 * @return
+	 */
+	public Histogram getTickLag() {
+		return tickLag;
+	}
+	
+	/**
+	 * Returns the number of ticks executed so far
+	 * @return
+	 */
+	public long getNumOfTicks() {
+		return ticks.getCount();
+	}
+}
@@ -15,32 +15,51 @@
  */
 package com.ottogroup.bi.spqr.pipeline;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
 import com.ottogroup.bi.spqr.exception.QueueInitializationFailedException;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentConfiguration;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
+import com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter;
+import com.ottogroup.bi.spqr.pipeline.component.router.Router;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperator;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseOperatorWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.component.operator.DirectResponseOperator;
+import com.ottogroup.bi.spqr.pipeline.component.operator.HybridResponseWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.component.operator.MessageCountResponseWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.component.operator.TimerBasedResponseWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.component.source.Source;
 import com.ottogroup.bi.spqr.pipeline.exception.UnknownWaitStrategyException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConfiguration;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueWatermark;
 import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
 import com.ottogroup.bi.spqr.repository.ComponentRepository;
 import com.ottogroup.bi.spqr.repository.exception.ComponentInstantiationFailedException;
 import com.ottogroup.bi.spqr.repository.exception.UnknownComponentException;
@@ -398,6 +417,469 @@ public class MicroPipelineFactoryTest {
 		Assert.assertEquals("The classes must be equal", DefaultStreamingMessageQueue.class, queue.getClass());
 	}
 
+	/**
+	 * Test case for {@link MicroPipelineFactory#initializeQueue(StreamingMessageQueueConfiguration)} being
+	 * provided valid input to receive {@link RingBufferStreamingMessageQueue}.
+	 */
+	@Test
+	public void testInitializeQueue_withValidSettingsForRingBufferQueue() throws RequiredInputMissingException, QueueInitializationFailedException {
+		Properties props = new Properties();
+		props.put(StreamingMessageQueue.CFG_QUEUE_TYPE, RingBufferStreamingMessageQueue.CFG_QUEUE_TYPE);
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_RING_BUFFER_CAPACITY, "100");
+		StreamingMessageQueueConfiguration cfg = new StreamingMessageQueueConfiguration();
+		cfg.setProperties(props);
+		cfg.setId("testInitializeQueue_withValidSettingsForRingBufferQueue");
+		StreamingMessageQueue queue = new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).initializeQueue(cfg);
+		Assert.assertNotNull("The queue instance must not be null", queue);
+		Assert.assertEquals("The classes must be equal", RingBufferStreamingMessageQueue.class, queue.getClass());
+		Assert.assertEquals("The capacity must be rounded up to the next power of two", 128, ((RingBufferStreamingMessageQueue)queue).getCapacity());
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////
+	// @see MicroPipelineFactory#getQueueWatermark
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#getQueueWatermark(StreamingMessageQueueConfiguration, StreamingMessageQueue)} being 
+	 * provided a configuration without high watermark which must lead to null
+	 */
+	@Test
+	public void testGetQueueWatermark_withoutHighWatermark() throws Exception {
+		StreamingMessageQueueConfiguration queueCfg = new StreamingMessageQueueConfiguration("queue");
+		queueCfg.setProperties(new Properties());
+		Assert.assertNull("No watermark expected", new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getQueueWatermark(queueCfg, Mockito.mock(StreamingMessageQueue.class)));
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getQueueWatermark(StreamingMessageQueueConfiguration, StreamingMessageQueue)} being 
+	 * provided a high watermark only. The low watermark must default to half of it
+	 */
+	@Test
+	public void testGetQueueWatermark_withHighWatermarkOnly() throws Exception {
+		StreamingMessageQueueConfiguration queueCfg = new StreamingMessageQueueConfiguration("queue");
+		queueCfg.setProperties(new Properties());
+		queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_HIGH_WATERMARK, "1000");
+		StreamingMessageQueueWatermark watermark = new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getQueueWatermark(queueCfg, Mockito.mock(StreamingMessageQueue.class));
+		Assert.assertEquals("Values must be equal", 1000, watermark.getHighWatermark());
+		Assert.assertEquals("Values must be equal", 500, watermark.getLowWatermark());
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getQueueWatermark(StreamingMessageQueueConfiguration, StreamingMessageQueue)} being 
+	 * provided a low watermark exceeding the high watermark which must lead to an exception
+	 */
+	@Test
+	public void testGetQueueWatermark_withLowWatermarkAboveHighWatermark() throws Exception {
+		StreamingMessageQueueConfiguration queueCfg = new StreamingMessageQueueConfiguration("queue");
+		queueCfg.setProperties(new Properties());
+		queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_HIGH_WATERMARK, "1000");
+		queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_LOW_WATERMARK, "1000");
+		try {
+			new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getQueueWatermark(queueCfg, Mockito.mock(StreamingMessageQueue.class));
+			Assert.fail("Invalid input");
+		} catch(IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////
+	// @see MicroPipelineFactory#getDownstreamQueueWatermarks
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#getDownstreamQueueWatermarks(MicroPipelineConfiguration, String, Map)} being 
+	 * provided a chain of source, two operators and emitter. The watermarks of all queues following the given one must be returned
+	 */
+	@Test
+	public void testGetDownstreamQueueWatermarks_withOperatorChain() throws Exception {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(false);
+		StreamingMessageQueueWatermark first = new StreamingMessageQueueWatermark(Mockito.mock(StreamingMessageQueue.class), 10, 5);
+		StreamingMessageQueueWatermark last = new StreamingMessageQueueWatermark(Mockito.mock(StreamingMessageQueue.class), 10, 5);
+		Map<String, StreamingMessageQueueWatermark> queueWatermarks = new HashMap<>();
+		queueWatermarks.put("source-to-operator-1", first);
+		queueWatermarks.put("operator-2-to-emitter", last);
+		
+		MicroPipelineFactory factory = new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class));
+		List<StreamingMessageQueueWatermark> watermarks = factory.getDownstreamQueueWatermarks(cfg, "source-to-operator-1", queueWatermarks);
+		Assert.assertEquals("Expected two watermarks", 2, watermarks.size());
+		Assert.assertTrue("Expected watermark of first queue", watermarks.contains(first));
+		Assert.assertTrue("Expected watermark of last queue", watermarks.contains(last));
+		
+		watermarks = factory.getDownstreamQueueWatermarks(cfg, "operator-1-to-operator-2", queueWatermarks);
+		Assert.assertEquals("Expected one watermark", 1, watermarks.size());
+		Assert.assertTrue("Expected watermark of last queue", watermarks.contains(last));
+	}
+
+	//////////////////////////////////////////////////////////////////////////////////////////////////////////
+	// @see MicroPipelineFactory#getFusedQueues
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#getFusedQueues(MicroPipelineConfiguration)} being provided null 
+	 * which must lead to an empty result
+	 */
+	@Test
+	public void testGetFusedQueues_withNullInput() {
+		Assert.assertTrue("The result must be empty", new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getFusedQueues(null).isEmpty());
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getFusedQueues(MicroPipelineConfiguration)} being provided a chain
+	 * of source, two operators and emitter where fusion is requested for all queues. Only the queue connecting
+	 * both operators must be returned
+	 */
+	@Test
+	public void testGetFusedQueues_withFusionRequestedForAllQueues() {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(true);
+		Set<String> fusedQueues = new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getFusedQueues(cfg);
+		Assert.assertEquals("The result must contain a single queue", 1, fusedQueues.size());
+		Assert.assertTrue("The result must contain the queue connecting both operators", fusedQueues.contains("operator-1-to-operator-2"));
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getFusedQueues(MicroPipelineConfiguration)} being provided a chain
+	 * of source, two operators and emitter where fusion is not requested. The result must be empty
+	 */
+	@Test
+	public void testGetFusedQueues_withoutFusionRequested() {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(false);
+		Assert.assertTrue("The result must be empty", new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getFusedQueues(cfg).isEmpty());
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getFusedQueues(MicroPipelineConfiguration)} being provided a chain
+	 * of operators where the queue connecting both operators is read by an additional emitter. The result must be empty
+	 */
+	@Test
+	public void testGetFusedQueues_withAdditionalReader() {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(true);
+		cfg.getComponents().add(getComponentConfiguration("emitter-2", MicroPipelineComponentType.EMITTER, "operator-1-to-operator-2", null));
+		Assert.assertTrue("The result must be empty", new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getFusedQueues(cfg).isEmpty());
+	}
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#getFusedQueues(MicroPipelineConfiguration)} being provided a chain
+	 * of operators where the first one requests parallel execution. The result must be empty
+	 */
+	@Test
+	public void testGetFusedQueues_withParallelOperator() {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(true);
+		cfg.getComponents().get(1).setParallelism(2);
+		Assert.assertTrue("The result must be empty", new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getFusedQueues(cfg).isEmpty());
+	}
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#getFusedQueues(MicroPipelineConfiguration)} being provided a chain
+	 * of operators where a router writes to the queue connecting both operators as well. The result must be empty
+	 */
+	@Test
+	public void testGetFusedQueues_withAdditionalRouterWriter() {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(true);
+		MicroPipelineComponentConfiguration routerCfg = getComponentConfiguration("router", MicroPipelineComponentType.ROUTER, "source-to-operator-1", null);
+		routerCfg.getToQueues().put("route", "operator-1-to-operator-2");
+		cfg.getComponents().add(routerCfg);
+		Assert.assertTrue("The result must be empty", new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getFusedQueues(cfg).isEmpty());
+	}
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#instantiatePipeline(MicroPipelineConfiguration, ExecutorService)} being provided a chain
+	 * of source, two operators and emitter where the first operator requests parallel execution by three instances
+	 */
+	@Test
+	public void testInstantiatePipeline_withParallelOperator() throws Exception {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(false);
+		for(StreamingMessageQueueConfiguration queueCfg : cfg.getQueues())
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE);
+		cfg.getComponents().get(1).setParallelism(3);
+		cfg.getComponents().get(1).setPartitionKey("user.id");
+		cfg.getComponents().get(1).setOrderedMerge(true);
+		
+		ComponentRepository repo = getComponentRepository(cfg);
+		MicroPipeline pipeline = new MicroPipelineFactory("id", repo).instantiatePipeline(cfg, executorService);
+		try {
+			Assert.assertEquals("The pipeline must hold a single direct response operator runtime environment", 1, pipeline.getDirectResponseOperators().size());
+			Assert.assertTrue("The environment must belong to the second operator", pipeline.getDirectResponseOperators().containsKey("operator-2"));
+			Assert.assertEquals("The pipeline must hold a single partitioned operator runtime environment", 1, pipeline.getPartitionedDirectResponseOperators().size());
+			Assert.assertEquals("The environment must execute three operator instances", 3, pipeline.getPartitionedDirectResponseOperators().get("operator-1").getNumOfPartitions());
+			Assert.assertTrue("The environment must merge ordered", pipeline.getPartitionedDirectResponseOperators().get("operator-1").isOrderedMerge());
+			Mockito.verify(repo, Mockito.times(3)).newInstance("operator-1", "operator-1", "0.0.1", cfg.getComponents().get(1).getSettings());
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#getThreadPlacements()} after a pipeline holding a parallel operator has been instantiated. The 
+	 * placements must cover the thread executing the source itself as well as the partition and merge threads of the operator  
+	 */
+	@Test
+	public void testGetThreadPlacements_withSourceAndParallelOperator() throws Exception {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(false);
+		for(StreamingMessageQueueConfiguration queueCfg : cfg.getQueues())
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE);
+		cfg.getComponents().get(1).setParallelism(2);
+		cfg.getComponents().get(1).setOrderedMerge(true);
+		
+		ComponentRepository repo = getComponentRepository(cfg);
+		Source source = (Source)repo.newInstance("source", "source", "0.0.1", cfg.getComponents().get(0).getSettings());
+		// keep the source running until its executor gets shut down
+		Mockito.doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				try {
+					Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+				} catch(InterruptedException e) {
+					// shut down
+				}
+				return null;
+			}
+		}).when(source).run();
+		
+		MicroPipelineFactory factory = new MicroPipelineFactory("id", repo);
+		MicroPipeline pipeline = factory.instantiatePipeline(cfg, executorService);
+		try {
+			final Set<String> expectedComponents = new HashSet<>(Arrays.asList("source", "operator-1", "operator-1/partition-0", "operator-1/partition-1", "operator-1/merge"));
+			Set<String> placedComponents = new HashSet<>();
+			long timeout = System.currentTimeMillis() + 5000;
+			while(!placedComponents.containsAll(expectedComponents) && System.currentTimeMillis() < timeout) {
+				Thread.sleep(1);
+				placedComponents.clear();
+				for(ComponentThreadPlacement placement : factory.getThreadPlacements())
+					placedComponents.add(placement.getComponentId());
+			}
+			Assert.assertTrue("Missing placements: " + placedComponents, placedComponents.containsAll(expectedComponents));
+			for(ComponentThreadPlacement placement : factory.getThreadPlacements())
+				if(placement.getComponentId().equals("source"))
+					Assert.assertEquals("Values must be equal", "id/pipeline/source", placement.getThreadName());
+		} finally {
+			pipeline.shutdown();
+			factory.shutdown();
+		}
+	}
+
+	/**
+	 * Test case for {@link MicroPipelineFactory#instantiatePipeline(MicroPipelineConfiguration, ExecutorService)} being provided a chain
+	 * of source, two operators and emitter where the operators must be fused into a single runtime environment
+	 */
+	@Test
+	public void testInstantiatePipeline_withFusedOperators() throws Exception {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(true);
+		for(StreamingMessageQueueConfiguration queueCfg : cfg.getQueues())
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE);
+		
+		MicroPipeline pipeline = new MicroPipelineFactory("id", getComponentRepository(cfg)).instantiatePipeline(cfg, executorService);
+		try {
+			Assert.assertEquals("The pipeline must hold a single operator runtime environment", 1, pipeline.getDirectResponseOperators().size());
+			Assert.assertTrue("The environment must belong to the first operator", pipeline.getDirectResponseOperators().containsKey("operator-1"));
+			Assert.assertEquals("The environment must execute both operators", 2, pipeline.getDirectResponseOperators().get("operator-1").getNumOfOperators());
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#instantiatePipeline(MicroPipelineConfiguration, ExecutorService)} being provided a chain
+	 * of source, two operators and emitter where all queues apply the scheduled wait strategy. Operators and emitter must be executed
+	 * by the scheduler and process the messages produced by the source 
+	 */
+	@Test
+	public void testInstantiatePipeline_withScheduledWaitStrategy() throws Exception {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(false);
+		for(StreamingMessageQueueConfiguration queueCfg : cfg.getQueues()) {
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE);
+			queueCfg.getProperties().setProperty(InMemoryStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME);
+		}
+		
+		ComponentRepository repo = getComponentRepository(cfg);
+		DirectResponseOperator operator1 = (DirectResponseOperator)repo.newInstance("operator-1", "operator-1", "0.0.1", cfg.getComponents().get(1).getSettings());
+		DirectResponseOperator operator2 = (DirectResponseOperator)repo.newInstance("operator-2", "operator-2", "0.0.1", cfg.getComponents().get(2).getSettings());
+		Emitter emitter = (Emitter)repo.newInstance("emitter", "emitter", "0.0.1", cfg.getComponents().get(3).getSettings());
+		StreamingDataMessage message = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		Mockito.when(operator1.onMessage(message)).thenReturn(new StreamingDataMessage[]{message});
+		Mockito.when(operator2.onMessage(message)).thenReturn(new StreamingDataMessage[]{message});
+		
+		MicroPipelineFactory factory = new MicroPipelineFactory("id", repo);
+		MicroPipeline pipeline = factory.instantiatePipeline(cfg, executorService);
+		try {
+			StreamingMessageQueue sourceQueue = pipeline.getQueue("source-to-operator-1");
+			Assert.assertEquals("The operator must be attached to the scheduler", 1, ((StreamingMessageQueueScheduledWaitStrategy)sourceQueue.getProducer().getWaitStrategy()).getNumOfScheduledTasks());
+			Assert.assertEquals("The emitter must be attached to the scheduler", 1,
+					((StreamingMessageQueueScheduledWaitStrategy)pipeline.getQueue("operator-2-to-emitter").getProducer().getWaitStrategy()).getNumOfScheduledTasks());
+			
+			sourceQueue.getProducer().insert(message);
+			sourceQueue.getProducer().getWaitStrategy().forceLockRelease();
+			Mockito.verify(emitter, Mockito.timeout(5000)).onMessage(message);
+		} finally {
+			pipeline.shutdown();
+			factory.shutdown();
+		}
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#instantiatePipeline(MicroPipelineConfiguration, ExecutorService)} being provided a
+	 * pipeline where two emitters read from the same broadcast queue. Both emitters must receive all messages
+	 */
+	@Test
+	public void testInstantiatePipeline_withBroadcastQueue() throws Exception {
+		MicroPipelineConfiguration cfg = getOperatorChainConfiguration(false);
+		for(StreamingMessageQueueConfiguration queueCfg : cfg.getQueues()) {
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE);
+			queueCfg.getProperties().setProperty(InMemoryStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME);
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_BROADCAST, "true");
+		}
+		cfg.getComponents().add(getComponentConfiguration("emitter-2", MicroPipelineComponentType.EMITTER, "operator-2-to-emitter", null));
+		
+		ComponentRepository repo = getComponentRepository(cfg);
+		DirectResponseOperator operator1 = (DirectResponseOperator)repo.newInstance("operator-1", "operator-1", "0.0.1", cfg.getComponents().get(1).getSettings());
+		DirectResponseOperator operator2 = (DirectResponseOperator)repo.newInstance("operator-2", "operator-2", "0.0.1", cfg.getComponents().get(2).getSettings());
+		Emitter emitter1 = (Emitter)repo.newInstance("emitter", "emitter", "0.0.1", cfg.getComponents().get(3).getSettings());
+		Emitter emitter2 = (Emitter)repo.newInstance("emitter-2", "emitter-2", "0.0.1", cfg.getComponents().get(4).getSettings());
+		StreamingDataMessage message = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		Mockito.when(operator1.onMessage(message)).thenReturn(new StreamingDataMessage[]{message});
+		Mockito.when(operator2.onMessage(message)).thenReturn(new StreamingDataMessage[]{message});
+		
+		MicroPipelineFactory factory = new MicroPipelineFactory("id", repo);
+		MicroPipeline pipeline = factory.instantiatePipeline(cfg, executorService);
+		try {
+			StreamingMessageQueue emitterQueue = pipeline.getQueue("operator-2-to-emitter");
+			Assert.assertNotSame("The emitters must not share a consumer", emitterQueue.getConsumer("emitter"), emitterQueue.getConsumer("emitter-2"));
+			Assert.assertEquals("Both emitters must be attached to the scheduler", 2, 
+					((StreamingMessageQueueScheduledWaitStrategy)emitterQueue.getProducer().getWaitStrategy()).getNumOfScheduledTasks());
+			
+			StreamingMessageQueue sourceQueue = pipeline.getQueue("source-to-operator-1");
+			sourceQueue.getProducer().insert(message);
+			sourceQueue.getProducer().getWaitStrategy().forceLockRelease();
+			Mockito.verify(emitter1, Mockito.timeout(5000)).onMessage(message);
+			Mockito.verify(emitter2, Mockito.timeout(5000)).onMessage(message);
+		} finally {
+			pipeline.shutdown();
+			factory.shutdown();
+		}
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#instantiatePipeline(MicroPipelineConfiguration, ExecutorService)} being provided a
+	 * pipeline where a router distributes the messages of a source among two emitters and writes unmatched messages to a third one 
+	 */
+	@Test
+	public void testInstantiatePipeline_withRouter() throws Exception {
+		MicroPipelineConfiguration cfg = new MicroPipelineConfiguration();
+		cfg.setId("pipeline");
+		for(String queueId : new String[]{"source-to-router", "router-to-emitter-1", "router-to-emitter-2", "router-to-unmatched"}) {
+			StreamingMessageQueueConfiguration queueCfg = new StreamingMessageQueueConfiguration(queueId);
+			queueCfg.setProperties(new Properties());
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_TYPE, InMemoryStreamingMessageQueue.CFG_QUEUE_TYPE);
+			queueCfg.getProperties().setProperty(InMemoryStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME);
+			cfg.getQueues().add(queueCfg);
+		}
+		cfg.getComponents().add(getComponentConfiguration("source", MicroPipelineComponentType.SOURCE, null, "source-to-router"));
+		MicroPipelineComponentConfiguration routerCfg = getComponentConfiguration("router", MicroPipelineComponentType.ROUTER, "source-to-router", "router-to-unmatched");
+		routerCfg.getToQueues().put("route-1", "router-to-emitter-1");
+		routerCfg.getToQueues().put("route-2", "router-to-emitter-2");
+		cfg.getComponents().add(routerCfg);
+		cfg.getComponents().add(getComponentConfiguration("emitter-1", MicroPipelineComponentType.EMITTER, "router-to-emitter-1", null));
+		cfg.getComponents().add(getComponentConfiguration("emitter-2", MicroPipelineComponentType.EMITTER, "router-to-emitter-2", null));
+		cfg.getComponents().add(getComponentConfiguration("unmatched", MicroPipelineComponentType.EMITTER, "router-to-unmatched", null));
+		
+		ComponentRepository repo = getComponentRepository(cfg);
+		Router router = (Router)repo.newInstance("router", "router", "0.0.1", routerCfg.getSettings());
+		Emitter emitter1 = (Emitter)repo.newInstance("emitter-1", "emitter-1", "0.0.1", cfg.getComponents().get(2).getSettings());
+		Emitter emitter2 = (Emitter)repo.newInstance("emitter-2", "emitter-2", "0.0.1", cfg.getComponents().get(3).getSettings());
+		Emitter unmatched = (Emitter)repo.newInstance("unmatched", "unmatched", "0.0.1", cfg.getComponents().get(4).getSettings());
+		StreamingDataMessage bothRoutes = new StreamingDataMessage("both".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage secondRoute = new StreamingDataMessage("second".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage noRoute = new StreamingDataMessage("none".getBytes(), System.currentTimeMillis());
+		Mockito.when(router.getRoutes()).thenReturn(new String[]{"route-1", "route-2"});
+		Mockito.when(router.route(bothRoutes)).thenReturn(3L);
+		Mockito.when(router.route(secondRoute)).thenReturn(2L);
+		Mockito.when(router.route(noRoute)).thenReturn(Router.NO_ROUTE);
+		
+		MicroPipelineFactory factory = new MicroPipelineFactory("id", repo);
+		MicroPipeline pipeline = factory.instantiatePipeline(cfg, executorService);
+		try {
+			Assert.assertEquals("The pipeline must hold a single router runtime environment", 1, pipeline.getRouters().size());
+			Assert.assertEquals("The router must write to three destinations", 3, pipeline.getRouters().get("router").getNumOfDestinations());
+			
+			StreamingMessageQueue sourceQueue = pipeline.getQueue("source-to-router");
+			sourceQueue.getProducer().insert(bothRoutes);
+			sourceQueue.getProducer().insert(secondRoute);
+			sourceQueue.getProducer().insert(noRoute);
+			sourceQueue.getProducer().getWaitStrategy().forceLockRelease();
+			Mockito.verify(emitter1, Mockito.timeout(5000)).onMessage(bothRoutes);
+			Mockito.verify(emitter2, Mockito.timeout(5000)).onMessage(bothRoutes);
+			Mockito.verify(emitter2, Mockito.timeout(5000)).onMessage(secondRoute);
+			Mockito.verify(unmatched, Mockito.timeout(5000)).onMessage(noRoute);
+			Mockito.verify(emitter1, Mockito.never()).onMessage(secondRoute);
+			Mockito.verify(emitter1, Mockito.never()).onMessage(noRoute);
+			Mockito.verify(unmatched, Mockito.never()).onMessage(bothRoutes);
+			Mockito.verify(router, Mockito.times(1)).route(bothRoutes);
+		} finally {
+			pipeline.shutdown();
+			factory.shutdown();
+		}
+	}
+	
+	/**
+	 * Returns a component repository providing mocked components for all configured ones 
+	 * @param cfg
+	 * @return
+	 * @throws Exception
+	 */
+	private ComponentRepository getComponentRepository(final MicroPipelineConfiguration cfg) throws Exception {
+		ComponentRepository repo = Mockito.mock(ComponentRepository.class);
+		for(MicroPipelineComponentConfiguration componentCfg : cfg.getComponents()) {
+			componentCfg.setName(componentCfg.getId());
+			componentCfg.setVersion("0.0.1");
+			MicroPipelineComponent component = null;
+			if(componentCfg.getType() == MicroPipelineComponentType.SOURCE)
+				component = Mockito.mock(Source.class);
+			else if(componentCfg.getType() == MicroPipelineComponentType.EMITTER)
+				component = Mockito.mock(Emitter.class);
+			else if(componentCfg.getType() == MicroPipelineComponentType.ROUTER)
+				component = Mockito.mock(Router.class);
+			else
+				component = Mockito.mock(DirectResponseOperator.class);
+			Mockito.when(component.getId()).thenReturn(componentCfg.getId());
+			Mockito.when(component.getType()).thenReturn(componentCfg.getType());
+			Mockito.when(repo.newInstance(componentCfg.getId(), componentCfg.getName(), componentCfg.getVersion(), componentCfg.getSettings())).thenReturn(component);
+		}
+		return repo;
+	}
+	
+	/**
+	 * Returns the configuration of a pipeline: source -> operator-1 -> operator-2 -> emitter
+	 * @param fuseOperators
+	 * @return
+	 */
+	private MicroPipelineConfiguration getOperatorChainConfiguration(final boolean fuseOperators) {
+		MicroPipelineConfiguration cfg = new MicroPipelineConfiguration();
+		cfg.setId("pipeline");
+		for(String queueId : new String[]{"source-to-operator-1", "operator-1-to-operator-2", "operator-2-to-emitter"}) {
+			StreamingMessageQueueConfiguration queueCfg = new StreamingMessageQueueConfiguration(queueId);
+			queueCfg.setProperties(new Properties());
+			queueCfg.getProperties().setProperty(StreamingMessageQueue.CFG_QUEUE_FUSE_OPERATORS, String.valueOf(fuseOperators));
+			cfg.getQueues().add(queueCfg);
+		}
+		cfg.getComponents().add(getComponentConfiguration("source", MicroPipelineComponentType.SOURCE, null, "source-to-operator-1"));
+		cfg.getComponents().add(getComponentConfiguration("operator-1", MicroPipelineComponentType.DIRECT_RESPONSE_OPERATOR, "source-to-operator-1", "operator-1-to-operator-2"));
+		cfg.getComponents().add(getComponentConfiguration("operator-2", MicroPipelineComponentType.DIRECT_RESPONSE_OPERATOR, "operator-1-to-operator-2", "operator-2-to-emitter"));
+		cfg.getComponents().add(getComponentConfiguration("emitter", MicroPipelineComponentType.EMITTER, "operator-2-to-emitter", null));
+		return cfg;
+	}
+	
+	/**
+	 * Returns a component configuration 
+	 * @param id
+	 * @param type
+	 * @param fromQueue
+	 * @param toQueue
+	 * @return
+	 */
+	private MicroPipelineComponentConfiguration getComponentConfiguration(final String id, final MicroPipelineComponentType type, final String fromQueue, final String toQueue) {
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.setId(id);
+		cfg.setType(type);
+		cfg.setFromQueue(fromQueue);
+		cfg.setToQueue(toQueue);
+		return cfg;
+	}
+
 	//////////////////////////////////////////////////////////////////////////////////////////////////////////
 	// @see MicroPipelineFactory#initializeComponent
 
@@ -1051,6 +1533,79 @@ public class MicroPipelineFactoryTest {
 		Assert.assertEquals("Types must be equal", MessageCountResponseWaitStrategy.class, strategy.getClass());
 	}
 	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getResponseWaitStrategy(MicroPipelineComponentConfiguration)} being provided
+	 * a configuration that names the timer based strategy which must be driven by the timer service shared by the factory 
+	 */
+	@Test
+	public void testGetResponseWaitStrategy_withTimerBasedStrategy() throws RequiredInputMissingException, UnknownWaitStrategyException {
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.getSettings().put(DelayedResponseOperator.CFG_WAIT_STRATEGY_NAME, TimerBasedResponseWaitStrategy.WAIT_STRATEGY_NAME);
+		MicroPipelineFactory factory = new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class));
+		TimerBasedResponseWaitStrategy first = (TimerBasedResponseWaitStrategy)factory.getResponseWaitStrategy(cfg);
+		TimerBasedResponseWaitStrategy second = (TimerBasedResponseWaitStrategy)factory.getResponseWaitStrategy(cfg);
+		Assert.assertNotNull("The timer service must not be null", first.getTimerService());
+		Assert.assertSame("Timer service must be shared", first.getTimerService(), second.getTimerService());
+		
+		factory.shutdown();
+		Assert.assertTrue("Timer service must be shut down", first.getTimerService().isShutdown());
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getResponseWaitStrategy(MicroPipelineComponentConfiguration)} being provided
+	 * a configuration that names the hybrid strategy 
+	 */
+	@Test
+	public void testGetResponseWaitStrategy_withHybridStrategy() throws RequiredInputMissingException, UnknownWaitStrategyException {
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.getSettings().put(DelayedResponseOperator.CFG_WAIT_STRATEGY_NAME, HybridResponseWaitStrategy.WAIT_STRATEGY_NAME);
+		cfg.getSettings().put(DelayedResponseOperator.CFG_WAIT_STRATEGY_SETTINGS_PREFIX + HybridResponseWaitStrategy.CFG_MAX_MESSAGES, "25");
+		MicroPipelineFactory factory = new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class));
+		DelayedResponseOperatorWaitStrategy strategy = factory.getResponseWaitStrategy(cfg);
+		Assert.assertEquals("Types must be equal", HybridResponseWaitStrategy.class, strategy.getClass());
+		Assert.assertEquals("Values must be equal", 25, ((HybridResponseWaitStrategy)strategy).getCurrentMaxMessages());
+		Assert.assertNotNull("The timer service must not be null", ((HybridResponseWaitStrategy)strategy).getTimerService());
+		factory.shutdown();
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getErrorHandler(MicroPipeline, String, MicroPipelineComponentConfiguration, com.ottogroup.bi.spqr.metrics.MetricsHandler)} 
+	 * being provided a configuration referencing an unknown dead letter queue 
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetErrorHandler_withUnknownDeadLetterQueue() throws RequiredInputMissingException {
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.getSettings().put(ComponentErrorHandler.CFG_DEAD_LETTER_QUEUE, "unknown");
+		MicroPipeline pipeline = Mockito.mock(MicroPipeline.class);
+		Mockito.when(pipeline.getId()).thenReturn("pipeline");
+		new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getErrorHandler(pipeline, "component", cfg, null);
+	}
+	
+	/**
+	 * Test case for {@link MicroPipelineFactory#getErrorHandler(MicroPipeline, String, MicroPipelineComponentConfiguration, com.ottogroup.bi.spqr.metrics.MetricsHandler)} 
+	 * being provided a configuration with dead letter queue and circuit breaker settings 
+	 */
+	@Test
+	public void testGetErrorHandler_withValidSettings() throws RequiredInputMissingException {
+		MicroPipelineComponentConfiguration cfg = new MicroPipelineComponentConfiguration();
+		cfg.setFromQueue("input");
+		cfg.getSettings().put(ComponentErrorHandler.CFG_DEAD_LETTER_QUEUE, " DLQ ");
+		cfg.getSettings().put(ComponentErrorHandler.CFG_CIRCUIT_BREAKER_THRESHOLD, "5");
+		cfg.getSettings().put(ComponentErrorHandler.CFG_CIRCUIT_BREAKER_OPEN_DURATION, "1000");
+		StreamingMessageQueueProducer deadLetterProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		StreamingMessageQueue deadLetterQueue = Mockito.mock(StreamingMessageQueue.class);
+		Mockito.when(deadLetterQueue.getProducer()).thenReturn(deadLetterProducer);
+		MicroPipeline pipeline = Mockito.mock(MicroPipeline.class);
+		Mockito.when(pipeline.getId()).thenReturn("pipeline");
+		Mockito.when(pipeline.getQueue("dlq")).thenReturn(deadLetterQueue);
+		
+		ComponentErrorHandler errorHandler = new MicroPipelineFactory("id", Mockito.mock(ComponentRepository.class)).getErrorHandler(pipeline, "component", cfg, null);
+		Assert.assertEquals("Values must be equal", deadLetterProducer, errorHandler.getDeadLetterProducer());
+		Assert.assertEquals("Values must be equal", 5, errorHandler.getCircuitBreakerThreshold());
+		Assert.assertEquals("Values must be equal", 1000, errorHandler.getCircuitBreakerOpenDuration());
+		Assert.assertEquals("Values must be equal", ComponentErrorHandler.DEFAULT_STACK_TRACE_SAMPLE_INTERVAL, errorHandler.getStackTraceSampleInterval());
+	}
+	
 //	@Test
 //	public void test() throws Exception {
 //		ComponentRepository repo = new ComponentRepository();
@@ -76,6 +76,17 @@ public class MicroPipelineManagerTest {
 		}
 	}
 	
+	/**
+	 * Test case for {@link MicroPipelineManager#MicroPipelineManager(String, ComponentRepository, int, boolean)} requesting
+	 * virtual threads which must succeed on any runtime as the manager falls back to platform threads if required
+	 */
+	@Test
+	public void testConstructor_withVirtualThreads() throws RequiredInputMissingException {
+		MicroPipelineManager manager = new MicroPipelineManager("id", Mockito.mock(ComponentRepository.class), 10, true);
+		Assert.assertEquals("Values must be equal", "id", manager.getProcessingNodeId());
+		manager.shutdown();
+	}
+	
 	/**
 	 * Test case for {@link MicroPipelineManager#executePipeline(MicroPipelineConfiguration)} being provided null as
 	 * input which must lead to a  {@link RequiredInputMissingException}
@@ -0,0 +1,92 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test case for {@link VirtualThreadExecutors}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class VirtualThreadExecutorsTest {
+
+	/**
+	 * Test case for {@link VirtualThreadExecutors#isSupported()} which must match the availability of 
+	 * virtual threads in the current runtime
+	 */
+	@Test
+	public void testIsSupported_withCurrentRuntime() {
+		boolean threadOfVirtualAvailable = true;
+		try {
+			Thread.class.getMethod("ofVirtual");
+		} catch(NoSuchMethodException e) {
+			threadOfVirtualAvailable = false;
+		}
+		Assert.assertEquals("Support must match the availability of virtual threads", threadOfVirtualAvailable, VirtualThreadExecutors.isSupported());
+	}
+	
+	/**
+	 * Test case for {@link VirtualThreadExecutors#isVirtual(Thread)} being provided a platform thread or null
+	 */
+	@Test
+	public void testIsVirtual_withPlatformThread() {
+		Assert.assertFalse("The thread must not be virtual", VirtualThreadExecutors.isVirtual(Thread.currentThread()));
+		Assert.assertFalse("Null must not be virtual", VirtualThreadExecutors.isVirtual(null));
+	}
+	
+	/**
+	 * Test case for {@link VirtualThreadExecutors#newVirtualThreadPerTaskExecutor()} which must either provide a 
+	 * working executor or throw an {@link UnsupportedOperationException} if the runtime does not support virtual threads
+	 */
+	@Test
+	public void testNewVirtualThreadPerTaskExecutor_withCurrentRuntime() throws Exception {
+		if(!VirtualThreadExecutors.isSupported()) {
+			try {
+				VirtualThreadExecutors.newVirtualThreadPerTaskExecutor();
+				Assert.fail("Virtual threads not supported");
+			} catch(UnsupportedOperationException e) {
+				// expected
+			}
+			return;
+		}
+		
+		ExecutorService executorService = VirtualThreadExecutors.newVirtualThreadPerTaskExecutor();
+		try {
+			Future<String> result = executorService.submit(new Callable<String>() {
+				public String call() throws Exception {
+					return "done";
+				}
+			});
+			Assert.assertEquals("The task must be executed", "done", result.get(5, TimeUnit.SECONDS));
+			Future<Boolean> virtual = executorService.submit(new Callable<Boolean>() {
+				public Boolean call() throws Exception {
+					return VirtualThreadExecutors.isVirtual(Thread.currentThread());
+				}
+			});
+			Assert.assertTrue("The task must be executed by a virtual thread", virtual.get(5, TimeUnit.SECONDS));
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+	
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * Test case for {@link ComponentErrorHandler}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class ComponentErrorHandlerTest {
+
+	/**
+	 * Test case for {@link ComponentErrorHandler#ComponentErrorHandler(String, String, String, StreamingMessageQueueProducer, long, int, long)}
+	 * being provided a negative circuit breaker threshold
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_withNegativeThreshold() {
+		new ComponentErrorHandler("node", "pipeline", "component", null, 0, -1, 1000);
+	}
+	
+	/**
+	 * Test case for {@link ComponentErrorHandler#ComponentErrorHandler(String, String, String, StreamingMessageQueueProducer, long, int, long)}
+	 * being provided an enabled circuit breaker without open duration
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_withInvalidOpenDuration() {
+		new ComponentErrorHandler("node", "pipeline", "component", null, 0, 3, 0);
+	}
+	
+	/**
+	 * Test case for {@link ComponentErrorHandler#onError(StreamingDataMessage, Exception)} being provided different exceptions 
+	 * which must be counted per class and in total
+	 */
+	@Test
+	public void testOnError_withDifferentExceptions() {
+		ComponentErrorHandler handler = new ComponentErrorHandler("node", "pipeline", "component");
+		handler.onError(null, new IllegalStateException("state"));
+		handler.onError(null, new IllegalStateException("state"));
+		handler.onError(null, new NullPointerException("npe"));
+		handler.onError(new IllegalArgumentException("not attributed to component"));
+		
+		Assert.assertEquals("Values must be equal", 4, handler.getNumOfErrors());
+		Assert.assertEquals("Values must be equal", 2, handler.getNumOfErrors(IllegalStateException.class));
+		Assert.assertEquals("Values must be equal", 1, handler.getNumOfErrors(NullPointerException.class));
+		Assert.assertEquals("Values must be equal", 1, handler.getNumOfErrors(IllegalArgumentException.class));
+		Assert.assertEquals("Values must be equal", 0, handler.getNumOfErrors(RuntimeException.class));
+		Assert.assertTrue("Must contain per class counter", handler.getMetrics().containsKey(ComponentErrorHandler.METRIC_ERRORS + "." + IllegalStateException.class.getName()));
+		Assert.assertEquals("Values must be equal", 0, handler.getNumOfDeadLetters());
+	}
+	
+	/**
+	 * Test case for {@link ComponentErrorHandler#onError(StreamingDataMessage, Exception)} and {@link ComponentErrorHandler#onError(StreamingDataMessage[], int, Exception)}
+	 * being provided failed messages which must be written to the dead letter queue
+	 */
+	@Test
+	public void testOnError_withDeadLetterQueue() {
+		StreamingMessageQueueProducer deadLetterProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		StreamingMessageQueueWaitStrategy deadLetterWaitStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(deadLetterProducer.getWaitStrategy()).thenReturn(deadLetterWaitStrategy);
+		Mockito.when(deadLetterProducer.insert(Mockito.any(StreamingDataMessage.class))).thenReturn(true);
+		
+		StreamingDataMessage message = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		ComponentErrorHandler handler = new ComponentErrorHandler("node", "pipeline", "component", deadLetterProducer, 10000, 0, 0);
+		handler.onError(message, new IllegalStateException("state"));
+		handler.onError(new StreamingDataMessage[]{message, message, message}, 2, new IllegalStateException("state"));
+		handler.onError(new IllegalStateException("no message"));
+		
+		Mockito.verify(deadLetterProducer, Mockito.times(3)).insert(message);
+		Mockito.verify(deadLetterWaitStrategy, Mockito.times(3)).forceLockRelease();
+		Assert.assertEquals("Values must be equal", 3, handler.getNumOfDeadLetters());
+		Assert.assertEquals("Values must be equal", 3, handler.getNumOfErrors());
+	}
+	
+	/**
+	 * Test case for the circuit breaker which must open after the configured number of consecutive failures, bypass the component
+	 * until the open duration has passed, re-open on the next failure and close on the next success 
+	 */
+	@Test
+	public void testCircuitBreaker_withConsecutiveFailures() throws Exception {
+		ComponentErrorHandler handler = new ComponentErrorHandler("node", "pipeline", "component", null, 10000, 2, 50);
+		Assert.assertFalse("Must not bypass", handler.isBypassing());
+		
+		handler.onError(null, new IllegalStateException("state"));
+		handler.onSuccess();
+		handler.onError(null, new IllegalStateException("state"));
+		Assert.assertFalse("Must not bypass as failures are not consecutive", handler.isBypassing());
+		
+		// failures not attributed to the component do not count
+		handler.onError(new IllegalStateException("state"));
+		Assert.assertFalse("Must not bypass", handler.isBypassing());
+
+		handler.onError(null, new IllegalStateException("state"));
+		Assert.assertTrue("Must bypass", handler.isBypassing());
+		Assert.assertTrue("Circuit must be open", handler.isCircuitOpen());
+		handler.onBypass(new StreamingDataMessage("test".getBytes(), System.currentTimeMillis()));
+		Assert.assertEquals("Values must be equal", 1, handler.getNumOfBypassedMessages());
+		
+		// probe after open duration: a failure re-opens the circuit
+		Thread.sleep(60);
+		Assert.assertFalse("Must not bypass", handler.isBypassing());
+		handler.onError(null, new IllegalStateException("state"));
+		Assert.assertTrue("Must bypass", handler.isBypassing());
+		
+		// probe after open duration: a success closes the circuit
+		Thread.sleep(60);
+		Assert.assertFalse("Must not bypass", handler.isBypassing());
+		handler.onSuccess();
+		Assert.assertFalse("Circuit must be closed", handler.isCircuitOpen());
+		handler.onError(null, new IllegalStateException("state"));
+		Assert.assertFalse("Must not bypass", handler.isBypassing());
+	}
+}
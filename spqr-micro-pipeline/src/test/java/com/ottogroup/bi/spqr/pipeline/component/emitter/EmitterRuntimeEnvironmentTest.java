@@ -17,15 +17,23 @@ package com.ottogroup.bi.spqr.pipeline.component.emitter;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.ComponentErrorHandler;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
 
 /**
@@ -119,15 +127,17 @@ public class EmitterRuntimeEnvironmentTest {
 		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
 		StreamingMessageQueueWaitStrategy queueConsumerWaitStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
 		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerWaitStrategy);
-		Mockito.when(queueConsumerWaitStrategy.waitFor(queueConsumer)).thenReturn(message);
+		Mockito.when(queueConsumerWaitStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenReturn(message);
 				
 		EmitterRuntimeEnvironment env = new EmitterRuntimeEnvironment("node-1", "pipe-1", emitter, queueConsumer);
 		executorService.submit(env);
 		Assert.assertTrue("Must return true", env.isRunning());
 
-		Mockito.verify(queueConsumerWaitStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(queueConsumer);
+		Mockito.verify(queueConsumerWaitStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class));
 		Mockito.verify(queueConsumer, Mockito.atLeastOnce()).getWaitStrategy();
 		Mockito.verify(emitter, Mockito.atLeastOnce()).onMessage(message);
+		
+		env.shutdown();
 	}
 	
 	/**
@@ -145,16 +155,111 @@ public class EmitterRuntimeEnvironmentTest {
 				
 		StreamingMessageQueueWaitStrategy queueConsumerWaitStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
 		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerWaitStrategy);
-		Mockito.when(queueConsumerWaitStrategy.waitFor(queueConsumer)).thenReturn(message);
+		Mockito.when(queueConsumerWaitStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenReturn(message);
 
 		
 		EmitterRuntimeEnvironment env = new EmitterRuntimeEnvironment("node-1", "pipe-1", emitter, queueConsumer);
 		executorService.submit(env);
 		Assert.assertTrue("Must return true", env.isRunning());
 
-		Mockito.verify(queueConsumerWaitStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(queueConsumer);
+		Mockito.verify(queueConsumerWaitStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class));
 		Mockito.verify(queueConsumer, Mockito.atLeastOnce()).getWaitStrategy();
 		Mockito.verify(emitter, Mockito.atLeastOnce()).onMessage(message);
+		
+		env.shutdown();
+	}
+	
+	/**
+	 * Test case for {@link EmitterRuntimeEnvironment#processMessages(int)} being provided a {@link BatchEmitter} which 
+	 * must receive full batches, the remaining messages and a final flush
+	 */
+	@Test
+	public void testProcessMessages_withBatchEmitter() throws RequiredInputMissingException {
+		BatchEmitter emitter = Mockito.mock(BatchEmitter.class);
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingDataMessage message = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		Mockito.when(queueConsumer.next()).thenReturn(message, message, message, message, message, null);
+		
+		EmitterRuntimeEnvironment env = new EmitterRuntimeEnvironment("node-1", "pipe-1", emitter, queueConsumer, 2, 10);
+		Assert.assertEquals("Values must be equal", 5, env.processMessages(10));
+
+		Mockito.verify(emitter, Mockito.times(2)).onMessages(Mockito.any(StreamingDataMessage[].class), Mockito.eq(2), Mockito.any(EmitterCallback.class));
+		Mockito.verify(emitter, Mockito.times(1)).onMessages(Mockito.any(StreamingDataMessage[].class), Mockito.eq(1), Mockito.any(EmitterCallback.class));
+		Mockito.verify(emitter, Mockito.times(1)).flush();
+		Mockito.verify(emitter, Mockito.never()).onMessage(Mockito.any(StreamingDataMessage.class));
+	}
+	
+	/**
+	 * Test case for {@link EmitterRuntimeEnvironment#processMessages(int)} being provided a {@link BatchEmitter} which
+	 * reports a failed batch through its {@link EmitterCallback}. The batch must be handed over to the {@link ComponentErrorHandler}
+	 * and written to the dead letter queue. As the batch failed, the circuit must be opened
+	 */
+	@Test
+	public void testProcessMessages_withBatchEmitterReportingFailure() throws RequiredInputMissingException {
+		BatchEmitter emitter = Mockito.mock(BatchEmitter.class);
+		Mockito.doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				((EmitterCallback)invocation.getArguments()[2]).onFailure((Integer)invocation.getArguments()[1], new IllegalStateException("failed"));
+				return null;
+			}
+		}).when(emitter).onMessages(Mockito.any(StreamingDataMessage[].class), Mockito.anyInt(), Mockito.any(EmitterCallback.class));
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		Mockito.when(queueConsumer.next()).thenReturn(new StreamingDataMessage("test-1".getBytes(), System.currentTimeMillis()), 
+				new StreamingDataMessage("test-2".getBytes(), System.currentTimeMillis()), null);
+		StreamingMessageQueueProducer deadLetterProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		Mockito.when(deadLetterProducer.insert(Mockito.any(StreamingDataMessage.class))).thenReturn(true);
+		ComponentErrorHandler errorHandler = new ComponentErrorHandler("node-1", "pipe-1", "emitter-1", deadLetterProducer, 10000, 1, 30000);
+		
+		EmitterRuntimeEnvironment env = new EmitterRuntimeEnvironment("node-1", "pipe-1", emitter, queueConsumer, 2, 10);
+		env.setErrorHandler(errorHandler);
+		Assert.assertEquals("Values must be equal", 2, env.processMessages(10));
+		
+		Assert.assertEquals("Values must be equal", 2, env.getNumOfFailedMessages());
+		Assert.assertEquals("Values must be equal", 1, errorHandler.getNumOfErrors(IllegalStateException.class));
+		Assert.assertEquals("Values must be equal", 2, errorHandler.getNumOfDeadLetters());
+		Assert.assertTrue("The circuit must be open", errorHandler.isCircuitOpen());
+		Mockito.verify(deadLetterProducer, Mockito.times(2)).insert(Mockito.any(StreamingDataMessage.class));
+	}
+	
+	/**
+	 * Test case for {@link EmitterRuntimeEnvironment#shutdown()} being called while the processing thread holds an incomplete
+	 * batch. The processing thread must hand over the batch, flush the {@link BatchEmitter} and shut it down
+	 */
+	@Test
+	public void testShutdown_withPendingBatch() throws Exception {
+		final AtomicReference<Thread> shutdownThread = new AtomicReference<>();
+		BatchEmitter emitter = Mockito.mock(BatchEmitter.class);
+		Mockito.doAnswer(new Answer<Boolean>() {
+			public Boolean answer(InvocationOnMock invocation) throws Throwable {
+				shutdownThread.set(Thread.currentThread());
+				return true;
+			}
+		}).when(emitter).shutdown();
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingDataMessage message = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		Mockito.when(queueConsumer.next()).thenReturn(message, message, message, null);
+		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(new StreamingMessageQueueBlockingWaitStrategy());
+		
+		EmitterRuntimeEnvironment env = new EmitterRuntimeEnvironment("node-1", "pipe-1", emitter, queueConsumer, 10, 60000);
+		executorService.submit(env);
+		Mockito.verify(queueConsumer, Mockito.timeout(1000).atLeast(4)).next();
+		Mockito.verify(emitter, Mockito.never()).onMessages(Mockito.any(StreamingDataMessage[].class), Mockito.anyInt(), Mockito.any(EmitterCallback.class));
+		
+		env.shutdown();
+		Mockito.verify(emitter, Mockito.timeout(1000)).shutdown();
+		InOrder inOrder = Mockito.inOrder(emitter);
+		inOrder.verify(emitter).onMessages(Mockito.any(StreamingDataMessage[].class), Mockito.eq(3), Mockito.any(EmitterCallback.class));
+		inOrder.verify(emitter).flush();
+		inOrder.verify(emitter).shutdown();
+		Assert.assertNotSame("The emitter must be shut down by the processing thread", Thread.currentThread(), shutdownThread.get());
+	}
+	
+	/**
+	 * Test case for {@link EmitterRuntimeEnvironment} being provided an invalid batch size
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_withInvalidBatchSize() throws RequiredInputMissingException {
+		new EmitterRuntimeEnvironment("node-1", "pipe-1", Mockito.mock(BatchEmitter.class), Mockito.mock(StreamingMessageQueueConsumer.class), 0, 10);
 	}
 	
 }
@@ -17,11 +17,15 @@ package com.ottogroup.bi.spqr.pipeline.component.operator;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
@@ -155,7 +159,7 @@ public class DelayedResponseOperatorRuntimeEnvironmentTest {
 		StreamingDataMessage message = new StreamingDataMessage("test-message".getBytes(), System.currentTimeMillis());		
 		StreamingDataMessage response = new StreamingDataMessage("response-test-message".getBytes(), System.currentTimeMillis());
 		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerWaitStrategy);
-		Mockito.when(queueConsumerWaitStrategy.waitFor(queueConsumer)).thenReturn(message);
+		Mockito.when(queueConsumerWaitStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenReturn(message);
 		Mockito.when(delayedResponseOperator.getResult()).thenReturn(new StreamingDataMessage[]{response});
 		Mockito.when(delayedResponseOperator.getId()).thenReturn("test-id");
 		Mockito.when(queueProducer.getWaitStrategy()).thenReturn(queueProducerWaitStrategy);
@@ -167,14 +171,60 @@ public class DelayedResponseOperatorRuntimeEnvironmentTest {
 
 		Mockito.verify(queueConsumer).getWaitStrategy();
 
-		Mockito.verify(queueConsumerWaitStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(queueConsumer);
+		Mockito.verify(queueConsumerWaitStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class));
 		Mockito.verify(delayedResponseOperator, Mockito.timeout(500).atLeast(1)).onMessage(message);
 		Mockito.verify(responseWaitStrategy, Mockito.timeout(500).atLeast(1)).onMessage(message);
 		Mockito.verify(delayedResponseOperator, Mockito.timeout(500)).getResult();
 		Mockito.verify(queueProducerWaitStrategy, Mockito.timeout(500)).forceLockRelease();
-		Mockito.verify(queueProducer, Mockito.timeout(500)).insert(response);
+		Mockito.verify(queueProducer, Mockito.timeout(500)).insertBatch(new StreamingDataMessage[]{response});
 		
 		Assert.assertTrue("The environment must be running", env.isRunning());
 		env.shutdown();
 	}
+	/**
+	 * Test case for {@link DelayedResponseOperatorRuntimeEnvironment#retrieveMessages()} being called by a thread other than the 
+	 * processing thread, eg. a timer. The results must be collected in-band by the thread processing the incoming messages
+	 */
+	@Test
+	public void testRetrieveMessages_fromForeignThread() throws RequiredInputMissingException, InterruptedException {
+		DelayedResponseOperator delayedResponseOperator = Mockito.mock(DelayedResponseOperator.class);		
+		DelayedResponseOperatorWaitStrategy responseWaitStrategy = Mockito.mock(DelayedResponseOperatorWaitStrategy.class);
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingMessageQueueProducer queueProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		StreamingMessageQueueWaitStrategy queueConsumerWaitStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		StreamingMessageQueueWaitStrategy queueProducerWaitStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		
+		StreamingDataMessage message = new StreamingDataMessage("test-message".getBytes(), System.currentTimeMillis());		
+		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerWaitStrategy);
+		Mockito.when(queueConsumerWaitStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenReturn(message, (StreamingDataMessage)null);
+		Mockito.when(delayedResponseOperator.getId()).thenReturn("test-id");
+		Mockito.when(queueProducer.getWaitStrategy()).thenReturn(queueProducerWaitStrategy);
+
+		final AtomicReference<Thread> messageThread = new AtomicReference<>();
+		final AtomicReference<Thread> resultThread = new AtomicReference<>();
+		Mockito.doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				messageThread.set(Thread.currentThread());
+				return null;
+			}
+		}).when(delayedResponseOperator).onMessage(message);
+		Mockito.when(delayedResponseOperator.getResult()).thenAnswer(new Answer<StreamingDataMessage[]>() {
+			public StreamingDataMessage[] answer(InvocationOnMock invocation) throws Throwable {
+				resultThread.set(Thread.currentThread());
+				return new StreamingDataMessage[0];
+			}
+		});
+		
+		DelayedResponseOperatorRuntimeEnvironment env = new DelayedResponseOperatorRuntimeEnvironment("proc-1", "pipe-1", delayedResponseOperator, responseWaitStrategy, queueConsumer, queueProducer);
+		executorService.submit(env);
+		Mockito.verify(delayedResponseOperator, Mockito.timeout(500)).onMessage(message);
+
+		env.retrieveMessages();
+		Mockito.verify(delayedResponseOperator, Mockito.timeout(500)).getResult();
+		Mockito.verify(queueConsumerWaitStrategy).forceLockRelease();
+		Assert.assertSame("Results must be collected by processing thread", messageThread.get(), resultThread.get());
+		Assert.assertFalse("Request must be served", env.isReleaseRequested());
+		env.shutdown();
+	}
+	
 }
@@ -23,6 +23,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.codahale.metrics.Counter;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
@@ -151,9 +152,11 @@ public class DirectResponseOperatorRuntimeEnvironmentTest {
 		Mockito.verify(operator, Mockito.timeout(500).atLeastOnce()).onMessage(inputMessage);
 		Mockito.verify(queueConsumerStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(queueConsumer);
 		Mockito.verify(queueProducerStrategy, Mockito.never()).forceLockRelease();
-		Mockito.verify(queueProducer, Mockito.never()).insert(inputMessage);
+		Mockito.verify(queueProducer, Mockito.never()).insertBatch(Mockito.anyListOf(StreamingDataMessage.class));
 		
 		Assert.assertTrue("The environment must be running", env.isRunning());
+		
+		env.shutdown();
 	}
 	
 	/**
@@ -183,8 +186,10 @@ public class DirectResponseOperatorRuntimeEnvironmentTest {
 		Mockito.verify(operator, Mockito.timeout(500).atLeastOnce()).onMessage(inputMessage);
 		Mockito.verify(queueConsumerStrategy, Mockito.timeout(500).atLeastOnce()).waitFor(queueConsumer);
 		Mockito.verify(queueProducerStrategy, Mockito.timeout(500).atLeastOnce()).forceLockRelease();
-		Mockito.verify(queueProducer, Mockito.timeout(500).atLeastOnce()).insert(inputMessage);		
+		Mockito.verify(queueProducer, Mockito.timeout(500).atLeastOnce()).insertBatch(Mockito.anyListOf(StreamingDataMessage.class));		
 		Assert.assertTrue("The environment must be running", env.isRunning());
+		
+		env.shutdown();
 	}
 	
 	/**
@@ -209,4 +214,98 @@ public class DirectResponseOperatorRuntimeEnvironmentTest {
 
 	}
 	
+	/**
+	 * Test case for {@link DirectResponseOperatorRuntimeEnvironment#fuse(DirectResponseOperator, StreamingMessageQueueProducer, Counter, com.codahale.metrics.Timer)}
+	 * being provided null as input to operator parameter which must lead to a {@link RequiredInputMissingException}
+	 */
+	@Test
+	public void testFuse_withNullOperatorInput() throws RequiredInputMissingException {
+		DirectResponseOperatorRuntimeEnvironment env = new DirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id",Mockito.mock(DirectResponseOperator.class), Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class));
+		try {
+			env.fuse(null, Mockito.mock(StreamingMessageQueueProducer.class), null, null);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+		Assert.assertEquals("The environment must execute a single operator", 1, env.getNumOfOperators());
+	}
+	
+	/**
+	 * Test case for {@link DirectResponseOperatorRuntimeEnvironment#fuse(DirectResponseOperator, StreamingMessageQueueProducer, Counter, com.codahale.metrics.Timer)}
+	 * being provided null as input to queue producer parameter which must lead to a {@link RequiredInputMissingException}
+	 */
+	@Test
+	public void testFuse_withNullProducerInput() throws RequiredInputMissingException {
+		DirectResponseOperatorRuntimeEnvironment env = new DirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id",Mockito.mock(DirectResponseOperator.class), Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class));
+		try {
+			env.fuse(Mockito.mock(DirectResponseOperator.class), null, null, null);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link DirectResponseOperatorRuntimeEnvironment} executing two fused operators. The responses of the
+	 * first operator must be handed over to the second one and only its responses must be written to the destination queue 
+	 * of the fused operator. Each operator keeps its own message counter.
+	 */
+	@Test
+	public void testFuse_withMessagesToProcess() throws RequiredInputMissingException, InterruptedException {
+		StreamingDataMessage inputMessage = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage intermediateMessage = new StreamingDataMessage("intermediate".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage outputMessage = new StreamingDataMessage("output".getBytes(), System.currentTimeMillis());
+		
+		DirectResponseOperator operator = Mockito.mock(DirectResponseOperator.class);
+		Mockito.when(operator.onMessage(inputMessage)).thenReturn(new StreamingDataMessage[]{intermediateMessage});
+		DirectResponseOperator fusedOperator = Mockito.mock(DirectResponseOperator.class);
+		Mockito.when(fusedOperator.onMessage(intermediateMessage)).thenReturn(new StreamingDataMessage[]{outputMessage});
+		
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingMessageQueueWaitStrategy queueConsumerStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerStrategy);
+		Mockito.when(queueConsumerStrategy.waitFor(queueConsumer)).thenReturn(inputMessage);
+		
+		StreamingMessageQueueProducer intermediateQueueProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		StreamingMessageQueueProducer queueProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		StreamingMessageQueueWaitStrategy queueProducerStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(queueProducer.getWaitStrategy()).thenReturn(queueProducerStrategy);
+		
+		Counter messageCounter = new Counter();
+		Counter fusedMessageCounter = new Counter();
+		
+		DirectResponseOperatorRuntimeEnvironment env = new DirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", operator, queueConsumer, intermediateQueueProducer);
+		env.setMessageCounter(messageCounter);
+		env.fuse(fusedOperator, queueProducer, fusedMessageCounter, null);
+		Assert.assertEquals("The environment must execute two operators", 2, env.getNumOfOperators());
+		executorService.submit(env);
+
+		Mockito.verify(fusedOperator, Mockito.timeout(500).atLeastOnce()).onMessage(intermediateMessage);
+		// the environment keeps on reusing the response list, thus its contents must not be compared while running
+		Mockito.verify(queueProducer, Mockito.timeout(500).atLeastOnce()).insertBatch(Mockito.anyListOf(StreamingDataMessage.class));
+		Mockito.verify(queueProducerStrategy, Mockito.timeout(500).atLeastOnce()).forceLockRelease();
+		env.shutdown();
+		
+		Mockito.verify(intermediateQueueProducer, Mockito.never()).insertBatch(Mockito.anyListOf(StreamingDataMessage.class));
+		Mockito.verify(fusedOperator, Mockito.never()).onMessage(inputMessage);
+		Assert.assertTrue("The operator must have counted messages", messageCounter.getCount() > 0);
+		Assert.assertTrue("The fused operator must have counted messages", fusedMessageCounter.getCount() > 0);
+	}
+	
+	/**
+	 * Test case for {@link DirectResponseOperatorRuntimeEnvironment#shutdown()} where the environment executes a fused
+	 * operator. Both operators must be shut down
+	 */
+	@Test
+	public void testShutdown_withFusedOperator() throws RequiredInputMissingException {
+		DirectResponseOperator operator = Mockito.mock(DirectResponseOperator.class);
+		DirectResponseOperator fusedOperator = Mockito.mock(DirectResponseOperator.class);
+		DirectResponseOperatorRuntimeEnvironment env = new DirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id",operator, Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class));
+		env.fuse(fusedOperator, Mockito.mock(StreamingMessageQueueProducer.class), null, null);
+		env.shutdown();
+		
+		Mockito.verify(operator).shutdown();
+		Mockito.verify(fusedOperator).shutdown();
+	}
+	
 }
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.scheduler.WaitStrategyTimerService;
+
+/**
+ * Test case for {@link HybridResponseWaitStrategy}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class HybridResponseWaitStrategyTest {
+
+	/**
+	 * Test case for {@link HybridResponseWaitStrategy#initialize(Properties)} being provided invalid 
+	 * settings which must be replaced by defaults
+	 */
+	@Test
+	public void testInitialize_withInvalidSettings() {
+		Properties properties = new Properties();
+		properties.setProperty(HybridResponseWaitStrategy.CFG_MAX_MESSAGES, "-1");
+		properties.setProperty(HybridResponseWaitStrategy.CFG_TARGET_LATENCY, "abc");
+		properties.setProperty(TimerBasedResponseWaitStrategy.CFG_MAX_DURATION, "200");
+		HybridResponseWaitStrategy strategy = new HybridResponseWaitStrategy();
+		strategy.initialize(properties);
+		Assert.assertEquals("Values must be equal", HybridResponseWaitStrategy.DEFAULT_MAX_MESSAGES, strategy.getCurrentMaxMessages());
+		Assert.assertEquals("Values must be equal", 100, strategy.getTargetLatency());
+	}
+	
+	/**
+	 * Test case for {@link HybridResponseWaitStrategy#onMessage(StreamingDataMessage)} which must release results 
+	 * as soon as the max. number of messages is reached
+	 */
+	@Test
+	public void testOnMessage_withMaxMessagesReached() {
+		Properties properties = new Properties();
+		properties.setProperty(HybridResponseWaitStrategy.CFG_MAX_MESSAGES, "3");
+		properties.setProperty(TimerBasedResponseWaitStrategy.CFG_MAX_DURATION, "100000");
+		DelayedResponseCollector collector = Mockito.mock(DelayedResponseCollector.class);
+		HybridResponseWaitStrategy strategy = new HybridResponseWaitStrategy();
+		strategy.initialize(properties);
+		strategy.setDelayedResponseCollector(collector);
+		
+		StreamingDataMessage message = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		strategy.onMessage(message);
+		strategy.onMessage(message);
+		Mockito.verify(collector, Mockito.never()).retrieveMessages();
+		strategy.onMessage(message);
+		Mockito.verify(collector, Mockito.times(1)).retrieveMessages();
+	}
+	
+	/**
+	 * Test case for {@link HybridResponseWaitStrategy#adaptMaxMessages(int, long)} which must follow the 
+	 * arrival rate but stay within configured bounds
+	 */
+	@Test
+	public void testAdaptMaxMessages_withChangingArrivalRate() {
+		Properties properties = new Properties();
+		properties.setProperty(HybridResponseWaitStrategy.CFG_MAX_MESSAGES, "100");
+		properties.setProperty(HybridResponseWaitStrategy.CFG_MIN_MESSAGES, "2");
+		properties.setProperty(HybridResponseWaitStrategy.CFG_TARGET_LATENCY, "10");
+		HybridResponseWaitStrategy strategy = new HybridResponseWaitStrategy();
+		strategy.initialize(properties);
+		
+		// 5 messages per millisecond -> 50 messages within target latency
+		strategy.adaptMaxMessages(50, 10);
+		Assert.assertEquals("Values must be equal", 50, strategy.getCurrentMaxMessages());
+		
+		// no messages: moving average drops to 4 messages per millisecond
+		strategy.adaptMaxMessages(0, 1000);
+		Assert.assertEquals("Values must be equal", 40, strategy.getCurrentMaxMessages());
+		
+		// bounded by max. messages
+		strategy.adaptMaxMessages(100000, 1);
+		Assert.assertEquals("Values must be equal", 100, strategy.getCurrentMaxMessages());
+		
+		// bounded by min. messages
+		for(int i = 0; i < 100; i++)
+			strategy.adaptMaxMessages(0, 1000);
+		Assert.assertEquals("Values must be equal", 2, strategy.getCurrentMaxMessages());
+	}
+	
+	/**
+	 * Test case for {@link HybridResponseWaitStrategy#release()} being called while another release is still collecting results. 
+	 * The collection must not be serialized, thus the second release must complete while the first one is blocked
+	 */
+	@Test
+	public void testRelease_withConcurrentCollection() throws Exception {
+		final CountDownLatch collecting = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		DelayedResponseCollector collector = Mockito.mock(DelayedResponseCollector.class);
+		Mockito.doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				collecting.countDown();
+				proceed.await(5, TimeUnit.SECONDS);
+				return null;
+			}
+		}).doNothing().when(collector).retrieveMessages();
+		
+		final HybridResponseWaitStrategy strategy = new HybridResponseWaitStrategy();
+		strategy.initialize(new Properties());
+		strategy.setDelayedResponseCollector(collector);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Runnable release = new Runnable() {
+				public void run() {
+					strategy.release();
+				}
+			};
+			Future<?> blockedRelease = executor.submit(release);
+			Assert.assertTrue("The first release must be collecting", collecting.await(1, TimeUnit.SECONDS));
+			
+			executor.submit(release).get(1, TimeUnit.SECONDS);
+			Assert.assertFalse("The first release must still be collecting", blockedRelease.isDone());
+			Assert.assertTrue("The arrival rate must be computed", strategy.getArrivalRate() >= 0);
+			
+			proceed.countDown();
+			blockedRelease.get(1, TimeUnit.SECONDS);
+			Mockito.verify(collector, Mockito.times(2)).retrieveMessages();
+		} finally {
+			proceed.countDown();
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Test case for {@link HybridResponseWaitStrategy} being driven by a {@link WaitStrategyTimerService} which must 
+	 * release results after the max. duration even if the max. number of messages is not reached
+	 */
+	@Test
+	public void testRun_withTimerService() throws Exception {
+		WaitStrategyTimerService timerService = new WaitStrategyTimerService(1);
+		try {
+			Properties properties = new Properties();
+			properties.setProperty(HybridResponseWaitStrategy.CFG_MAX_MESSAGES, "1000");
+			properties.setProperty(TimerBasedResponseWaitStrategy.CFG_MAX_DURATION, "10");
+			DelayedResponseCollector collector = Mockito.mock(DelayedResponseCollector.class);
+			HybridResponseWaitStrategy strategy = new HybridResponseWaitStrategy();
+			strategy.initialize(properties);
+			strategy.setDelayedResponseCollector(collector);
+			strategy.setTimerService(timerService);
+			strategy.run();
+			
+			strategy.onMessage(new StreamingDataMessage("test".getBytes(), System.currentTimeMillis()));
+			Mockito.verify(collector, Mockito.timeout(1000).atLeastOnce()).retrieveMessages();
+			strategy.shutdown();
+		} finally {
+			timerService.shutdown();
+		}
+	}
+	
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
+
+/**
+ * Test case for {@link JsonKeyHashMessagePartitioner}, {@link HeaderKeyHashMessagePartitioner} and {@link RoundRobinMessagePartitioner}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class JsonKeyHashMessagePartitionerTest {
+
+	/**
+	 * Test case for {@link JsonKeyHashMessagePartitioner#JsonKeyHashMessagePartitioner(String)} being provided
+	 * a blank partition key
+	 */
+	@Test
+	public void testConstructor_withBlankPartitionKey() {
+		try {
+			new JsonKeyHashMessagePartitioner(" ");
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link JsonKeyHashMessagePartitioner#getPartition(StreamingDataMessage, int)} being provided
+	 * messages sharing the same nested key value. All must be assigned to the same partition
+	 */
+	@Test
+	public void testGetPartition_withSameNestedKey() throws RequiredInputMissingException {
+		JsonKeyHashMessagePartitioner partitioner = new JsonKeyHashMessagePartitioner("user.id");
+		StreamingDataMessage message = new StreamingDataMessage("{\"user\":{\"id\":\"abc-123\"},\"value\":1}".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage otherMessage = new StreamingDataMessage("{\"value\":2,\"user\":{\"id\":\"abc-123\"}}".getBytes(), System.currentTimeMillis());
+		
+		Assert.assertEquals("The key must be extracted", "abc-123", partitioner.getKey(message));
+		int partition = partitioner.getPartition(message, 7);
+		Assert.assertEquals("The partition must be computed from the key hash", ("abc-123".hashCode() & Integer.MAX_VALUE) % 7, partition);
+		for(int i = 0; i < 10; i++) {
+			Assert.assertEquals("Messages sharing the same key must be assigned to the same partition", partition, partitioner.getPartition(message, 7));
+			Assert.assertEquals("Messages sharing the same key must be assigned to the same partition", partition, partitioner.getPartition(otherMessage, 7));
+		}
+	}
+	
+	/**
+	 * Test case for {@link JsonKeyHashMessagePartitioner#getPartition(StreamingDataMessage, int)} being provided
+	 * messages without the key or without valid json. They must be assigned round robin
+	 */
+	@Test
+	public void testGetPartition_withMissingKey() throws RequiredInputMissingException {
+		JsonKeyHashMessagePartitioner partitioner = new JsonKeyHashMessagePartitioner("user.id");
+		StreamingDataMessage missingKeyMessage = new StreamingDataMessage("{\"user\":{\"name\":\"test\"}}".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage invalidMessage = new StreamingDataMessage("no json".getBytes(), System.currentTimeMillis());
+		
+		Assert.assertNull("The key must not be found", partitioner.getKey(missingKeyMessage));
+		Assert.assertNull("The key must not be found", partitioner.getKey(invalidMessage));
+		Assert.assertEquals("Expected partition 0", 0, partitioner.getPartition(missingKeyMessage, 3));
+		Assert.assertEquals("Expected partition 1", 1, partitioner.getPartition(invalidMessage, 3));
+		Assert.assertEquals("Expected partition 2", 2, partitioner.getPartition(missingKeyMessage, 3));
+		Assert.assertEquals("Expected partition 0", 0, partitioner.getPartition(invalidMessage, 3));
+	}
+	
+	/**
+	 * Test case for {@link JsonKeyHashMessagePartitioner#getKey(StreamingDataMessage)} being provided messages where the key
+	 * is preceded by fields which must be skipped, including nested ones sharing names with the path. Content following the key 
+	 * must not be read at all, thus a broken remainder must not matter
+	 */
+	@Test
+	public void testGetKey_withSkippedFields() throws RequiredInputMissingException {
+		JsonKeyHashMessagePartitioner partitioner = new JsonKeyHashMessagePartitioner("user.id");
+		StreamingDataMessage message = new StreamingDataMessage(("{\"other\":{\"user\":{\"id\":\"wrong\"}},\"list\":[{\"id\":1},2],"
+				+ "\"user\":{\"name\":{\"id\":\"wrong\"},\"id\":42}}").getBytes(), System.currentTimeMillis());
+		StreamingDataMessage brokenRemainderMessage = new StreamingDataMessage("{\"user\":{\"id\":\"abc-123\"},\"value\":[1,".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage containerKeyMessage = new StreamingDataMessage("{\"user\":{\"id\":{\"value\":1}}}".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage nullKeyMessage = new StreamingDataMessage("{\"user\":{\"id\":null}}".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage arrayMessage = new StreamingDataMessage("[{\"user\":{\"id\":\"abc-123\"}}]".getBytes(), System.currentTimeMillis());
+		
+		Assert.assertEquals("Values must be equal", "42", partitioner.getKey(message));
+		Assert.assertEquals("Values must be equal", "abc-123", partitioner.getKey(brokenRemainderMessage));
+		Assert.assertNull("The key must not be found", partitioner.getKey(containerKeyMessage));
+		Assert.assertNull("The key must not be found", partitioner.getKey(nullKeyMessage));
+		Assert.assertNull("The key must not be found", partitioner.getKey(arrayMessage));
+	}
+	
+	/**
+	 * Test case for {@link HeaderKeyHashMessagePartitioner#getPartition(StreamingDataMessage, int)} being provided
+	 * messages with and without header key. Messages sharing the same key must be assigned to the same partition, all
+	 * others round robin
+	 */
+	@Test
+	public void testHeaderKeyGetPartition_withAndWithoutKey() {
+		HeaderKeyHashMessagePartitioner partitioner = new HeaderKeyHashMessagePartitioner();
+		StreamingDataMessage message = new StreamingDataMessage("no json".getBytes(), System.currentTimeMillis(), 
+				new StreamingDataMessageHeader("abc-123".getBytes(), 1, 1));
+		StreamingDataMessage otherMessage = new StreamingDataMessage("{}".getBytes(), System.currentTimeMillis(), 
+				new StreamingDataMessageHeader("abc-123".getBytes(), 2, 2));
+		StreamingDataMessage missingKeyMessage = new StreamingDataMessage("{}".getBytes(), System.currentTimeMillis(), 
+				new StreamingDataMessageHeader(null, 2, 2));
+		StreamingDataMessage missingHeaderMessage = new StreamingDataMessage("{}".getBytes(), System.currentTimeMillis());
+		
+		int partition = partitioner.getPartition(message, 7);
+		Assert.assertEquals("The partition must be computed from the key hash", (Arrays.hashCode("abc-123".getBytes()) & Integer.MAX_VALUE) % 7, partition);
+		Assert.assertEquals("Messages sharing the same key must be assigned to the same partition", partition, partitioner.getPartition(otherMessage, 7));
+		Assert.assertEquals("Expected partition 0", 0, partitioner.getPartition(missingKeyMessage, 3));
+		Assert.assertEquals("Expected partition 1", 1, partitioner.getPartition(missingHeaderMessage, 3));
+	}
+	
+	/**
+	 * Test case for {@link RoundRobinMessagePartitioner#getPartition(StreamingDataMessage, int)} which must
+	 * cycle through all partitions
+	 */
+	@Test
+	public void testRoundRobinGetPartition_withMultiplePartitions() {
+		RoundRobinMessagePartitioner partitioner = new RoundRobinMessagePartitioner();
+		for(int i = 0; i < 10; i++)
+			Assert.assertEquals("Unexpected partition", i % 4, partitioner.getPartition(null, 4));
+	}
+	
+}
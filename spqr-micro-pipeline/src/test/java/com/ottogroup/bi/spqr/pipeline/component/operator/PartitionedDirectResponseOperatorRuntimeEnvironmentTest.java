@@ -0,0 +1,377 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.operator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.codahale.metrics.Counter;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.ComponentThreadPlacement;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.scheduler.ThreadPlacementRegistry;
+
+/**
+ * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class PartitionedDirectResponseOperatorRuntimeEnvironmentTest {
+
+	private static ExecutorService executorService = Executors.newCachedThreadPool();
+	
+	@AfterClass
+	public static void shutdown() {
+		if(executorService != null)
+			executorService.shutdownNow();
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#PartitionedDirectResponseOperatorRuntimeEnvironment(String, String, List, StreamingDataMessagePartitioner, boolean, StreamingMessageQueueConsumer, StreamingMessageQueueProducer, ExecutorService)}
+	 * being provided an empty list of operators
+	 */
+	@Test
+	public void testConstructor_withEmptyOperatorsInput() {
+		try {
+			new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", Collections.<DirectResponseOperator>emptyList(), new RoundRobinMessagePartitioner(), false, 
+					Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class), executorService);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#PartitionedDirectResponseOperatorRuntimeEnvironment(String, String, List, StreamingDataMessagePartitioner, boolean, StreamingMessageQueueConsumer, StreamingMessageQueueProducer, ExecutorService)}
+	 * being provided a list of operators containing null
+	 */
+	@Test
+	public void testConstructor_withNullOperatorElementInput() {
+		try {
+			new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", Arrays.asList(Mockito.mock(DirectResponseOperator.class), null), new RoundRobinMessagePartitioner(), false, 
+					Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class), executorService);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#PartitionedDirectResponseOperatorRuntimeEnvironment(String, String, List, StreamingDataMessagePartitioner, boolean, StreamingMessageQueueConsumer, StreamingMessageQueueProducer, ExecutorService)}
+	 * being provided null as input to partitioner parameter
+	 */
+	@Test
+	public void testConstructor_withNullPartitionerInput() {
+		try {
+			new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", Arrays.asList(Mockito.mock(DirectResponseOperator.class)), null, false, 
+					Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class), executorService);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#PartitionedDirectResponseOperatorRuntimeEnvironment(String, String, List, StreamingDataMessagePartitioner, boolean, StreamingMessageQueueConsumer, StreamingMessageQueueProducer, ExecutorService)}
+	 * being provided null as input to executor service parameter
+	 */
+	@Test
+	public void testConstructor_withNullExecutorServiceInput() {
+		try {
+			new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", Arrays.asList(Mockito.mock(DirectResponseOperator.class)), new RoundRobinMessagePartitioner(), false, 
+					Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class), null);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#run()} with ordered merge where the first
+	 * partition is considerably slower than the second one. The responses must be written in the order the messages were received 
+	 */
+	@Test
+	public void testRun_withOrderedMerge() throws Exception {
+		final int numOfMessages = 10;
+		final ConcurrentLinkedQueue<StreamingDataMessage> inputMessages = new ConcurrentLinkedQueue<>();
+		for(int i = 0; i < numOfMessages; i++)
+			inputMessages.add(new StreamingDataMessage(String.valueOf(i).getBytes(), System.currentTimeMillis()));
+		
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingMessageQueueWaitStrategy queueConsumerStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerStrategy);
+		Mockito.when(queueConsumerStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenAnswer(new Answer<StreamingDataMessage>() {
+			public StreamingDataMessage answer(InvocationOnMock invocation) throws Throwable {
+				StreamingDataMessage message = inputMessages.poll();
+				if(message == null)
+					Thread.sleep(10);
+				return message;
+			}
+		});
+		
+		final List<String> outputMessages = Collections.synchronizedList(new ArrayList<String>());
+		StreamingMessageQueueProducer queueProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		Mockito.when(queueProducer.getWaitStrategy()).thenReturn(Mockito.mock(StreamingMessageQueueWaitStrategy.class));
+		Mockito.when(queueProducer.insertBatch(Mockito.any(StreamingDataMessage[].class))).thenAnswer(new Answer<Integer>() {
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				StreamingDataMessage[] messages = (StreamingDataMessage[])invocation.getArguments()[0];
+				for(StreamingDataMessage message : messages)
+					outputMessages.add(new String(message.getBody()));
+				return messages.length;
+			}
+		});
+		
+		Counter messageCounter = new Counter();
+		PartitionedDirectResponseOperatorRuntimeEnvironment env = new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", 
+				Arrays.asList(newEchoOperator(20), newEchoOperator(0)), new RoundRobinMessagePartitioner(), true, queueConsumer, queueProducer, executorService);
+		env.setMessageCounter(messageCounter);
+		Assert.assertEquals("Expected two partitions", 2, env.getNumOfPartitions());
+		Assert.assertTrue("Expected ordered merge", env.isOrderedMerge());
+		executorService.submit(env);
+		
+		long timeout = System.currentTimeMillis() + 5000;
+		while(outputMessages.size() < numOfMessages && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		env.shutdown();
+		
+		List<String> expectedMessages = new ArrayList<>();
+		for(int i = 0; i < numOfMessages; i++)
+			expectedMessages.add(String.valueOf(i));
+		Assert.assertEquals("Responses must be written in the order messages were received", expectedMessages, new ArrayList<>(outputMessages));
+		Assert.assertEquals("All messages must be counted", numOfMessages, messageCounter.getCount());
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#shutdown()} being called while the partitions still
+	 * hold messages. All messages must be processed before they get committed and the operators are shut down
+	 */
+	@Test
+	public void testShutdown_withPendingMessages() throws Exception {
+		final int numOfMessages = 10;
+		final ConcurrentLinkedQueue<StreamingDataMessage> inputMessages = new ConcurrentLinkedQueue<>();
+		for(int i = 0; i < numOfMessages; i++)
+			inputMessages.add(new StreamingDataMessage(String.valueOf(i).getBytes(), System.currentTimeMillis()));
+		
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingMessageQueueWaitStrategy queueConsumerStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerStrategy);
+		Mockito.when(queueConsumerStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenAnswer(new Answer<StreamingDataMessage>() {
+			public StreamingDataMessage answer(InvocationOnMock invocation) throws Throwable {
+				StreamingDataMessage message = inputMessages.poll();
+				if(message == null)
+					Thread.sleep(10);
+				return message;
+			}
+		});
+		
+		final AtomicInteger forwardedMessages = new AtomicInteger(0);
+		StreamingMessageQueueProducer queueProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		Mockito.when(queueProducer.getWaitStrategy()).thenReturn(Mockito.mock(StreamingMessageQueueWaitStrategy.class));
+		Mockito.when(queueProducer.insertBatch(Mockito.any(StreamingDataMessage[].class))).thenAnswer(new Answer<Integer>() {
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				return forwardedMessages.addAndGet(((StreamingDataMessage[])invocation.getArguments()[0]).length);
+			}
+		});
+		
+		DirectResponseOperator operator = newEchoOperator(20);
+		DirectResponseOperator otherOperator = newEchoOperator(20);
+		PartitionedDirectResponseOperatorRuntimeEnvironment env = new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", 
+				Arrays.asList(operator, otherOperator), new RoundRobinMessagePartitioner(), false, queueConsumer, queueProducer, executorService);
+		Mockito.verify(queueConsumer).setExplicitCommit(true);
+		executorService.submit(env);
+		
+		long timeout = System.currentTimeMillis() + 5000;
+		while(!inputMessages.isEmpty() && System.currentTimeMillis() < timeout)
+			Thread.sleep(1);
+		env.shutdown();
+		
+		Assert.assertEquals("All messages must be processed", numOfMessages, forwardedMessages.get());
+		InOrder inOrder = Mockito.inOrder(operator, queueConsumer);
+		inOrder.verify(operator, Mockito.times(numOfMessages / 2)).onMessage(Mockito.any(StreamingDataMessage.class));
+		inOrder.verify(queueConsumer, Mockito.atLeastOnce()).commit(Mockito.anyInt());
+		inOrder.verify(operator).shutdown();
+		Mockito.verify(otherOperator).shutdown();
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#run()} with one partition being stalled while processing
+	 * a message. The messages processed in sequence before the stalled one must be committed, the remaining ones after it got processed
+	 */
+	@Test
+	public void testRun_withStalledPartition() throws Exception {
+		final int numOfMessages = 10;
+		final ConcurrentLinkedQueue<StreamingDataMessage> inputMessages = new ConcurrentLinkedQueue<>();
+		for(int i = 0; i < numOfMessages; i++)
+			inputMessages.add(new StreamingDataMessage(String.valueOf(i).getBytes(), System.currentTimeMillis()));
+		
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingMessageQueueWaitStrategy queueConsumerStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerStrategy);
+		Mockito.when(queueConsumerStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenAnswer(new Answer<StreamingDataMessage>() {
+			public StreamingDataMessage answer(InvocationOnMock invocation) throws Throwable {
+				StreamingDataMessage message = inputMessages.poll();
+				if(message == null)
+					Thread.sleep(10);
+				return message;
+			}
+		});
+		final AtomicInteger committedMessages = new AtomicInteger(0);
+		Mockito.doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				committedMessages.addAndGet((Integer)invocation.getArguments()[0]);
+				return null;
+			}
+		}).when(queueConsumer).commit(Mockito.anyInt());
+		
+		StreamingMessageQueueProducer queueProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		Mockito.when(queueProducer.getWaitStrategy()).thenReturn(Mockito.mock(StreamingMessageQueueWaitStrategy.class));
+		
+		// stalls on the fifth message
+		final CountDownLatch stallLatch = new CountDownLatch(1);
+		final AtomicInteger processedMessages = new AtomicInteger(0);
+		final Answer<StreamingDataMessage[]> stallingEcho = new Answer<StreamingDataMessage[]>() {
+			public StreamingDataMessage[] answer(InvocationOnMock invocation) throws Throwable {
+				StreamingDataMessage message = (StreamingDataMessage)invocation.getArguments()[0];
+				if("4".equals(new String(message.getBody())))
+					stallLatch.await();
+				processedMessages.incrementAndGet();
+				return new StreamingDataMessage[]{message};
+			}
+		};
+		DirectResponseOperator operator = Mockito.mock(DirectResponseOperator.class);
+		Mockito.when(operator.onMessage(Mockito.any(StreamingDataMessage.class))).thenAnswer(stallingEcho);
+		DirectResponseOperator otherOperator = Mockito.mock(DirectResponseOperator.class);
+		Mockito.when(otherOperator.onMessage(Mockito.any(StreamingDataMessage.class))).thenAnswer(stallingEcho);
+		
+		PartitionedDirectResponseOperatorRuntimeEnvironment env = new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", 
+				Arrays.asList(operator, otherOperator), new RoundRobinMessagePartitioner(), false, queueConsumer, queueProducer, executorService);
+		executorService.submit(env);
+		
+		// the other partition processes the remaining messages while the stalled one keeps the fifth message
+		long timeout = System.currentTimeMillis() + 5000;
+		while(processedMessages.get() < numOfMessages / 2 + 2 && System.currentTimeMillis() < timeout)
+			Thread.sleep(1);
+		timeout = System.currentTimeMillis() + 5000;
+		while(committedMessages.get() < 4 && System.currentTimeMillis() < timeout)
+			Thread.sleep(1);
+		Thread.sleep(50);
+		Assert.assertEquals("The messages processed before the stalled one must be committed", 4, committedMessages.get());
+		
+		stallLatch.countDown();
+		timeout = System.currentTimeMillis() + 5000;
+		while(committedMessages.get() < numOfMessages && System.currentTimeMillis() < timeout)
+			Thread.sleep(1);
+		Assert.assertEquals("All messages must be committed", numOfMessages, committedMessages.get());
+		env.shutdown();
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#run()} being provided a thread placement. The partition 
+	 * and merge threads must be recorded with the {@link ThreadPlacementRegistry} while running and removed on shutdown
+	 */
+	@Test
+	public void testRun_withThreadPlacement() throws Exception {
+		StreamingMessageQueueConsumer queueConsumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		StreamingMessageQueueWaitStrategy queueConsumerStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(queueConsumer.getWaitStrategy()).thenReturn(queueConsumerStrategy);
+		Mockito.when(queueConsumerStrategy.waitFor(Mockito.eq(queueConsumer), Mockito.anyLong(), Mockito.any(TimeUnit.class))).thenAnswer(new Answer<StreamingDataMessage>() {
+			public StreamingDataMessage answer(InvocationOnMock invocation) throws Throwable {
+				Thread.sleep(10);
+				return null;
+			}
+		});
+		StreamingMessageQueueProducer queueProducer = Mockito.mock(StreamingMessageQueueProducer.class);
+		Mockito.when(queueProducer.getWaitStrategy()).thenReturn(Mockito.mock(StreamingMessageQueueWaitStrategy.class));
+		
+		DirectResponseOperator operator = newEchoOperator(0);
+		Mockito.when(operator.getId()).thenReturn("op");
+		ThreadPlacementRegistry registry = new ThreadPlacementRegistry();
+		PartitionedDirectResponseOperatorRuntimeEnvironment env = new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", 
+				Arrays.asList(operator, newEchoOperator(0)), new RoundRobinMessagePartitioner(), true, queueConsumer, queueProducer, executorService);
+		env.setThreadPlacement(registry, 0);
+		executorService.submit(env);
+		
+		long timeout = System.currentTimeMillis() + 5000;
+		while(registry.getPlacements().size() < 3 && System.currentTimeMillis() < timeout)
+			Thread.sleep(1);
+		
+		List<ComponentThreadPlacement> placements = registry.getPlacements();
+		Assert.assertEquals("Values must be equal", 3, placements.size());
+		Assert.assertEquals("Values must be equal", "op/merge", placements.get(0).getComponentId());
+		Assert.assertEquals("Values must be equal", "proc-id/pipe-id/op/merge", placements.get(0).getThreadName());
+		Assert.assertEquals("Values must be equal", "op/partition-0", placements.get(1).getComponentId());
+		Assert.assertEquals("Values must be equal", "op/partition-1", placements.get(2).getComponentId());
+		
+		env.shutdown();
+		timeout = System.currentTimeMillis() + 5000;
+		while(!registry.getPlacements().isEmpty() && System.currentTimeMillis() < timeout)
+			Thread.sleep(1);
+		Assert.assertTrue("The placements must be removed on shutdown", registry.getPlacements().isEmpty());
+	}
+	
+	/**
+	 * Test case for {@link PartitionedDirectResponseOperatorRuntimeEnvironment#shutdown()} which must shut down all operators
+	 */
+	@Test
+	public void testShutdown_withMultipleOperators() throws RequiredInputMissingException {
+		DirectResponseOperator operator = Mockito.mock(DirectResponseOperator.class);
+		DirectResponseOperator otherOperator = Mockito.mock(DirectResponseOperator.class);
+		PartitionedDirectResponseOperatorRuntimeEnvironment env = new PartitionedDirectResponseOperatorRuntimeEnvironment("proc-id", "pipe-id", Arrays.asList(operator, otherOperator), 
+				new RoundRobinMessagePartitioner(), false, Mockito.mock(StreamingMessageQueueConsumer.class), Mockito.mock(StreamingMessageQueueProducer.class), executorService);
+		env.shutdown();
+		
+		Assert.assertFalse("The environment must not be running", env.isRunning());
+		Mockito.verify(operator).shutdown();
+		Mockito.verify(otherOperator).shutdown();
+	}
+	
+	/**
+	 * Returns an operator which responds with the received message after the given delay
+	 * @param delayMillis
+	 * @return
+	 */
+	protected DirectResponseOperator newEchoOperator(final long delayMillis) {
+		DirectResponseOperator operator = Mockito.mock(DirectResponseOperator.class);
+		Mockito.when(operator.onMessage(Mockito.any(StreamingDataMessage.class))).thenAnswer(new Answer<StreamingDataMessage[]>() {
+			public StreamingDataMessage[] answer(InvocationOnMock invocation) throws Throwable {
+				if(delayMillis > 0)
+					Thread.sleep(delayMillis);
+				return new StreamingDataMessage[]{(StreamingDataMessage)invocation.getArguments()[0]};
+			}
+		});
+		return operator;
+	}
+	
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.queue.chronicle;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueueOffsetFile;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueueRetention;
+
+import net.openhft.chronicle.ExcerptTailer;
+
+/**
+ * Test case for {@link DefaultStreamingMessageQueueRetention}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class DefaultStreamingMessageQueueRetentionTest {
+
+	private static final long CYCLE_LENGTH = TimeUnit.HOURS.toMillis(1);
+	private static final int ENTRIES_FOR_CYCLE_BITS = 40;
+	private static final String CYCLE_FORMAT = "yyyy-MM-dd-HH-mm";
+	
+	private File chronicleDirectory = null;
+	/** current cycle */
+	private long cycle = 0;
+	/** current time - half an hour into the current cycle */
+	private long now = 0;
+	
+	@Before
+	public void setUp() throws IOException {
+		this.chronicleDirectory = Files.createTempDirectory("retention").toFile();
+		this.cycle = System.currentTimeMillis() / CYCLE_LENGTH;
+		this.now = this.cycle * CYCLE_LENGTH + TimeUnit.MINUTES.toMillis(30);
+	}
+	
+	@After
+	public void tearDown() {
+		delete(this.chronicleDirectory);
+	}
+	
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueueRetention#run()} where cycles all consumers have moved past 
+	 * must be deleted while the cycles still being read must be kept
+	 */
+	@Test
+	public void testApplyRetention_withConsumedCycles() throws IOException {
+		DefaultStreamingMessageQueueRetention retention = new DefaultStreamingMessageQueueRetention("queue", this.chronicleDirectory, CYCLE_FORMAT, CYCLE_LENGTH, ENTRIES_FOR_CYCLE_BITS, true, 0, 0);
+		File[] cycles = createCycles(retention, 4, 10);
+		retention.addConsumer(getConsumer((this.cycle - 1) << ENTRIES_FOR_CYCLE_BITS));
+		retention.addConsumer(getConsumer(((this.cycle - 2) << ENTRIES_FOR_CYCLE_BITS) + 5));
+		
+		retention.applyRetention(this.now);
+		Assert.assertFalse("The cycle must be deleted", cycles[3].exists());
+		Assert.assertTrue("The cycle must be kept", cycles[2].exists());
+		Assert.assertTrue("The cycle must be kept", cycles[1].exists());
+		Assert.assertTrue("The cycle must be kept", cycles[0].exists());
+		Assert.assertEquals("Values must be equal", 1, retention.getDeletedCycles().getCount());
+		Assert.assertEquals("Values must be equal", 10, retention.getDeletedBytes().getCount());
+		Assert.assertEquals("Values must be equal", 3, retention.getNumOfCycles());
+		Assert.assertEquals("Values must be equal", 30, retention.getDiskBytes());
+		
+		retention.addConsumer(getConsumer(DefaultStreamingMessageQueueOffsetFile.NO_INDEX));
+		createCycles(retention, 4, 10);
+		retention.applyRetention(this.now);
+		Assert.assertTrue("A consumer which has not read any message must protect all cycles", cycles[3].exists());
+	}
+
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueueRetention#run()} where the consumer has an offset file attached which lags 
+	 * behind the last retrieved message. The cycle holding the committed index must be kept as the consumer resumes there after a restart 
+	 */
+	@Test
+	public void testApplyRetention_withCommittedIndexLaggingBehind() throws IOException {
+		DefaultStreamingMessageQueueRetention retention = new DefaultStreamingMessageQueueRetention("queue", this.chronicleDirectory, CYCLE_FORMAT, CYCLE_LENGTH, ENTRIES_FOR_CYCLE_BITS, true, 0, 0);
+		File[] cycles = createCycles(retention, 5, 10);
+		
+		ExcerptTailer tailer = Mockito.mock(ExcerptTailer.class);
+		Mockito.when(tailer.index(Mockito.anyLong())).thenReturn(true);
+		DefaultStreamingMessageQueueConsumer consumer = new DefaultStreamingMessageQueueConsumer("queue", tailer, null);
+		Assert.assertTrue("The seek must succeed", consumer.seek((this.cycle - 1) << ENTRIES_FOR_CYCLE_BITS));
+		DefaultStreamingMessageQueueOffsetFile offsetFile = new DefaultStreamingMessageQueueOffsetFile(new File(this.chronicleDirectory, "queue" + DefaultStreamingMessageQueueOffsetFile.FILE_SUFFIX));
+		try {
+			offsetFile.commit(((this.cycle - 3) << ENTRIES_FOR_CYCLE_BITS) + 5);
+			consumer.setOffsetFile(offsetFile, 100);
+			retention.addConsumer(consumer);
+			
+			retention.applyRetention(this.now);
+			Assert.assertFalse("The cycle must be deleted", cycles[4].exists());
+			Assert.assertTrue("The cycle holding the committed index must be kept", cycles[3].exists());
+			Assert.assertTrue("The cycle must be kept", cycles[2].exists());
+		} finally {
+			offsetFile.close();
+		}
+	}
+
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueueRetention#run()} being configured with a max. age where all 
+	 * cycles exceeding it must be deleted regardless of the consumer positions
+	 */
+	@Test
+	public void testApplyRetention_withMaxAge() throws IOException {
+		DefaultStreamingMessageQueueRetention retention = new DefaultStreamingMessageQueueRetention("queue", this.chronicleDirectory, CYCLE_FORMAT, CYCLE_LENGTH, ENTRIES_FOR_CYCLE_BITS, true, 0, TimeUnit.MINUTES.toMillis(90));
+		File[] cycles = createCycles(retention, 4, 10);
+		retention.addConsumer(getConsumer(DefaultStreamingMessageQueueOffsetFile.NO_INDEX));
+		
+		retention.applyRetention(this.now);
+		Assert.assertFalse("The cycle must be deleted", cycles[3].exists());
+		Assert.assertFalse("The cycle must be deleted", cycles[2].exists());
+		Assert.assertTrue("The cycle must be kept", cycles[1].exists());
+		Assert.assertTrue("The cycle must be kept", cycles[0].exists());
+	}
+
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueueRetention#run()} being configured with a max. number of bytes where the
+	 * oldest cycles must be deleted until the limit is met. The current cycle must never be deleted
+	 */
+	@Test
+	public void testApplyRetention_withMaxBytes() throws IOException {
+		DefaultStreamingMessageQueueRetention retention = new DefaultStreamingMessageQueueRetention("queue", this.chronicleDirectory, CYCLE_FORMAT, CYCLE_LENGTH, ENTRIES_FOR_CYCLE_BITS, false, 25, 0);
+		File[] cycles = createCycles(retention, 4, 10);
+		
+		retention.applyRetention(this.now);
+		Assert.assertFalse("The cycle must be deleted", cycles[3].exists());
+		Assert.assertFalse("The cycle must be deleted", cycles[2].exists());
+		Assert.assertTrue("The cycle must be kept", cycles[1].exists());
+		Assert.assertEquals("Values must be equal", 20, retention.getDiskBytes());
+		
+		retention = new DefaultStreamingMessageQueueRetention("queue", this.chronicleDirectory, CYCLE_FORMAT, CYCLE_LENGTH, ENTRIES_FOR_CYCLE_BITS, false, 1, 0);
+		retention.applyRetention(this.now);
+		Assert.assertFalse("The cycle must be deleted", cycles[1].exists());
+		Assert.assertTrue("The current cycle must be kept", cycles[0].exists());
+	}
+	
+	/**
+	 * Creates cycle directories for the current cycle and the given number of previous ones. Each directory holds 
+	 * a single file of the given size
+	 * @param retention
+	 * @param numOfCycles
+	 * @param bytes
+	 * @return cycle directories, current cycle first
+	 * @throws IOException
+	 */
+	private File[] createCycles(final DefaultStreamingMessageQueueRetention retention, final int numOfCycles, final int bytes) throws IOException {
+		File[] cycles = new File[numOfCycles];
+		for(int i = 0; i < numOfCycles; i++) {
+			cycles[i] = new File(this.chronicleDirectory, retention.getCycleFormat().format((this.cycle - i) * CYCLE_LENGTH));
+			cycles[i].mkdirs();
+			try(FileOutputStream out = new FileOutputStream(new File(cycles[i], "data-1-0"))) {
+				out.write(new byte[bytes]);
+			}
+		}
+		return cycles;
+	}
+	
+	/**
+	 * Returns a consumer which reports the given index as resume index
+	 * @param resumeIndex
+	 * @return
+	 */
+	private DefaultStreamingMessageQueueConsumer getConsumer(final long resumeIndex) {
+		DefaultStreamingMessageQueueConsumer consumer = Mockito.mock(DefaultStreamingMessageQueueConsumer.class);
+		Mockito.when(consumer.getResumeIndex()).thenReturn(resumeIndex);
+		return consumer;
+	}
+	
+	/**
+	 * Deletes the given file or directory including its contents
+	 * @param file
+	 */
+	private void delete(final File file) {
+		final File[] children = file.listFiles();
+		if(children != null)
+			for(final File child : children)
+				delete(child);
+		file.delete();
+	}
+}
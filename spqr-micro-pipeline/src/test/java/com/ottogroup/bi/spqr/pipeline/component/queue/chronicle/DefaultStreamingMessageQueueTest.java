@@ -15,7 +15,9 @@
  */
 package com.ottogroup.bi.spqr.pipeline.component.queue.chronicle;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Properties;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
@@ -32,9 +34,11 @@ import org.junit.Test;
 
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
 import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueueOffsetFile;
 
 import net.openhft.chronicle.Chronicle;
 
@@ -142,6 +146,379 @@ public class DefaultStreamingMessageQueueTest {
 		Assert.assertTrue("Values must be equal", StringUtils.equalsIgnoreCase(new String(content), new String(msg.getBody())));
 		Assert.assertEquals("Values must be equal", timestamp, msg.getTimestamp());		
 	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueProducer#insertBatch(StreamingDataMessage[])} and {@link StreamingMessageQueueConsumer#drainTo(StreamingDataMessage[], int)}
+	 * where all messages must be retrieved in insertion order while respecting the provided max. number of messages
+	 */
+	@Test
+	public void testInsertBatchAndDrainTo_withMultipleMessages() throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "true");
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, System.getProperty("java.io.tmpdir"));
+		DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+		inbox.setId("testInsertBatchAndDrainTo_withMultipleMessages");
+		inbox.initialize(props);
+		
+		StreamingDataMessage[] messages = new StreamingDataMessage[5];
+		for(int i = 0; i < messages.length; i++)
+			messages[i] = new StreamingDataMessage(("message-" + i).getBytes(), i);
+		Assert.assertEquals("Values must be equal", 5, inbox.getProducer().insertBatch(messages));
+		
+		StreamingDataMessage[] buffer = new StreamingDataMessage[10];
+		Assert.assertEquals("Values must be equal", 3, inbox.getConsumer().drainTo(buffer, 3));
+		Assert.assertEquals("Values must be equal", 2, inbox.getConsumer().drainTo(buffer, 10));
+		Assert.assertEquals("Values must be equal", "message-3", new String(buffer[0].getBody()));
+		Assert.assertEquals("Values must be equal", 4, buffer[1].getTimestamp());
+		Assert.assertEquals("Values must be equal", 0, inbox.getConsumer().drainTo(buffer, 10));
+		inbox.shutdown();
+	}
+
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueue#getConsumer(String)} on a broadcast queue where each consumer
+	 * must receive all messages and the backlog must reflect the slowest consumer
+	 */
+	@Test
+	public void testGetConsumer_withBroadcastQueue() throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "true");
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, System.getProperty("java.io.tmpdir"));
+		props.put(DefaultStreamingMessageQueue.CFG_QUEUE_BROADCAST, "true");
+		DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+		inbox.setId("testGetConsumer_withBroadcastQueue");
+		inbox.initialize(props);
+		
+		StreamingMessageQueueConsumer first = inbox.getConsumer("emitter-1");
+		StreamingMessageQueueConsumer second = inbox.getConsumer("emitter-2");
+		Assert.assertSame("The first consumer must be the primary one", inbox.getConsumer(), first);
+		Assert.assertNotSame("The consumers must differ", first, second);
+		Assert.assertSame("The consumer must be looked up by its identifier", second, inbox.getConsumer("emitter-2"));
+		
+		for(int i = 0; i < 3; i++)
+			Assert.assertTrue("The insertion must succeed", inbox.getProducer().insert(new StreamingDataMessage(("message-" + i).getBytes(), i)));
+		Assert.assertEquals("Values must be equal", 3, inbox.getBacklog());
+		
+		for(int i = 0; i < 3; i++)
+			Assert.assertEquals("Values must be equal", i, first.next().getTimestamp());
+		Assert.assertNull("The consumer must not receive any further messages", first.next());
+		Assert.assertEquals("The backlog must reflect the slowest consumer", 3, inbox.getBacklog());
+		
+		for(int i = 0; i < 3; i++)
+			Assert.assertEquals("Values must be equal", "message-" + i, new String(second.next().getBody()));
+		Assert.assertNull("The consumer must not receive any further messages", second.next());
+		Assert.assertEquals("Values must be equal", 0, inbox.getBacklog());
+		inbox.shutdown();
+	}
+
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueue#initialize(Properties)} being configured to resume where the 
+	 * consumer of a restarted queue must continue behind the last message retrieved before the shutdown
+	 */
+	@Test
+	public void testInitialize_withResume() throws Exception {
+		// the queue lower cases the configured path
+		File basePath = Files.createTempDirectory("resume").toFile();
+		try {
+			Properties props = new Properties();
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "false");
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, basePath.getAbsolutePath());
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_RESUME, "true");
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_CHECKPOINT_INTERVAL, "2");
+			
+			DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+			inbox.setId("testInitialize_withResume");
+			inbox.initialize(props);
+			for(int i = 0; i < 5; i++)
+				Assert.assertTrue("The insertion must succeed", inbox.getProducer().insert(new StreamingDataMessage(("message-" + i).getBytes(), i)));
+			for(int i = 0; i < 3; i++)
+				Assert.assertEquals("Values must be equal", i, inbox.getConsumer().next().getTimestamp());
+			inbox.shutdown();
+			Assert.assertTrue("The offset file must exist", new File(basePath, "testInitialize_withResume" + DefaultStreamingMessageQueueOffsetFile.FILE_SUFFIX).isFile());
+			
+			DefaultStreamingMessageQueue restarted = new DefaultStreamingMessageQueue();
+			restarted.setId("testInitialize_withResume");
+			restarted.initialize(props);
+			Assert.assertEquals("Values must be equal", 3, restarted.getConsumer().next().getTimestamp());
+			Assert.assertEquals("Values must be equal", "message-4", new String(restarted.getConsumer().next().getBody()));
+			Assert.assertNull("The consumer must not receive any further messages", restarted.getConsumer().next());
+			restarted.shutdown();
+		} finally {
+			delete(basePath);
+		}
+	}
+	
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueueConsumer#commit()} where the consumer keeps messages beyond the next retrieval. 
+	 * Neither an idle retrieval nor the shutdown may commit messages which have not been acknowledged, thus the consumer of the 
+	 * restarted queue must continue behind the last acknowledged message 
+	 */
+	@Test
+	public void testDrainTo_withExplicitCommit() throws Exception {
+		File basePath = Files.createTempDirectory("explicitcommit").toFile();
+		try {
+			Properties props = new Properties();
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "false");
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, basePath.getAbsolutePath());
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_RESUME, "true");
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_CHECKPOINT_INTERVAL, "1");
+			
+			DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+			inbox.setId("testDrainTo_withExplicitCommit");
+			inbox.initialize(props);
+			inbox.getConsumer().setExplicitCommit(true);
+			for(int i = 0; i < 5; i++)
+				Assert.assertTrue("The insertion must succeed", inbox.getProducer().insert(new StreamingDataMessage(("message-" + i).getBytes(), i)));
+			
+			StreamingDataMessage[] buffer = new StreamingDataMessage[3];
+			Assert.assertEquals("Values must be equal", 3, inbox.getConsumer().drainTo(buffer, 3));
+			inbox.getConsumer().commit();
+			Assert.assertEquals("Values must be equal", 2, inbox.getConsumer().drainTo(buffer, 3));
+			Assert.assertEquals("Values must be equal", 0, inbox.getConsumer().drainTo(buffer, 3));
+			Assert.assertNull("The consumer must not receive any further messages", inbox.getConsumer().next());
+			inbox.shutdown();
+			
+			DefaultStreamingMessageQueue restarted = new DefaultStreamingMessageQueue();
+			restarted.setId("testDrainTo_withExplicitCommit");
+			restarted.initialize(props);
+			Assert.assertEquals("Values must be equal", 3, restarted.getConsumer().next().getTimestamp());
+			Assert.assertEquals("Values must be equal", 4, restarted.getConsumer().next().getTimestamp());
+			Assert.assertNull("The consumer must not receive any further messages", restarted.getConsumer().next());
+			restarted.shutdown();
+		} finally {
+			delete(basePath);
+		}
+	}
+	
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueueConsumer#commit(int)} acknowledging the retrieved messages in parts. The 
+	 * consumer of the restarted queue must continue behind the last acknowledged message, no matter how many got retrieved 
+	 */
+	@Test
+	public void testCommit_withNumOfMessages() throws Exception {
+		File basePath = Files.createTempDirectory("commitnum").toFile();
+		try {
+			Properties props = new Properties();
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "false");
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, basePath.getAbsolutePath());
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_RESUME, "true");
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_CHECKPOINT_INTERVAL, "1");
+			
+			DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+			inbox.setId("testCommit_withNumOfMessages");
+			inbox.initialize(props);
+			inbox.getConsumer().setExplicitCommit(true);
+			for(int i = 0; i < 100; i++)
+				Assert.assertTrue("The insertion must succeed", inbox.getProducer().insert(new StreamingDataMessage(("message-" + i).getBytes(), i)));
+			
+			// exceed the initial capacity of pending indexes 
+			for(int i = 0; i < 10; i++)
+				Assert.assertEquals("Values must be equal", i, inbox.getConsumer().next().getTimestamp());
+			StreamingDataMessage[] buffer = new StreamingDataMessage[80];
+			Assert.assertEquals("Values must be equal", 80, inbox.getConsumer().drainTo(buffer, 80));
+			inbox.getConsumer().commit(2);
+			inbox.getConsumer().commit(70);
+			Assert.assertEquals("Values must be equal", 10, inbox.getConsumer().drainTo(buffer, 80));
+			inbox.shutdown();
+			
+			DefaultStreamingMessageQueue restarted = new DefaultStreamingMessageQueue();
+			restarted.setId("testCommit_withNumOfMessages");
+			restarted.initialize(props);
+			Assert.assertEquals("Values must be equal", 72, restarted.getConsumer().next().getTimestamp());
+			restarted.shutdown();
+		} finally {
+			delete(basePath);
+		}
+	}
+	
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueueOffsetFile} where a committed index must be read by a new instance
+	 * accessing the same file
+	 */
+	@Test
+	public void testOffsetFile_withCommittedIndex() throws Exception {
+		File file = File.createTempFile("testOffsetFile_withCommittedIndex", DefaultStreamingMessageQueueOffsetFile.FILE_SUFFIX);
+		try {
+			DefaultStreamingMessageQueueOffsetFile offsetFile = new DefaultStreamingMessageQueueOffsetFile(file);
+			Assert.assertEquals("Values must be equal", DefaultStreamingMessageQueueOffsetFile.NO_INDEX, offsetFile.getCommittedIndex());
+			offsetFile.commit(0);
+			Assert.assertEquals("Values must be equal", 0, offsetFile.getCommittedIndex());
+			offsetFile.commit(4711);
+			Assert.assertTrue("The commit timestamp must be set", offsetFile.getCommitTimestamp() > 0);
+			offsetFile.close();
+			
+			offsetFile = new DefaultStreamingMessageQueueOffsetFile(file);
+			Assert.assertEquals("Values must be equal", 4711, offsetFile.getCommittedIndex());
+			offsetFile.close();
+		} finally {
+			delete(file);
+		}
+	}
+
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueue#insert(StreamingDataMessage)} being called by multiple threads 
+	 * concurrently where the consumer must receive all messages while the order of each writer must be preserved
+	 */
+	@Test
+	public void testInsert_withMultipleWriters() throws Exception {
+		Properties props = new Properties();
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "true");
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, System.getProperty("java.io.tmpdir"));
+		final DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+		inbox.setId("testInsert_withMultipleWriters");
+		inbox.initialize(props);
+		
+		final int numWriters = 4;
+		final int numMessages = 5000;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService writers = Executors.newFixedThreadPool(numWriters);
+		for(int w = 0; w < numWriters; w++) {
+			final byte writer = (byte)w;
+			writers.submit(new Callable<Boolean>() {
+				public Boolean call() throws Exception {
+					start.await();
+					for(int i = 0; i < numMessages; i++)
+						inbox.getProducer().insert(new StreamingDataMessage(new byte[]{writer}, i));
+					return true;
+				}
+			});
+		}
+		start.countDown();
+		writers.shutdown();
+		Assert.assertTrue("The writers must finish", writers.awaitTermination(30, TimeUnit.SECONDS));
+		
+		long[] expectedTimestamps = new long[numWriters];
+		for(int i = 0; i < numWriters * numMessages; i++) {
+			StreamingDataMessage message = inbox.getConsumer().next();
+			Assert.assertNotNull("The message must not be null", message);
+			int writer = message.getBody()[0];
+			Assert.assertEquals("The order of each writer must be preserved", expectedTimestamps[writer]++, message.getTimestamp());
+		}
+		Assert.assertNull("The consumer must not receive any further messages", inbox.getConsumer().next());
+		inbox.shutdown();
+	}
+	
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueue#getBacklog()} which must reflect the number of messages
+	 * inserted but not retrieved so far
+	 */
+	@Test
+	public void testGetBacklog_withInsertedAndRetrievedMessages() throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "true");
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, System.getProperty("java.io.tmpdir"));
+		DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+		inbox.setId("testGetBacklog_withInsertedAndRetrievedMessages");
+		inbox.initialize(props);
+		
+		Assert.assertEquals("Values must be equal", 0, inbox.getBacklog());
+		StreamingDataMessage[] messages = new StreamingDataMessage[5];
+		for(int i = 0; i < messages.length; i++)
+			messages[i] = new StreamingDataMessage(("message-" + i).getBytes(), i);
+		inbox.getProducer().insertBatch(messages);
+		inbox.getProducer().insert(messages[0]);
+		Assert.assertEquals("Values must be equal", 6, inbox.getBacklog());
+		
+		Assert.assertNotNull(inbox.getConsumer().next());
+		Assert.assertEquals("Values must be equal", 5, inbox.getBacklog());
+		Assert.assertEquals("Values must be equal", 5, inbox.getConsumer().drainTo(new StreamingDataMessage[10], 10));
+		Assert.assertEquals("Values must be equal", 0, inbox.getBacklog());
+		inbox.shutdown();
+	}
+
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueue#next()} requesting messages from a queue configured
+	 * to reuse messages: the consumer must hand out the same view instance pointing to the current body and
+	 * detached copies must remain valid
+	 */
+	@Test
+	public void testNext_withReusedMessages() throws IOException, RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "true");
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, System.getProperty("java.io.tmpdir"));
+		props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_READ_MODE, DefaultStreamingMessageQueue.READ_MODE_REUSE);
+		DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+		inbox.setId("testNext_withReusedMessages");
+		inbox.initialize(props);
+
+		Assert.assertTrue(inbox.getProducer().insert(new StreamingDataMessage("first message".getBytes(), 1)));		
+		Assert.assertTrue(inbox.getProducer().insert(new StreamingDataMessage("second".getBytes(), 2)));		
+
+		StreamingDataMessage first = inbox.getConsumer().next();
+		Assert.assertTrue("The message must be a view", first.isView());
+		Assert.assertEquals("Values must be equal", "first message".length(), first.getBodyLength());
+		Assert.assertEquals("Values must be equal", 1, first.getTimestamp());
+		StreamingDataMessage detached = first.detach();
+		Assert.assertFalse("The message must not be a view", detached.isView());
+		
+		// forward the view towards another chronicle queue which must copy the viewed body
+		Properties outboxProps = new Properties();
+		outboxProps.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "true");
+		outboxProps.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, System.getProperty("java.io.tmpdir"));
+		DefaultStreamingMessageQueue outbox = new DefaultStreamingMessageQueue();
+		outbox.setId("testNext_withReusedMessages_outbox");
+		outbox.initialize(outboxProps);
+		Assert.assertTrue(outbox.getProducer().insert(first));		
+
+		StreamingDataMessage second = inbox.getConsumer().next();
+		Assert.assertSame("The instances must be the same", first, second);
+		Assert.assertEquals("Values must be equal", "second", new String(second.getBody()));
+		Assert.assertEquals("Values must be equal", 2, second.getTimestamp());
+		Assert.assertEquals("Values must be equal", "first message", new String(detached.getBody()));
+		Assert.assertEquals("Values must be equal", "first message", new String(outbox.getConsumer().next().getBody()));
+		Assert.assertNull("No more messages expected", inbox.getConsumer().next());
+		
+		inbox.shutdown();
+		outbox.shutdown();
+	}
+	
+	/**
+	 * Test case for {@link DefaultStreamingMessageQueue} transporting messages with and without {@link StreamingDataMessageHeader header} 
+	 * where the header must be retrieved by copying and reusing consumers as well as by {@link StreamingMessageQueueConsumer#drainTo(StreamingDataMessage[], int)}
+	 */
+	@Test
+	public void testNext_withMessageHeader() throws RequiredInputMissingException {
+		for(final String readMode : new String[]{DefaultStreamingMessageQueue.READ_MODE_COPY, DefaultStreamingMessageQueue.READ_MODE_REUSE}) {
+			Properties props = new Properties();
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_DELETE_ON_EXIT, "true");
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, System.getProperty("java.io.tmpdir"));
+			props.put(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_READ_MODE, readMode);
+			DefaultStreamingMessageQueue inbox = new DefaultStreamingMessageQueue();
+			inbox.setId("testNext_withMessageHeader_" + readMode);
+			inbox.initialize(props);
+			
+			StreamingDataMessageHeader header = new StreamingDataMessageHeader("key-1".getBytes(), 3, 12345l);
+			header.setTraceId("trace-1");
+			header.setAttribute("country", "de").setAttribute("empty", "");
+			Assert.assertTrue(inbox.getProducer().insert(new StreamingDataMessage("with header".getBytes(), 1, header)));
+			Assert.assertTrue(inbox.getProducer().insert(new StreamingDataMessage("without header".getBytes(), 2)));
+			Assert.assertTrue(inbox.getProducer().insert(new StreamingDataMessage("partition only".getBytes(), 3, new StreamingDataMessageHeader(null, 7, StreamingDataMessageHeader.NO_OFFSET))));
+			
+			StreamingDataMessage msg = inbox.getConsumer().next();
+			Assert.assertEquals("Values must be equal", "with header", new String(msg.getBody()));
+			Assert.assertTrue("Message must carry a header", msg.hasHeader());
+			Assert.assertEquals("Values must be equal", "key-1", new String(msg.getHeader().getKey()));
+			Assert.assertEquals("Values must be equal", 3, msg.getHeader().getPartition());
+			Assert.assertEquals("Values must be equal", 12345l, msg.getHeader().getSourceOffset());
+			Assert.assertEquals("Values must be equal", "trace-1", msg.getHeader().getTraceId());
+			Assert.assertEquals("Values must be equal", "de", msg.getHeader().getAttribute("country"));
+			Assert.assertEquals("Values must be equal", "", msg.getHeader().getAttribute("empty"));
+			Assert.assertEquals("Values must be equal", "with header".length(), msg.getBodyLength());
+			
+			msg = inbox.getConsumer().next();
+			Assert.assertEquals("Values must be equal", "without header", new String(msg.getBody()));
+			Assert.assertFalse("Message must not carry a header", msg.hasHeader());
+			
+			StreamingDataMessage[] buffer = new StreamingDataMessage[1];
+			Assert.assertEquals("Values must be equal", 1, inbox.getConsumer().drainTo(buffer, 1));
+			Assert.assertEquals("Values must be equal", "partition only", new String(buffer[0].getBody()));
+			Assert.assertNull("Key must not be set", buffer[0].getHeader().getKey());
+			Assert.assertEquals("Values must be equal", 7, buffer[0].getHeader().getPartition());
+			Assert.assertEquals("Values must be equal", StreamingDataMessageHeader.NO_OFFSET, buffer[0].getHeader().getSourceOffset());
+			Assert.assertNull("Trace id must not be set", buffer[0].getHeader().getTraceId());
+			Assert.assertNull("No more messages expected", inbox.getConsumer().next());
+			inbox.shutdown();
+		}
+	}
 	
 	/**
 	 * Inserts a configurable number of messages into a {@link Chronicle} and measures the
@@ -228,4 +605,16 @@ public class DefaultStreamingMessageQueueTest {
 		
 		svc.shutdownNow();
 	}
+
+	/**
+	 * Deletes the given file or directory including its contents
+	 * @param file
+	 */
+	private void delete(final File file) {
+		final File[] children = file.listFiles();
+		if(children != null)
+			for(final File child : children)
+				delete(child);
+		file.delete();
+	}
 }
@@ -0,0 +1,244 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.queue.hybrid;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Counter;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.chronicle.DefaultStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.hybrid.HybridStreamingDataMessageBuffer;
+import com.ottogroup.bi.spqr.pipeline.queue.hybrid.HybridStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+
+/**
+ * Test case for {@link HybridStreamingMessageQueue} and {@link HybridStreamingDataMessageBuffer}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class HybridStreamingMessageQueueTest {
+
+	/** folder holding the overflow files */
+	private File chronicleDirectory = null;
+	
+	@Before
+	public void setUp() throws IOException {
+		this.chronicleDirectory = Files.createTempDirectory("hybrid").toFile();
+	}
+	
+	@After
+	public void tearDown() {
+		delete(this.chronicleDirectory);
+	}
+	
+	/**
+	 * Test case for {@link HybridStreamingMessageQueue#initialize(Properties)} being provided
+	 * null where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withNullProperties() {
+		try {
+			new HybridStreamingMessageQueue().initialize(null);
+			Assert.fail("Missing required properties");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link HybridStreamingMessageQueue#initialize(Properties)} being provided
+	 * a properties set but no queue identifier where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withMissingId() {
+		try {
+			new HybridStreamingMessageQueue().initialize(new Properties());
+			Assert.fail("Missing required queue identifier");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link HybridStreamingMessageQueue#initialize(Properties)} being provided
+	 * an invalid spill threshold where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withInvalidSpillThreshold() throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.setProperty(HybridStreamingMessageQueue.CFG_QUEUE_HYBRID_SPILL_THRESHOLD, "101");
+		HybridStreamingMessageQueue queue = new HybridStreamingMessageQueue();
+		queue.setId("testInitialize_withInvalidSpillThreshold");
+		try {
+			queue.initialize(props);
+			Assert.fail("Invalid spill threshold");
+		} catch(RuntimeException e) {
+			// expected
+		}
+		
+		props.setProperty(HybridStreamingMessageQueue.CFG_QUEUE_HYBRID_SPILL_THRESHOLD, "no-number");
+		try {
+			queue.initialize(props);
+			Assert.fail("Invalid spill threshold");
+		} catch(RuntimeException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link HybridStreamingMessageQueue#insert(StreamingDataMessage)} where the messages fit into memory
+	 * and the overflow must not be used
+	 */
+	@Test
+	public void testInsert_withoutSpilling() throws RequiredInputMissingException {
+		HybridStreamingMessageQueue queue = newQueue("testinsert_withoutspilling", 16, 50);
+		for(int i = 0; i < 8; i++)
+			Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(String.valueOf(i).getBytes(), i)));
+		Assert.assertFalse("Queue must not spill", queue.isSpilling());
+		Assert.assertEquals("Values must be equal", 8, queue.getMemorySize());
+		Assert.assertEquals("Values must be equal", 0, queue.getOverflowSize());
+		Assert.assertEquals("Values must be equal", 8, queue.getBacklog());
+		for(int i = 0; i < 8; i++)
+			Assert.assertEquals("Values must be equal", String.valueOf(i), new String(queue.next().getBody()));
+		Assert.assertNull("The queue must be empty", queue.next());
+		Assert.assertEquals("Values must be equal", 0, queue.getNumSpilledMessages());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link HybridStreamingMessageQueue#insert(StreamingDataMessage)} exceeding the spill threshold where 
+	 * the messages must be written to the overflow and retrieved in order of insertion
+	 */
+	@Test
+	public void testInsertAndNext_withSpilling() throws RequiredInputMissingException {
+		HybridStreamingMessageQueue queue = newQueue("testinsertandnext_withspilling", 16, 50);
+		for(int i = 0; i < 20; i++)
+			Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(String.valueOf(i).getBytes(), i)));
+		Assert.assertTrue("Queue must spill", queue.isSpilling());
+		Assert.assertEquals("Values must be equal", 8, queue.getMemorySize());
+		Assert.assertEquals("Values must be equal", 12, queue.getOverflowSize());
+		Assert.assertEquals("Values must be equal", 20, queue.getBacklog());
+		Assert.assertEquals("Values must be equal", 12, queue.getNumSpilledMessages());
+		
+		// messages inserted while the overflow is not drained must be appended to it
+		for(int i = 0; i < 10; i++)
+			Assert.assertEquals("Values must be equal", String.valueOf(i), new String(queue.next().getBody()));
+		Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage("20".getBytes(), 20)));
+		Assert.assertEquals("Values must be equal", 13, queue.getNumSpilledMessages());
+		
+		for(int i = 10; i < 21; i++) {
+			StreamingDataMessage msg = queue.next();
+			Assert.assertEquals("Values must be equal", String.valueOf(i), new String(msg.getBody()));
+			Assert.assertEquals("Values must be equal", i, msg.getTimestamp());
+		}
+		Assert.assertNull("The queue must be empty", queue.next());
+		Assert.assertFalse("Queue must switch back to memory", queue.isSpilling());
+		
+		// memory must be used again after the overflow has been drained
+		Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage("21".getBytes(), 21)));
+		Assert.assertEquals("Values must be equal", 1, queue.getMemorySize());
+		Assert.assertEquals("Values must be equal", 13, queue.getNumSpilledMessages());
+		Assert.assertEquals("Values must be equal", "21", new String(queue.next().getBody()));
+		Assert.assertEquals("Values must be equal", 1, ((Counter)queue.getMetrics().get(HybridStreamingMessageQueue.METRIC_SPILLS)).getCount());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link HybridStreamingMessageQueue} being written and read concurrently while the consumer falls behind. 
+	 * All messages must be received in order of insertion
+	 */
+	@Test
+	public void testInsertAndNext_withConcurrentProducer() throws Exception {
+		final HybridStreamingMessageQueue queue = newQueue("testinsertandnext_withconcurrentproducer", 64, 50);
+		final int numMessages = 20000;
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Boolean> producer = executor.submit(new Callable<Boolean>() {
+			public Boolean call() throws Exception {
+				for(int i = 0; i < numMessages; i++) {
+					if(!queue.insert(new StreamingDataMessage(String.valueOf(i).getBytes(), i)))
+						return Boolean.FALSE;
+				}
+				return Boolean.TRUE;
+			}
+		});
+		
+		StreamingMessageQueueConsumer consumer = queue.getConsumer();
+		int received = 0;
+		long timeout = System.currentTimeMillis() + 30000;
+		while(received < numMessages && System.currentTimeMillis() < timeout) {
+			StreamingDataMessage msg = consumer.next();
+			if(msg != null) {
+				Assert.assertEquals("Values must be equal", received, msg.getTimestamp());
+				received++;
+			}
+		}
+		Assert.assertEquals("Values must be equal", numMessages, received);
+		Assert.assertTrue("Producer must succeed", producer.get(5, TimeUnit.SECONDS));
+		Assert.assertNull("The queue must be empty", consumer.next());
+		Assert.assertEquals("Values must be equal", 0, queue.getBacklog());
+		executor.shutdownNow();
+		queue.shutdown();
+	}
+	
+	/**
+	 * Returns an initialized {@link HybridStreamingMessageQueue} applying the direct pass strategy
+	 * @param id
+	 * @param memoryCapacity
+	 * @param spillThreshold
+	 * @return
+	 * @throws RequiredInputMissingException
+	 */
+	private HybridStreamingMessageQueue newQueue(final String id, final int memoryCapacity, final int spillThreshold) throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.setProperty(HybridStreamingMessageQueue.CFG_QUEUE_HYBRID_MEMORY_CAPACITY, String.valueOf(memoryCapacity));
+		props.setProperty(HybridStreamingMessageQueue.CFG_QUEUE_HYBRID_SPILL_THRESHOLD, String.valueOf(spillThreshold));
+		props.setProperty(HybridStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME);
+		props.setProperty(DefaultStreamingMessageQueue.CFG_CHRONICLE_QUEUE_PATH, this.chronicleDirectory.getAbsolutePath());
+		HybridStreamingMessageQueue queue = new HybridStreamingMessageQueue();
+		queue.setId(id);
+		queue.initialize(props);
+		return queue;
+	}
+	
+	/**
+	 * Recursively removes the given file or folder
+	 * @param file
+	 */
+	private void delete(final File file) {
+		final File[] children = file.listFiles();
+		if(children != null)
+			for(final File child : children)
+				delete(child);
+		file.delete();
+	}
+}
@@ -0,0 +1,299 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.queue.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
+import com.ottogroup.bi.spqr.pipeline.queue.offheap.OffHeapRecordRingBuffer;
+import com.ottogroup.bi.spqr.pipeline.queue.offheap.OffHeapStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+
+/**
+ * Test case for {@link OffHeapStreamingMessageQueue} and {@link OffHeapRecordRingBuffer}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class OffHeapStreamingMessageQueueTest {
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#initialize(Properties)} being provided
+	 * null where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withNullProperties() {
+		try {
+			new OffHeapStreamingMessageQueue().initialize(null);
+			Assert.fail("Missing required properties");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#initialize(Properties)} being provided
+	 * a properties set but no queue identifier where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withMissingId() {
+		try {
+			new OffHeapStreamingMessageQueue().initialize(new Properties());
+			Assert.fail("Missing required queue identifier");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#initialize(Properties)} being provided
+	 * an invalid capacity where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withInvalidCapacity() throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.setProperty(OffHeapStreamingMessageQueue.CFG_QUEUE_OFF_HEAP_CAPACITY_BYTES, "no-number");
+		OffHeapStreamingMessageQueue queue = new OffHeapStreamingMessageQueue();
+		queue.setId("testInitialize_withInvalidCapacity");
+		try {
+			queue.initialize(props);
+			Assert.fail("Invalid capacity");
+		} catch(RuntimeException e) {
+			// expected
+		}
+		
+		props.setProperty(OffHeapStreamingMessageQueue.CFG_QUEUE_OFF_HEAP_CAPACITY_BYTES, "16");
+		try {
+			queue.initialize(props);
+			Assert.fail("Invalid capacity");
+		} catch(RuntimeException e) {
+			// expected
+		}
+	}
+	
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#initialize(Properties)} being provided
+	 * a capacity which is rounded up to the next power of two
+	 */
+	@Test
+	public void testInitialize_withCapacity() throws RequiredInputMissingException {
+		OffHeapStreamingMessageQueue queue = newQueue("testInitialize_withCapacity", 1000, null);
+		Assert.assertEquals("Values must be equal", 1024, queue.getCapacityBytes());
+		Assert.assertEquals("Values must be equal", 0, queue.getUsedBytes());
+		Assert.assertEquals("Values must be equal", 1024, queue.getFreeBytes());
+		Assert.assertEquals("Values must be equal", 0, queue.getBacklog());
+		Assert.assertTrue("Metrics must be provided", queue.getMetrics().containsKey(OffHeapStreamingMessageQueue.METRIC_USED_BYTES));
+		Assert.assertTrue("Metrics must be provided", queue.getMetrics().containsKey(OffHeapStreamingMessageQueue.METRIC_FREE_BYTES));
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#insert(StreamingDataMessage)} and {@link OffHeapStreamingMessageQueue#next()}
+	 * writing more bytes than the capacity which requires the records to wrap around the end of the buffer 
+	 */
+	@Test
+	public void testInsertAndNext_withWrapAround() throws RequiredInputMissingException {
+		OffHeapStreamingMessageQueue queue = newQueue("testInsertAndNext_withWrapAround", 256, null);
+		
+		for(int i = 0; i < 100; i++) {
+			// bodies of varying length make records end at different offsets 
+			byte[] body = new byte[i % 40];
+			for(int j = 0; j < body.length; j++)
+				body[j] = (byte)(i + j);
+			Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(body, i)));
+			Assert.assertEquals("Values must be equal", 1, queue.getBacklog());
+			Assert.assertEquals("Values must be equal", queue.getCapacityBytes(), queue.getUsedBytes() + queue.getFreeBytes());
+			Assert.assertTrue("Used bytes must cover header and body", queue.getUsedBytes() >= OffHeapRecordRingBuffer.HEADER_LENGTH + body.length);
+			
+			StreamingDataMessage msg = queue.next();
+			Assert.assertNotNull("The message must not be null", msg);
+			Assert.assertEquals("Values must be equal", i, msg.getTimestamp());
+			Assert.assertArrayEquals("Values must be equal", body, msg.getBody());
+			Assert.assertEquals("Values must be equal", 0, queue.getUsedBytes());
+		}
+		Assert.assertNull("The queue must be empty", queue.next());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#insert(StreamingDataMessage)} filling the queue while the messages 
+	 * must be retrieved in order of insertion
+	 */
+	@Test
+	public void testInsertAndNext_withFullQueue() throws RequiredInputMissingException {
+		OffHeapStreamingMessageQueue queue = newQueue("testInsertAndNext_withFullQueue", 256, RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_NEWEST);
+		
+		// each record occupies 32 bytes: 16 bytes header and 16 bytes body
+		for(int round = 0; round < 3; round++) {
+			for(int i = 0; i < 8; i++)
+				Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(new byte[16], i)));
+			Assert.assertEquals("Values must be equal", 0, queue.getFreeBytes());
+			Assert.assertFalse("Queue is full", queue.insert(new StreamingDataMessage(new byte[16], 8)));
+			Assert.assertEquals("Values must be equal", round + 1, queue.getNumDroppedMessages());
+			for(int i = 0; i < 8; i++)
+				Assert.assertEquals("Values must be equal", i, queue.next().getTimestamp());
+			Assert.assertNull("The queue must be empty", queue.next());
+		}
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#insert(StreamingDataMessage)} applying {@link RingBufferStreamingMessageQueue#FULL_QUEUE_POLICY_DROP_OLDEST}
+	 */
+	@Test
+	public void testInsert_withDropOldestPolicy() throws RequiredInputMissingException {
+		OffHeapStreamingMessageQueue queue = newQueue("testInsert_withDropOldestPolicy", 256, RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_OLDEST);
+		for(int i = 0; i < 10; i++)
+			Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(new byte[16], i)));
+		Assert.assertEquals("Values must be equal", 8, queue.getBacklog());
+		Assert.assertEquals("Values must be equal", 2, queue.getNumDroppedMessages());
+		for(int i = 2; i < 10; i++)
+			Assert.assertEquals("Values must be equal", i, queue.next().getTimestamp());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#insert(StreamingDataMessage)} being provided a message 
+	 * exceeding the max. body length which must be dropped
+	 */
+	@Test
+	public void testInsert_withOversizedMessage() throws RequiredInputMissingException {
+		OffHeapStreamingMessageQueue queue = newQueue("testInsert_withOversizedMessage", 256, null);
+		Assert.assertFalse("Message exceeds max. body length", queue.insert(new StreamingDataMessage(new byte[113], 1)));
+		Assert.assertEquals("Values must be equal", 1, queue.getNumDroppedMessages());
+		Assert.assertEquals("Values must be equal", 0, queue.getBacklog());
+		Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(new byte[112], 2)));
+		Assert.assertEquals("Values must be equal", 112, queue.next().getBodyLength());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#insert(StreamingDataMessage)} being provided a message 
+	 * which is a view on a shared buffer
+	 */
+	@Test
+	public void testInsert_withViewMessage() throws RequiredInputMissingException {
+		OffHeapStreamingMessageQueue queue = newQueue("testInsert_withViewMessage", 256, null);
+		ByteBuffer shared = ByteBuffer.wrap("xxtest-messagexx".getBytes());
+		shared.position(2);
+		shared.limit(14);
+		StreamingDataMessage view = new StreamingDataMessage().wrap(shared, 123);
+		Assert.assertTrue("Insertion must succeed", queue.insert(view));
+		Assert.assertEquals("Values must be equal", 2, shared.position());
+		
+		StreamingDataMessage msg = queue.next();
+		Assert.assertEquals("Values must be equal", 123, msg.getTimestamp());
+		Assert.assertEquals("Values must be equal", "test-message", new String(msg.getBody()));
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#insert(StreamingDataMessage)} being provided messages carrying a 
+	 * {@link StreamingDataMessageHeader header} which must be retrieved along with the body
+	 */
+	@Test
+	public void testInsertAndNext_withMessageHeader() throws RequiredInputMissingException {
+		OffHeapStreamingMessageQueue queue = newQueue("testInsertAndNext_withMessageHeader", 256, RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_NEWEST);
+		for(int i = 0; i < 20; i++) {
+			StreamingDataMessageHeader header = new StreamingDataMessageHeader(("k" + i).getBytes(), i, 100 + i);
+			header.setTraceId("t" + i);
+			Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(new byte[i], i, header)));
+			Assert.assertTrue("Insertion must succeed", queue.insert(new StreamingDataMessage(new byte[i], i)));
+			
+			StreamingDataMessage msg = queue.next();
+			Assert.assertEquals("Values must be equal", i, msg.getBodyLength());
+			Assert.assertEquals("Values must be equal", "k" + i, new String(msg.getHeader().getKey()));
+			Assert.assertEquals("Values must be equal", i, msg.getHeader().getPartition());
+			Assert.assertEquals("Values must be equal", 100 + i, msg.getHeader().getSourceOffset());
+			Assert.assertEquals("Values must be equal", "t" + i, msg.getHeader().getTraceId());
+			msg = queue.next();
+			Assert.assertEquals("Values must be equal", i, msg.getBodyLength());
+			Assert.assertFalse("Message must not carry a header", msg.hasHeader());
+		}
+		
+		// body fits but body and header exceed the max. record length
+		Assert.assertFalse("Message exceeds max. record length", queue.insert(new StreamingDataMessage(new byte[112], 1, new StreamingDataMessageHeader(new byte[8], 1, 1))));
+		Assert.assertEquals("Values must be equal", 1, queue.getNumDroppedMessages());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link OffHeapStreamingMessageQueue#insert(StreamingDataMessage)} blocking on a full queue 
+	 * until a concurrent consumer frees space
+	 */
+	@Test
+	public void testInsert_withBlockingPolicy() throws Exception {
+		final OffHeapStreamingMessageQueue queue = newQueue("testInsert_withBlockingPolicy", 256, null);
+		final int numMessages = 1000;
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Boolean> producer = executor.submit(new Callable<Boolean>() {
+			public Boolean call() throws Exception {
+				for(int i = 0; i < numMessages; i++) {
+					if(!queue.insert(new StreamingDataMessage(new byte[]{(byte)i}, i)))
+						return Boolean.FALSE;
+				}
+				return Boolean.TRUE;
+			}
+		});
+		
+		int received = 0;
+		long timeout = System.currentTimeMillis() + 10000;
+		while(received < numMessages && System.currentTimeMillis() < timeout) {
+			StreamingDataMessage msg = queue.next();
+			if(msg != null) {
+				Assert.assertEquals("Values must be equal", received, msg.getTimestamp());
+				received++;
+			}
+		}
+		Assert.assertEquals("Values must be equal", numMessages, received);
+		Assert.assertTrue("Producer must succeed", producer.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals("Values must be equal", 0, queue.getNumDroppedMessages());
+		executor.shutdownNow();
+		queue.shutdown();
+	}
+	
+	/**
+	 * Returns an initialized {@link OffHeapStreamingMessageQueue} applying the direct pass strategy
+	 * @param id
+	 * @param capacity
+	 * @param fullQueuePolicy
+	 * @return
+	 * @throws RequiredInputMissingException
+	 */
+	private OffHeapStreamingMessageQueue newQueue(final String id, final int capacity, final String fullQueuePolicy) throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.setProperty(OffHeapStreamingMessageQueue.CFG_QUEUE_OFF_HEAP_CAPACITY_BYTES, String.valueOf(capacity));
+		props.setProperty(OffHeapStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME);
+		if(fullQueuePolicy != null)
+			props.setProperty(OffHeapStreamingMessageQueue.CFG_QUEUE_OFF_HEAP_FULL_QUEUE_POLICY, fullQueuePolicy);
+		OffHeapStreamingMessageQueue queue = new OffHeapStreamingMessageQueue();
+		queue.setId(id);
+		queue.initialize(props);
+		return queue;
+	}
+}
@@ -0,0 +1,363 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.queue.ringbuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.RingBufferStreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageBroadcastRingBuffer;
+import com.ottogroup.bi.spqr.pipeline.queue.ringbuffer.StreamingDataMessageRingBuffer;
+
+/**
+ * Test case for {@link RingBufferStreamingMessageQueue}, {@link StreamingDataMessageRingBuffer} and {@link StreamingDataMessageBroadcastRingBuffer}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class RingBufferStreamingMessageQueueTest {
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#initialize(Properties)} being provided
+	 * null where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withNullProperties() {
+		try {
+			new RingBufferStreamingMessageQueue().initialize(null);
+			Assert.fail("Missing required properties");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#initialize(Properties)} being provided
+	 * a properties set but no queue identifier where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withMissingId() {
+		try {
+			new RingBufferStreamingMessageQueue().initialize(new Properties());
+			Assert.fail("Missing required queue identifier");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#initialize(Properties)} being provided
+	 * an invalid capacity where an exception is the expected behavior
+	 */
+	@Test
+	public void testInitialize_withInvalidCapacity() throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_RING_BUFFER_CAPACITY, "-1");
+		RingBufferStreamingMessageQueue queue = new RingBufferStreamingMessageQueue();
+		queue.setId("testInitialize_withInvalidCapacity");
+		try {
+			queue.initialize(props);
+			Assert.fail("Invalid capacity");
+		} catch(RuntimeException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link StreamingDataMessageRingBuffer#offer(StreamingDataMessage)} and {@link StreamingDataMessageRingBuffer#poll()}
+	 * where the ring buffer must keep the insertion order and report full/empty states properly
+	 */
+	@Test
+	public void testOfferPoll_withWrapAround() {
+		StreamingDataMessageRingBuffer ringBuffer = new StreamingDataMessageRingBuffer(3);
+		Assert.assertEquals("The capacity must be rounded up to the next power of two", 4, ringBuffer.getCapacity());
+		Assert.assertNull("The ring buffer must be empty", ringBuffer.poll());
+		
+		for(int round = 0; round < 5; round++) {
+			for(int i = 0; i < 4; i++)
+				Assert.assertTrue("The insertion must succeed", ringBuffer.offer(new StreamingDataMessage(new byte[]{(byte)i}, i)));
+			Assert.assertFalse("The ring buffer must be full", ringBuffer.offer(new StreamingDataMessage(new byte[0], 4)));
+			Assert.assertEquals("The size must be equal", 4, ringBuffer.size());
+			for(int i = 0; i < 4; i++)
+				Assert.assertEquals("The timestamps must be equal", i, ringBuffer.poll().getTimestamp());
+			Assert.assertNull("The ring buffer must be empty", ringBuffer.poll());
+			Assert.assertTrue("The ring buffer must be empty", ringBuffer.isEmpty());
+		}
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#insert(StreamingDataMessage)} using policy 'dropNewest' where
+	 * messages exceeding the capacity must be discarded
+	 */
+	@Test
+	public void testInsert_withDropNewestPolicy() throws RequiredInputMissingException {
+		RingBufferStreamingMessageQueue queue = getQueue("testInsert_withDropNewestPolicy", RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_NEWEST, 2);
+		Assert.assertTrue("The insertion must succeed", queue.getProducer().insert(new StreamingDataMessage(new byte[0], 1)));
+		Assert.assertTrue("The insertion must succeed", queue.getProducer().insert(new StreamingDataMessage(new byte[0], 2)));
+		Assert.assertFalse("The insertion must fail", queue.getProducer().insert(new StreamingDataMessage(new byte[0], 3)));
+		Assert.assertEquals("The number of dropped messages must be 1", 1, queue.getNumDroppedMessages());
+		Assert.assertEquals("The timestamps must be equal", 1, queue.getConsumer().next().getTimestamp());
+		Assert.assertEquals("The timestamps must be equal", 2, queue.getConsumer().next().getTimestamp());
+		Assert.assertNull("The queue must be empty", queue.getConsumer().next());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#insert(StreamingDataMessage)} using policy 'dropOldest' where
+	 * the oldest messages must be discarded to make room for new ones
+	 */
+	@Test
+	public void testInsert_withDropOldestPolicy() throws RequiredInputMissingException {
+		RingBufferStreamingMessageQueue queue = getQueue("testInsert_withDropOldestPolicy", RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_OLDEST, 2);
+		for(int i = 1; i <= 3; i++)
+			Assert.assertTrue("The insertion must succeed", queue.getProducer().insert(new StreamingDataMessage(new byte[0], i)));
+		Assert.assertEquals("The number of dropped messages must be 1", 1, queue.getNumDroppedMessages());
+		Assert.assertEquals("The timestamps must be equal", 2, queue.getConsumer().next().getTimestamp());
+		Assert.assertEquals("The timestamps must be equal", 3, queue.getConsumer().next().getTimestamp());
+		Assert.assertNull("The queue must be empty", queue.getConsumer().next());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueueProducer#insertBatch(java.util.List)} and {@link RingBufferStreamingMessageQueueConsumer#drainTo(StreamingDataMessage[], int)}
+	 * where all messages must be retrieved in insertion order while respecting the provided max. number of messages
+	 */
+	@Test
+	public void testInsertBatchAndDrainTo_withMultipleMessages() throws RequiredInputMissingException {
+		RingBufferStreamingMessageQueue queue = getQueue("testInsertBatchAndDrainTo_withMultipleMessages", RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_DROP_NEWEST, 8);
+		List<StreamingDataMessage> messages = new ArrayList<>();
+		for(int i = 0; i < 5; i++)
+			messages.add(new StreamingDataMessage(new byte[0], i));
+		messages.add(null);
+		Assert.assertEquals("Values must be equal", 5, queue.getProducer().insertBatch(messages));
+
+		StreamingDataMessage[] buffer = new StreamingDataMessage[4];
+		Assert.assertEquals("Values must be equal", 4, queue.getConsumer().drainTo(buffer, 10));
+		Assert.assertEquals("Values must be equal", 3, buffer[3].getTimestamp());
+		Assert.assertEquals("Values must be equal", 1, queue.getConsumer().drainTo(buffer, 10));
+		Assert.assertEquals("Values must be equal", 4, buffer[0].getTimestamp());
+		Assert.assertEquals("Values must be equal", 0, queue.getConsumer().drainTo(buffer, 10));
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#insert(StreamingDataMessage)} using policy 'block' where
+	 * the producer must wait until the consumer frees a slot - no message must be lost
+	 */
+	@Test
+	public void testInsert_withBlockPolicy() throws Exception {
+		final RingBufferStreamingMessageQueue queue = getQueue("testInsert_withBlockPolicy", RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_BLOCK, 4);
+		final int numMessages = 10000;
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Boolean> producer = executor.submit(new Callable<Boolean>() {
+			public Boolean call() throws Exception {
+				for(int i = 0; i < numMessages; i++) {
+					if(!queue.getProducer().insert(new StreamingDataMessage(new byte[0], i)))
+						return false;
+					queue.getProducer().getWaitStrategy().forceLockRelease();
+				}
+				return true;
+			}
+		});
+		
+		for(int i = 0; i < numMessages; i++) {
+			StreamingDataMessage message = queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer());
+			Assert.assertNotNull("The message must not be null", message);
+			Assert.assertEquals("The timestamps must be equal", i, message.getTimestamp());
+		}
+		Assert.assertTrue("The producer must succeed", producer.get(10, TimeUnit.SECONDS));
+		Assert.assertEquals("The number of dropped messages must be 0", 0, queue.getNumDroppedMessages());
+		Assert.assertNotNull("The queue must provide a size metric", queue.getMetrics().get(RingBufferStreamingMessageQueue.METRIC_SIZE));
+		queue.shutdown();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Test case for {@link StreamingDataMessageBroadcastRingBuffer} where each cursor must receive all messages 
+	 * and the slowest cursor must gate the producer
+	 */
+	@Test
+	public void testBroadcastRingBuffer_withMultipleCursors() {
+		StreamingDataMessageBroadcastRingBuffer ringBuffer = new StreamingDataMessageBroadcastRingBuffer(4);
+		StreamingDataMessageBroadcastRingBuffer.Cursor fast = ringBuffer.newCursor();
+		StreamingDataMessageBroadcastRingBuffer.Cursor slow = ringBuffer.newCursor();
+		Assert.assertEquals("Values must be equal", 2, ringBuffer.getNumOfCursors());
+		Assert.assertNull("The cursor must not receive any message", fast.poll());
+		
+		for(int i = 0; i < 4; i++)
+			Assert.assertTrue("The insertion must succeed", ringBuffer.offer(new StreamingDataMessage(new byte[0], i)));
+		for(int i = 0; i < 4; i++)
+			Assert.assertEquals("The timestamps must be equal", i, fast.poll().getTimestamp());
+		Assert.assertNull("The cursor must not receive any further messages", fast.poll());
+		Assert.assertEquals("Values must be equal", 0, fast.size());
+		Assert.assertEquals("Values must be equal", 4, slow.size());
+		Assert.assertFalse("The slowest cursor must gate the producer", ringBuffer.offer(new StreamingDataMessage(new byte[0], 4)));
+		
+		Assert.assertEquals("The timestamps must be equal", 0, slow.poll().getTimestamp());
+		Assert.assertTrue("The insertion must succeed", ringBuffer.offer(new StreamingDataMessage(new byte[0], 4)));
+		Assert.assertEquals("The timestamps must be equal", 4, fast.poll().getTimestamp());
+		for(int i = 1; i < 5; i++)
+			Assert.assertEquals("The timestamps must be equal", i, slow.poll().getTimestamp());
+		Assert.assertNull("The cursor must not receive any further messages", slow.poll());
+	}
+
+	/**
+	 * Test case for {@link StreamingDataMessageBroadcastRingBuffer#poll()} which must drop the oldest message for the 
+	 * slowest cursors only
+	 */
+	@Test
+	public void testBroadcastRingBufferPoll_withSlowestCursor() {
+		StreamingDataMessageBroadcastRingBuffer ringBuffer = new StreamingDataMessageBroadcastRingBuffer(2);
+		StreamingDataMessageBroadcastRingBuffer.Cursor fast = ringBuffer.newCursor();
+		StreamingDataMessageBroadcastRingBuffer.Cursor slow = ringBuffer.newCursor();
+		Assert.assertNull("The ring buffer must be empty", ringBuffer.poll());
+		
+		Assert.assertTrue("The insertion must succeed", ringBuffer.offer(new StreamingDataMessage(new byte[0], 0)));
+		Assert.assertTrue("The insertion must succeed", ringBuffer.offer(new StreamingDataMessage(new byte[0], 1)));
+		Assert.assertEquals("The timestamps must be equal", 0, fast.poll().getTimestamp());
+		Assert.assertEquals("The oldest message must be dropped", 0, ringBuffer.poll().getTimestamp());
+		Assert.assertEquals("Values must be equal", 1, slow.size());
+		Assert.assertEquals("Values must be equal", 1, fast.size());
+		Assert.assertEquals("The timestamps must be equal", 1, slow.poll().getTimestamp());
+		Assert.assertEquals("The timestamps must be equal", 1, fast.poll().getTimestamp());
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#getConsumer(String)} on a broadcast queue where each consumer
+	 * must receive all messages in insertion order
+	 */
+	@Test
+	public void testGetConsumer_withBroadcastQueue() throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_RING_BUFFER_CAPACITY, "8");
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_BROADCAST, "true");
+		RingBufferStreamingMessageQueue queue = new RingBufferStreamingMessageQueue();
+		queue.setId("testGetConsumer_withBroadcastQueue");
+		queue.initialize(props);
+		
+		StreamingMessageQueueConsumer first = queue.getConsumer("emitter-1");
+		StreamingMessageQueueConsumer second = queue.getConsumer("emitter-2");
+		Assert.assertSame("The first consumer must be the primary one", queue.getConsumer(), first);
+		Assert.assertNotSame("The consumers must differ", first, second);
+		
+		for(int i = 0; i < 5; i++)
+			Assert.assertTrue("The insertion must succeed", queue.getProducer().insert(new StreamingDataMessage(new byte[0], i)));
+		
+		StreamingDataMessage[] buffer = new StreamingDataMessage[8];
+		Assert.assertEquals("Values must be equal", 5, first.drainTo(buffer, 8));
+		Assert.assertEquals("Values must be equal", 4, buffer[4].getTimestamp());
+		Assert.assertEquals("The backlog must reflect the slowest consumer", 5, queue.getBacklog());
+		for(int i = 0; i < 5; i++)
+			Assert.assertEquals("The timestamps must be equal", i, second.next().getTimestamp());
+		Assert.assertNull("The queue must be empty", second.next());
+		Assert.assertEquals("Values must be equal", 0, queue.getBacklog());
+		queue.shutdown();
+	}
+
+	/**
+	 * Test case for {@link RingBufferStreamingMessageQueue#insert(StreamingDataMessage)} on a broadcast queue being called by
+	 * multiple writers concurrently. Each consumer must receive all messages while the order of each writer must be preserved  
+	 */
+	@Test
+	public void testInsert_withBroadcastQueueAndMultipleWriters() throws Exception {
+		Properties props = new Properties();
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_RING_BUFFER_CAPACITY, "8");
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_RING_BUFFER_FULL_QUEUE_POLICY, RingBufferStreamingMessageQueue.FULL_QUEUE_POLICY_BLOCK);
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_BROADCAST, "true");
+		final RingBufferStreamingMessageQueue queue = new RingBufferStreamingMessageQueue();
+		queue.setId("testInsert_withBroadcastQueueAndMultipleWriters");
+		queue.initialize(props);
+		StreamingMessageQueueConsumer[] consumers = new StreamingMessageQueueConsumer[]{queue.getConsumer("emitter-1"), queue.getConsumer("emitter-2")};
+		
+		final int numWriters = 4;
+		final int numMessages = 5000;
+		ExecutorService executor = Executors.newFixedThreadPool(numWriters);
+		List<Future<Boolean>> writers = new ArrayList<>();
+		for(int w = 0; w < numWriters; w++) {
+			final int writer = w;
+			writers.add(executor.submit(new Callable<Boolean>() {
+				public Boolean call() throws Exception {
+					for(int i = 0; i < numMessages; i++) {
+						if(!queue.getProducer().insert(new StreamingDataMessage(new byte[0], writer * numMessages + i)))
+							return false;
+					}
+					return true;
+				}
+			}));
+		}
+		
+		// read from both consumers alternately, the slower one gates the writers
+		long[][] expected = new long[consumers.length][numWriters];
+		for(int c = 0; c < consumers.length; c++)
+			for(int w = 0; w < numWriters; w++)
+				expected[c][w] = w * numMessages;
+		int[] received = new int[consumers.length];
+		long timeout = System.currentTimeMillis() + 20000;
+		while((received[0] < numWriters * numMessages || received[1] < numWriters * numMessages) && System.currentTimeMillis() < timeout) {
+			for(int c = 0; c < consumers.length; c++) {
+				StreamingDataMessage message = null;
+				while((message = consumers[c].next()) != null) {
+					final int writer = (int)(message.getTimestamp() / numMessages);
+					Assert.assertEquals("The order of each writer must be preserved", expected[c][writer], message.getTimestamp());
+					expected[c][writer]++;
+					received[c]++;
+				}
+			}
+			Thread.yield();
+		}
+		
+		for(final Future<Boolean> writer : writers)
+			Assert.assertTrue("The writer must succeed", writer.get(10, TimeUnit.SECONDS));
+		Assert.assertEquals("Values must be equal", numWriters * numMessages, received[0]);
+		Assert.assertEquals("Values must be equal", numWriters * numMessages, received[1]);
+		Assert.assertNull("The queue must be empty", consumers[0].next());
+		Assert.assertNull("The queue must be empty", consumers[1].next());
+		Assert.assertEquals("The number of dropped messages must be 0", 0, queue.getNumDroppedMessages());
+		queue.shutdown();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns an initialized {@link RingBufferStreamingMessageQueue}
+	 * @param id
+	 * @param fullQueuePolicy
+	 * @param capacity
+	 * @return
+	 */
+	protected RingBufferStreamingMessageQueue getQueue(final String id, final String fullQueuePolicy, final int capacity) throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_RING_BUFFER_FULL_QUEUE_POLICY, fullQueuePolicy);
+		props.put(RingBufferStreamingMessageQueue.CFG_QUEUE_RING_BUFFER_CAPACITY, String.valueOf(capacity));
+		RingBufferStreamingMessageQueue queue = new RingBufferStreamingMessageQueue();
+		queue.setId(id);
+		queue.initialize(props);
+		return queue;
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.queue.strategy;
+
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueAdaptiveWaitStrategy.WaitMode;
+
+/**
+ * Test case for {@link StreamingMessageQueueAdaptiveWaitStrategy}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingMessageQueueAdaptiveWaitStrategyTest {
+
+	/**
+	 * Test case for {@link StreamingMessageQueueAdaptiveWaitStrategy#waitFor(StreamingMessageQueueConsumer, long, TimeUnit)}
+	 * being applied on an empty queue which must return null after the timeout has been reached
+	 */
+	@Test
+	public void testWaitFor_withTimeoutOnEmptyQueue() throws Exception {
+		InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withTimeoutOnEmptyQueue");
+		long start = System.currentTimeMillis();
+		Assert.assertNull("No message expected", queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer(), 20, TimeUnit.MILLISECONDS));
+		Assert.assertTrue("The strategy must wait for the timeout", System.currentTimeMillis() - start >= 19);
+	}
+	
+	/**
+	 * Test case for {@link StreamingMessageQueueAdaptiveWaitStrategy#forceLockRelease()} being called while a consumer waits on an empty queue. The
+	 * wait must end long before the timeout is reached
+	 */
+	@Test
+	public void testWaitFor_withReleaseOnEmptyQueue() throws Exception {
+		final InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withReleaseOnEmptyQueue");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<StreamingDataMessage> consumer = executor.submit(new Callable<StreamingDataMessage>() {
+				public StreamingDataMessage call() throws Exception {
+					return queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer(), 30, TimeUnit.SECONDS);
+				}
+			});
+			
+			// the consumer may not have started waiting when the first release is issued, thus repeat it 
+			long deadline = System.currentTimeMillis() + 1000;
+			while(!consumer.isDone() && System.currentTimeMillis() < deadline) {
+				queue.getProducer().getWaitStrategy().forceLockRelease();
+				Thread.sleep(5);
+			}
+			Assert.assertNull("No message expected", consumer.get(1, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueAdaptiveWaitStrategy} where a single producer and a single consumer exchange
+	 * messages. All messages must be received in insertion order.
+	 */
+	@Test
+	public void testWaitFor_withProducerAndConsumer() throws Exception {
+		final int numMessages = 100000;
+		final InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withProducerAndConsumer");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.submit(new Callable<Boolean>() {
+			public Boolean call() throws Exception {
+				for(int i = 0; i < numMessages; i++) {
+					queue.getProducer().insert(new StreamingDataMessage(new byte[]{1,2,3}, i));
+					queue.getProducer().getWaitStrategy().forceLockRelease();
+				}
+				return true;
+			}
+		});
+		
+		for(int i = 0; i < numMessages; i++) {
+			StreamingDataMessage message = queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer());
+			Assert.assertEquals("Values must be equal", i, message.getTimestamp());
+		}
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Test case for {@link StreamingMessageQueueAdaptiveWaitStrategy#getMode()} which must start parking and switch 
+	 * to spinning as messages keep arriving right after the consumer found the queue empty
+	 */
+	@Test
+	public void testGetMode_withFrequentArrivals() throws Exception {
+		StreamingMessageQueueAdaptiveWaitStrategy strategy = new StreamingMessageQueueAdaptiveWaitStrategy(true);
+		Assert.assertEquals("Values must be equal", WaitMode.PARK, strategy.getMode());
+
+		StreamingDataMessage message = new StreamingDataMessage(new byte[]{1}, 1);
+		StreamingMessageQueueConsumer consumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		for(int i = 0; i < 200; i++) {
+			Mockito.when(consumer.next()).thenReturn(null, message);
+			Assert.assertEquals("Values must be equal", message, strategy.waitFor(consumer));
+		}
+		Assert.assertTrue("Average gap must drop", strategy.getAvgGapNanos() < StreamingMessageQueueAdaptiveWaitStrategy.SPIN_THRESHOLD_NANOS);
+		Assert.assertEquals("Values must be equal", WaitMode.SPIN, strategy.getMode());
+	}
+	
+	/**
+	 * Test case for {@link StreamingMessageQueueAdaptiveWaitStrategy#getMode()} on a strategy which must never spin
+	 */
+	@Test
+	public void testGetMode_withSpinningNotAllowed() throws Exception {
+		StreamingMessageQueueAdaptiveWaitStrategy strategy = new StreamingMessageQueueAdaptiveWaitStrategy(false);
+		StreamingDataMessage message = new StreamingDataMessage(new byte[]{1}, 1);
+		StreamingMessageQueueConsumer consumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		for(int i = 0; i < 200; i++) {
+			Mockito.when(consumer.next()).thenReturn(null, message);
+			strategy.waitFor(consumer);
+		}
+		Assert.assertEquals("Values must be equal", WaitMode.YIELD, strategy.getMode());
+	}
+	
+	/**
+	 * Test case for {@link InMemoryStreamingMessageQueue#getMetrics()} which must report the metrics of the 
+	 * adaptive wait strategy
+	 */
+	@Test
+	public void testGetMetrics_withAdaptiveStrategy() throws Exception {
+		InMemoryStreamingMessageQueue queue = getQueue("testGetMetrics_withAdaptiveStrategy");
+		Assert.assertTrue("Must contain mode", queue.getMetrics().containsKey(StreamingMessageQueueAdaptiveWaitStrategy.METRIC_MODE));
+		Assert.assertTrue("Must contain cpu share", queue.getMetrics().containsKey(StreamingMessageQueueAdaptiveWaitStrategy.METRIC_CPU_SHARE));
+	}
+
+	/**
+	 * Returns an initialized {@link InMemoryStreamingMessageQueue} applying the adaptive wait strategy
+	 * @param id
+	 * @return
+	 */
+	protected InMemoryStreamingMessageQueue getQueue(final String id) throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(InMemoryStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueAdaptiveWaitStrategy.STRATEGY_NAME);
+		InMemoryStreamingMessageQueue queue = new InMemoryStreamingMessageQueue();
+		queue.setId(id);
+		queue.initialize(props);
+		Assert.assertTrue("Strategy must be adaptive", queue.getConsumer().getWaitStrategy() instanceof StreamingMessageQueueAdaptiveWaitStrategy);
+		return queue;
+	}
+}
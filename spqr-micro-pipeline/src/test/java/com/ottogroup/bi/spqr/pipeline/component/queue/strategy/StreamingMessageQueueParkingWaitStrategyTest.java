@@ -0,0 +1,199 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.queue.strategy;
+
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueBlockingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueDirectPassStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueParkingWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueSleepingWaitStrategy;
+
+/**
+ * Test case for {@link StreamingMessageQueueParkingWaitStrategy}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingMessageQueueParkingWaitStrategyTest {
+
+	private static final Logger logger = Logger.getLogger(StreamingMessageQueueParkingWaitStrategyTest.class);
+	
+	private static final int numberOfMessagesPerfTest = 1000000;
+	
+	/**
+	 * Test case for {@link StreamingMessageQueueParkingWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer, long, TimeUnit)}
+	 * being applied on an empty queue which must return null after the timeout has been reached
+	 */
+	@Test
+	public void testWaitFor_withTimeoutOnEmptyQueue() throws Exception {
+		InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withTimeoutOnEmptyQueue", StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME);
+		long start = System.currentTimeMillis();
+		Assert.assertNull("No message expected", queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer(), 20, TimeUnit.MILLISECONDS));
+		Assert.assertTrue("The strategy must wait for the timeout", System.currentTimeMillis() - start >= 19);
+	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueParkingWaitStrategy#forceLockRelease()} being called while a consumer waits on an empty queue. The
+	 * wait must end long before the timeout is reached
+	 */
+	@Test
+	public void testWaitFor_withReleaseOnEmptyQueue() throws Exception {
+		final InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withReleaseOnEmptyQueue", StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<StreamingDataMessage> consumer = executor.submit(new Callable<StreamingDataMessage>() {
+				public StreamingDataMessage call() throws Exception {
+					return queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer(), 30, TimeUnit.SECONDS);
+				}
+			});
+			
+			// the consumer may not have started waiting when the first release is issued, thus repeat it 
+			long deadline = System.currentTimeMillis() + 1000;
+			while(!consumer.isDone() && System.currentTimeMillis() < deadline) {
+				queue.getProducer().getWaitStrategy().forceLockRelease();
+				Thread.sleep(5);
+			}
+			Assert.assertNull("No message expected", consumer.get(1, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueParkingWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer)}
+	 * being applied on an empty queue where the consumer thread gets interrupted which must lead to an {@link InterruptedException}
+	 */
+	@Test
+	public void testWaitFor_withInterruptedConsumer() throws Exception {
+		final InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withInterruptedConsumer", StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Boolean> consumer = executor.submit(new Callable<Boolean>() {
+			public Boolean call() throws Exception {
+				try {
+					queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer());
+					return false;
+				} catch(InterruptedException e) {
+					return true;
+				}
+			}
+		});
+		Thread.sleep(20);
+		executor.shutdownNow();
+		Assert.assertTrue("The consumer must be interrupted", consumer.get(1, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueParkingWaitStrategy} where a single producer and a single consumer exchange
+	 * messages. All messages must be received in insertion order.
+	 */
+	@Test
+	public void testWaitFor_withProducerAndConsumer() throws Exception {
+		long duration = exchangeMessages(StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME, 100000);
+		Assert.assertTrue("The duration must be positive", duration > 0);
+	}
+	
+	/**
+	 * Compares the {@link StreamingMessageQueueParkingWaitStrategy} with all other available strategies by measuring the
+	 * time required to exchange a configurable number of messages between a single producer and a single consumer
+	 */
+//	@Test
+	public void testWaitFor_performanceComparison() throws Exception {
+		final String[] strategies = new String[]{StreamingMessageQueueBlockingWaitStrategy.STRATEGY_NAME, StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME, 
+				StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME, StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME};
+		for(final String strategy : strategies) {
+			long duration = exchangeMessages(strategy, numberOfMessagesPerfTest);
+			logger.info("strategy: " + strategy + ", messages: " + numberOfMessagesPerfTest + ", duration: " + TimeUnit.NANOSECONDS.toMillis(duration) + "ms, " + 
+					Math.round(((double)numberOfMessagesPerfTest / (double)duration) * TimeUnit.SECONDS.toNanos(1)) + " msgs/s");
+		}
+	}
+	
+	/**
+	 * Exchanges the given number of messages between a single producer and a single consumer attached to a queue applying 
+	 * the referenced wait strategy. The producer notifies the strategy after each insertion
+	 * @param waitStrategy
+	 * @param numMessages
+	 * @return time required by the consumer to receive all messages (in nanoseconds)
+	 */
+	protected long exchangeMessages(final String waitStrategy, final int numMessages) throws Exception {
+		final InMemoryStreamingMessageQueue queue = getQueue("exchangeMessages-" + waitStrategy, waitStrategy);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		
+		long start = System.nanoTime();
+		executor.submit(new Callable<Boolean>() {
+			public Boolean call() throws Exception {
+				for(int i = 0; i < numMessages; i++) {
+					queue.getProducer().insert(new StreamingDataMessage(new byte[]{1,2,3}, i));
+					queue.getProducer().getWaitStrategy().forceLockRelease();
+				}
+				return true;
+			}
+		});
+		
+		for(int i = 0; i < numMessages; i++) {
+			StreamingDataMessage message = null;
+			while((message = queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer())) == null) {
+				// direct pass strategy returns null on empty queues
+			}
+			Assert.assertEquals("Values must be equal", i, message.getTimestamp());
+		}
+		long duration = System.nanoTime() - start;
+		executor.shutdownNow();
+		return duration;
+	}
+
+	/**
+	 * Returns an initialized {@link InMemoryStreamingMessageQueue} applying the referenced wait strategy
+	 * @param id
+	 * @param waitStrategy
+	 * @return
+	 */
+	protected InMemoryStreamingMessageQueue getQueue(final String id, final String waitStrategy) throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(InMemoryStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, waitStrategy);
+		InMemoryStreamingMessageQueue queue = new InMemoryStreamingMessageQueue();
+		queue.setId(id);
+		queue.initialize(props);
+		Assert.assertEquals("Values must be equal", waitStrategy, getStrategyName(queue));
+		return queue;
+	}
+	
+	/**
+	 * Returns the name of the strategy assigned to the given queue
+	 * @param queue
+	 * @return
+	 */
+	protected String getStrategyName(final InMemoryStreamingMessageQueue queue) {
+		if(queue.getConsumer().getWaitStrategy() instanceof StreamingMessageQueueParkingWaitStrategy)
+			return StreamingMessageQueueParkingWaitStrategy.STRATEGY_NAME;
+		if(queue.getConsumer().getWaitStrategy() instanceof StreamingMessageQueueSleepingWaitStrategy)
+			return StreamingMessageQueueSleepingWaitStrategy.STRATEGY_NAME;
+		if(queue.getConsumer().getWaitStrategy() instanceof StreamingMessageQueueDirectPassStrategy)
+			return StreamingMessageQueueDirectPassStrategy.STRATEGY_NAME;
+		return StreamingMessageQueueBlockingWaitStrategy.STRATEGY_NAME;
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.queue.strategy;
+
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueScheduledWaitStrategy;
+import com.ottogroup.bi.spqr.pipeline.scheduler.ScheduledRuntimeEnvironmentTask;
+
+/**
+ * Test case for {@link StreamingMessageQueueScheduledWaitStrategy}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class StreamingMessageQueueScheduledWaitStrategyTest {
+
+	/**
+	 * Test case for {@link StreamingMessageQueueScheduledWaitStrategy#forceLockRelease()} being called without any consumer
+	 * blocking on the strategy which must signal the attached task only 
+	 */
+	@Test
+	public void testForceLockRelease_withScheduledTaskOnly() throws Exception {
+		InMemoryStreamingMessageQueue queue = getQueue("testForceLockRelease_withScheduledTaskOnly");
+		StreamingMessageQueueScheduledWaitStrategy strategy = (StreamingMessageQueueScheduledWaitStrategy)queue.getProducer().getWaitStrategy();
+		ScheduledRuntimeEnvironmentTask task = Mockito.mock(ScheduledRuntimeEnvironmentTask.class);
+		strategy.addScheduledTask(task);
+		
+		strategy.forceLockRelease();
+		Mockito.verify(task).signal();
+		Assert.assertEquals("Values must be equal", 0, strategy.getNumOfWaitingConsumers());
+	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueScheduledWaitStrategy#waitFor(com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer, long, TimeUnit)}
+	 * being applied on an empty queue which must return null after the timeout has been reached and unregister the consumer
+	 */
+	@Test
+	public void testWaitFor_withTimeoutOnEmptyQueue() throws Exception {
+		InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withTimeoutOnEmptyQueue");
+		StreamingMessageQueueScheduledWaitStrategy strategy = (StreamingMessageQueueScheduledWaitStrategy)queue.getConsumer().getWaitStrategy();
+		Assert.assertNull("No message expected", strategy.waitFor(queue.getConsumer(), 20, TimeUnit.MILLISECONDS));
+		Assert.assertEquals("Values must be equal", 0, strategy.getNumOfWaitingConsumers());
+	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueScheduledWaitStrategy#forceLockRelease()} being called while a consumer waits on an empty queue. The
+	 * wait must end long before the timeout is reached
+	 */
+	@Test
+	public void testWaitFor_withReleaseOnEmptyQueue() throws Exception {
+		final InMemoryStreamingMessageQueue queue = getQueue("testWaitFor_withReleaseOnEmptyQueue");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<StreamingDataMessage> consumer = executor.submit(new Callable<StreamingDataMessage>() {
+				public StreamingDataMessage call() throws Exception {
+					return queue.getConsumer().getWaitStrategy().waitFor(queue.getConsumer(), 30, TimeUnit.SECONDS);
+				}
+			});
+			
+			// the consumer may not have started waiting when the first release is issued, thus repeat it 
+			long deadline = System.currentTimeMillis() + 1000;
+			while(!consumer.isDone() && System.currentTimeMillis() < deadline) {
+				queue.getProducer().getWaitStrategy().forceLockRelease();
+				Thread.sleep(5);
+			}
+			Assert.assertNull("No message expected", consumer.get(1, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test case for {@link StreamingMessageQueueScheduledWaitStrategy#forceLockRelease()} being called while a consumer
+	 * which is not executed by the scheduler blocks on a queue having a scheduled task attached. The consumer must be
+	 * woken up and receive the inserted message
+	 */
+	@Test
+	public void testForceLockRelease_withBlockingConsumerAndScheduledTask() throws Exception {
+		final InMemoryStreamingMessageQueue queue = getQueue("testForceLockRelease_withBlockingConsumerAndScheduledTask");
+		final StreamingMessageQueueScheduledWaitStrategy strategy = (StreamingMessageQueueScheduledWaitStrategy)queue.getConsumer().getWaitStrategy();
+		ScheduledRuntimeEnvironmentTask task = Mockito.mock(ScheduledRuntimeEnvironmentTask.class);
+		strategy.addScheduledTask(task);
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<StreamingDataMessage> consumer = executor.submit(new Callable<StreamingDataMessage>() {
+				public StreamingDataMessage call() throws Exception {
+					return strategy.waitFor(queue.getConsumer());
+				}
+			});
+			
+			long deadline = System.currentTimeMillis() + 1000;
+			while(strategy.getNumOfWaitingConsumers() == 0 && System.currentTimeMillis() < deadline)
+				Thread.sleep(1);
+			Assert.assertEquals("Values must be equal", 1, strategy.getNumOfWaitingConsumers());
+			// allow the consumer to enter the blocking wait 
+			Thread.sleep(20);
+			
+			queue.getProducer().insert(new StreamingDataMessage(new byte[]{1,2,3}, 123));
+			strategy.forceLockRelease();
+			
+			Assert.assertEquals("Values must be equal", 123, consumer.get(1, TimeUnit.SECONDS).getTimestamp());
+			Mockito.verify(task).signal();
+			Assert.assertEquals("Values must be equal", 0, strategy.getNumOfWaitingConsumers());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Returns an initialized {@link InMemoryStreamingMessageQueue} applying the {@link StreamingMessageQueueScheduledWaitStrategy}
+	 * @param id
+	 * @return
+	 */
+	protected InMemoryStreamingMessageQueue getQueue(final String id) throws RequiredInputMissingException {
+		Properties props = new Properties();
+		props.put(InMemoryStreamingMessageQueue.CFG_QUEUE_MESSAGE_WAIT_STRATEGY, StreamingMessageQueueScheduledWaitStrategy.STRATEGY_NAME);
+		InMemoryStreamingMessageQueue queue = new InMemoryStreamingMessageQueue();
+		queue.setId(id);
+		queue.initialize(props);
+		Assert.assertTrue("The scheduled strategy must be applied", queue.getConsumer().getWaitStrategy() instanceof StreamingMessageQueueScheduledWaitStrategy);
+		return queue;
+	}
+}
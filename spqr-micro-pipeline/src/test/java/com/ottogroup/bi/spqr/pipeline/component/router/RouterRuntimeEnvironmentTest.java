@@ -0,0 +1,228 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.component.router;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
+
+/**
+ * Test case for {@link RouterRuntimeEnvironment}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class RouterRuntimeEnvironmentTest {
+
+	/**
+	 * Test case for {@link RouterRuntimeEnvironment#RouterRuntimeEnvironment(String, String, Router, StreamingMessageQueueConsumer, Map, StreamingMessageQueueProducer)}
+	 * being provided null as input to router parameter which must lead to a {@link RequiredInputMissingException}
+	 */
+	@Test
+	public void testConstructor_withNullRouterInput() {
+		try {
+			new RouterRuntimeEnvironment("proc-id", "pipe-id", null, Mockito.mock(StreamingMessageQueueConsumer.class), 
+					Collections.singletonMap("route", Mockito.mock(StreamingMessageQueueProducer.class)), null);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link RouterRuntimeEnvironment#RouterRuntimeEnvironment(String, String, Router, StreamingMessageQueueConsumer, Map, StreamingMessageQueueProducer)}
+	 * being provided null as input to queue consumer parameter which must lead to a {@link RequiredInputMissingException}
+	 */
+	@Test
+	public void testConstructor_withNullConsumerInput() {
+		try {
+			new RouterRuntimeEnvironment("proc-id", "pipe-id", getRouter("route"), null, 
+					Collections.singletonMap("route", Mockito.mock(StreamingMessageQueueProducer.class)), null);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link RouterRuntimeEnvironment#RouterRuntimeEnvironment(String, String, Router, StreamingMessageQueueConsumer, Map, StreamingMessageQueueProducer)}
+	 * being provided a router showing a route without destination queue which must lead to a {@link RequiredInputMissingException}
+	 */
+	@Test
+	public void testConstructor_withRouteMissingProducer() {
+		try {
+			new RouterRuntimeEnvironment("proc-id", "pipe-id", getRouter("route-1", "route-2"), Mockito.mock(StreamingMessageQueueConsumer.class), 
+					Collections.singletonMap("route-1", Mockito.mock(StreamingMessageQueueProducer.class)), null);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link RouterRuntimeEnvironment#RouterRuntimeEnvironment(String, String, Router, StreamingMessageQueueConsumer, Map, StreamingMessageQueueProducer)}
+	 * being provided routes sharing a destination queue. They must be mapped to a single destination
+	 */
+	@Test
+	public void testConstructor_withRoutesSharingProducer() throws RequiredInputMissingException {
+		StreamingMessageQueueProducer shared = Mockito.mock(StreamingMessageQueueProducer.class);
+		Map<String, StreamingMessageQueueProducer> producers = new HashMap<>();
+		producers.put("route-1", shared);
+		producers.put("route-2", shared);
+		producers.put("route-3", Mockito.mock(StreamingMessageQueueProducer.class));
+		
+		RouterRuntimeEnvironment env = new RouterRuntimeEnvironment("proc-id", "pipe-id", getRouter("Route-1", "route-2 ", "route-3"), 
+				Mockito.mock(StreamingMessageQueueConsumer.class), producers, shared);
+		Assert.assertTrue("The environment must be running", env.isRunning());
+		Assert.assertEquals("Values must be equal", 2, env.getNumOfDestinations());
+	}
+
+	/**
+	 * Test case for {@link RouterRuntimeEnvironment#processMessages(int)} being provided messages matching one, multiple and no routes. 
+	 * Each destination must receive a matching message once and unmatched messages must be written to the default destination 
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testProcessMessages_withMatchingAndUnmatchedMessages() throws RequiredInputMissingException {
+		StreamingDataMessage first = new StreamingDataMessage("first".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage all = new StreamingDataMessage("all".getBytes(), System.currentTimeMillis());
+		StreamingDataMessage none = new StreamingDataMessage("none".getBytes(), System.currentTimeMillis());
+		
+		Router router = getRouter("route-1", "route-2", "route-3");
+		Mockito.when(router.route(first)).thenReturn(1L);
+		Mockito.when(router.route(all)).thenReturn(7L);
+		Mockito.when(router.route(none)).thenReturn(Router.NO_ROUTE);
+		
+		StreamingMessageQueueConsumer consumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		Mockito.when(consumer.next()).thenReturn(first, all, none, null);
+		
+		StreamingMessageQueueProducer producer1 = getProducer();
+		StreamingMessageQueueProducer producer2 = getProducer();
+		StreamingMessageQueueProducer defaultProducer = getProducer();
+		Map<String, StreamingMessageQueueProducer> producers = new HashMap<>();
+		producers.put("route-1", producer1);
+		producers.put("route-2", producer2);
+		producers.put("route-3", producer2);
+		
+		List<StreamingDataMessage> forwarded1 = new ArrayList<>();
+		List<StreamingDataMessage> forwarded2 = new ArrayList<>();
+		List<StreamingDataMessage> forwardedDefault = new ArrayList<>();
+		Mockito.when(producer1.insertBatch(Mockito.anyList())).thenAnswer(new CollectingAnswer(forwarded1));
+		Mockito.when(producer2.insertBatch(Mockito.anyList())).thenAnswer(new CollectingAnswer(forwarded2));
+		Mockito.when(defaultProducer.insertBatch(Mockito.anyList())).thenAnswer(new CollectingAnswer(forwardedDefault));
+		
+		RouterRuntimeEnvironment env = new RouterRuntimeEnvironment("proc-id", "pipe-id", router, consumer, producers, defaultProducer);
+		Assert.assertEquals("Values must be equal", 3, env.processMessages(10));
+		
+		Assert.assertEquals("Values must be equal", 2, forwarded1.size());
+		Assert.assertSame("Values must be equal", first, forwarded1.get(0));
+		Assert.assertSame("Values must be equal", all, forwarded1.get(1));
+		Assert.assertEquals("Values must be equal", 1, forwarded2.size());
+		Assert.assertSame("Values must be equal", all, forwarded2.get(0));
+		Assert.assertEquals("Values must be equal", 1, forwardedDefault.size());
+		Assert.assertSame("Values must be equal", none, forwardedDefault.get(0));
+		Assert.assertEquals("Values must be equal", 1, env.getNumOfUnroutedMessages());
+		Mockito.verify(router, Mockito.times(1)).route(all);
+		Mockito.verify(producer2.getWaitStrategy(), Mockito.times(1)).forceLockRelease();
+	}
+
+	/**
+	 * Test case for {@link RouterRuntimeEnvironment#processMessages(int)} being provided a message matching no route while
+	 * no default destination exists. The message must be dropped
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testProcessMessages_withUnmatchedMessageAndNoDefaultDestination() throws RequiredInputMissingException {
+		StreamingDataMessage none = new StreamingDataMessage("none".getBytes(), System.currentTimeMillis());
+		Router router = getRouter("route-1");
+		Mockito.when(router.route(none)).thenReturn(Router.NO_ROUTE);
+		StreamingMessageQueueConsumer consumer = Mockito.mock(StreamingMessageQueueConsumer.class);
+		Mockito.when(consumer.next()).thenReturn(none, (StreamingDataMessage)null);
+		StreamingMessageQueueProducer producer = getProducer();
+		
+		RouterRuntimeEnvironment env = new RouterRuntimeEnvironment("proc-id", "pipe-id", router, consumer, Collections.singletonMap("route-1", producer), null);
+		Assert.assertEquals("Values must be equal", 1, env.processMessages(10));
+		Assert.assertEquals("Values must be equal", 1, env.getNumOfUnroutedMessages());
+		Mockito.verify(producer, Mockito.never()).insertBatch(Mockito.anyList());
+	}
+
+	/**
+	 * Test case for {@link RouterRuntimeEnvironment#shutdown()} which must stop the environment and the router
+	 */
+	@Test
+	public void testShutdown() throws RequiredInputMissingException {
+		Router router = getRouter("route-1");
+		RouterRuntimeEnvironment env = new RouterRuntimeEnvironment("proc-id", "pipe-id", router, Mockito.mock(StreamingMessageQueueConsumer.class), 
+				Collections.singletonMap("route-1", getProducer()), null);
+		env.shutdown();
+		Assert.assertFalse("The environment must not be running", env.isRunning());
+		Mockito.verify(router).shutdown();
+	}
+	
+	/**
+	 * Returns a mocked {@link Router} providing the given routes
+	 * @param routes
+	 * @return
+	 */
+	private Router getRouter(final String... routes) {
+		Router router = Mockito.mock(Router.class);
+		Mockito.when(router.getId()).thenReturn("router");
+		Mockito.when(router.getRoutes()).thenReturn(routes);
+		return router;
+	}
+	
+	/**
+	 * Returns a mocked {@link StreamingMessageQueueProducer} showing a wait strategy
+	 * @return
+	 */
+	private StreamingMessageQueueProducer getProducer() {
+		StreamingMessageQueueProducer producer = Mockito.mock(StreamingMessageQueueProducer.class);
+		StreamingMessageQueueWaitStrategy waitStrategy = Mockito.mock(StreamingMessageQueueWaitStrategy.class);
+		Mockito.when(producer.getWaitStrategy()).thenReturn(waitStrategy);
+		return producer;
+	}
+	
+	/**
+	 * Copies all messages of a batch handed over to a producer as the batch gets cleared afterwards
+	 * @author mnxfst
+	 * @since Oct 18, 2026
+	 */
+	private static class CollectingAnswer implements Answer<Integer> {
+		private final List<StreamingDataMessage> messages;
+		private CollectingAnswer(final List<StreamingDataMessage> messages) {
+			this.messages = messages;
+		}
+		@SuppressWarnings("unchecked")
+		public Integer answer(InvocationOnMock invocation) throws Throwable {
+			List<StreamingDataMessage> batch = (List<StreamingDataMessage>)invocation.getArguments()[0];
+			this.messages.addAll(batch);
+			return batch.size();
+		}
+	}
+}
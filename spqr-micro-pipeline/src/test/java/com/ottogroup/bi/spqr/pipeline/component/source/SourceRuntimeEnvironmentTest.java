@@ -16,20 +16,28 @@
 package com.ottogroup.bi.spqr.pipeline.component.source;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueue;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueConsumer;
 import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueProducer;
+import com.ottogroup.bi.spqr.pipeline.queue.StreamingMessageQueueWatermark;
+import com.ottogroup.bi.spqr.pipeline.queue.strategy.StreamingMessageQueueWaitStrategy;
 import com.ottogroup.bi.spqr.pipeline.queue.memory.InMemoryStreamingMessageQueue;
 
 /**
@@ -101,6 +109,42 @@ public class SourceRuntimeEnvironmentTest {
 		}
 	}
 	
+	/**
+	 * Test case for {@link SourceRuntimeEnvironment#SourceRuntimeEnvironment(String, String, Source, Runnable, StreamingMessageQueueProducer, ExecutorService)}
+	 * being provided null as input to source task parameter which must lead to an exception
+	 */
+	@Test
+	public void testConstructor_withNullSourceTask() {
+		ExecutorService svc = Executors.newSingleThreadExecutor();
+		try {			
+			new SourceRuntimeEnvironment("node", "pipe", Mockito.mock(Source.class), null, Mockito.mock(StreamingMessageQueueProducer.class), svc);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		} finally {
+			svc.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Test case for {@link SourceRuntimeEnvironment#SourceRuntimeEnvironment(String, String, Source, Runnable, StreamingMessageQueueProducer, ExecutorService)}
+	 * being provided a source task which must be executed instead of the source itself
+	 */
+	@Test
+	public void testConstructor_withSourceTask() throws Exception {
+		Source source = Mockito.mock(Source.class);
+		Runnable sourceTask = Mockito.mock(Runnable.class);
+		ExecutorService svc = Executors.newSingleThreadExecutor();
+		try {
+			SourceRuntimeEnvironment env = new SourceRuntimeEnvironment("node", "pipe", source, sourceTask, Mockito.mock(StreamingMessageQueueProducer.class), svc);
+			Mockito.verify(sourceTask, Mockito.timeout(1000)).run();
+			Mockito.verify(source, Mockito.never()).run();
+			Mockito.verify(source).setIncomingMessageCallback(env);
+		} finally {
+			svc.shutdownNow();
+		}
+	}
+	
 	/**
 	 * Test case for {@link SourceRuntimeEnvironment#run()} with a fully functional {@link Source} implementation
 	 */
@@ -152,5 +196,59 @@ public class SourceRuntimeEnvironmentTest {
 		
 		
 	}
+	
+	/**
+	 * Test case for {@link SourceRuntimeEnvironment#run()} with a downstream queue exceeding its high watermark. The
+	 * {@link PausableSource} must be paused and incoming messages must block until the backlog dropped to the low watermark 
+	 */
+	@Test
+	public void testRun_withDownstreamQueueAboveHighWatermark() throws Exception {
+		
+		final AtomicLong backlog = new AtomicLong(0);
+		StreamingMessageQueue queue = Mockito.mock(StreamingMessageQueue.class);
+		Mockito.when(queue.getBacklog()).thenAnswer(new Answer<Long>() {
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				return backlog.get();
+			}
+		});
+		
+		PausableSource source = Mockito.mock(PausableSource.class);
+		StreamingMessageQueueProducer producer = Mockito.mock(StreamingMessageQueueProducer.class);
+		Mockito.when(producer.getWaitStrategy()).thenReturn(Mockito.mock(StreamingMessageQueueWaitStrategy.class));
+		final StreamingDataMessage message = new StreamingDataMessage("test".getBytes(), System.currentTimeMillis());
+		
+		ExecutorService svc = Executors.newCachedThreadPool();
+		final SourceRuntimeEnvironment env = new SourceRuntimeEnvironment("node", "pipe", source, producer, svc);
+		try {
+			env.setDownstreamQueueWatermarks(Arrays.asList(new StreamingMessageQueueWatermark(queue, 10, 5)));
+			env.setBackpressureCheckIntervalMillis(1);
+			svc.submit(env);
+			
+			backlog.set(10);
+			Mockito.verify(source, Mockito.timeout(1000)).pause();
+			Assert.assertTrue("The source must be paused", env.isPaused());
+			
+			svc.submit(new Runnable() {
+				public void run() {
+					env.onMessage(message);
+				}
+			});
+			Thread.sleep(50);
+			Mockito.verify(producer, Mockito.never()).insert(message);
+
+			// the backlog must drop to the low watermark before the source resumes
+			backlog.set(6);
+			Thread.sleep(50);
+			Assert.assertTrue("The source must still be paused", env.isPaused());
+			
+			backlog.set(5);
+			Mockito.verify(source, Mockito.timeout(1000)).resume();
+			Mockito.verify(producer, Mockito.timeout(1000)).insert(message);
+			Assert.assertFalse("The source must not be paused", env.isPaused());
+		} finally {
+			env.shutdown();
+			svc.shutdownNow();
+		}
+	}
 
 }
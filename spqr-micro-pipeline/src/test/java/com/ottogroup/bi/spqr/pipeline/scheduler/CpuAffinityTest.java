@@ -0,0 +1,82 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test case for {@link CpuAffinity}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class CpuAffinityTest {
+
+	/**
+	 * Test case for {@link CpuAffinity#parse(String)} being provided null or blank lists
+	 */
+	@Test
+	public void testParse_withEmptyList() {
+		Assert.assertEquals("Values must be equal", 0, CpuAffinity.parse(null));
+		Assert.assertEquals("Values must be equal", 0, CpuAffinity.parse(" "));
+	}
+	
+	/**
+	 * Test case for {@link CpuAffinity#parse(String)} being provided single cpus and ranges
+	 */
+	@Test
+	public void testParse_withValidList() {
+		Assert.assertEquals("Values must be equal", 0x1L, CpuAffinity.parse("0"));
+		Assert.assertEquals("Values must be equal", 0xCL, CpuAffinity.parse("2,3"));
+		Assert.assertEquals("Values must be equal", 0xF0L, CpuAffinity.parse("4-7"));
+		Assert.assertEquals("Values must be equal", 0xF2L, CpuAffinity.parse(" 1, 4-7 "));
+		Assert.assertEquals("Values must be equal", Long.MIN_VALUE, CpuAffinity.parse("63"));
+	}
+	
+	/**
+	 * Test case for {@link CpuAffinity#parse(String)} being provided a non-numeric cpu
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testParse_withNonNumericCpu() {
+		CpuAffinity.parse("1,a");
+	}
+	
+	/**
+	 * Test case for {@link CpuAffinity#parse(String)} being provided a descending range
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testParse_withDescendingRange() {
+		CpuAffinity.parse("7-4");
+	}
+	
+	/**
+	 * Test case for {@link CpuAffinity#parse(String)} being provided a cpu exceeding the mask
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testParse_withCpuExceedingMask() {
+		CpuAffinity.parse("64");
+	}
+	
+	/**
+	 * Test case for {@link CpuAffinity#format(long)} which must produce lists accepted by {@link CpuAffinity#parse(String)}
+	 */
+	@Test
+	public void testFormat_withValidMask() {
+		Assert.assertEquals("Values must be equal", "", CpuAffinity.format(0));
+		Assert.assertEquals("Values must be equal", "1,4-7", CpuAffinity.format(0xF2L));
+		Assert.assertEquals("Values must be equal", 0xCL, CpuAffinity.parse(CpuAffinity.format(0xCL)));
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.ComponentThreadPlacement;
+
+/**
+ * Test case for {@link PinnedRuntimeEnvironment}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class PinnedRuntimeEnvironmentTest {
+
+	/**
+	 * Test case for {@link PinnedRuntimeEnvironment#PinnedRuntimeEnvironment(String, String, String, Runnable, long, ThreadPlacementRegistry)}
+	 * being provided null as runtime environment
+	 */
+	@Test(expected=RequiredInputMissingException.class)
+	public void testConstructor_withNullRuntimeEnvironment() throws Exception {
+		new PinnedRuntimeEnvironment("node", "pipeline", "component", null, 0, new ThreadPlacementRegistry());
+	}
+	
+	/**
+	 * Test case for {@link PinnedRuntimeEnvironment#PinnedRuntimeEnvironment(String, String, String, Runnable, long, ThreadPlacementRegistry)}
+	 * being provided null as placement registry
+	 */
+	@Test(expected=RequiredInputMissingException.class)
+	public void testConstructor_withNullPlacementRegistry() throws Exception {
+		new PinnedRuntimeEnvironment("node", "pipeline", "component", new Runnable() {
+			public void run() {
+			}
+		}, 0, null);
+	}
+	
+	/**
+	 * Test case for {@link PinnedRuntimeEnvironment#run()} which must name the thread after the component and register 
+	 * its placement while the runtime environment is running. Both must be reverted on termination
+	 */
+	@Test
+	public void testRun_withoutAffinity() throws Exception {
+		final ThreadPlacementRegistry registry = new ThreadPlacementRegistry();
+		final AtomicReference<String> threadName = new AtomicReference<>();
+		final AtomicReference<List<ComponentThreadPlacement>> placements = new AtomicReference<>();
+		
+		final PinnedRuntimeEnvironment env = new PinnedRuntimeEnvironment("node", "pipeline", "component", new Runnable() {
+			public void run() {
+				threadName.set(Thread.currentThread().getName());
+				placements.set(registry.getPlacements());
+			}
+		}, 0, registry);
+		
+		final String originalName = Thread.currentThread().getName();
+		env.run();
+		
+		Assert.assertEquals("Values must be equal", "node/pipeline/component", threadName.get());
+		Assert.assertEquals("Values must be equal", originalName, Thread.currentThread().getName());
+		Assert.assertEquals("Values must be equal", 1, placements.get().size());
+		Assert.assertEquals("Values must be equal", "pipeline", placements.get().get(0).getPipelineId());
+		Assert.assertEquals("Values must be equal", "component", placements.get().get(0).getComponentId());
+		Assert.assertEquals("Values must be equal", "node/pipeline/component", placements.get().get(0).getThreadName());
+		Assert.assertFalse("Must not be pinned", placements.get().get(0).isPinned());
+		Assert.assertTrue("Registry must be empty", registry.getPlacements().isEmpty());
+	}
+
+	/**
+	 * Test case for {@link PinnedRuntimeEnvironment#run()} being provided an affinity mask. Pinning depends on the host
+	 * but the requested cpus must be reported in any case and the registry must be cleaned up even if the runtime 
+	 * environment fails
+	 */
+	@Test
+	public void testRun_withAffinityAndFailingRuntimeEnvironment() throws Exception {
+		final ThreadPlacementRegistry registry = new ThreadPlacementRegistry();
+		final AtomicReference<List<ComponentThreadPlacement>> placements = new AtomicReference<>();
+		
+		final PinnedRuntimeEnvironment env = new PinnedRuntimeEnvironment("node", "pipeline", "component", new Runnable() {
+			public void run() {
+				placements.set(registry.getPlacements());
+				throw new IllegalStateException("failed");
+			}
+		}, CpuAffinity.parse("0"), registry);
+		
+		try {
+			env.run();
+			Assert.fail("Runtime environment must fail");
+		} catch(IllegalStateException e) {
+			// expected
+		}
+		
+		Assert.assertEquals("Values must be equal", 1, placements.get().size());
+		Assert.assertEquals("Values must be equal", "0", placements.get().get(0).getRequestedCpus());
+		Assert.assertEquals("Values must be equal", CpuAffinity.isSupported(), placements.get().get(0).isPinned());
+		Assert.assertTrue("Registry must be empty", registry.getPlacements().isEmpty());
+	}
+}
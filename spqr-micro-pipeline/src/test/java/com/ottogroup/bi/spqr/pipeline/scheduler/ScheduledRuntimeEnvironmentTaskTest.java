@@ -0,0 +1,155 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import java.util.concurrent.Executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+
+/**
+ * Test case for {@link ScheduledRuntimeEnvironmentTask}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class ScheduledRuntimeEnvironmentTaskTest {
+
+	/**
+	 * Test case for {@link ScheduledRuntimeEnvironmentTask#ScheduledRuntimeEnvironmentTask(String, SchedulableRuntimeEnvironment, Executor, int)}
+	 * being provided null as input to environment parameter
+	 */
+	@Test
+	public void testConstructor_withNullEnvironment() {
+		try {
+			new ScheduledRuntimeEnvironmentTask("id", null, Mockito.mock(Executor.class), 10);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link ScheduledRuntimeEnvironmentTask#ScheduledRuntimeEnvironmentTask(String, SchedulableRuntimeEnvironment, Executor, int)}
+	 * being provided a batch size of zero
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_withInvalidBatchSize() throws RequiredInputMissingException {
+		new ScheduledRuntimeEnvironmentTask("id", Mockito.mock(SchedulableRuntimeEnvironment.class), Mockito.mock(Executor.class), 0);
+	}
+	
+	/**
+	 * Test case for {@link ScheduledRuntimeEnvironmentTask#signal()} being called multiple times before the
+	 * task gets executed which must submit the task only once
+	 */
+	@Test
+	public void testSignal_withMultipleSignalsBeforeExecution() throws RequiredInputMissingException {
+		Executor executor = Mockito.mock(Executor.class);
+		ScheduledRuntimeEnvironmentTask task = new ScheduledRuntimeEnvironmentTask("id", Mockito.mock(SchedulableRuntimeEnvironment.class), executor, 10);
+		Assert.assertFalse("The task must not be scheduled", task.isScheduled());
+		task.signal();
+		task.signal();
+		task.signal();
+		Assert.assertTrue("The task must be scheduled", task.isScheduled());
+		Mockito.verify(executor, Mockito.times(1)).execute(task);
+	}
+	
+	/**
+	 * Test case for {@link ScheduledRuntimeEnvironmentTask#run()} where the environment empties its source queue 
+	 * without any further signal arriving. The task must not be re-submitted but wait for the next signal
+	 */
+	@Test
+	public void testRun_withEmptiedQueue() throws RequiredInputMissingException {
+		Executor executor = Mockito.mock(Executor.class);
+		SchedulableRuntimeEnvironment env = Mockito.mock(SchedulableRuntimeEnvironment.class);
+		Mockito.when(env.isRunning()).thenReturn(true);
+		Mockito.when(env.processMessages(10)).thenReturn(3);
+		
+		ScheduledRuntimeEnvironmentTask task = new ScheduledRuntimeEnvironmentTask("id", env, executor, 10);
+		task.signal();
+		task.run();
+		Assert.assertFalse("The task must not be scheduled", task.isScheduled());
+		Mockito.verify(executor, Mockito.times(1)).execute(task);
+		
+		task.signal();
+		Mockito.verify(executor, Mockito.times(2)).execute(task);
+	}
+
+	/**
+	 * Test case for {@link ScheduledRuntimeEnvironmentTask#run()} where the environment exhausts the batch size. The 
+	 * task must be re-submitted
+	 */
+	@Test
+	public void testRun_withExhaustedBatch() throws RequiredInputMissingException {
+		Executor executor = Mockito.mock(Executor.class);
+		SchedulableRuntimeEnvironment env = Mockito.mock(SchedulableRuntimeEnvironment.class);
+		Mockito.when(env.isRunning()).thenReturn(true);
+		Mockito.when(env.processMessages(10)).thenReturn(10);
+		
+		ScheduledRuntimeEnvironmentTask task = new ScheduledRuntimeEnvironmentTask("id", env, executor, 10);
+		task.signal();
+		task.run();
+		Assert.assertTrue("The task must be scheduled", task.isScheduled());
+		Mockito.verify(executor, Mockito.times(2)).execute(task);
+	}
+
+	/**
+	 * Test case for {@link ScheduledRuntimeEnvironmentTask#run()} where a signal arrives while the environment processes
+	 * messages. The task must be re-submitted as the signal may refer to messages not covered by the batch
+	 */
+	@Test
+	public void testRun_withSignalDuringExecution() throws RequiredInputMissingException {
+		Executor executor = Mockito.mock(Executor.class);
+		SchedulableRuntimeEnvironment env = Mockito.mock(SchedulableRuntimeEnvironment.class);
+		Mockito.when(env.isRunning()).thenReturn(true);
+		
+		final ScheduledRuntimeEnvironmentTask task = new ScheduledRuntimeEnvironmentTask("id", env, executor, 10);
+		Mockito.when(env.processMessages(10)).thenAnswer(new Answer<Integer>() {
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				task.signal();
+				return 0;
+			}
+		});
+		
+		task.signal();
+		task.run();
+		Assert.assertTrue("The task must be scheduled", task.isScheduled());
+		Mockito.verify(executor, Mockito.times(2)).execute(task);
+	}
+
+	/**
+	 * Test case for {@link ScheduledRuntimeEnvironmentTask#run()} where the environment has been shut down. The
+	 * environment must not be called and the task must not be re-submitted
+	 */
+	@Test
+	public void testRun_withStoppedEnvironment() throws RequiredInputMissingException {
+		Executor executor = Mockito.mock(Executor.class);
+		SchedulableRuntimeEnvironment env = Mockito.mock(SchedulableRuntimeEnvironment.class);
+		Mockito.when(env.isRunning()).thenReturn(false);
+		
+		ScheduledRuntimeEnvironmentTask task = new ScheduledRuntimeEnvironmentTask("id", env, executor, 10);
+		task.signal();
+		task.run();
+		task.signal();
+		Mockito.verify(env, Mockito.never()).processMessages(Mockito.anyInt());
+		Mockito.verify(executor, Mockito.times(1)).execute(task);
+	}
+	
+}
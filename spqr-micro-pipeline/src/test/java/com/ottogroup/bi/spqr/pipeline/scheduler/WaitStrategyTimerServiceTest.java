@@ -0,0 +1,116 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.pipeline.scheduler;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.operator.DelayedResponseCollector;
+import com.ottogroup.bi.spqr.pipeline.component.operator.TimerBasedResponseWaitStrategy;
+
+/**
+ * Test case for {@link WaitStrategyTimerService}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class WaitStrategyTimerServiceTest {
+
+	/**
+	 * Test case for {@link WaitStrategyTimerService#WaitStrategyTimerService(int)} being provided 
+	 * zero threads
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_withInvalidNumOfThreads() {
+		new WaitStrategyTimerService(0);
+	}
+	
+	/**
+	 * Test case for {@link WaitStrategyTimerService#schedule(Runnable, long)} being provided null 
+	 */
+	@Test
+	public void testSchedule_withNullTask() {
+		WaitStrategyTimerService service = new WaitStrategyTimerService(1);
+		try {
+			service.schedule(null, 10);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		} finally {
+			service.shutdown();
+		}
+	}
+	
+	/**
+	 * Test case for {@link WaitStrategyTimerService#schedule(Runnable, long)} being provided a valid task 
+	 * which must be executed and reported by the tick metrics
+	 */
+	@Test
+	public void testSchedule_withValidTask() throws Exception {
+		WaitStrategyTimerService service = new WaitStrategyTimerService(1);
+		try {
+			final CountDownLatch latch = new CountDownLatch(1);
+			service.schedule(new Runnable() {
+				public void run() {
+					latch.countDown();
+				}
+			}, 5);
+			Assert.assertTrue("Task must be executed", latch.await(1, TimeUnit.SECONDS));
+			// metrics are updated before executing the task
+			Assert.assertEquals("Values must be equal", 1, service.getNumOfTicks());
+			Assert.assertEquals("Values must be equal", 1, service.getTickLag().getCount());
+			Assert.assertTrue("Must contain lag metric", service.getMetrics().containsKey(WaitStrategyTimerService.METRIC_TICK_LAG));
+		} finally {
+			service.shutdown();
+		}
+	}
+	
+	/**
+	 * Test case for {@link WaitStrategyTimerService} driving a {@link TimerBasedResponseWaitStrategy} which must 
+	 * release its collector periodically and stop doing so after shutdown
+	 */
+	@Test
+	public void testSchedule_withTimerBasedResponseWaitStrategy() throws Exception {
+		WaitStrategyTimerService service = new WaitStrategyTimerService(1);
+		try {
+			DelayedResponseCollector collector = Mockito.mock(DelayedResponseCollector.class);
+			Properties properties = new Properties();
+			properties.setProperty(TimerBasedResponseWaitStrategy.CFG_MAX_DURATION, "10");
+			TimerBasedResponseWaitStrategy strategy = new TimerBasedResponseWaitStrategy();
+			strategy.initialize(properties);
+			strategy.setDelayedResponseCollector(collector);
+			strategy.setTimerService(service);
+			
+			// must return right away as the timer service takes over
+			strategy.run();
+			Mockito.verify(collector, Mockito.timeout(1000).atLeast(2)).retrieveMessages();
+			
+			strategy.shutdown();
+			Thread.sleep(50);
+			Mockito.reset(collector);
+			Thread.sleep(50);
+			Mockito.verify(collector, Mockito.never()).retrieveMessages();
+		} finally {
+			service.shutdown();
+		}
+	}
+	
+}
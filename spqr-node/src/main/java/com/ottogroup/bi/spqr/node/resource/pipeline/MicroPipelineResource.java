@@ -43,6 +43,7 @@ import com.ottogroup.bi.spqr.pipeline.MicroPipelineValidationResult;
  * <ul>
  *   <li>{@link MicroPipelineResource#instantiatePipeline(String, MicroPipelineConfiguration) pipeline instantiation}</li>
  *   <li>{@link MicroPipelineResource#shutdown(String) pipeline shutdown}</li>
+ *   <li>{@link MicroPipelineResource#listThreadPlacements() thread placement reporting}</li>
  * </ul>
  * @author mnxfst
  * @since Mar 13, 2015
@@ -187,4 +188,17 @@ public class MicroPipelineResource {
 		
 		return new ListRegisteredMicroPipelinesResponse(this.microPipelineManager.getProcessingNodeId(), this.microPipelineManager.getPipelineIds(), this.microPipelineManager.getPipelineConfigurations());		
 	}
+	
+	/**
+	 * Lists the threads executing the runtime environments of all {@link MicroPipeline} instances registered with this node 
+	 * along with the cpus they are pinned to
+	 * @return
+	 */
+	@Produces(value = "application/json" )
+	@Timed(name = "pipeline-placement" )
+	@GET
+	@Path("placement")
+	public ThreadPlacementResponse listThreadPlacements() {
+		return new ThreadPlacementResponse(this.microPipelineManager.getProcessingNodeId(), this.microPipelineManager.getThreadPlacements());
+	}
 }
@@ -97,8 +97,8 @@ public class SPQRNodeServer extends Application<SPQRNodeServerConfiguration> {
 		}
 
 		// initialize the micro pipeline manager
-		this.microPipelineManager = new MicroPipelineManager(this.nodeId, loadAndDeployApplicationRepository(configuration.getSpqrNode().getComponentRepositoryFolder()), configuration.getSpqrNode().getNumOfThreads());
-		logger.info("pipeline manager initialized [threads="+configuration.getSpqrNode().getNumOfThreads()+", repo="+configuration.getSpqrNode().getComponentRepositoryFolder()+"]");
+		this.microPipelineManager = new MicroPipelineManager(this.nodeId, loadAndDeployApplicationRepository(configuration.getSpqrNode().getComponentRepositoryFolder()), configuration.getSpqrNode().getNumOfThreads(), configuration.getSpqrNode().isVirtualThreads());
+		logger.info("pipeline manager initialized [threads="+configuration.getSpqrNode().getNumOfThreads()+", virtualThreads="+configuration.getSpqrNode().isVirtualThreads()+", repo="+configuration.getSpqrNode().getComponentRepositoryFolder()+"]");
 
 		// register exposed resources
 		environment.jersey().register(new MicroPipelineResource(this.microPipelineManager));
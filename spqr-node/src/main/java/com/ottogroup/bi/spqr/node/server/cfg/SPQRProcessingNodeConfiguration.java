@@ -42,6 +42,9 @@ public class SPQRProcessingNodeConfiguration implements Serializable {
 	/** number of threads assigned to internal executor service, default: 0 -- cached thread pool will be used */
 	@JsonProperty(value="numOfThreads", required=true)
 	private int numOfThreads = 0;
+	/** run component runtime environments on virtual threads (requires java 21 or later), default: false -- executor service configured via number of threads will be used */
+	@JsonProperty(value="virtualThreads", required=false)
+	private boolean virtualThreads = false;
 	/** host - forwarded to resource manager during startup */
 	@JsonProperty(value="host", required=true)
 	private String host = null;
@@ -84,6 +87,12 @@ public class SPQRProcessingNodeConfiguration implements Serializable {
 	public void setNumOfThreads(int numOfThreads) {
 		this.numOfThreads = numOfThreads;
 	}
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
 	public String getHost() {
 		return host;
 	}
@@ -0,0 +1,247 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.operator.json.router;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.operator.json.JsonContentType;
+import com.ottogroup.bi.spqr.operator.json.filter.JsonContentFilter;
+import com.ottogroup.bi.spqr.operator.json.filter.JsonContentFilterFieldSetting;
+import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
+import com.ottogroup.bi.spqr.pipeline.component.annotation.SPQRComponent;
+import com.ottogroup.bi.spqr.pipeline.component.router.Router;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Routes incoming {@link StreamingDataMessage} by their JSON content. Each route holds a set of field expressions similar 
+ * to the {@link JsonContentFilter}: a message matches a route if all its expressions match. Compared to a set of filters 
+ * reading from a broadcast queue, the message is parsed only once regardless of the number of routes.
+ * <br/><br/>
+ * To configure a content router instance the properties must show the following settings: (n, m = enumeration values starting with value 1)
+ * <ul>
+ *   <li><i>route.[n].name</i> - name of route which is mapped to a destination queue by the component configuration</li>
+ *   <li><i>route.[n].field.[m].path</i> - path to field (eg. data.wt.cs-host)</li>
+ *   <li><i>route.[n].field.[m].expression</i> - regular expression applied on field content (see {@linkplain http://en.wikipedia.org/wiki/Regular_expression} for more information)</li>
+ *   <li><i>route.[n].field.[m].type</i> - string or numerical (required for content conversion and expression application: type-to-string)</li>
+ *   <li><i>routing.mode</i> - <i>all</i> (default) forwards a message to all matching routes, <i>first</i> to the first matching route only</li>
+ * </ul> 
+ * A route without any field settings matches all messages.  
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+@SPQRComponent(type=MicroPipelineComponentType.ROUTER, name="jsonContentRouter", version="0.0.1", description="Routes arbitrary JSON content")
+public class JsonContentRouter implements Router {
+
+	/** our faithful logging facility .... ;-) */ 
+	private static final Logger logger = Logger.getLogger(JsonContentRouter.class);	
+	
+	/** prefix to all route settings - required: route.1.name (settings must use continuous enumeration starting with value 1) */
+	public static final String CFG_ROUTE_PREFIX = "route.";
+	/** routing mode: all or first */
+	public static final String CFG_ROUTING_MODE = "routing.mode";
+	/** forward messages to all matching routes */
+	public static final String ROUTING_MODE_ALL = "all";
+	/** forward messages to the first matching route only */
+	public static final String ROUTING_MODE_FIRST = "first";
+
+	/** unique component identifier */
+	private String id = null;
+	/** number of messages processed since initialization */
+	private long totalNumOfMessages = 0;
+	/** route names - position equals the route bit */
+	private String[] routes = new String[0];
+	/** field settings per route - position equals the route bit */
+	private final List<List<JsonContentFilterFieldSetting>> routeFields = new ArrayList<>();
+	/** stop evaluation on first matching route */
+	private boolean firstMatchOnly = false;
+	/** maps inbound strings into object representations */
+	private final ObjectMapper jsonMapper = new ObjectMapper();
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#initialize(java.util.Properties)
+	 */
+	public void initialize(Properties properties) throws RequiredInputMissingException, ComponentInitializationFailedException {
+		
+		if(properties == null)
+			throw new RequiredInputMissingException("Missing required properties");
+
+		final List<String> routeNames = new ArrayList<>();
+		for(int i = 1; i < Integer.MAX_VALUE; i++) {
+			final String routePrefix = CFG_ROUTE_PREFIX + i + ".";
+			final String name = StringUtils.lowerCase(StringUtils.trim(properties.getProperty(routePrefix + "name")));
+			if(StringUtils.isBlank(name))
+				break;
+			if(routeNames.contains(name))
+				throw new ComponentInitializationFailedException("Non-unique route name found: " + name);
+			if(routeNames.size() == MAX_ROUTES)
+				throw new ComponentInitializationFailedException("Number of routes exceeds the max. of " + MAX_ROUTES);
+			
+			final List<JsonContentFilterFieldSetting> fields = new ArrayList<>();
+			for(int j = 1; j < Integer.MAX_VALUE; j++) {
+				String expression = properties.getProperty(routePrefix + "field." + j + ".expression");
+				if(StringUtils.isBlank(expression))
+					break;
+				
+				String path = properties.getProperty(routePrefix + "field." + j + ".path");
+				if(StringUtils.isBlank(path))
+					throw new RequiredInputMissingException("Missing required path for field " + j + " of route '"+name+"'");
+				String valueType = properties.getProperty(routePrefix + "field." + j + ".type");
+				
+				try {
+					fields.add(new JsonContentFilterFieldSetting(StringUtils.trim(path).split("\\."), Pattern.compile(expression), StringUtils.equalsIgnoreCase("STRING", valueType) ? JsonContentType.STRING : JsonContentType.NUMERICAL));
+				} catch(PatternSyntaxException e) {
+					throw new ComponentInitializationFailedException("Failed to parse '"+expression+"' into a valid pattern expression");
+				}
+			}
+			
+			routeNames.add(name);
+			this.routeFields.add(fields);
+		}
+		
+		if(routeNames.isEmpty())
+			throw new RequiredInputMissingException("Missing required route settings");
+		this.routes = routeNames.toArray(new String[routeNames.size()]);
+		
+		final String routingMode = StringUtils.trim(properties.getProperty(CFG_ROUTING_MODE));
+		if(StringUtils.isNotBlank(routingMode) && !StringUtils.equalsIgnoreCase(routingMode, ROUTING_MODE_ALL) && !StringUtils.equalsIgnoreCase(routingMode, ROUTING_MODE_FIRST))
+			throw new ComponentInitializationFailedException("Unknown routing mode: " + routingMode);
+		this.firstMatchOnly = StringUtils.equalsIgnoreCase(routingMode, ROUTING_MODE_FIRST);
+		
+		if(logger.isDebugEnabled())
+			logger.debug("json content router [id="+id+", routes="+this.routes.length+", firstMatchOnly="+this.firstMatchOnly+"] initialized");		
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.router.Router#route(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage)
+	 */
+	public long route(StreamingDataMessage message) {
+		
+		// increment number of messages processed so far 
+		this.totalNumOfMessages++; 
+		
+		// do nothing if either the event or the body is empty
+		if(message == null || message.getBody() == null || message.getBody().length < 1)
+			return NO_ROUTE;
+		
+		JsonNode jsonNode = null;
+		try {
+			jsonNode = jsonMapper.readTree(message.getBody());
+		} catch(IOException e) {
+			logger.error("Failed to read message body to json node. Ignoring message. Error: " + e.getMessage());
+		}
+		
+		if(jsonNode == null)
+			return NO_ROUTE;
+
+		// evaluate all routes on the parsed content
+		long selectedRoutes = NO_ROUTE;
+		for(int i = 0; i < this.routes.length; i++) {
+			if(matches(jsonNode, this.routeFields.get(i))) {
+				selectedRoutes |= (1L << i);
+				if(this.firstMatchOnly)
+					break;
+			}
+		}
+		return selectedRoutes;
+	}
+	
+	/**
+	 * Returns true if the content of all referenced fields matches with the configured expressions
+	 * @param jsonNode
+	 * @param fields
+	 * @return
+	 */
+	protected boolean matches(final JsonNode jsonNode, final List<JsonContentFilterFieldSetting> fields) {
+		for(final JsonContentFilterFieldSetting fieldSettings : fields) {
+			if(!fieldSettings.getExpression().matcher(StringUtils.trim(getTextFieldValue(jsonNode, fieldSettings.getPath()))).matches())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Walks along the path provided and reads out the leaf value which is returned as string. If the path
+	 * does not exist an empty string is returned
+	 * @param jsonNode
+	 * @param fieldPath
+	 * @return
+	 */
+	protected String getTextFieldValue(final JsonNode jsonNode, final String[] fieldPath) {
+
+		JsonNode contentNode = jsonNode;
+		for(int i = 0; i < fieldPath.length && contentNode != null; i++)
+			contentNode = contentNode.get(fieldPath[i]);
+
+		if(contentNode != null && contentNode.isValueNode())
+			return contentNode.asText();
+		return "";
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.router.Router#getRoutes()
+	 */
+	public String[] getRoutes() {
+		return this.routes;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#shutdown()
+	 */
+	public boolean shutdown() {
+		return true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#getType()
+	 */
+	public MicroPipelineComponentType getType() {
+		return MicroPipelineComponentType.ROUTER;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.router.Router#getTotalNumOfMessages()
+	 */
+	public long getTotalNumOfMessages() {
+		return this.totalNumOfMessages;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#setId(java.lang.String)
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#getId()
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+}
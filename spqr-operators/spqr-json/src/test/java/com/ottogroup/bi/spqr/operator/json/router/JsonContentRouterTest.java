@@ -0,0 +1,145 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.operator.json.router;
+
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
+import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.router.Router;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Test case for {@link JsonContentRouter}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class JsonContentRouterTest {
+
+	/**
+	 * Test case for {@link JsonContentRouter#initialize(Properties)} being provided null
+	 */
+	@Test
+	public void testInitialize_withNullProperties() throws Exception {
+		try {
+			new JsonContentRouter().initialize(null);
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link JsonContentRouter#initialize(Properties)} being provided properties without any route
+	 */
+	@Test
+	public void testInitialize_withoutRoutes() throws Exception {
+		try {
+			new JsonContentRouter().initialize(new Properties());
+			Assert.fail("Missing required input");
+		} catch(RequiredInputMissingException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link JsonContentRouter#initialize(Properties)} being provided a non-unique route name
+	 */
+	@Test
+	public void testInitialize_withNonUniqueRouteName() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("route.1.name", "clicks");
+		props.setProperty("route.2.name", "Clicks");
+		try {
+			new JsonContentRouter().initialize(props);
+			Assert.fail("Non-unique route name");
+		} catch(ComponentInitializationFailedException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link JsonContentRouter#initialize(Properties)} being provided an unknown routing mode
+	 */
+	@Test
+	public void testInitialize_withUnknownRoutingMode() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("route.1.name", "clicks");
+		props.setProperty(JsonContentRouter.CFG_ROUTING_MODE, "some");
+		try {
+			new JsonContentRouter().initialize(props);
+			Assert.fail("Unknown routing mode");
+		} catch(ComponentInitializationFailedException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@link JsonContentRouter#route(StreamingDataMessage)} being provided messages matching none, one or 
+	 * multiple routes while all matching routes are selected 
+	 */
+	@Test
+	public void testRoute_withAllMatchingRoutes() throws Exception {
+		JsonContentRouter router = new JsonContentRouter();
+		router.initialize(getRouteSettings());
+		Assert.assertArrayEquals("Values must be equal", new String[]{"clicks", "shop", "all"}, router.getRoutes());
+		
+		Assert.assertEquals("Values must be equal", 7L, router.route(new StreamingDataMessage("{\"event\":{\"type\":\"click\",\"host\":\"shop.example.com\"}}".getBytes(), System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", 5L, router.route(new StreamingDataMessage("{\"event\":{\"type\":\"click\",\"host\":\"www.example.com\"}}".getBytes(), System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", 4L, router.route(new StreamingDataMessage("{\"event\":{\"type\":\"view\"}}".getBytes(), System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", 4L, router.route(new StreamingDataMessage("{\"other\":1}".getBytes(), System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", Router.NO_ROUTE, router.route(new StreamingDataMessage("no json".getBytes(), System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", Router.NO_ROUTE, router.route(new StreamingDataMessage(new byte[0], System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", 6L, router.getTotalNumOfMessages());
+	}
+
+	/**
+	 * Test case for {@link JsonContentRouter#route(StreamingDataMessage)} being provided messages matching multiple routes 
+	 * while the first matching route is selected only 
+	 */
+	@Test
+	public void testRoute_withFirstMatchingRouteOnly() throws Exception {
+		Properties props = getRouteSettings();
+		props.setProperty(JsonContentRouter.CFG_ROUTING_MODE, JsonContentRouter.ROUTING_MODE_FIRST);
+		JsonContentRouter router = new JsonContentRouter();
+		router.initialize(props);
+		
+		Assert.assertEquals("Values must be equal", 1L, router.route(new StreamingDataMessage("{\"event\":{\"type\":\"click\",\"host\":\"shop.example.com\"}}".getBytes(), System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", 2L, router.route(new StreamingDataMessage("{\"event\":{\"type\":\"view\",\"host\":\"shop.example.com\"}}".getBytes(), System.currentTimeMillis())));
+		Assert.assertEquals("Values must be equal", 4L, router.route(new StreamingDataMessage("{\"event\":{\"type\":\"view\"}}".getBytes(), System.currentTimeMillis())));
+	}
+	
+	/**
+	 * Returns settings showing three routes: clicks, shop and a route matching all messages
+	 * @return
+	 */
+	private Properties getRouteSettings() {
+		Properties props = new Properties();
+		props.setProperty("route.1.name", "clicks");
+		props.setProperty("route.1.field.1.path", "event.type");
+		props.setProperty("route.1.field.1.expression", "click");
+		props.setProperty("route.1.field.1.type", "STRING");
+		props.setProperty("route.2.name", "shop");
+		props.setProperty("route.2.field.1.path", "event.host");
+		props.setProperty("route.2.field.1.expression", "shop\\..*");
+		props.setProperty("route.2.field.1.type", "STRING");
+		props.setProperty("route.3.name", "all");
+		return props;
+	}
+}
@@ -16,6 +16,8 @@
 package com.ottogroup.bi.spqr.operator.kafka.emitter;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import kafka.javaapi.producer.Producer;
@@ -29,17 +31,19 @@ import com.ottogroup.bi.spqr.exception.ComponentInitializationFailedException;
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
 import com.ottogroup.bi.spqr.pipeline.component.annotation.SPQRComponent;
-import com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter;
+import com.ottogroup.bi.spqr.pipeline.component.emitter.BatchEmitter;
+import com.ottogroup.bi.spqr.pipeline.component.emitter.EmitterCallback;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 
 /**
  * Emits {@link StreamingDataMessage} received from the surrounding micro pipeline and writes
- * the {@link StreamingDataMessage#getBody() body} to the configured kafka topic
+ * the {@link StreamingDataMessage#getBody() body} to the configured kafka topic. Batches received from the
+ * runtime environment are handed over to the kafka producer by a single call
  * @author mnxfst
  * @since Mar 16, 2015
  */
 @SPQRComponent(type=MicroPipelineComponentType.EMITTER, name="kafkaEmitter", version="0.0.1", description="Kafka topic emitter")
-public class KafkaTopicEmitter implements Emitter {
+public class KafkaTopicEmitter implements BatchEmitter {
 
 	private static final Logger logger = Logger.getLogger(KafkaTopicEmitter.class);
 	
@@ -78,6 +82,8 @@ public class KafkaTopicEmitter implements Emitter {
 	private long messageCounter = 0;
 	private Charset charset = null;
 	private Producer<byte[], byte[]> kafkaProducer;
+	/** messages of the current batch converted to their kafka representation - reused for each batch */
+	private final List<KeyedMessage<byte[], byte[]>> keyedMessages = new ArrayList<>();
 
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#initialize(java.util.Properties)
@@ -160,6 +166,45 @@ public class KafkaTopicEmitter implements Emitter {
 		return true;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.emitter.BatchEmitter#onMessages(com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage[], int, com.ottogroup.bi.spqr.pipeline.component.emitter.EmitterCallback)
+	 */
+	public void onMessages(StreamingDataMessage[] messages, int numOfMessages, EmitterCallback callback) {
+		if(messages == null || numOfMessages < 1)
+			return;
+		
+		try {
+			for(int i = 0; i < numOfMessages; i++) {
+				final StreamingDataMessage message = messages[i];
+				if(message != null && message.getBody() != null && message.getBody().length > 0)
+					this.keyedMessages.add(new KeyedMessage<byte[], byte[]>(this.topicId, message.getBody()));
+			}
+			
+			if(!this.keyedMessages.isEmpty()) {
+				this.kafkaProducer.send(this.keyedMessages);
+				this.messageCounter += this.keyedMessages.size();
+				if(callback != null)
+					callback.onCompletion(this.keyedMessages.size());
+			}
+		} catch(Exception e) {
+			if(callback != null)
+				callback.onFailure(this.keyedMessages.size(), e);
+			else
+				logger.error("Failed to send messages to kafka topic [id="+id+", topic="+topicId+"]. Reason: "+e.getMessage());
+		} finally {
+			this.keyedMessages.clear();
+		}
+	}
+
+	/**
+	 * The kafka producer hands over messages on {@link #onMessages(StreamingDataMessage[], int, EmitterCallback)} already. If 
+	 * configured to run asynchronously it sends buffered messages on its own schedule, thus there is nothing to flush
+	 * @see com.ottogroup.bi.spqr.pipeline.component.emitter.BatchEmitter#flush()
+	 */
+	public void flush() {
+		// nothing to do
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.emitter.Emitter#getTotalNumOfMessages()
 	 */
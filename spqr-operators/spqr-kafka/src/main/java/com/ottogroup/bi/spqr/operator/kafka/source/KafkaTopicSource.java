@@ -39,16 +39,18 @@ import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
 import com.ottogroup.bi.spqr.pipeline.component.annotation.SPQRComponent;
 import com.ottogroup.bi.spqr.pipeline.component.source.IncomingMessageCallback;
-import com.ottogroup.bi.spqr.pipeline.component.source.Source;
+import com.ottogroup.bi.spqr.pipeline.component.source.PausableSource;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 
 /**
- * Consumes data from a specific {@link http://kafka.apache.org kafka topic} 
+ * Consumes data from a specific {@link http://kafka.apache.org kafka topic}. While being paused, the source stops
+ * reading from its internal queue. As soon as the queue is full, the partition consumers block and stop fetching from kafka.
+ * Messages carry the kafka key, partition and offset inside their {@link StreamingDataMessage#getHeader() header}.
  * @author mnxfst
  * @since May 6, 2015
  */
 @SPQRComponent(type=MicroPipelineComponentType.SOURCE, name="kafkaSource", version="0.0.1", description="Kafka topic source")
-public class KafkaTopicSource implements Source {
+public class KafkaTopicSource implements PausableSource {
 
 	/** our faithful logging facility ... ;-) */	
 	private final static Logger logger = Logger.getLogger(KafkaTopicSource.class);
@@ -92,6 +94,8 @@ public class KafkaTopicSource implements Source {
 	
 	public static final String KAFKA_AUTO_OFFSET_RESET_TYPE_LARGEST = "largest";
 	public static final String KAFKA_AUTO_OFFSET_RESET_TYPE_SMALLEST = "smallest";
+	/** interval applied for checking whether a paused source has been resumed */
+	private static final long PAUSE_CHECK_INTERVAL_MILLIS = 10;
 
 	/** externally provided executor service used as runtime environment for partition consumers */
 	private ExecutorService executorService = null;
@@ -100,9 +104,9 @@ public class KafkaTopicSource implements Source {
 	/** kafka topic client - establishes and manages the connection with a kafak topic */
 	private ConsumerConnector kafkaConsumerConnector = null;
 	/** message queue used to send incoming messages from partition consumers to websocket emitter */
-	private OneToOneConcurrentArrayQueue3<byte[]> messages;
+	private OneToOneConcurrentArrayQueue3<StreamingDataMessage> messages;
 	/** wait strategy applied on queue */
-	private MessageWaitStrategy<byte[]> messageWaitStrategy;
+	private MessageWaitStrategy<StreamingDataMessage> messageWaitStrategy;
 
 	///////////////////////////////////////////////////////////////////////////////////
 	// configuration values
@@ -134,6 +138,8 @@ public class KafkaTopicSource implements Source {
 	private IncomingMessageCallback messageCallback;
 	/** indicates whether the source is still running or already shut down */
 	private boolean isRunning = false;
+	/** indicates whether the source is paused due to backpressure */
+	private volatile boolean paused = false;
 	///////////////////////////////////////////////////////////////////////////////////
 
 
@@ -261,8 +267,8 @@ public class KafkaTopicSource implements Source {
 		// create a fixed thread pool which has capacity for number of available streams 
 		this.executorService = Executors.newFixedThreadPool(streams.size());
 		
-		this.messages = new OneToOneConcurrentArrayQueue3<byte[]>(internalQueueCapacity);
-		this.messageWaitStrategy = new BlockingWaitStrategy();
+		this.messages = new OneToOneConcurrentArrayQueue3<StreamingDataMessage>(internalQueueCapacity);
+		this.messageWaitStrategy = new BlockingWaitStrategy<>();
 		
 		// iterate through streams and assign each to a partition reader
 		for(KafkaStream<byte[], byte[]> kafkaStream : streams) {
@@ -285,15 +291,19 @@ public class KafkaTopicSource implements Source {
 	public void run() {
 		while(isRunning) {
 			// fetch message from queue via provided wait strategy
-			byte[] message = null;
+			StreamingDataMessage message = null;
 			try {
+				if(this.paused) {
+					Thread.sleep(PAUSE_CHECK_INTERVAL_MILLIS);
+					continue;
+				}
 				message = this.messageWaitStrategy.waitFor(messages);
 			} catch(InterruptedException e) {
 				// 
 			}
 			
-			if(message != null && message.length > 0) {
-				this.messageCallback.onMessage(new StreamingDataMessage(message, System.currentTimeMillis()));
+			if(message != null && message.getBodyLength() > 0) {
+				this.messageCallback.onMessage(message);
 			} 
 		}
 	}
@@ -306,6 +316,20 @@ public class KafkaTopicSource implements Source {
 		return true;
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.source.PausableSource#pause()
+	 */
+	public void pause() {
+		this.paused = true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.source.PausableSource#resume()
+	 */
+	public void resume() {
+		this.paused = false;
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.source.Source#setIncomingMessageCallback(com.ottogroup.bi.spqr.pipeline.component.source.IncomingMessageCallback)
 	 */
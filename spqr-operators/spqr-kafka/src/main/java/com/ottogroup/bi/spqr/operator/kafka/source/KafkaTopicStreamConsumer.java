@@ -15,8 +15,12 @@
  */
 package com.ottogroup.bi.spqr.operator.kafka.source;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessageHeader;
+
 import kafka.consumer.ConsumerIterator;
 import kafka.consumer.KafkaStream;
 import kafka.message.MessageAndMetadata;
@@ -24,7 +28,9 @@ import uk.co.real_logic.queues.MessageWaitStrategy;
 import uk.co.real_logic.queues.OneToOneConcurrentArrayQueue3;
 
 /**
- * Reads content from an assigned {@link KafkaStream} and writes the data to a provided queue.   
+ * Reads content from an assigned {@link KafkaStream} and writes the data to a provided queue. Each message carries a
+ * {@link StreamingDataMessageHeader header} holding the kafka message key, partition and offset. If the queue is full, eg. as the 
+ * source is paused, the consumer blocks until the queue gets drained and stops fetching from kafka meanwhile.
  * @author mnxfst
  * @since Apr 20, 2015
  */
@@ -33,11 +39,13 @@ public class KafkaTopicStreamConsumer implements Runnable {
 	/** stream instance to read messages from */
 	private final KafkaStream<byte[], byte[]> kafkaTopicPartitionStream;
 	/** externally provided queue to use for exchanging messages with underlying kafka emitter */
-	private final OneToOneConcurrentArrayQueue3<byte[]> messages;
+	private final OneToOneConcurrentArrayQueue3<StreamingDataMessage> messages;
 	/** indicates whether the consumer is running or not */
-	private boolean running = false;
+	private volatile boolean running = false;
 	private static final int RETRIES = 200;
-	private final MessageWaitStrategy<byte[]> messageWaitStrategy;
+	/** time to back off before trying again to insert a message into a full queue */
+	private static final long FULL_QUEUE_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private final MessageWaitStrategy<StreamingDataMessage> messageWaitStrategy;
 
 	/**
 	 * Initializes the partition consumer using the provided input
@@ -46,7 +54,7 @@ public class KafkaTopicStreamConsumer implements Runnable {
 	 * @param messageWaitStrategy optional wait strategy applied when consuming data from queue. if provided it may be used to signal new elements 
 	 */
 	public KafkaTopicStreamConsumer(final KafkaStream<byte[], byte[]> kafkaTopicStream, 
-			final OneToOneConcurrentArrayQueue3<byte[]> messages, final MessageWaitStrategy<byte[]> messageWaitStrategy)  {
+			final OneToOneConcurrentArrayQueue3<StreamingDataMessage> messages, final MessageWaitStrategy<StreamingDataMessage> messageWaitStrategy)  {
 		this.kafkaTopicPartitionStream = kafkaTopicStream;
 		this.messages = messages;
 		this.messageWaitStrategy = messageWaitStrategy;
@@ -75,13 +83,34 @@ public class KafkaTopicStreamConsumer implements Runnable {
 			if(message != null && message.message() != null && message.message().length > 0) {
 				// if the message is neither null nor empty, insert it into the queue and signal the wait strategy to 
 				// release any existing locks -- if there is a wait strategy provided at all
-				this.messages.add(message.message());
+				final StreamingDataMessage streamingDataMessage = new StreamingDataMessage(message.message(), System.currentTimeMillis(), 
+						new StreamingDataMessageHeader(message.key(), message.partition(), message.offset()));
+				if(!insert(streamingDataMessage))
+					return;
 				if(messageWaitStrategy != null)
 					messageWaitStrategy.forceLockRelease();
 			}
 		}
 	}
 	
+	/**
+	 * Inserts the given message into the queue. While the queue is full the consumer backs off and tries again, thus
+	 * it stops fetching further messages from kafka until the queue gets drained
+	 * @param message
+	 * @return true if the message was inserted, false if the consumer was shut down while waiting
+	 */
+	protected boolean insert(final StreamingDataMessage message) {
+		while(!this.messages.offer(message)) {
+			if(!running)
+				return false;
+			// wake up a waiting reader which may have missed the previous signal 
+			if(messageWaitStrategy != null)
+				messageWaitStrategy.forceLockRelease();
+			LockSupport.parkNanos(FULL_QUEUE_BACKOFF_NANOS);
+		}
+		return true;
+	}
+	
 	/**
 	 * Simple wait strategy to avoid CPU overload scenarios due to active waiting for nothing
 	 * @param counter
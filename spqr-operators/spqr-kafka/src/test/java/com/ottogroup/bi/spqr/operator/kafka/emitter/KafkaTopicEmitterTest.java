@@ -15,6 +15,7 @@
  */
 package com.ottogroup.bi.spqr.operator.kafka.emitter;
 
+import java.util.List;
 import java.util.Properties;
 
 import kafka.javaapi.producer.Producer;
@@ -24,8 +25,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
+import com.ottogroup.bi.spqr.pipeline.component.emitter.EmitterCallback;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 
 /**
@@ -245,4 +249,60 @@ public class KafkaTopicEmitterTest {
 		Assert.assertEquals("Values must be equal", 1, emitter.getTotalNumOfMessages());
 	}
 		
+	/**
+	 * Test case for {@link KafkaTopicEmitter#onMessages(StreamingDataMessage[], int, EmitterCallback)} being provided a batch 
+	 * holding valid and empty messages. All valid messages must be sent by a single call and reported as completed 
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testOnMessages_withValidMessages() throws Exception {
+		Producer<byte[], byte[]> producer = Mockito.mock(Producer.class);
+		final int[] sentMessages = new int[1];
+		Mockito.doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				sentMessages[0] += ((List<KeyedMessage<byte[], byte[]>>)invocation.getArguments()[0]).size();
+				return null;
+			}
+		}).when(producer).send(Mockito.anyList());
+		KafkaTopicEmitter emitter = new KafkaTopicEmitter();
+		emitter.setId("testOnMessages_withValidMessages");
+		emitter.setProducer(producer);
+		emitter.initialize(defaultProperties);
+		
+		StreamingDataMessage[] messages = new StreamingDataMessage[]{
+				new StreamingDataMessage("first".getBytes(), System.currentTimeMillis()),
+				new StreamingDataMessage("".getBytes(), System.currentTimeMillis()),
+				new StreamingDataMessage("second".getBytes(), System.currentTimeMillis()),
+				new StreamingDataMessage("not-part-of-batch".getBytes(), System.currentTimeMillis())};
+		EmitterCallback callback = Mockito.mock(EmitterCallback.class);
+		emitter.onMessages(messages, 3, callback);
+		
+		Mockito.verify(producer, Mockito.times(1)).send(Mockito.anyList());
+		Assert.assertEquals("Values must be equal", 2, sentMessages[0]);
+		Assert.assertEquals("Values must be equal", 2, emitter.getTotalNumOfMessages());
+		Mockito.verify(callback).onCompletion(2);
+	}
+	
+	/**
+	 * Test case for {@link KafkaTopicEmitter#onMessages(StreamingDataMessage[], int, EmitterCallback)} where the producer fails
+	 * to send the batch. The failure must be reported via callback
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testOnMessages_withFailingProducer() throws Exception {
+		Producer<byte[], byte[]> producer = Mockito.mock(Producer.class);
+		RuntimeException error = new RuntimeException("failed");
+		Mockito.doThrow(error).when(producer).send(Mockito.anyList());
+		KafkaTopicEmitter emitter = new KafkaTopicEmitter();
+		emitter.setId("testOnMessages_withFailingProducer");
+		emitter.setProducer(producer);
+		emitter.initialize(defaultProperties);
+		
+		EmitterCallback callback = Mockito.mock(EmitterCallback.class);
+		emitter.onMessages(new StreamingDataMessage[]{new StreamingDataMessage("first".getBytes(), System.currentTimeMillis())}, 1, callback);
+		Assert.assertEquals("Values must be equal", 0, emitter.getTotalNumOfMessages());
+		Mockito.verify(callback).onFailure(1, error);
+		Mockito.verify(callback, Mockito.never()).onCompletion(Mockito.anyInt());
+	}
+		
 }
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2015 Otto (GmbH & Co KG)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ottogroup.bi.spqr.operator.kafka.source;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import kafka.consumer.ConsumerIterator;
+import kafka.consumer.KafkaStream;
+import kafka.message.MessageAndMetadata;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import uk.co.real_logic.queues.OneToOneConcurrentArrayQueue3;
+
+import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
+
+/**
+ * Test case for {@link KafkaTopicStreamConsumer}
+ * @author mnxfst
+ * @since Oct 18, 2026
+ */
+public class KafkaTopicStreamConsumerTest {
+
+	/**
+	 * Test case for {@link KafkaTopicStreamConsumer#run()} being provided more messages than the
+	 * internal queue is able to hold while no one drains it (eg. paused source) which must block the consumer
+	 * instead of failing. Once the queue gets drained, all messages must be received in order 
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testRun_withPausedSourceAndSmallQueueCapacity() throws Exception {
+		
+		final int numOfMessages = 10;
+		final int queueCapacity = 2;
+		MessageAndMetadata<byte[], byte[]>[] kafkaMessages = new MessageAndMetadata[numOfMessages];
+		for(int i = 0; i < numOfMessages; i++) {
+			kafkaMessages[i] = Mockito.mock(MessageAndMetadata.class);
+			Mockito.when(kafkaMessages[i].message()).thenReturn(("message-" + i).getBytes());
+			Mockito.when(kafkaMessages[i].key()).thenReturn(("key-" + i).getBytes());
+			Mockito.when(kafkaMessages[i].partition()).thenReturn(0);
+			Mockito.when(kafkaMessages[i].offset()).thenReturn(Long.valueOf(i));
+		}
+		
+		ConsumerIterator<byte[], byte[]> iterator = Mockito.mock(ConsumerIterator.class);
+		Mockito.when(iterator.hasNext()).thenReturn(true);
+		Mockito.when(iterator.next()).thenReturn(kafkaMessages[0], Arrays.copyOfRange(kafkaMessages, 1, numOfMessages)).thenReturn(null);
+		KafkaStream<byte[], byte[]> stream = Mockito.mock(KafkaStream.class);
+		Mockito.when(stream.iterator()).thenReturn(iterator);
+		
+		OneToOneConcurrentArrayQueue3<StreamingDataMessage> queue = new OneToOneConcurrentArrayQueue3<StreamingDataMessage>(queueCapacity);
+		KafkaTopicStreamConsumer consumer = new KafkaTopicStreamConsumer(stream, queue, null);
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> consumerFuture = executor.submit(consumer);
+			
+			// wait for the consumer to fill up the queue -- it must neither fail nor fetch further messages from kafka 
+			long timeout = System.currentTimeMillis() + 5000;
+			while(queue.size() < queueCapacity && System.currentTimeMillis() < timeout)
+				Thread.sleep(5);
+			Thread.sleep(50);
+			Assert.assertEquals("Values must be equal", queueCapacity, queue.size());
+			Assert.assertFalse("The consumer must still be running", consumerFuture.isDone());
+			Mockito.verify(iterator, Mockito.times(queueCapacity + 1)).next();
+			
+			// resume: drain the queue and ensure that no message got lost
+			for(int i = 0; i < numOfMessages; i++) {
+				StreamingDataMessage message = null;
+				timeout = System.currentTimeMillis() + 5000;
+				while((message = queue.poll()) == null && System.currentTimeMillis() < timeout)
+					Thread.sleep(1);
+				Assert.assertNotNull("The message must not be null", message);
+				Assert.assertEquals("Values must be equal", "message-" + i, new String(message.getBody()));
+				Assert.assertEquals("Values must be equal", i, message.getHeader().getSourceOffset());
+			}
+			
+			consumer.shutdown();
+			consumerFuture.get(5, TimeUnit.SECONDS);
+		} finally {
+			consumer.shutdown();
+			executor.shutdownNow();
+		}
+	}
+	
+}
@@ -30,7 +30,7 @@ import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
 import com.ottogroup.bi.spqr.pipeline.component.annotation.SPQRComponent;
 import com.ottogroup.bi.spqr.pipeline.component.source.IncomingMessageCallback;
-import com.ottogroup.bi.spqr.pipeline.component.source.Source;
+import com.ottogroup.bi.spqr.pipeline.component.source.PausableSource;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 import com.twitter.hbc.ClientBuilder;
 import com.twitter.hbc.core.Constants;
@@ -50,7 +50,7 @@ import com.twitter.hbc.httpclient.auth.OAuth1;
  * TODO provide wait strategy which does not consume all available cpu resources
  */
 @SPQRComponent(type=MicroPipelineComponentType.SOURCE, name="twitterSource", version="0.0.1", description="Consumes Twitter streaming API")
-public class TwitterStreamSource implements Source {
+public class TwitterStreamSource implements PausableSource {
 
 	/** our faithful logging facility ... ;-) */
 	private static final Logger logger = Logger.getLogger(TwitterStreamSource.class);
@@ -96,6 +96,8 @@ public class TwitterStreamSource implements Source {
 	private final BlockingQueue<Event> eventMessageQueue = new LinkedBlockingQueue<Event>(100000);
 	/** indicates whether the source is still running */
 	private boolean running = false;
+	/** indicates whether the source is paused due to backpressure - the client keeps on receiving until the internal queue is full */
+	private volatile boolean paused = false;
 	/** counts the number of messages processed so far */
 	private long messageCount = 0;
 	//
@@ -215,6 +217,10 @@ public class TwitterStreamSource implements Source {
 		// keep on consuming until either the consumer or the client is interrupted  
 		while(this.running && !this.twitterClient.isDone()) {
 			try {
+				if(this.paused) {
+					Thread.sleep(100);
+					continue;
+				}
 				String msg = streamMessageQueue.poll(100, TimeUnit.MILLISECONDS);
 				if(msg != null) {
 					this.incomingMessageCallback.onMessage(new StreamingDataMessage(msg.getBytes(), System.currentTimeMillis()));
@@ -239,6 +245,20 @@ public class TwitterStreamSource implements Source {
 			logger.debug("twitter stream consumer received " + this.messageCount + " messages");
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.source.PausableSource#pause()
+	 */
+	public void pause() {
+		this.paused = true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.source.PausableSource#resume()
+	 */
+	public void resume() {
+		this.paused = false;
+	}
+
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#getType()
 	 */
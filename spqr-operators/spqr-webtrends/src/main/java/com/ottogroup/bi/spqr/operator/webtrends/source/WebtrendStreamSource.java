@@ -38,7 +38,7 @@ import com.ottogroup.bi.spqr.exception.RequiredInputMissingException;
 import com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponentType;
 import com.ottogroup.bi.spqr.pipeline.component.annotation.SPQRComponent;
 import com.ottogroup.bi.spqr.pipeline.component.source.IncomingMessageCallback;
-import com.ottogroup.bi.spqr.pipeline.component.source.Source;
+import com.ottogroup.bi.spqr.pipeline.component.source.PausableSource;
 import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
 
 /**
@@ -51,7 +51,7 @@ import com.ottogroup.bi.spqr.pipeline.message.StreamingDataMessage;
  */
 @SPQRComponent(type=MicroPipelineComponentType.SOURCE, name="webtrendsSource", version="0.0.1", description="Consumes the webtrends streams api")
 @WebSocket
-public class WebtrendStreamSource implements Source {
+public class WebtrendStreamSource implements PausableSource {
 
 	private static final Logger logger = Logger.getLogger(WebtrendStreamSource.class);
 
@@ -96,6 +96,8 @@ public class WebtrendStreamSource implements Source {
 	private final BlockingQueue<String> streamMessageQueue = new LinkedBlockingQueue<String>(100000);
 	/** run state */
 	private boolean isRunning = false;
+	/** indicates whether the source is paused due to backpressure - the socket keeps on receiving until the internal queue is full */
+	private volatile boolean paused = false;
 
 	/**
 	 * @see com.ottogroup.bi.spqr.pipeline.component.MicroPipelineComponent#initialize(java.util.Properties)
@@ -188,6 +190,10 @@ public class WebtrendStreamSource implements Source {
 		// keep on consuming until either the consumer or the client is interrupted  
 		while(this.isRunning && this.websocketSession.isOpen()) {			
 			try {
+				if(this.paused) {
+					Thread.sleep(100);
+					continue;
+				}
 				String msg = streamMessageQueue.poll(100, TimeUnit.MILLISECONDS);
 				if(msg != null) {
 					this.incomingMessageCallback.onMessage(new StreamingDataMessage(msg.getBytes(), System.currentTimeMillis()));
@@ -204,6 +210,20 @@ public class WebtrendStreamSource implements Source {
 		logger.info("webtrends stream consumer received " + this.messageCount + " messages");
 	}
 
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.source.PausableSource#pause()
+	 */
+	public void pause() {
+		this.paused = true;
+	}
+
+	/**
+	 * @see com.ottogroup.bi.spqr.pipeline.component.source.PausableSource#resume()
+	 */
+	public void resume() {
+		this.paused = false;
+	}
+
 	/**
 	 * Executed after establishing web socket connection with streams api
 	 * @param session
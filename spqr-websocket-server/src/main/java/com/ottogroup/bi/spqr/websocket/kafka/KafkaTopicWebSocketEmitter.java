@@ -74,7 +74,7 @@ public class KafkaTopicWebSocketEmitter implements Runnable {
 			final String zookeeperConnect, final String groupId, final String topicId) {
 		this.websocketChannel = websocketChannel;
 		this.messages = new OneToOneConcurrentArrayQueue3<byte[]>(messageQueueCapacity);
-		this.messageWaitStrategy = new BlockingWaitStrategy();
+		this.messageWaitStrategy = new BlockingWaitStrategy<>();
 		this.executorService = executorService;
 		
 		this.zookeeperConnect = zookeeperConnect;